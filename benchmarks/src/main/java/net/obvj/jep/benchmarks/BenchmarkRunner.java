@@ -0,0 +1,50 @@
+package net.obvj.jep.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.openjdk.jmh.Main;
+
+/**
+ * Runs the benchmarks with the command-line options of JMH's {@link Main} class, writing
+ * the results in JSON format to {@code jmh-result.json} unless another result format is
+ * specified with the {@code -rf} option, so that they can be tracked for regressions.
+ * <p>
+ * Examples:
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar
+ * java -jar target/benchmarks.jar StatisticsBenchmark -p size=1000000 -rff stats.json
+ * java -jar target/benchmarks.jar -rf text
+ * </pre>
+ *
+ * @author oswaldo.bapvic.jr
+ * @since 1.0.8
+ */
+public final class BenchmarkRunner
+{
+    private static final String RESULT_FORMAT_OPTION = "-rf";
+    private static final String DEFAULT_RESULT_FORMAT = "json";
+
+    private BenchmarkRunner()
+    {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * @param args the command-line options of JMH
+     * @throws Exception if the benchmarks cannot be run
+     */
+    public static void main(String[] args) throws Exception
+    {
+        List<String> options = new ArrayList<>(Arrays.asList(args));
+        if (!options.contains(RESULT_FORMAT_OPTION))
+        {
+            options.add(0, RESULT_FORMAT_OPTION);
+            options.add(1, DEFAULT_RESULT_FORMAT);
+        }
+        Main.main(options.toArray(new String[0]));
+    }
+
+}
@@ -0,0 +1,85 @@
+package net.obvj.jep.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import net.obvj.jep.util.BoundedCache;
+import net.obvj.jep.util.DateUtils;
+import net.obvj.jep.util.RegexUtils;
+
+/**
+ * Measures cache hits on a {@link BoundedCache} shared by all benchmark threads, and on
+ * the caches of regular expressions and date formats. Run with {@code -t} greater than
+ * one to measure contention between threads.
+ *
+ * @author oswaldo.bapvic.jr
+ * @since 1.0.8
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheBenchmark
+{
+    private static final int KEY_COUNT = 256;
+    private static final String[] KEYS = new String[KEY_COUNT];
+    private static final String[] PATTERNS = { "\\d+", "^[A-Z]{3}$", "\\s+", "[a-z]+@[a-z]+\\.com" };
+    private static final String[] DATE_PATTERNS = { "yyyy-MM-dd", "dd/MM/yyyy", "yyyy-MM-dd HH:mm:ss" };
+
+    static
+    {
+        for (int i = 0; i < KEY_COUNT; i++)
+        {
+            KEYS[i] = "key" + i;
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class SharedCache
+    {
+        private BoundedCache<String, String> cache;
+
+        @Setup
+        public void setup()
+        {
+            cache = new BoundedCache<>(KEY_COUNT);
+            for (String key : KEYS)
+            {
+                cache.put(key, key.toUpperCase());
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor
+    {
+        private int index;
+
+        int next(int length)
+        {
+            index = (index + 1) % length;
+            return index;
+        }
+    }
+
+    @Benchmark
+    public Object boundedCacheHit(SharedCache shared, Cursor cursor)
+    {
+        return shared.cache.getIfPresent(KEYS[cursor.next(KEY_COUNT)]);
+    }
+
+    @Benchmark
+    public Object regexCacheHit(Cursor cursor)
+    {
+        return RegexUtils.compilePattern(PATTERNS[cursor.next(PATTERNS.length)]);
+    }
+
+    @Benchmark
+    public Object dateFormatCacheHit(Cursor cursor)
+    {
+        return DateUtils.getDateFormat(DATE_PATTERNS[cursor.next(DATE_PATTERNS.length)]);
+    }
+
+}
@@ -0,0 +1,78 @@
+package net.obvj.jep.benchmarks;
+
+import java.util.Date;
+import java.util.Stack;
+import java.util.concurrent.TimeUnit;
+
+import org.nfunk.jep.ParseException;
+import org.openjdk.jmh.annotations.*;
+
+import net.obvj.jep.functions.DateAwareComparative;
+
+/**
+ * Measures the {@link DateAwareComparative} operator on numbers, numeric strings, dates
+ * and date strings.
+ *
+ * @author oswaldo.bapvic.jr
+ * @since 1.0.8
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ComparativeBenchmark
+{
+    /**
+     * The identifier of the "greater than" operator in JEP's Comparative command
+     */
+    private static final int GT = 1;
+
+    private final DateAwareComparative comparative = new DateAwareComparative(GT);
+    private final Stack<Object> stack = new Stack<>();
+
+    private final Double number1 = 1.5;
+    private final Double number2 = 2.5;
+    private final Date date1 = new Date(1_600_000_000_000L);
+    private final Date date2 = new Date(1_600_000_000_001L);
+
+    private Object compare(Object parameter1, Object parameter2) throws ParseException
+    {
+        stack.push(parameter1);
+        stack.push(parameter2);
+        comparative.run(stack);
+        return stack.pop();
+    }
+
+    @Benchmark
+    public Object numbers() throws ParseException
+    {
+        return compare(number1, number2);
+    }
+
+    @Benchmark
+    public Object numericStrings() throws ParseException
+    {
+        return compare("1.5", "2.5");
+    }
+
+    @Benchmark
+    public Object dates() throws ParseException
+    {
+        return compare(date1, date2);
+    }
+
+    @Benchmark
+    public Object rfc3339Strings() throws ParseException
+    {
+        return compare("2020-09-13T12:26:40.000Z", "2020-09-13T12:26:40.001Z");
+    }
+
+    @Benchmark
+    public Object iso8601Strings() throws ParseException
+    {
+        return compare("2020-09-13 12:26:40-03:00", "2020-09-13T12:26:40+0100");
+    }
+
+}
@@ -0,0 +1,44 @@
+package net.obvj.jep.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.nfunk.jep.JEP;
+import org.openjdk.jmh.annotations.*;
+
+import net.obvj.jep.JEPContextFactory;
+import net.obvj.jep.NamedPackage;
+
+/**
+ * Measures the creation of JEP contexts by {@link JEPContextFactory}, for each
+ * {@link NamedPackage} and for all of them.
+ *
+ * @author oswaldo.bapvic.jr
+ * @since 1.0.8
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContextCreationBenchmark
+{
+    /**
+     * All the constants of the enum are benchmarked if not specified otherwise.
+     */
+    @Param
+    public NamedPackage namedPackage;
+
+    @Benchmark
+    public JEP newContextWithPackage()
+    {
+        return JEPContextFactory.newContext(namedPackage);
+    }
+
+    @Benchmark
+    public JEP newContextWithAllPackages()
+    {
+        return JEPContextFactory.newContext();
+    }
+
+}
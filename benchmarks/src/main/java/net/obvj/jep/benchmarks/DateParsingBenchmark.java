@@ -0,0 +1,57 @@
+package net.obvj.jep.benchmarks;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import net.obvj.jep.util.DateUtils;
+
+/**
+ * Measures {@link DateUtils#parseDate(Object)} for each of the supported date formats,
+ * with and without the cache of parsed dates, and {@link DateUtils#tryParseDate(Object)}
+ * for strings that are not dates.
+ *
+ * @author oswaldo.bapvic.jr
+ * @since 1.0.8
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DateParsingBenchmark
+{
+    @Param({ "2021-03-04T10:15:30.123Z", "2021-03-04T10:15:30.123456789-03:00", "2021-03-04 10:15:30.123+03:00",
+            "2021-03-04", "2021-03-04T10:15:30.123+0300" })
+    public String date;
+
+    @Param({ "0", "1024" })
+    public int dateCacheMaxSize;
+
+    @Setup
+    public void setup()
+    {
+        DateUtils.setDateCacheMaxSize(dateCacheMaxSize);
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        DateUtils.setDateCacheMaxSize(DateUtils.DEFAULT_DATE_CACHE_MAX_SIZE);
+    }
+
+    @Benchmark
+    public Date parseDate()
+    {
+        return DateUtils.parseDate((Object) date);
+    }
+
+    @Benchmark
+    public Date tryParseNonDate()
+    {
+        return DateUtils.tryParseDate("order 12345");
+    }
+
+}
@@ -0,0 +1,60 @@
+package net.obvj.jep.benchmarks;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.nfunk.jep.ParseException;
+import org.openjdk.jmh.annotations.*;
+
+import net.obvj.jep.CompiledExpression;
+import net.obvj.jep.ExpressionEvaluator;
+
+/**
+ * Compares the evaluation of expressions parsed at every call by
+ * {@link ExpressionEvaluator} with the evaluation of {@link CompiledExpression}s.
+ *
+ * @author oswaldo.bapvic.jr
+ * @since 1.0.8
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExpressionEvaluatorBenchmark
+{
+    @Param({ "x + y * 2 > 10", "upper(concat(name, \"-\", x))",
+            "date > \"2020-01-01T00:00:00Z\" && month(date) == 3", "if(isEmpty(name), 0, count(split(name, \",\")))" })
+    public String expression;
+
+    private ExpressionEvaluator evaluator;
+    private CompiledExpression compiledExpression;
+    private Map<String, Object> variables;
+
+    @Setup
+    public void setup()
+    {
+        evaluator = new ExpressionEvaluator(expression);
+        compiledExpression = evaluator.compile();
+        variables = new HashMap<>();
+        variables.put("x", 3);
+        variables.put("y", 4.5);
+        variables.put("name", "alpha,beta,gamma");
+        variables.put("date", "2021-03-04T10:15:30.123Z");
+    }
+
+    @Benchmark
+    public Object evaluate() throws ParseException
+    {
+        return evaluator.evaluate(variables);
+    }
+
+    @Benchmark
+    public Object evaluateCompiled() throws ParseException
+    {
+        return compiledExpression.evaluate(variables);
+    }
+
+}
@@ -0,0 +1,68 @@
+package net.obvj.jep.benchmarks;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONObject;
+import org.nfunk.jep.ParseException;
+import org.openjdk.jmh.annotations.*;
+
+import net.obvj.jep.CompiledExpression;
+
+/**
+ * Measures the {@code jsonpath} function on JSON strings and on parsed JSON objects with
+ * a given number of items.
+ *
+ * @author oswaldo.bapvic.jr
+ * @since 1.0.8
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JsonPathBenchmark
+{
+    @Param({ "10", "10000" })
+    public int size;
+
+    @Param({ "$.items[0].name", "$.items[*].price", "$.items[?(@.price > 50)].name" })
+    public String path;
+
+    private CompiledExpression expression;
+    private Map<String, Object> stringVariables;
+    private Map<String, Object> objectVariables;
+
+    @Setup
+    public void setup()
+    {
+        StringBuilder json = new StringBuilder("{\"items\": [");
+        for (int i = 0; i < size; i++)
+        {
+            json.append(i == 0 ? "" : ", ").append("{\"name\": \"item").append(i).append("\", \"price\": ")
+                    .append(i % 100).append('}');
+        }
+        json.append("]}");
+
+        expression = new CompiledExpression("jsonpath(json, \"" + path + "\")");
+        stringVariables = new HashMap<>();
+        stringVariables.put("json", json.toString());
+        objectVariables = new HashMap<>();
+        objectVariables.put("json", new JSONObject(json.toString()));
+    }
+
+    @Benchmark
+    public Object jsonString() throws ParseException
+    {
+        return expression.evaluate(stringVariables);
+    }
+
+    @Benchmark
+    public Object jsonObject() throws ParseException
+    {
+        return expression.evaluate(objectVariables);
+    }
+
+}
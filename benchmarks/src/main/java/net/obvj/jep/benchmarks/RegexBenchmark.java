@@ -0,0 +1,57 @@
+package net.obvj.jep.benchmarks;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.nfunk.jep.ParseException;
+import org.openjdk.jmh.annotations.*;
+
+import net.obvj.jep.CompiledExpression;
+
+/**
+ * Measures the regular expression functions, with literal patterns, which are
+ * precompiled, and with patterns held by variables.
+ *
+ * @author oswaldo.bapvic.jr
+ * @since 1.0.8
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RegexBenchmark
+{
+    @Param({ "matches(text, %s)", "findMatch(text, %s)", "findMatches(text, %s)", "split(text, %s)",
+            "replaceRegex(text, %s, \"#\")" })
+    public String function;
+
+    private CompiledExpression literalPatternExpression;
+    private CompiledExpression variablePatternExpression;
+    private Map<String, Object> variables;
+
+    @Setup
+    public void setup()
+    {
+        literalPatternExpression = new CompiledExpression(String.format(function, "\"\\\\d+\""));
+        variablePatternExpression = new CompiledExpression(String.format(function, "pattern"));
+        variables = new HashMap<>();
+        variables.put("text", "order 12345 shipped in 3 boxes on 2021-03-04");
+        variables.put("pattern", "\\d+");
+    }
+
+    @Benchmark
+    public Object literalPattern() throws ParseException
+    {
+        return literalPatternExpression.evaluate(variables);
+    }
+
+    @Benchmark
+    public Object variablePattern() throws ParseException
+    {
+        return variablePatternExpression.evaluate(variables);
+    }
+
+}
@@ -0,0 +1,82 @@
+package net.obvj.jep.benchmarks;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONArray;
+import org.nfunk.jep.ParseException;
+import org.openjdk.jmh.annotations.*;
+
+import net.obvj.jep.CompiledExpression;
+
+/**
+ * Measures the statistics and collection functions on large arrays of doubles, held as
+ * primitive arrays, lists and JSON arrays.
+ *
+ * @author oswaldo.bapvic.jr
+ * @since 1.0.8
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class StatisticsBenchmark
+{
+    /**
+     * The types of containers holding the values
+     */
+    public enum Container
+    {
+        PRIMITIVE_ARRAY, LIST, JSON_ARRAY
+    }
+
+    @Param({ "1000", "1000000" })
+    public int size;
+
+    @Param({ "avg(values)", "max(values)", "min(values)", "count(values)", "distinct(values)",
+            "get(values, 500)" })
+    public String expression;
+
+    @Param
+    public Container container;
+
+    private CompiledExpression compiledExpression;
+    private Map<String, Object> variables;
+
+    @Setup
+    public void setup()
+    {
+        Random random = new Random(42);
+        double[] values = new double[size];
+        for (int i = 0; i < size; i++)
+        {
+            // Repeated values, as in lists of identifiers
+            values[i] = random.nextInt(Math.max(1, size / 2));
+        }
+
+        compiledExpression = new CompiledExpression(expression);
+        variables = new HashMap<>();
+        switch (container)
+        {
+            case PRIMITIVE_ARRAY:
+                variables.put("values", values);
+                break;
+            case LIST:
+                List<Double> list = new ArrayList<>(size);
+                Arrays.stream(values).forEach(list::add);
+                variables.put("values", list);
+                break;
+            default:
+                variables.put("values", new JSONArray(values));
+        }
+    }
+
+    @Benchmark
+    public Object evaluate() throws ParseException
+    {
+        return compiledExpression.evaluate(variables);
+    }
+
+}
@@ -0,0 +1,57 @@
+package net.obvj.jep.benchmarks;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.nfunk.jep.ParseException;
+import org.openjdk.jmh.annotations.*;
+
+import net.obvj.jep.CompiledExpression;
+
+/**
+ * Measures the {@code xpath} function on XML strings with a given number of items.
+ *
+ * @author oswaldo.bapvic.jr
+ * @since 1.0.8
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class XPathBenchmark
+{
+    @Param({ "10", "10000" })
+    public int size;
+
+    @Param({ "/items/item[1]/name/text()", "/items/item/price/text()", "/items/item[price > 90]/name/text()" })
+    public String path;
+
+    private CompiledExpression expression;
+    private Map<String, Object> variables;
+
+    @Setup
+    public void setup()
+    {
+        StringBuilder xml = new StringBuilder("<items>");
+        for (int i = 0; i < size; i++)
+        {
+            xml.append("<item><name>item").append(i).append("</name><price>").append(i % 100)
+                    .append("</price></item>");
+        }
+        xml.append("</items>");
+
+        expression = new CompiledExpression("xpath(xml, \"" + path + "\")");
+        variables = new HashMap<>();
+        variables.put("xml", xml.toString());
+    }
+
+    @Benchmark
+    public Object xpath() throws ParseException
+    {
+        return expression.evaluate(variables);
+    }
+
+}
@@ -0,0 +1,23 @@
+package net.obvj.jep;
+
+/**
+ * Enumerates the possible behaviors of a batch evaluation when the expression cannot be
+ * evaluated with one of the input records.
+ *
+ * @author oswaldo.bapvic.jr
+ * @since 1.0.8
+ */
+public enum BatchErrorPolicy
+{
+    /**
+     * Stops the batch at the first failure, discarding the remaining records, and throws
+     * the exception of the failed record.
+     */
+    FAIL_FAST,
+
+    /**
+     * Evaluates all records, collecting the exception of each failed record in the batch
+     * result.
+     */
+    CONTINUE;
+}
@@ -0,0 +1,60 @@
+package net.obvj.jep;
+
+import java.util.*;
+
+/**
+ * The outcome of a batch evaluation, containing the result of each input record, in the
+ * same order as the input, and the exceptions of the records that could not be
+ * evaluated.
+ *
+ * @author oswaldo.bapvic.jr
+ * @since 1.0.8
+ */
+public class BatchResult
+{
+    private final List<Object> results;
+    private final SortedMap<Integer, Exception> errors;
+
+    BatchResult(Object[] results, SortedMap<Integer, Exception> errors)
+    {
+        this.results = Collections.unmodifiableList(Arrays.asList(results));
+        this.errors = Collections.unmodifiableSortedMap(errors);
+    }
+
+    /**
+     * Returns the evaluation results, in the same order as the input records. The result
+     * of a failed record is {@code null}.
+     *
+     * @return an unmodifiable list with the evaluation results
+     */
+    public List<Object> getResults()
+    {
+        return results;
+    }
+
+    /**
+     * Returns the exceptions of the records that could not be evaluated, keyed by their
+     * positions in the input.
+     *
+     * @return an unmodifiable map of record positions and exceptions, sorted by position
+     */
+    public SortedMap<Integer, Exception> getErrors()
+    {
+        return errors;
+    }
+
+    /**
+     * @return {@code true} if at least one record could not be evaluated
+     */
+    public boolean hasErrors()
+    {
+        return !errors.isEmpty();
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("BatchResult [records=%s, errors=%s]", results.size(), errors.size());
+    }
+
+}
@@ -0,0 +1,234 @@
+package net.obvj.jep;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.apache.commons.lang3.StringUtils;
+import org.nfunk.jep.*;
+
+import net.obvj.jep.util.EvaluationScope;
+
+/**
+ * An expression that is parsed only once, at instantiation time, into a reusable node
+ * tree, and then evaluated against fresh variable bindings at runtime.
+ * <p>
+ * The per-call cost of {@link #evaluate(Map)} is limited to binding the variables to the
+ * symbol table of the evaluation context and walking the pre-built node tree, which
+ * makes this class suitable for expressions that are evaluated many times with
+ * different variables. Constant subexpressions are evaluated only once, and literal
+ * arguments, such as regular expressions, JSONPaths, XPaths and date patterns, are
+ * compiled only once, when the expression is parsed.
+ * <p>
+ * <strong>Note:</strong> Instances of this class keep a private JEP context whose
+ * functions and symbol table are stateful. For this reason, a single instance must not
+ * be evaluated by multiple threads concurrently.
+ *
+ * @author oswaldo.bapvic.jr
+ * @since 1.0.8
+ */
+public class CompiledExpression
+{
+    private final String expression;
+    private final JEP context;
+    private final Node node;
+
+    /**
+     * Parses the given expression into a new {@code CompiledExpression}.
+     *
+     * @param expression    the expression to be compiled
+     * @param namedPackages one or more packages which functions shall be available for the
+     *                      expression; if not specified, then all functions will be
+     *                      available
+     * @throws IllegalArgumentException if the expression is either empty or invalid
+     */
+    public CompiledExpression(String expression, NamedPackage... namedPackages)
+    {
+        if (StringUtils.isBlank(expression))
+        {
+            throw new IllegalArgumentException("The expression cannot be empty");
+        }
+        this.expression = expression;
+        this.context = JEPContextFactory.newContext(namedPackages);
+        this.node = ExpressionCompiler.compile(context, parse(context, expression));
+    }
+
+    private static Node parse(JEP context, String expression)
+    {
+        try
+        {
+            return context.parse(expression);
+        }
+        catch (ParseException | TokenMgrError exception)
+        {
+            throw new IllegalArgumentException("Invalid expression: " + expression, exception);
+        }
+    }
+
+    /**
+     * @return the source expression of this compiled expression
+     */
+    public String getExpression()
+    {
+        return expression;
+    }
+
+    /**
+     * Evaluates the compiled expression with a map of variables.
+     *
+     * @param variables the map of variables to be used for the evaluation
+     * @return the expression evaluation result given the input variables
+     * @throws ParseException if for some reason the expression could not be evaluated
+     */
+    public Object evaluate(Map<String, Object> variables) throws ParseException
+    {
+        return evaluate(variables, false);
+    }
+
+    /**
+     * Evaluates the compiled expression with a map of variables.
+     * <p>
+     * The evaluation runs within an {@link EvaluationScope}, so documents parsed from the
+     * same string are reused by all functions of the expression. Callers may open a wider
+     * scope to share them with other evaluations on the same thread.
+     *
+     * @param variables       the map of variables to be used for the evaluation
+     * @param updateSourceMap a flag indicating whether or not the initial variables map
+     *                        shall be updated with the evaluation results (default: false)
+     * @return the expression evaluation result given the input variables
+     * @throws ParseException if for some reason the expression could not be evaluated
+     */
+    public Object evaluate(Map<String, Object> variables, boolean updateSourceMap) throws ParseException
+    {
+        Map<String, Object> source = variables == null ? Collections.emptyMap() : variables;
+        SymbolTable symbolTable = context.getSymbolTable();
+        bindVariables(symbolTable, source);
+
+        Object result;
+        try (EvaluationScope scope = EvaluationScope.open())
+        {
+            result = context.evaluate(node);
+        }
+
+        if (updateSourceMap) updateExternalMap(variables, symbolTable);
+
+        return result;
+    }
+
+    /**
+     * Evaluates the compiled expression once for each map of variables of the given
+     * sequence, rebinding only the variables between evaluations.
+     *
+     * @param records the maps of variables to be used for the evaluations
+     * @return a list with the evaluation results, in the same order as the input maps
+     * @throws ParseException if for some reason the expression could not be evaluated with
+     *                        any of the input maps
+     */
+    public List<Object> evaluateAll(Iterable<? extends Map<String, Object>> records) throws ParseException
+    {
+        List<Object> results = records instanceof Collection
+                ? new ArrayList<>(((Collection<?>) records).size())
+                : new ArrayList<>();
+        for (Map<String, Object> variables : records)
+        {
+            results.add(evaluate(variables));
+        }
+        return results;
+    }
+
+    /**
+     * Evaluates the compiled expression once for each map of variables of the given
+     * sequence in profiling mode, accumulating the number of evaluations and the time
+     * spent in each node of the compiled node tree across all evaluations.
+     * <p>
+     * Since constant subexpressions are evaluated at compile time, they appear as
+     * constants in the resulting profile. Profiling adds overhead to every node, so this
+     * method is meant for diagnosing slow expressions, not for regular evaluations.
+     *
+     * @param records the maps of variables to be used for the evaluations
+     * @return the accumulated profile of the evaluations
+     * @throws ParseException if for some reason the expression could not be evaluated with
+     *                        any of the input maps
+     */
+    public ExpressionProfile profileAll(Iterable<? extends Map<String, Object>> records) throws ParseException
+    {
+        ExpressionProfile profile = new ExpressionProfile(expression, node);
+        ProfilingEvaluatorVisitor visitor = new ProfilingEvaluatorVisitor(profile);
+        SymbolTable symbolTable = context.getSymbolTable();
+        for (Map<String, Object> variables : records)
+        {
+            bindVariables(symbolTable, variables == null ? Collections.emptyMap() : variables);
+            try (EvaluationScope scope = EvaluationScope.open())
+            {
+                visitor.evaluate(node, symbolTable);
+            }
+        }
+        return profile;
+    }
+
+    /**
+     * Returns a lazy stream with the results of evaluating the compiled expression for each
+     * map of variables of the given stream, in the same order.
+     * <p>
+     * Records are evaluated one at a time, as the resulting stream is consumed, so that a
+     * large (or even infinite) source can be processed without holding all results in
+     * memory. The compiled expression must not be used by other callers until the returned
+     * stream is fully consumed or closed.
+     * <p>
+     * Since streams do not allow checked exceptions, a {@link ParseException} during the
+     * evaluation of any record is wrapped in an {@link IllegalStateException}.
+     *
+     * @param records the maps of variables to be used for the evaluations
+     * @return a stream with the evaluation results, in the same order as the input maps
+     */
+    public Stream<Object> evaluateAll(Stream<? extends Map<String, Object>> records)
+    {
+        Spliterator<? extends Map<String, Object>> source = records.sequential().spliterator();
+        Spliterator<Object> results = new Spliterators.AbstractSpliterator<Object>(source.estimateSize(),
+                source.characteristics() & Spliterator.ORDERED)
+        {
+            @Override
+            public boolean tryAdvance(Consumer<? super Object> action)
+            {
+                return source.tryAdvance(variables -> action.accept(evaluateUnchecked(variables)));
+            }
+        };
+        return StreamSupport.stream(results, false).onClose(records::close);
+    }
+
+    private Object evaluateUnchecked(Map<String, Object> variables)
+    {
+        try
+        {
+            return evaluate(variables);
+        }
+        catch (ParseException exception)
+        {
+            throw new IllegalStateException("Unable to evaluate expression: " + expression, exception);
+        }
+    }
+
+    /**
+     * Replaces the values of all variables known by the compiled node tree with the ones
+     * from the given map. Variables not present in the map are reset, so that no values
+     * leak from previous evaluations.
+     */
+    private static void bindVariables(SymbolTable symbolTable, Map<String, Object> variables)
+    {
+        for (Object element : symbolTable.values())
+        {
+            Variable variable = (Variable) element;
+            if (!variable.isConstant())
+            {
+                variable.setValue(variables.get(variable.getName()));
+            }
+        }
+    }
+
+    private static void updateExternalMap(Map<String, Object> map, SymbolTable internalTable)
+    {
+        internalTable.forEach((key, value) -> map.put((String) key, ((Variable) value).getValue()));
+    }
+
+}
@@ -0,0 +1,333 @@
+package net.obvj.jep;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.nfunk.jep.ParseException;
+
+/**
+ * A thread-safe evaluator that keeps a bounded pool of {@link CompiledExpression}
+ * instances for the same expression, so that multiple threads can evaluate it in
+ * parallel without parsing the expression or building a JEP context at every call.
+ * <p>
+ * Each compiled expression is leased to a single thread at a time and returned to the
+ * pool after the evaluation. New compiled expressions are created on demand, up to the
+ * maximum pool size. After that, threads wait for a compiled expression to be returned
+ * by another thread. The wait is managed by {@link ForkJoinPool#managedBlock}, so a
+ * waiting {@link ForkJoinPool} worker lets the pool activate a spare thread instead of
+ * stalling the tasks that would release the expression.
+ *
+ * @author oswaldo.bapvic.jr
+ * @since 1.0.8
+ */
+public class ConcurrentExpressionEvaluator
+{
+    /**
+     * The default maximum number of compiled expressions kept by an evaluator, equal to
+     * the number of available processors.
+     */
+    public static final int DEFAULT_MAX_POOL_SIZE = Runtime.getRuntime().availableProcessors();
+
+    private final String expression;
+    private final NamedPackage[] namedPackages;
+    private final int maxPoolSize;
+
+    private final BlockingQueue<CompiledExpression> pool;
+    // CompiledExpression does not override equals, so this set is identity-based
+    private final Set<CompiledExpression> leased = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    private final AtomicInteger createdCount = new AtomicInteger();
+    private final LongAdder leaseCount = new LongAdder();
+    private final LongAdder waitCount = new LongAdder();
+
+    /**
+     * Builds this evaluator with the default maximum pool size.
+     *
+     * @param expression the expression to be used for evaluation
+     * @throws IllegalArgumentException if the expression is either empty or invalid
+     */
+    public ConcurrentExpressionEvaluator(String expression)
+    {
+        this(expression, DEFAULT_MAX_POOL_SIZE);
+    }
+
+    /**
+     * Builds this evaluator with a custom maximum pool size.
+     *
+     * @param expression    the expression to be used for evaluation
+     * @param maxPoolSize   the maximum number of compiled expressions to be kept by this
+     *                      evaluator, which is also the maximum number of concurrent
+     *                      evaluations
+     * @param namedPackages one or more packages which functions shall be available for the
+     *                      expression; if not specified, then all functions will be
+     *                      available
+     * @throws IllegalArgumentException if the expression is either empty or invalid, or if
+     *                                  the maximum pool size is lower than one
+     */
+    public ConcurrentExpressionEvaluator(String expression, int maxPoolSize, NamedPackage... namedPackages)
+    {
+        if (maxPoolSize < 1)
+        {
+            throw new IllegalArgumentException("The maximum pool size must be greater than zero");
+        }
+        this.expression = expression;
+        this.namedPackages = namedPackages;
+        this.maxPoolSize = maxPoolSize;
+        this.pool = new ArrayBlockingQueue<>(maxPoolSize);
+
+        // The first compiled expression is created immediately to validate the expression
+        pool.add(new CompiledExpression(expression, namedPackages));
+        createdCount.incrementAndGet();
+    }
+
+    /**
+     * @return the source expression of this evaluator
+     */
+    public String getExpression()
+    {
+        return expression;
+    }
+
+    /**
+     * Evaluates the expression with a map of variables.
+     *
+     * @param variables the map of variables to be used for the evaluation
+     * @return the expression evaluation result given the input variables
+     * @throws ParseException if for some reason the expression could not be evaluated
+     */
+    public Object evaluate(Map<String, Object> variables) throws ParseException
+    {
+        return evaluate(variables, false);
+    }
+
+    /**
+     * Evaluates the expression with a map of variables.
+     *
+     * @param variables       the map of variables to be used for the evaluation
+     * @param updateSourceMap a flag indicating whether or not the initial variables map
+     *                        shall be updated with the evaluation results (default: false)
+     * @return the expression evaluation result given the input variables
+     * @throws ParseException if for some reason the expression could not be evaluated
+     */
+    public Object evaluate(Map<String, Object> variables, boolean updateSourceMap) throws ParseException
+    {
+        CompiledExpression compiledExpression = lease();
+        try
+        {
+            return compiledExpression.evaluate(variables, updateSourceMap);
+        }
+        finally
+        {
+            release(compiledExpression);
+        }
+    }
+
+    /**
+     * Takes a compiled expression from the pool for exclusive use of the calling thread,
+     * creating a new one if none is available and the pool is not full, or waiting for
+     * another thread to release one otherwise.
+     * <p>
+     * Every leased expression must be returned by calling {@link #release(CompiledExpression)}
+     * when no longer needed, preferably in a {@code finally} block.
+     *
+     * @return a compiled expression for exclusive use of the calling thread
+     * @throws IllegalStateException if the thread is interrupted while waiting
+     */
+    public CompiledExpression lease()
+    {
+        leaseCount.increment();
+        CompiledExpression compiledExpression = pool.poll();
+        if (compiledExpression == null)
+        {
+            compiledExpression = reserveSlot() ? newCompiledExpression() : waitForCompiledExpression();
+        }
+        leased.add(compiledExpression);
+        return compiledExpression;
+    }
+
+    private CompiledExpression newCompiledExpression()
+    {
+        try
+        {
+            return new CompiledExpression(expression, namedPackages);
+        }
+        catch (RuntimeException | Error exception)
+        {
+            // Give the reserved slot back, otherwise the pool would shrink at each failure
+            createdCount.decrementAndGet();
+            throw exception;
+        }
+    }
+
+    private CompiledExpression waitForCompiledExpression()
+    {
+        waitCount.increment();
+        PoolTaker taker = new PoolTaker();
+        try
+        {
+            ForkJoinPool.managedBlock(taker);
+            return taker.compiledExpression;
+        }
+        catch (InterruptedException exception)
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a compiled expression", exception);
+        }
+    }
+
+    /**
+     * Reserves a slot for a new compiled expression, if the pool is not full.
+     *
+     * @return {@code true} if a new compiled expression can be created
+     */
+    private boolean reserveSlot()
+    {
+        int current;
+        do
+        {
+            current = createdCount.get();
+            if (current >= maxPoolSize)
+            {
+                return false;
+            }
+        }
+        while (!createdCount.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Returns a compiled expression, previously taken by {@link #lease()}, to the pool.
+     *
+     * @param compiledExpression the compiled expression to be returned
+     * @throws IllegalArgumentException if the compiled expression is not currently leased
+     *                                  from this evaluator, for example, if it was created
+     *                                  elsewhere or has already been released
+     */
+    public void release(CompiledExpression compiledExpression)
+    {
+        if (compiledExpression == null || !leased.remove(compiledExpression))
+        {
+            throw new IllegalArgumentException("The compiled expression is not leased from this evaluator");
+        }
+        // Never fails: at most maxPoolSize expressions are created, and each is either
+        // leased or in the pool
+        pool.add(compiledExpression);
+    }
+
+    /**
+     * A {@link ForkJoinPool.ManagedBlocker} that takes a compiled expression from the pool.
+     */
+    private final class PoolTaker implements ForkJoinPool.ManagedBlocker
+    {
+        private CompiledExpression compiledExpression;
+
+        @Override
+        public boolean block() throws InterruptedException
+        {
+            if (compiledExpression == null)
+            {
+                compiledExpression = pool.take();
+            }
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable()
+        {
+            return compiledExpression != null || (compiledExpression = pool.poll()) != null;
+        }
+    }
+
+    /**
+     * @return a snapshot of the usage statistics of this evaluator
+     */
+    public Statistics getStatistics()
+    {
+        return new Statistics(maxPoolSize, createdCount.get(), pool.size(), leaseCount.sum(), waitCount.sum());
+    }
+
+    /**
+     * An immutable snapshot of the usage statistics of a
+     * {@link ConcurrentExpressionEvaluator}.
+     */
+    public static final class Statistics
+    {
+        private final int maxPoolSize;
+        private final int createdCount;
+        private final int idleCount;
+        private final long leaseCount;
+        private final long waitCount;
+
+        private Statistics(int maxPoolSize, int createdCount, int idleCount, long leaseCount, long waitCount)
+        {
+            this.maxPoolSize = maxPoolSize;
+            this.createdCount = createdCount;
+            this.idleCount = idleCount;
+            this.leaseCount = leaseCount;
+            this.waitCount = waitCount;
+        }
+
+        /**
+         * @return the maximum number of compiled expressions kept by the evaluator
+         */
+        public int getMaxPoolSize()
+        {
+            return maxPoolSize;
+        }
+
+        /**
+         * @return the number of compiled expressions created by the evaluator
+         */
+        public int getCreatedCount()
+        {
+            return createdCount;
+        }
+
+        /**
+         * @return the number of compiled expressions available in the pool
+         */
+        public int getIdleCount()
+        {
+            return idleCount;
+        }
+
+        /**
+         * @return the number of compiled expressions currently leased to threads
+         */
+        public int getActiveCount()
+        {
+            return Math.max(0, createdCount - idleCount);
+        }
+
+        /**
+         * @return the total number of leases
+         */
+        public long getLeaseCount()
+        {
+            return leaseCount;
+        }
+
+        /**
+         * @return the number of leases that had to wait for a compiled expression to be
+         *         released by another thread
+         */
+        public long getWaitCount()
+        {
+            return waitCount;
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.format("Statistics [maxPoolSize=%s, created=%s, idle=%s, leases=%s, waits=%s]",
+                    maxPoolSize, createdCount, idleCount, leaseCount, waitCount);
+        }
+    }
+
+}
@@ -0,0 +1,139 @@
+package net.obvj.jep;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.Map.Entry;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.nfunk.jep.FunctionTable;
+import org.nfunk.jep.JEP;
+import org.nfunk.jep.Operator;
+import org.nfunk.jep.OperatorSet;
+import org.nfunk.jep.function.PostfixMathCommandI;
+
+/**
+ * A pre-built set of functions and operators that can be copied into new JEP objects at
+ * a low cost.
+ * <p>
+ * A single instance of each function is shared by all contexts created from this
+ * prototype, provided that the function has a fixed number of parameters and that all
+ * instance fields declared by its class, and by its superclasses outside the JEP library,
+ * are final, which means that the function holds no state between calls. This is checked
+ * when the function is registered. Other functions, such as the ones accepting a variable
+ * number of parameters, which receive the actual number of parameters in a field right
+ * before each call, are instantiated for every context. Final fields must also refer to
+ * immutable or thread-safe objects, which cannot be checked.
+ * <p>
+ * Instances of this class are immutable once built and can be safely shared between
+ * threads.
+ *
+ * @author oswaldo.bapvic.jr
+ * @since 1.0.8
+ */
+final class ContextPrototype
+{
+    private final Map<String, PostfixMathCommandI> sharedFunctions = new HashMap<>();
+    private final Map<Supplier<? extends PostfixMathCommandI>, List<String>> variadicFunctions = new LinkedHashMap<>();
+    private final List<Entry<Function<OperatorSet, Operator>, PostfixMathCommandI>> operators = new ArrayList<>();
+
+    /**
+     * Checks whether the given function can be shared by multiple JEP contexts.
+     *
+     * @param function the function to be checked
+     * @return {@code true} if the function has a fixed number of parameters and only final
+     *         instance fields, except for the ones declared by the JEP library
+     */
+    static boolean isShareable(PostfixMathCommandI function)
+    {
+        return function.getNumberOfParameters() != -1 && hasOnlyFinalFields(function.getClass());
+    }
+
+    private static boolean hasOnlyFinalFields(Class<?> type)
+    {
+        // The classes of the JEP library only set their fields when instantiated
+        for (Class<?> current = type; current != null && !current.getName().startsWith("org.nfunk.jep.");
+                current = current.getSuperclass())
+        {
+            for (Field field : current.getDeclaredFields())
+            {
+                if (!Modifier.isStatic(field.getModifiers()) && !Modifier.isFinal(field.getModifiers()))
+                {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Registers a function in this prototype. If any of the given aliases was previously
+     * registered, the new function replaces the old one.
+     *
+     * @param aliases  the names/aliases associated with the function
+     * @param function a pre-built function instance
+     * @param supplier a supplier of new function instances, used when the function cannot
+     *                 be shared
+     */
+    void addFunction(String[] aliases, PostfixMathCommandI function, Supplier<? extends PostfixMathCommandI> supplier)
+    {
+        boolean shareable = isShareable(function);
+        for (String alias : aliases)
+        {
+            sharedFunctions.remove(alias);
+            variadicFunctions.values().forEach(list -> list.remove(alias));
+            if (shareable)
+            {
+                sharedFunctions.put(alias, function);
+            }
+            else
+            {
+                variadicFunctions.computeIfAbsent(supplier, key -> new ArrayList<>()).add(alias);
+            }
+        }
+    }
+
+    /**
+     * Assigns a command to an operator of the contexts created from this prototype.
+     *
+     * @param operator a function that selects the operator from an {@link OperatorSet}
+     * @param command  the command to be assigned to the operator, which must be shareable
+     * @throws IllegalArgumentException if the command is not shareable
+     */
+    void setOperator(Function<OperatorSet, Operator> operator, PostfixMathCommandI command)
+    {
+        if (!isShareable(command))
+        {
+            throw new IllegalArgumentException("The operator command cannot be shared: " + command.getClass().getName());
+        }
+        operators.add(new AbstractMap.SimpleImmutableEntry<>(operator, command));
+    }
+
+    /**
+     * Copies the functions and operators of this prototype into the given JEP object.
+     *
+     * @param jep the JEP object to receive the functions and operators of this prototype
+     */
+    void applyTo(JEP jep)
+    {
+        FunctionTable functionTable = jep.getFunctionTable();
+        functionTable.putAll(sharedFunctions);
+
+        for (Entry<Supplier<? extends PostfixMathCommandI>, List<String>> entry : variadicFunctions.entrySet())
+        {
+            PostfixMathCommandI function = entry.getKey().get();
+            for (String alias : entry.getValue())
+            {
+                functionTable.put(alias, function);
+            }
+        }
+
+        OperatorSet operatorSet = jep.getOperatorSet();
+        for (Entry<Function<OperatorSet, Operator>, PostfixMathCommandI> entry : operators)
+        {
+            entry.getKey().apply(operatorSet).setPFMC(entry.getValue());
+        }
+    }
+
+}
@@ -0,0 +1,113 @@
+package net.obvj.jep;
+
+import org.nfunk.jep.*;
+import org.nfunk.jep.function.PostfixMathCommandI;
+
+import net.obvj.jep.functions.Precompilable;
+
+/**
+ * Optimizes the node tree of a parsed expression, so that the work that does not depend
+ * on variables is done only once, before the expression is evaluated:
+ * <ul>
+ * <li>calls to deterministic functions and operators whose arguments are all constant
+ * are evaluated and replaced by constant nodes holding their results, provided that the
+ * result is a string, number or boolean value; and</li>
+ * <li>functions that implement {@link Precompilable} are replaced by instances
+ * specialized for their constant arguments, such as literal regular expressions or
+ * JSONPaths, or simply bound to their nodes, such as comparisons that remember the
+ * format of the dates they parse.</li>
+ * </ul>
+ * Calls that fail at compile time are kept unchanged, so that the errors are reported at
+ * evaluation time, as they would be without this optimization.
+ *
+ * @author oswaldo.bapvic.jr
+ * @since 1.0.8
+ */
+final class ExpressionCompiler
+{
+    private ExpressionCompiler()
+    {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Optimizes the given node tree, which may be modified in place.
+     *
+     * @param context the context in which the node tree was parsed
+     * @param node    the root of the node tree to be optimized
+     * @return the root of the optimized node tree, which may be a new node
+     */
+    static Node compile(JEP context, Node node)
+    {
+        if (!(node instanceof ASTFunNode))
+        {
+            return node;
+        }
+        ASTFunNode function = (ASTFunNode) node;
+        Object[] constantArguments = new Object[function.jjtGetNumChildren()];
+        boolean allConstant = true;
+        for (int i = 0; i < constantArguments.length; i++)
+        {
+            Node child = compile(context, function.jjtGetChild(i));
+            if (child != function.jjtGetChild(i))
+            {
+                child.jjtSetParent(function);
+                function.jjtAddChild(child, i);
+            }
+            if (child instanceof ASTConstant)
+            {
+                constantArguments[i] = ((ASTConstant) child).getValue();
+            }
+            else
+            {
+                allConstant = false;
+            }
+        }
+
+        PostfixMathCommandI pfmc = function.getPFMC();
+        if (allConstant && JEPContextFactory.isDeterministic(pfmc))
+        {
+            Node constant = fold(context, function);
+            if (constant != null)
+            {
+                return constant;
+            }
+        }
+        if (pfmc instanceof Precompilable)
+        {
+            PostfixMathCommandI specialized = ((Precompilable) pfmc).precompile(constantArguments);
+            if (specialized != null)
+            {
+                function.setFunction(function.getName(), specialized);
+            }
+        }
+        return function;
+    }
+
+    /**
+     * @return a constant node with the result of the given function call, or {@code null}
+     *         if the call cannot be replaced by a constant
+     */
+    private static Node fold(JEP context, ASTFunNode function)
+    {
+        Object value;
+        try
+        {
+            value = context.evaluate(function);
+        }
+        catch (ParseException | RuntimeException exception)
+        {
+            // The error will be reported at evaluation time
+            return null;
+        }
+        if (!(value instanceof String || value instanceof Number || value instanceof Boolean))
+        {
+            // Other types, such as collections and dates, may be modified after evaluation
+            return null;
+        }
+        ASTConstant constant = new ASTConstant(ParserTreeConstants.JJTCONSTANT);
+        constant.setValue(value);
+        return constant;
+    }
+
+}
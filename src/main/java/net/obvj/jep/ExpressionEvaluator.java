@@ -1,10 +1,15 @@
 package net.obvj.jep;
 
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
 
 import org.apache.commons.lang3.StringUtils;
 import org.nfunk.jep.*;
 
+import net.obvj.jep.util.EvaluationScope;
+
 /**
  * An object that validates an user expression at instantiation time and evaluates with
  * given source variables at runtime.
@@ -49,6 +54,21 @@ public class ExpressionEvaluator
         }
     }
 
+    /**
+     * Parses the instance-defined expression into a {@link CompiledExpression}, which can be
+     * evaluated multiple times with different variables without being parsed again.
+     * <p>
+     * Each call produces a new, independent {@code CompiledExpression}, which must not be
+     * shared between threads.
+     *
+     * @return a new {@link CompiledExpression} for the instance-defined expression
+     * @since 1.0.8
+     */
+    public CompiledExpression compile()
+    {
+        return new CompiledExpression(expression);
+    }
+
     /**
      * Evaluates the instance-defined expression with a map of variables.
      *
@@ -75,13 +95,143 @@ public class ExpressionEvaluator
         JEP evaluationContext = JEPContextFactory.newContext(variables);
 
         Node node = evaluationContext.parseExpression(expression);
-        Object result = evaluationContext.evaluate(node);
+        Object result;
+        try (EvaluationScope scope = EvaluationScope.open())
+        {
+            result = evaluationContext.evaluate(node);
+        }
 
         if (updateSourceMap) updateExternalMap(variables, evaluationContext.getSymbolTable());
 
         return result;
     }
 
+    /**
+     * Evaluates the instance-defined expression with a map of variables in profiling mode,
+     * recording the time spent in each node of the expression tree.
+     * <p>
+     * Profiling adds overhead to every node, so this method is meant for diagnosing slow
+     * expressions, not for regular evaluations.
+     *
+     * @param variables the map of variables to be used for the evaluation
+     * @return the profile of the evaluation, including its result
+     * @throws ParseException if for some reason the expression could not be evaluated
+     * @see #profileAll(Iterable)
+     * @since 1.0.8
+     */
+    public ExpressionProfile profile(Map<String, Object> variables) throws ParseException
+    {
+        JEP evaluationContext = JEPContextFactory.newContext(variables);
+
+        Node node = evaluationContext.parseExpression(expression);
+        ExpressionProfile profile = new ExpressionProfile(expression, node);
+        try (EvaluationScope scope = EvaluationScope.open())
+        {
+            new ProfilingEvaluatorVisitor(profile).evaluate(node, evaluationContext.getSymbolTable());
+        }
+        return profile;
+    }
+
+    /**
+     * Evaluates the instance-defined expression once for each map of variables of the
+     * given sequence in profiling mode, accumulating the time spent in each node of the
+     * expression tree across all evaluations.
+     * <p>
+     * The expression is compiled before profiling, so constant subexpressions appear as
+     * constants in the resulting profile.
+     *
+     * @param records the maps of variables to be used for the evaluations
+     * @return the accumulated profile of the evaluations
+     * @throws ParseException if for some reason the expression could not be evaluated with
+     *                        any of the input maps
+     * @see CompiledExpression#profileAll(Iterable)
+     * @since 1.0.8
+     */
+    public ExpressionProfile profileAll(Iterable<? extends Map<String, Object>> records) throws ParseException
+    {
+        return compile().profileAll(records);
+    }
+
+    /**
+     * Evaluates the instance-defined expression once for each map of variables of the
+     * given sequence.
+     * <p>
+     * The expression is parsed only once for the whole batch, and only the variables are
+     * rebound between records, which makes this method much faster than calling
+     * {@link #evaluate(Map)} repeatedly.
+     *
+     * @param records the maps of variables to be used for the evaluations
+     * @return a list with the evaluation results, in the same order as the input maps
+     * @throws ParseException if for some reason the expression could not be evaluated with
+     *                        any of the input maps
+     * @since 1.0.8
+     */
+    public List<Object> evaluateAll(Iterable<? extends Map<String, Object>> records) throws ParseException
+    {
+        return compile().evaluateAll(records);
+    }
+
+    /**
+     * Returns a lazy stream with the results of evaluating the instance-defined expression
+     * for each map of variables of the given stream, in the same order.
+     * <p>
+     * The expression is parsed only once for the whole stream, and only the variables are
+     * rebound between records. A {@link ParseException} during the evaluation of any
+     * record is wrapped in an {@link IllegalStateException}.
+     *
+     * @param records the maps of variables to be used for the evaluations
+     * @return a stream with the evaluation results, in the same order as the input maps
+     * @since 1.0.8
+     */
+    public Stream<Object> evaluateAll(Stream<? extends Map<String, Object>> records)
+    {
+        return compile().evaluateAll(records);
+    }
+
+    /**
+     * Evaluates the instance-defined expression once for each map of variables of the
+     * given list, in parallel, using the common {@link ForkJoinPool}.
+     * <p>
+     * The evaluation stops at the first failure, in which case the exception is thrown.
+     *
+     * @param records the maps of variables to be used for the evaluations
+     * @return a list with the evaluation results, in the same order as the input maps
+     * @throws ParseException if for some reason the expression could not be evaluated with
+     *                        any of the input maps
+     * @see #evaluateAllParallel(List, ForkJoinPool, BatchErrorPolicy)
+     * @since 1.0.8
+     */
+    public List<Object> evaluateAllParallel(List<? extends Map<String, Object>> records) throws ParseException
+    {
+        return evaluateAllParallel(records, ForkJoinPool.commonPool(), BatchErrorPolicy.FAIL_FAST).getResults();
+    }
+
+    /**
+     * Evaluates the instance-defined expression once for each map of variables of the
+     * given list, in parallel, using the specified {@link ForkJoinPool}.
+     * <p>
+     * The input list is split into chunks that are evaluated by the workers of the pool.
+     * Each worker reuses its own JEP context for all the records of its chunks, and the
+     * results are merged back in the same order as the input. The list must not be
+     * modified during the evaluation and should support fast random access.
+     *
+     * @param records     the maps of variables to be used for the evaluations
+     * @param pool        the pool in which the records will be evaluated
+     * @param errorPolicy the behavior in case the expression cannot be evaluated with any
+     *                    of the input maps
+     * @return the results of all records and, if the error policy is
+     *         {@link BatchErrorPolicy#CONTINUE}, the exceptions of the failed records
+     * @throws ParseException if the error policy is {@link BatchErrorPolicy#FAIL_FAST} and
+     *                        the expression could not be evaluated with any of the input
+     *                        maps
+     * @since 1.0.8
+     */
+    public BatchResult evaluateAllParallel(List<? extends Map<String, Object>> records, ForkJoinPool pool,
+            BatchErrorPolicy errorPolicy) throws ParseException
+    {
+        return new ParallelBatchEvaluation(expression, records, pool, errorPolicy).execute();
+    }
+
     private void updateExternalMap(Map<String, Object> map, SymbolTable internalTable)
     {
         internalTable.forEach((key, value) -> map.put((String) key, ((Variable) value).getValue()));
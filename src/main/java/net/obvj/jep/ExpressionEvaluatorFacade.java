@@ -1,16 +1,41 @@
 package net.obvj.jep;
 
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
+import org.apache.commons.lang3.StringUtils;
 import org.nfunk.jep.ParseException;
 
+import net.obvj.jep.util.BoundedCache;
+import net.obvj.jep.util.CacheStatistics;
+
 /**
  * A facade class for the {@link ExpressionEvaluator}
+ * <p>
+ * Expressions are parsed once and kept in a size-bounded cache, with the least recently
+ * used ones discarded first, so that subsequent calls with the same expression text skip
+ * the parsing phase. The cache may be tuned or disabled with
+ * {@link #configureCache(int, long, TimeUnit)}.
+ * <p>
+ * Each cached expression is held by a {@link ConcurrentExpressionEvaluator} with the
+ * default maximum pool size, so it may keep up to one compiled expression, with its own
+ * JEP context, per available processor, depending on how many threads evaluate it at the
+ * same time. The maximum size of the cache should be chosen accordingly.
  *
  * @author oswaldo.bapvic.jr
  */
 public class ExpressionEvaluatorFacade
 {
+    /**
+     * The default maximum number of expressions kept in the cache.
+     *
+     * @since 1.0.8
+     */
+    public static final int DEFAULT_CACHE_MAX_SIZE = 1000;
+
+    private static final BoundedCache<String, ConcurrentExpressionEvaluator> CACHE = new BoundedCache<>(
+            DEFAULT_CACHE_MAX_SIZE);
+
     private ExpressionEvaluatorFacade()
     {
         throw new IllegalStateException("No instances allowed");
@@ -24,10 +49,11 @@ public class ExpressionEvaluatorFacade
      * @param sourceMap the map of variables to be used for evaluation
      * @return the evaluation result given the input variables
      * @throws ParseException if for some reason the expression could not be evaluated
+     * @throws IllegalArgumentException if the expression is either empty or invalid
      */
     public static Object evaluate(String expression, Map<String, Object> sourceMap) throws ParseException
     {
-        return new ExpressionEvaluator(expression).evaluate(sourceMap);
+        return getEvaluator(expression).evaluate(sourceMap);
     }
 
     /**
@@ -40,11 +66,59 @@ public class ExpressionEvaluatorFacade
      * be updated with the evaluation results (default: false)
      * @return the evaluation result given the input variables
      * @throws ParseException if for some reason the expression could not be evaluated
+     * @throws IllegalArgumentException if the expression is either empty or invalid
      */
     public static Object evaluate(String expression, Map<String, Object> sourceMap, boolean updateSourceMap)
             throws ParseException
     {
-        return new ExpressionEvaluator(expression).evaluate(sourceMap, updateSourceMap);
+        return getEvaluator(expression).evaluate(sourceMap, updateSourceMap);
+    }
+
+    private static ConcurrentExpressionEvaluator getEvaluator(String expression)
+    {
+        if (StringUtils.isBlank(expression))
+        {
+            throw new IllegalArgumentException("The expression cannot be empty");
+        }
+        return CACHE.get(expression, ConcurrentExpressionEvaluator::new);
+    }
+
+    /**
+     * Changes the parameters of the expression cache.
+     *
+     * @param maxSize    the maximum number of expressions to be kept in the cache, or zero
+     *                   to disable the cache; each expression may hold up to one JEP
+     *                   context per available processor
+     * @param timeToLive the time after which an expression is discarded since it was
+     *                   parsed, or zero for no expiration
+     * @param unit       the time unit of the {@code timeToLive} argument
+     * @throws IllegalArgumentException if either the maximum size or time-to-live is
+     *                                  negative
+     * @since 1.0.8
+     */
+    public static void configureCache(int maxSize, long timeToLive, TimeUnit unit)
+    {
+        CACHE.setMaxSize(maxSize);
+        CACHE.setTimeToLive(timeToLive, unit);
+    }
+
+    /**
+     * Discards all expressions in the cache.
+     *
+     * @since 1.0.8
+     */
+    public static void clearCache()
+    {
+        CACHE.clear();
+    }
+
+    /**
+     * @return the hit, miss and eviction statistics of the expression cache
+     * @since 1.0.8
+     */
+    public static CacheStatistics getCacheStatistics()
+    {
+        return CACHE.getStatistics();
     }
 
 }
@@ -0,0 +1,337 @@
+package net.obvj.jep;
+
+import java.util.*;
+
+import org.nfunk.jep.ASTConstant;
+import org.nfunk.jep.ASTFunNode;
+import org.nfunk.jep.ASTVarNode;
+import org.nfunk.jep.Node;
+
+/**
+ * The time spent in each node of the tree of an expression, collected by evaluating it in
+ * profiling mode, with {@link ExpressionEvaluator#profile(Map)} or
+ * {@link CompiledExpression#profileAll(Iterable)}.
+ * <p>
+ * For each function call, operator, variable and constant of the expression, the profile
+ * holds the number of evaluations, the cumulative time spent in the node and its
+ * children, and an estimate of the memory allocated during the evaluations. The profile
+ * can be rendered as an annotated tree or in the folded stack format accepted by flame
+ * graph tools, such as {@code flamegraph.pl}.
+ * <p>
+ * The times include the overhead of profiling, which is significant for cheap nodes, such
+ * as constants and variables, so they are best used for comparison between the nodes of
+ * an expression.
+ *
+ * @author oswaldo.bapvic.jr
+ * @since 1.0.8
+ */
+public final class ExpressionProfile
+{
+    private static final int MAX_LABEL_LENGTH = 40;
+
+    /**
+     * The types of nodes of an expression tree.
+     */
+    public enum NodeType
+    {
+        /**
+         * A function call, such as {@code upper(name)}
+         */
+        FUNCTION,
+
+        /**
+         * An operator, such as {@code +} or {@code &&}
+         */
+        OPERATOR,
+
+        /**
+         * A variable
+         */
+        VARIABLE,
+
+        /**
+         * A constant, such as a literal number or string
+         */
+        CONSTANT;
+    }
+
+    /**
+     * The statistics of a single node of the expression tree.
+     */
+    public static final class NodeProfile
+    {
+        private final String label;
+        private final NodeType type;
+        private final List<NodeProfile> children;
+
+        private long callCount;
+        private long totalTimeNanos;
+        private long allocatedBytes;
+
+        private NodeProfile(String label, NodeType type, List<NodeProfile> children)
+        {
+            this.label = label;
+            this.type = type;
+            this.children = Collections.unmodifiableList(children);
+        }
+
+        void record(long timeNanos, long bytes)
+        {
+            callCount++;
+            totalTimeNanos += timeNanos;
+            allocatedBytes = bytes < 0 || allocatedBytes < 0 ? -1 : allocatedBytes + bytes;
+        }
+
+        /**
+         * @return the name of the function, operator or variable, or the value of the
+         *         constant
+         */
+        public String getLabel()
+        {
+            return label;
+        }
+
+        /**
+         * @return the type of the node
+         */
+        public NodeType getType()
+        {
+            return type;
+        }
+
+        /**
+         * @return the profiles of the arguments or operands of this node, in order
+         */
+        public List<NodeProfile> getChildren()
+        {
+            return children;
+        }
+
+        /**
+         * @return the number of times the node was evaluated
+         */
+        public long getCallCount()
+        {
+            return callCount;
+        }
+
+        /**
+         * @return the cumulative time spent in the evaluation of the node, including its
+         *         children, in nanoseconds
+         */
+        public long getTotalTimeNanos()
+        {
+            return totalTimeNanos;
+        }
+
+        /**
+         * @return the cumulative time spent in the evaluation of the node, excluding its
+         *         children, in nanoseconds
+         */
+        public long getSelfTimeNanos()
+        {
+            long childrenTimeNanos = children.stream().mapToLong(NodeProfile::getTotalTimeNanos).sum();
+            return Math.max(0, totalTimeNanos - childrenTimeNanos);
+        }
+
+        /**
+         * @return an estimate of the memory allocated by the current thread during the
+         *         evaluations of the node, including its children, in bytes; or {@code -1}
+         *         if not supported by the JVM
+         */
+        public long getAllocatedBytes()
+        {
+            return allocatedBytes;
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.format(Locale.ROOT, "%s (%s) [calls=%d, total=%.3f us, self=%.3f us, allocated=%s]", label,
+                    type.name().toLowerCase(Locale.ROOT), callCount, totalTimeNanos / 1000.0,
+                    getSelfTimeNanos() / 1000.0, allocatedBytes < 0 ? "n/a" : allocatedBytes + " B");
+        }
+    }
+
+    private final String expression;
+    private final NodeProfile root;
+    private final Map<Node, NodeProfile> profilesByNode = new IdentityHashMap<>();
+
+    private long evaluationCount;
+    private Object lastResult;
+
+    /**
+     * Builds an empty profile for the given node tree.
+     *
+     * @param expression the source expression
+     * @param node       the root of the node tree of the expression
+     */
+    ExpressionProfile(String expression, Node node)
+    {
+        this.expression = expression;
+        this.root = newNodeProfile(node);
+    }
+
+    private NodeProfile newNodeProfile(Node node)
+    {
+        List<NodeProfile> children = new ArrayList<>(node.jjtGetNumChildren());
+        for (int i = 0; i < node.jjtGetNumChildren(); i++)
+        {
+            children.add(newNodeProfile(node.jjtGetChild(i)));
+        }
+        NodeProfile profile = new NodeProfile(getLabel(node), getType(node), children);
+        profilesByNode.put(node, profile);
+        return profile;
+    }
+
+    private static NodeType getType(Node node)
+    {
+        if (node instanceof ASTFunNode)
+        {
+            return ((ASTFunNode) node).isOperator() ? NodeType.OPERATOR : NodeType.FUNCTION;
+        }
+        return node instanceof ASTVarNode ? NodeType.VARIABLE : NodeType.CONSTANT;
+    }
+
+    private static String getLabel(Node node)
+    {
+        if (node instanceof ASTFunNode)
+        {
+            ASTFunNode function = (ASTFunNode) node;
+            return function.isOperator() ? function.getOperator().getSymbol() : function.getName() + "()";
+        }
+        if (node instanceof ASTVarNode)
+        {
+            return ((ASTVarNode) node).getName();
+        }
+        Object value = node instanceof ASTConstant ? ((ASTConstant) node).getValue() : node;
+        String label = value instanceof String ? '"' + (String) value + '"' : String.valueOf(value);
+        return label.length() > MAX_LABEL_LENGTH ? label.substring(0, MAX_LABEL_LENGTH - 3) + "..." : label;
+    }
+
+    /**
+     * @return the profile of the given node, or {@code null} if not part of the profiled
+     *         tree
+     */
+    NodeProfile getNodeProfile(Node node)
+    {
+        return profilesByNode.get(node);
+    }
+
+    void recordEvaluation(Object result)
+    {
+        evaluationCount++;
+        lastResult = result;
+    }
+
+    /**
+     * @return the source expression
+     */
+    public String getExpression()
+    {
+        return expression;
+    }
+
+    /**
+     * @return the profile of the root node of the expression tree
+     */
+    public NodeProfile getRoot()
+    {
+        return root;
+    }
+
+    /**
+     * @return the number of complete evaluations of the expression
+     */
+    public long getEvaluationCount()
+    {
+        return evaluationCount;
+    }
+
+    /**
+     * @return the result of the last complete evaluation of the expression
+     */
+    public Object getLastResult()
+    {
+        return lastResult;
+    }
+
+    /**
+     * Renders the expression tree with the statistics of each node, one node per line,
+     * indented by depth. For example:
+     *
+     * <pre>
+     * &gt; (operator) [calls=1, total=85.412 us, self=3.105 us, allocated=1024 B]
+     *   jsonpath() (function) [calls=1, total=81.903 us, self=80.511 us, allocated=896 B]
+     *     json (variable) [calls=1, total=0.702 us, self=0.702 us, allocated=0 B]
+     *     "$.price" (constant) [calls=1, total=0.690 us, self=0.690 us, allocated=0 B]
+     *   10.0 (constant) [calls=1, total=0.404 us, self=0.404 us, allocated=0 B]
+     * </pre>
+     *
+     * @return the annotated tree
+     */
+    public String toAnnotatedTree()
+    {
+        StringBuilder builder = new StringBuilder();
+        appendAnnotatedTree(builder, root, 0);
+        return builder.toString();
+    }
+
+    private static void appendAnnotatedTree(StringBuilder builder, NodeProfile profile, int depth)
+    {
+        for (int i = 0; i < depth; i++)
+        {
+            builder.append("  ");
+        }
+        builder.append(profile).append(System.lineSeparator());
+        for (NodeProfile child : profile.getChildren())
+        {
+            appendAnnotatedTree(builder, child, depth + 1);
+        }
+    }
+
+    /**
+     * Renders the self time of each node in the folded stack format, with one line per
+     * node, containing the labels of the node and its ancestors, separated by semicolons,
+     * followed by the self time of the node in nanoseconds. For example:
+     *
+     * <pre>
+     * &gt; 3105
+     * &gt;;jsonpath() 80511
+     * &gt;;jsonpath();json 702
+     * </pre>
+     *
+     * Nodes with no self time are omitted.
+     *
+     * @return the folded stacks, which can be rendered as a flame graph
+     */
+    public String toFoldedStacks()
+    {
+        StringBuilder builder = new StringBuilder();
+        appendFoldedStacks(builder, root, "");
+        return builder.toString();
+    }
+
+    private static void appendFoldedStacks(StringBuilder builder, NodeProfile profile, String parentStack)
+    {
+        // Semicolons separate frames, and the last space separates the value
+        String frame = profile.getLabel().replace(';', ',').replaceAll("\\s", "_");
+        String stack = parentStack.isEmpty() ? frame : parentStack + ";" + frame;
+        long selfTimeNanos = profile.getSelfTimeNanos();
+        if (selfTimeNanos > 0)
+        {
+            builder.append(stack).append(' ').append(selfTimeNanos).append('\n');
+        }
+        for (NodeProfile child : profile.getChildren())
+        {
+            appendFoldedStacks(builder, child, stack);
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return toAnnotatedTree();
+    }
+
+}
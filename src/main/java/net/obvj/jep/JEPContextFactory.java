@@ -1,22 +1,30 @@
 package net.obvj.jep;
 
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import org.apache.commons.lang3.reflect.FieldUtils;
+import org.nfunk.jep.FunctionTable;
 import org.nfunk.jep.JEP;
 import org.nfunk.jep.OperatorSet;
+import org.nfunk.jep.function.CallbackEvaluationI;
 import org.nfunk.jep.function.Comparative;
 import org.nfunk.jep.function.PostfixMathCommand;
 import org.nfunk.jep.function.PostfixMathCommandI;
+import org.nfunk.jep.function.SpecialEvaluationI;
 import org.nfunk.jep.type.NumberFactory;
 
 import net.obvj.jep.functions.*;
 import net.obvj.jep.functions.DateFieldGetter.DateField;
 import net.obvj.jep.functions.UUID;
 import net.obvj.jep.functions.UnaryEncryptionFunction.EncryptionAlgorithm;
+import net.obvj.jep.metrics.InstrumentedCommand;
+import net.obvj.jep.metrics.MetricsRegistry;
 
 /**
  * A factory that creates JEP objects with extended functions and operators.
@@ -30,6 +38,30 @@ public class JEPContextFactory
 
     private static final Map<NamedPackage, List<Supplier<PostfixMathCommandI>>> FUNCTION_FACTORY_BY_PACKAGE = new EnumMap<>(NamedPackage.class);
 
+    /*
+     * Pre-built functions and operators, copied into new contexts instead of being rebuilt
+     * at every call
+     */
+    private static final ContextPrototype STANDARD_FUNCTIONS_PROTOTYPE = newStandardFunctionsPrototype();
+    private static final Map<Set<NamedPackage>, ContextPrototype> CUSTOM_FUNCTIONS_PROTOTYPES = new ConcurrentHashMap<>();
+
+    private static volatile MetricsRegistry metricsRegistry;
+
+    /*
+     * The packages that provide each custom function alias, built at the first
+     * instrumentation of a context
+     */
+    private static final class PackagesByAlias
+    {
+        private static final Map<String, NamedPackage> MAP = new HashMap<>();
+
+        static
+        {
+            FUNCTION_FACTORY_BY_PACKAGE.forEach((namedPackage, suppliers) -> suppliers.forEach(
+                    supplier -> Arrays.stream(getAliases(supplier.get())).forEach(alias -> MAP.put(alias, namedPackage))));
+        }
+    }
+
     static
     {
         // String functions
@@ -208,9 +240,12 @@ public class JEPContextFactory
         JEP jep = new JEP(traverse, allowUndeclared, implicitMultiplication, numberFactory);
 
         jep.setAllowAssignment(true);
-        jep.addStandardFunctions();
+        STANDARD_FUNCTIONS_PROTOTYPE.applyTo(jep);
         addCustomFunctions(jep, namedPackages);
 
+        MetricsRegistry registry = metricsRegistry;
+        if (registry != null) instrument(jep, registry);
+
         if (contextMap != null) addVariables(jep, contextMap);
 
         return jep;
@@ -254,21 +289,104 @@ public class JEPContextFactory
      */
     public static void addCustomFunctions(JEP jep, NamedPackage...namedPackages)
     {
-        getFunctions(namedPackages).map(Supplier::get).forEach(function -> addAnnotatedFunction(jep, function));
+        getCustomFunctionsPrototype(namedPackages).applyTo(jep);
+    }
+
+    /**
+     * Returns the pre-built custom functions and operators for the given packages, building
+     * them at the first call for each combination of packages.
+     *
+     * @param namedPackages one or more packages which functions shall be available; if not
+     *                      specified, then all functions will be available
+     * @return a {@link ContextPrototype} containing the custom functions and operators
+     * @since 1.0.8
+     */
+    private static ContextPrototype getCustomFunctionsPrototype(NamedPackage... namedPackages)
+    {
+        Set<NamedPackage> key = toPackageSet(namedPackages);
+        ContextPrototype prototype = CUSTOM_FUNCTIONS_PROTOTYPES.get(key);
+        if (prototype == null)
+        {
+            prototype = CUSTOM_FUNCTIONS_PROTOTYPES.computeIfAbsent(key,
+                    packages -> newCustomFunctionsPrototype(namedPackages));
+        }
+        return prototype;
+    }
+
+    private static Set<NamedPackage> toPackageSet(NamedPackage... namedPackages)
+    {
+        if (namedPackages == null || namedPackages.length == 0)
+        {
+            return EnumSet.allOf(NamedPackage.class);
+        }
+        Set<NamedPackage> set = EnumSet.noneOf(NamedPackage.class);
+        Arrays.stream(namedPackages).filter(Objects::nonNull).forEach(set::add);
+        return set;
+    }
+
+    private static ContextPrototype newCustomFunctionsPrototype(NamedPackage... namedPackages)
+    {
+        ContextPrototype prototype = new ContextPrototype();
+        getFunctions(namedPackages).forEach(supplier ->
+        {
+            PostfixMathCommandI function = supplier.get();
+            prototype.addFunction(getAliases(function), function, supplier);
+        });
 
         // Operators
-        OperatorSet operators = jep.getOperatorSet();
-        operators.getLT().setPFMC(new DateAwareComparative(Comparative.LT));
-        operators.getGT().setPFMC(new DateAwareComparative(Comparative.GT));
-        operators.getLE().setPFMC(new DateAwareComparative(Comparative.LE));
-        operators.getGE().setPFMC(new DateAwareComparative(Comparative.GE));
-        operators.getNE().setPFMC(new DateAwareComparative(Comparative.NE));
-        operators.getEQ().setPFMC(new DateAwareComparative(Comparative.EQ));
+        prototype.setOperator(OperatorSet::getLT, new DateAwareComparative(Comparative.LT));
+        prototype.setOperator(OperatorSet::getGT, new DateAwareComparative(Comparative.GT));
+        prototype.setOperator(OperatorSet::getLE, new DateAwareComparative(Comparative.LE));
+        prototype.setOperator(OperatorSet::getGE, new DateAwareComparative(Comparative.GE));
+        prototype.setOperator(OperatorSet::getNE, new DateAwareComparative(Comparative.NE));
+        prototype.setOperator(OperatorSet::getEQ, new DateAwareComparative(Comparative.EQ));
 
         // Element function and operator
         PostfixMathCommand elementCommand = new Element();
-        addAnnotatedFunction(jep, elementCommand);
-        operators.getElement().setPFMC(elementCommand);
+        prototype.addFunction(getAliases(elementCommand), elementCommand, Element::new);
+        prototype.setOperator(OperatorSet::getElement, elementCommand);
+
+        return prototype;
+    }
+
+    private static ContextPrototype newStandardFunctionsPrototype()
+    {
+        JEP jep = new JEP();
+        jep.addStandardFunctions();
+
+        ContextPrototype prototype = new ContextPrototype();
+        jep.getFunctionTable().forEach((alias, value) ->
+        {
+            PostfixMathCommandI function = (PostfixMathCommandI) value;
+            Supplier<PostfixMathCommandI> supplier = ContextPrototype.isShareable(function) ? null
+                    : newInstanceSupplier(function.getClass());
+            prototype.addFunction(new String[] { (String) alias }, function, supplier);
+        });
+        return prototype;
+    }
+
+    private static Supplier<PostfixMathCommandI> newInstanceSupplier(Class<? extends PostfixMathCommandI> type)
+    {
+        try
+        {
+            Constructor<? extends PostfixMathCommandI> constructor = type.getConstructor();
+            return () ->
+            {
+                try
+                {
+                    return constructor.newInstance();
+                }
+                catch (ReflectiveOperationException exception)
+                {
+                    throw new IllegalStateException("Unable to instantiate function: " + type.getName(), exception);
+                }
+            };
+        }
+        catch (NoSuchMethodException exception)
+        {
+            throw new IllegalStateException("No default constructor found in function: " + type.getName(),
+                    exception);
+        }
     }
 
     /**
@@ -310,13 +428,64 @@ public class JEPContextFactory
      * @throws IllegalArgumentException if the given function is not annotated
      */
     protected static void addAnnotatedFunction(JEP jep, PostfixMathCommandI function)
+    {
+        Arrays.stream(getAliases(function)).forEach(alias -> jep.addFunction(alias, function));
+    }
+
+    /**
+     * Returns the names/aliases assigned to a custom function by the @Function annotation.
+     *
+     * @param function the function whose aliases are to be retrieved
+     * @return the names/aliases of the given function
+     *
+     * @throws IllegalStateException if the given function is not annotated
+     */
+    private static String[] getAliases(PostfixMathCommandI function)
     {
         Optional<Function> annotation = getAnnotation(function);
         if (!annotation.isPresent())
         {
             throw new IllegalStateException(String.format(MSG_ANNOTATION_NOT_FOUND_IN_CLASS, function));
         }
-        Arrays.stream(annotation.get().value()).forEach(alias -> jep.addFunction(alias, function));
+        return annotation.get().value();
+    }
+
+    /**
+     * Checks whether the given function always returns the same result for the same
+     * arguments, without side effects.
+     * <p>
+     * Custom functions are deterministic unless declared otherwise by the @Function
+     * annotation. Functions without the annotation are only assumed deterministic if they
+     * are standard JEP functions or comparative operators, except for random numbers and
+     * functions with special evaluation, such as the assignment operator. Functions that
+     * use the system default time zone at each evaluation are not deterministic, since the
+     * default time zone may change between evaluations.
+     *
+     * @param function the function to be checked
+     * @return {@code true} if the function is deterministic
+     * @since 1.0.8
+     */
+    static boolean isDeterministic(PostfixMathCommandI function)
+    {
+        if (function instanceof InstrumentedCommand)
+        {
+            return isDeterministic(((InstrumentedCommand) function).getDelegate());
+        }
+        if (function instanceof SpecialEvaluationI || function instanceof CallbackEvaluationI
+                || function instanceof org.nfunk.jep.function.Random)
+        {
+            return false;
+        }
+        if (function instanceof ZoneAwareCommand && ((ZoneAwareCommand) function).getZone() == null)
+        {
+            return false;
+        }
+        Optional<Function> annotation = getAnnotation(function);
+        if (annotation.isPresent())
+        {
+            return annotation.get().deterministic();
+        }
+        return function instanceof Comparative || function.getClass().getName().startsWith("org.nfunk.jep.");
     }
 
     private static Optional<Function> getAnnotation(PostfixMathCommandI function)
@@ -341,6 +510,128 @@ public class JEPContextFactory
         return Optional.ofNullable(strategyField.getAnnotation(Function.class));
     }
 
+    /**
+     * Sets the time zone in which the date functions of the given JEP context, such as
+     * {@code year}, {@code month}, {@code day}, {@code endOfMonth}, {@code date2str} and
+     * {@code str2date} with explicit patterns, evaluate dates. By default, the system
+     * default time zone is used at each evaluation.
+     * <p>
+     * The functions of the context are replaced by new instances bound to the given time
+     * zone, so this method does not affect other contexts, nor the expressions previously
+     * parsed by the given one.
+     *
+     * @param jep  the JEP object whose time zone is to be set, not null
+     * @param zone the time zone to be used, or {@code null} for the system default time
+     *             zone at each evaluation
+     *
+     * @throws IllegalArgumentException if the specified JEP object is null
+     * @since 1.0.8
+     */
+    public static void setZone(JEP jep, ZoneId zone)
+    {
+        if (jep == null)
+        {
+            throw new IllegalArgumentException("A null JEP object was received");
+        }
+
+        // Functions registered with multiple aliases are replaced by a single instance
+        Map<Object, PostfixMathCommandI> replacements = new IdentityHashMap<>();
+        FunctionTable functionTable = jep.getFunctionTable();
+        for (Object alias : new ArrayList<>(functionTable.keySet()))
+        {
+            Object function = functionTable.get(alias);
+            if (function instanceof ZoneAwareCommand)
+            {
+                functionTable.put(alias, replacements.computeIfAbsent(function,
+                        key -> ((ZoneAwareCommand) key).withZone(zone)));
+            }
+            else if (function instanceof InstrumentedCommand
+                    && ((InstrumentedCommand) function).getDelegate() instanceof ZoneAwareCommand)
+            {
+                // Keep the function instrumented
+                InstrumentedCommand instrumentedCommand = (InstrumentedCommand) function;
+                functionTable.put(alias, instrumentedCommand.withDelegate(
+                        ((ZoneAwareCommand) instrumentedCommand.getDelegate()).withZone(zone)));
+            }
+        }
+    }
+
+    /**
+     * Defines a registry to receive the metrics of the functions of all JEP contexts
+     * created by this factory from now on, as with {@link #instrument(JEP, MetricsRegistry)}.
+     * By default, no context is instrumented.
+     *
+     * @param registry the registry to receive the metrics of the functions, or {@code null}
+     *                 to stop instrumenting new contexts
+     * @since 1.0.8
+     */
+    public static void setMetricsRegistry(MetricsRegistry registry)
+    {
+        metricsRegistry = registry;
+    }
+
+    /**
+     * @return the registry that receives the metrics of the functions of new contexts, or
+     *         {@code null} if new contexts are not instrumented
+     * @since 1.0.8
+     */
+    public static MetricsRegistry getMetricsRegistry()
+    {
+        return metricsRegistry;
+    }
+
+    /**
+     * Replaces the functions of the given JEP context with instrumented ones, which record
+     * the call count, errors and latency of each invocation in the given registry, per
+     * function alias and per {@link NamedPackage}.
+     * <p>
+     * Only the expressions parsed after this call are instrumented. Operators, functions
+     * with special evaluation, such as {@code if}, and functions that are already
+     * instrumented are kept unchanged.
+     *
+     * @param jep      the JEP object to be instrumented, not null
+     * @param registry the registry to receive the metrics of the functions, not null
+     *
+     * @throws IllegalArgumentException if any of the arguments is null
+     * @since 1.0.8
+     */
+    public static void instrument(JEP jep, MetricsRegistry registry)
+    {
+        if (jep == null)
+        {
+            throw new IllegalArgumentException("A null JEP object was received");
+        }
+        if (registry == null)
+        {
+            throw new IllegalArgumentException("A null metrics registry was received");
+        }
+
+        FunctionTable functionTable = jep.getFunctionTable();
+        for (Object alias : new ArrayList<>(functionTable.keySet()))
+        {
+            PostfixMathCommandI function = (PostfixMathCommandI) functionTable.get(alias);
+            if (InstrumentedCommand.isInstrumentable(function))
+            {
+                String name = (String) alias;
+                functionTable.put(alias,
+                        new InstrumentedCommand(function, registry.getRecorder(name, getPackage(name, function))));
+            }
+        }
+    }
+
+    /**
+     * @return the package that provides the given function, or {@code null} if the function
+     *         is not provided by a named package
+     */
+    private static NamedPackage getPackage(String alias, PostfixMathCommandI function)
+    {
+        if (function.getClass().getName().startsWith("org.nfunk.jep."))
+        {
+            return NamedPackage.CORE;
+        }
+        return PackagesByAlias.MAP.get(alias);
+    }
+
     /**
      * Adds all entries from the {@code contextMap} as variables to the JEP context.
      *
@@ -0,0 +1,138 @@
+package net.obvj.jep;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.nfunk.jep.ParseException;
+
+/**
+ * Evaluates an expression over a list of records by splitting the list into chunks that
+ * are processed by the workers of a {@link ForkJoinPool}.
+ * <p>
+ * Each chunk leases a {@link CompiledExpression} from a shared
+ * {@link ConcurrentExpressionEvaluator} sized to the parallelism of the pool, so every
+ * worker reuses its own JEP context and only rebinds the variables between records.
+ *
+ * @author oswaldo.bapvic.jr
+ * @since 1.0.8
+ */
+final class ParallelBatchEvaluation
+{
+    /**
+     * The minimum number of records evaluated by a single task, to amortize the cost of
+     * forking and leasing.
+     */
+    static final int MIN_CHUNK_SIZE = 64;
+
+    /**
+     * The number of chunks per worker thread, to balance the load when some records are
+     * slower than others.
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final ConcurrentExpressionEvaluator evaluator;
+    private final List<? extends Map<String, Object>> records;
+    private final ForkJoinPool pool;
+    private final BatchErrorPolicy errorPolicy;
+    private final int chunkSize;
+
+    private final Object[] results;
+    private final ConcurrentSkipListMap<Integer, Exception> errors = new ConcurrentSkipListMap<>();
+    private volatile boolean failed;
+
+    ParallelBatchEvaluation(String expression, List<? extends Map<String, Object>> records, ForkJoinPool pool,
+            BatchErrorPolicy errorPolicy)
+    {
+        this.evaluator = new ConcurrentExpressionEvaluator(expression, pool.getParallelism());
+        this.records = records;
+        this.pool = pool;
+        this.errorPolicy = errorPolicy;
+        this.chunkSize = Math.max(MIN_CHUNK_SIZE, records.size() / (pool.getParallelism() * CHUNKS_PER_THREAD));
+        this.results = new Object[records.size()];
+    }
+
+    /**
+     * Evaluates all records in the pool.
+     *
+     * @return the batch result
+     * @throws ParseException if the error policy is {@link BatchErrorPolicy#FAIL_FAST} and
+     *                        some record could not be evaluated
+     */
+    BatchResult execute() throws ParseException
+    {
+        pool.invoke(new ChunkTask(0, records.size()));
+
+        if (failed && errorPolicy == BatchErrorPolicy.FAIL_FAST)
+        {
+            Exception exception = errors.firstEntry().getValue();
+            if (exception instanceof ParseException)
+            {
+                throw (ParseException) exception;
+            }
+            throw (RuntimeException) exception;
+        }
+        return new BatchResult(results, errors);
+    }
+
+    private void evaluateChunk(int from, int to)
+    {
+        CompiledExpression compiledExpression = evaluator.lease();
+        try
+        {
+            for (int index = from; index < to && !(failed && errorPolicy == BatchErrorPolicy.FAIL_FAST); index++)
+            {
+                try
+                {
+                    results[index] = compiledExpression.evaluate(records.get(index));
+                }
+                catch (ParseException | RuntimeException exception)
+                {
+                    errors.put(index, exception);
+                    failed = true;
+                }
+            }
+        }
+        finally
+        {
+            evaluator.release(compiledExpression);
+        }
+    }
+
+    /**
+     * A task that evaluates a range of records, splitting it in halves while larger than
+     * the chunk size.
+     */
+    private final class ChunkTask extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+
+        private ChunkTask(int from, int to)
+        {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (failed && errorPolicy == BatchErrorPolicy.FAIL_FAST)
+            {
+                return;
+            }
+            if (to - from <= chunkSize)
+            {
+                evaluateChunk(from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ChunkTask(from, middle), new ChunkTask(middle, to));
+        }
+    }
+
+}
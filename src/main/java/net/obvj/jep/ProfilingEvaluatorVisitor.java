@@ -0,0 +1,138 @@
+package net.obvj.jep;
+
+import java.lang.management.ManagementFactory;
+
+import org.nfunk.jep.*;
+
+/**
+ * An {@link EvaluatorVisitor} that records the time spent in each node of an expression
+ * tree, and the memory allocated by the current thread meanwhile, into an
+ * {@link ExpressionProfile}.
+ * <p>
+ * Nodes evaluated by functions with special evaluation, such as the branches of
+ * {@code if}, are visited through this visitor too, so they are also profiled.
+ *
+ * @author oswaldo.bapvic.jr
+ * @since 1.0.8
+ */
+class ProfilingEvaluatorVisitor extends EvaluatorVisitor
+{
+    /*
+     * The HotSpot extension of ThreadMXBean that measures allocated memory, if supported
+     * and enabled by the JVM
+     */
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN = getThreadMXBean();
+
+    private final ExpressionProfile profile;
+
+    /**
+     * Builds a visitor that records the evaluations of the given profile's node tree.
+     *
+     * @param profile the profile to be filled
+     */
+    ProfilingEvaluatorVisitor(ExpressionProfile profile)
+    {
+        this.profile = profile;
+    }
+
+    private static com.sun.management.ThreadMXBean getThreadMXBean()
+    {
+        try
+        {
+            java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean)
+            {
+                com.sun.management.ThreadMXBean hotSpotBean = (com.sun.management.ThreadMXBean) bean;
+                if (hotSpotBean.isThreadAllocatedMemorySupported() && hotSpotBean.isThreadAllocatedMemoryEnabled())
+                {
+                    return hotSpotBean;
+                }
+            }
+        }
+        catch (LinkageError | UnsupportedOperationException exception)
+        {
+            // Not a HotSpot-based JVM
+        }
+        return null;
+    }
+
+    /**
+     * @return the number of bytes allocated by the current thread so far, or {@code -1} if
+     *         not supported
+     */
+    private static long allocatedBytes()
+    {
+        return THREAD_MX_BEAN == null ? -1 : THREAD_MX_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Evaluates the given node tree, recording the evaluation into the profile.
+     *
+     * @param node        the root of the node tree of the profile
+     * @param symbolTable the symbol table with the values of the variables
+     * @return the result of the evaluation
+     * @throws ParseException if the node tree cannot be evaluated
+     */
+    Object evaluate(Node node, SymbolTable symbolTable) throws ParseException
+    {
+        Object result = getValue(node, symbolTable);
+        profile.recordEvaluation(result);
+        return result;
+    }
+
+    private void record(Node node, long startNanos, long startBytes)
+    {
+        long timeNanos = System.nanoTime() - startNanos;
+        ExpressionProfile.NodeProfile nodeProfile = profile.getNodeProfile(node);
+        if (nodeProfile != null)
+        {
+            nodeProfile.record(timeNanos, startBytes < 0 ? -1 : allocatedBytes() - startBytes);
+        }
+    }
+
+    @Override
+    public Object visit(ASTFunNode node, Object data) throws ParseException
+    {
+        long startBytes = allocatedBytes();
+        long startNanos = System.nanoTime();
+        try
+        {
+            return super.visit(node, data);
+        }
+        finally
+        {
+            record(node, startNanos, startBytes);
+        }
+    }
+
+    @Override
+    public Object visit(ASTVarNode node, Object data) throws ParseException
+    {
+        long startBytes = allocatedBytes();
+        long startNanos = System.nanoTime();
+        try
+        {
+            return super.visit(node, data);
+        }
+        finally
+        {
+            record(node, startNanos, startBytes);
+        }
+    }
+
+    @Override
+    public Object visit(ASTConstant node, Object data)
+    {
+        long startBytes = allocatedBytes();
+        long startNanos = System.nanoTime();
+        try
+        {
+            return super.visit(node, data);
+        }
+        finally
+        {
+            record(node, startNanos, startBytes);
+        }
+    }
+
+}
@@ -1,6 +1,5 @@
 package net.obvj.jep.functions;
 
-import java.util.List;
 import java.util.Stack;
 
 import org.nfunk.jep.ParseException;
@@ -11,7 +10,8 @@ import net.obvj.jep.util.NumberUtils;
 
 /**
  * This class implements a function that returns the average of collection of elements.
- * The function supports arrays, JSONArrays and Iterables containing Numbers.
+ * The function supports arrays, JSONArrays and Iterables containing Numbers, as well as
+ * arrays of primitive numbers.
  *
  * @author oswaldo.bapvic.jr
  */
@@ -34,13 +34,14 @@ public class Average extends PostfixMathCommand
     {
         checkStack(pStack);
         Object param = pStack.pop();
-        List<Object> list = CollectionsUtils.asList(param);
-        pStack.push(average(list));
-    }
-
-    private Object average(List<?> pList)
-    {
-        return pList.stream().mapToDouble(NumberUtils::parseDouble).average().orElse(Double.NaN);
+        if (NumberUtils.isNumericArray(param))
+        {
+            pStack.push(NumberUtils.average(param));
+        }
+        else
+        {
+            pStack.push(CollectionsUtils.average(CollectionsUtils.asList(param)));
+        }
     }
 
 }
@@ -1,10 +1,13 @@
 package net.obvj.jep.functions;
 
 import java.util.Stack;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 import org.apache.commons.lang3.StringUtils;
 import org.nfunk.jep.ParseException;
 import org.nfunk.jep.function.PostfixMathCommand;
+import org.nfunk.jep.function.PostfixMathCommandI;
 
 import net.obvj.jep.util.RegexUtils;
 
@@ -13,10 +16,13 @@ import net.obvj.jep.util.RegexUtils;
  * or 0 (false), depending on the target evaluation strategy.
  * <p>
  * The function will always return true if both parameters are equal.
+ * <p>
+ * For the {@code matches} strategy, a literal regular expression is compiled only once,
+ * when the expression is compiled.
  *
  * @author oswaldo.bapvic.jr
  */
-public class BinaryBooleanFunction extends PostfixMathCommand implements MultiStrategyCommand
+public class BinaryBooleanFunction extends PostfixMathCommand implements MultiStrategyCommand, Precompilable
 {
     protected static final double FALSE = 0d;
     protected static final double TRUE = 1d;
@@ -73,6 +79,7 @@ public class BinaryBooleanFunction extends PostfixMathCommand implements MultiSt
     }
 
     private final Strategy operation;
+    private final Pattern pattern;
 
     /**
      * Builds this custom command with a fixed number of 2 parameters.
@@ -80,9 +87,15 @@ public class BinaryBooleanFunction extends PostfixMathCommand implements MultiSt
      * @param operation the {@link Strategy} to be set
      */
     public BinaryBooleanFunction(Strategy operation)
+    {
+        this(operation, null);
+    }
+
+    private BinaryBooleanFunction(Strategy operation, Pattern pattern)
     {
         numberOfParameters = 2;
         this.operation = operation;
+        this.pattern = pattern;
     }
 
     /**
@@ -95,10 +108,32 @@ public class BinaryBooleanFunction extends PostfixMathCommand implements MultiSt
         Object arg2 = stack.pop();
         Object arg1 = stack.pop();
 
-        boolean booleanValue = operation.evaluate(arg1, arg2);
+        boolean booleanValue = pattern == null ? operation.evaluate(arg1, arg2)
+                : RegexUtils.matches((String) arg1, pattern);
         stack.push(booleanValue ? TRUE : FALSE);
     }
 
+    /**
+     * @see net.obvj.jep.functions.Precompilable#precompile(java.lang.Object[])
+     */
+    @Override
+    public PostfixMathCommandI precompile(Object[] constantArguments)
+    {
+        if (operation != Strategy.STRING_MATCHES || !(constantArguments[1] instanceof String))
+        {
+            return null;
+        }
+        try
+        {
+            return new BinaryBooleanFunction(operation, RegexUtils.compilePattern((String) constantArguments[1]));
+        }
+        catch (PatternSyntaxException exception)
+        {
+            // The error will be reported at evaluation time
+            return null;
+        }
+    }
+
     /**
      * @see net.obvj.jep.functions.MultiStrategyCommand#getStrategy()
      */
@@ -4,18 +4,23 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Stack;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 import org.nfunk.jep.ParseException;
 import org.nfunk.jep.function.PostfixMathCommand;
+import org.nfunk.jep.function.PostfixMathCommandI;
 
 import net.obvj.jep.util.RegexUtils;
 
 /**
  * An "abstract" function that accepts two strings and returns an object.
+ * <p>
+ * A literal regular expression is compiled only once, when the expression is compiled.
  *
  * @author oswaldo.bapvic.jr
  */
-public class BinaryStringFunction extends PostfixMathCommand implements MultiStrategyCommand
+public class BinaryStringFunction extends PostfixMathCommand implements MultiStrategyCommand, Precompilable
 {
     /**
      * Defines particular concrete behaviors for the {@link BinaryStringFunction}.
@@ -29,7 +34,7 @@ public class BinaryStringFunction extends PostfixMathCommand implements MultiStr
         ALL_MATCHES
         {
             @Override
-            void pushResult(Stack stack, String string, String regex)
+            void pushResult(Stack stack, String string, Pattern regex)
             {
                 List<String> matches = RegexUtils.findMatches(string, regex);
                 stack.push(matches);
@@ -43,7 +48,7 @@ public class BinaryStringFunction extends PostfixMathCommand implements MultiStr
         FIRST_MATCH
         {
             @Override
-            void pushResult(Stack stack, String string, String regex)
+            void pushResult(Stack stack, String string, Pattern regex)
             {
                 String matches = RegexUtils.firstMatch(string, regex);
                 stack.push(matches);
@@ -57,9 +62,9 @@ public class BinaryStringFunction extends PostfixMathCommand implements MultiStr
         SPLIT
         {
             @Override
-            void pushResult(Stack stack, String string, String regex)
+            void pushResult(Stack stack, String string, Pattern regex)
             {
-                List<String> strings = Arrays.asList(string.split(regex));
+                List<String> strings = Arrays.asList(regex.split(string));
                 stack.push(strings);
             }
         };
@@ -71,10 +76,11 @@ public class BinaryStringFunction extends PostfixMathCommand implements MultiStr
          * @param string the string to be evaluated
          * @param pattern the pattern to be used
          */
-        abstract void pushResult(Stack stack, String string, String pattern);
+        abstract void pushResult(Stack stack, String string, Pattern pattern);
     }
 
     private final Strategy strategy;
+    private final Pattern pattern;
 
     /**
      * Builds this function with a fixed number of two parameters.
@@ -82,9 +88,15 @@ public class BinaryStringFunction extends PostfixMathCommand implements MultiStr
      * @param returnStrategy the {@link Strategy} to be set
      */
     public BinaryStringFunction(Strategy returnStrategy)
+    {
+        this(returnStrategy, null);
+    }
+
+    private BinaryStringFunction(Strategy returnStrategy, Pattern pattern)
     {
         numberOfParameters = 2;
         this.strategy = returnStrategy;
+        this.pattern = pattern;
     }
 
     /**
@@ -107,7 +119,29 @@ public class BinaryStringFunction extends PostfixMathCommand implements MultiStr
             throw new IllegalArgumentException("The RegEx cannot be null");
         }
 
-        strategy.pushResult(stack, arg1.toString(), arg2.toString());
+        Pattern regex = pattern == null ? RegexUtils.compilePattern(arg2.toString()) : pattern;
+        strategy.pushResult(stack, arg1.toString(), regex);
+    }
+
+    /**
+     * @see net.obvj.jep.functions.Precompilable#precompile(java.lang.Object[])
+     */
+    @Override
+    public PostfixMathCommandI precompile(Object[] constantArguments)
+    {
+        if (constantArguments[1] == null)
+        {
+            return null;
+        }
+        try
+        {
+            return new BinaryStringFunction(strategy, RegexUtils.compilePattern(constantArguments[1].toString()));
+        }
+        catch (PatternSyntaxException exception)
+        {
+            // The error will be reported at evaluation time
+            return null;
+        }
     }
 
     /**
@@ -1,14 +1,16 @@
 package net.obvj.jep.functions;
 
+import java.lang.reflect.Array;
 import java.util.Collection;
 import java.util.Stack;
 
 import org.apache.commons.lang3.StringUtils;
 import org.json.JSONArray;
-import org.json.JSONException;
 import org.nfunk.jep.ParseException;
 import org.nfunk.jep.function.PostfixMathCommand;
 
+import net.obvj.jep.util.CollectionsUtils;
+
 /**
  * This class implements a JEP function that counts elements.
  *
@@ -59,15 +61,8 @@ public class Count extends PostfixMathCommand
      */
     private int count(String string)
     {
-        try
-        {
-            return StringUtils.isEmpty(string) ? 0 : new JSONArray(string).length();
-        }
-        catch (JSONException exception)
-        {
-            // if it's not a valid JSONArray, it must be handled as a string
-            return 1;
-        }
+        // if it's not a valid JSONArray, it is handled as a singleton list
+        return StringUtils.isEmpty(string) ? 0 : CollectionsUtils.asList(string).size();
     }
 
     /**
@@ -95,6 +90,10 @@ public class Count extends PostfixMathCommand
         {
             return ((Object[]) object).length;
         }
+        else if (object.getClass().isArray())
+        {
+            return Array.getLength(object);
+        }
         else if (object instanceof String)
         {
             return count((String) object);
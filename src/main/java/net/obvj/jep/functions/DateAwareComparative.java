@@ -1,32 +1,66 @@
 package net.obvj.jep.functions;
 
+import java.time.Instant;
 import java.util.Date;
 import java.util.Stack;
 
 import org.nfunk.jep.ParseException;
 import org.nfunk.jep.function.Comparative;
+import org.nfunk.jep.function.PostfixMathCommandI;
 
+import net.obvj.jep.util.DateFormatDetector;
 import net.obvj.jep.util.DateUtils;
 import net.obvj.jep.util.NumberUtils;
 
 /**
  * An extension of JEP's Comparative command that can also handle strings and dates.
+ * <p>
+ * The comparison is dispatched on the runtime types of the operands: numbers are
+ * compared directly, and only strings are checked for dates.
+ * <p>
+ * The instances registered in the evaluation contexts are shared, so they keep no state.
+ * When an expression is compiled, each comparison is replaced by an instance that
+ * remembers the format of the last date string detected at that point of the expression.
  *
  * @author oswaldo.bapvic.jr
  */
-public class DateAwareComparative extends Comparative
+public class DateAwareComparative extends Comparative implements Precompilable
 {
     private static final Double DOUBLE_FALSE = Double.valueOf(0);
     private static final Double DOUBLE_TRUE = Double.valueOf(1);
 
+    /**
+     * The detector of date formats bound to a single node of a compiled expression, or
+     * {@code null} for shared instances
+     */
+    private final DateFormatDetector dateFormatDetector;
+
     /**
      * Builds this Comparative command
      *
      * @param pComparativeId the identifier of the comparative operator
      */
     public DateAwareComparative(int pComparativeId)
+    {
+        this(pComparativeId, null);
+    }
+
+    private DateAwareComparative(int pComparativeId, DateFormatDetector dateFormatDetector)
     {
         super(pComparativeId);
+        this.dateFormatDetector = dateFormatDetector;
+    }
+
+    /**
+     * Returns a new instance of this comparison with its own memory of the last date
+     * format detected, regardless of the constant arguments.
+     *
+     * @see Precompilable#precompile(Object[])
+     */
+    @Override
+    public PostfixMathCommandI precompile(Object[] constantArguments)
+    {
+        return new DateAwareComparative(id, new DateFormatDetector());
     }
 
     /**
@@ -39,21 +73,72 @@ public class DateAwareComparative extends Comparative
         Object parameter2 = pStack.pop();
         Object parameter1 = pStack.pop();
 
-        try
+        boolean result;
+        if (parameter1 instanceof Number && parameter2 instanceof Number)
+        {
+            result = compare(parameter1, parameter2);
+        }
+        else
         {
-            Date date1 = DateUtils.parseDate(parameter1);
-            Date date2 = DateUtils.parseDate(parameter2);
+            Date date1 = toDate(parameter1);
+            Date date2 = date1 == null ? null : toDate(parameter2);
+            if (date2 != null)
+            {
+                result = compareDates(date1, date2);
+            }
+            else
+            {
+                // OK. It's not a Date. If it's a String, convert it to Double and run the
+                // default logic of the super class.
+                result = compare(parameter1 instanceof String ? NumberUtils.parseDouble(parameter1) : parameter1,
+                        parameter2 instanceof String ? NumberUtils.parseDouble(parameter2) : parameter2);
+            }
+        }
+        pStack.push(result ? DOUBLE_TRUE : DOUBLE_FALSE);
+    }
 
-            boolean result = compareDates(date1, date2);
-            pStack.push(result ? DOUBLE_TRUE : DOUBLE_FALSE);
+    /**
+     * @return the given object as a date, if it is a {@link Date}, an {@link Instant} or a
+     *         string in a supported date format; or {@code null}, otherwise
+     */
+    private Date toDate(Object object)
+    {
+        if (object instanceof Date)
+        {
+            return (Date) object;
+        }
+        if (object instanceof Instant)
+        {
+            return Date.from((Instant) object);
         }
-        catch (IllegalArgumentException exception)
+        if (!(object instanceof String))
         {
-            // OK. It's not a Date. If it's a String, convert it to Double and let the super
-            // class run default logic.
-            pStack.push(parameter1 instanceof String ? NumberUtils.parseDouble(parameter1) : parameter1);
-            pStack.push(parameter2 instanceof String ? NumberUtils.parseDouble(parameter2) : parameter2);
-            super.run(pStack);
+            return null;
+        }
+        return dateFormatDetector == null ? DateUtils.tryParseDate(object) : dateFormatDetector.tryParseDate(object);
+    }
+
+    /**
+     * Compares the given objects with the default logic of the super class.
+     */
+    private boolean compare(Object parameter1, Object parameter2) throws ParseException
+    {
+        switch (id)
+        {
+        case LT:
+            return lt(parameter1, parameter2);
+        case GT:
+            return gt(parameter1, parameter2);
+        case LE:
+            return le(parameter1, parameter2);
+        case GE:
+            return ge(parameter1, parameter2);
+        case NE:
+            return ne(parameter1, parameter2);
+        case EQ:
+            return eq(parameter1, parameter2);
+        default:
+            return false;
         }
     }
 
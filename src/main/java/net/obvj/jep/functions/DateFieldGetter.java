@@ -1,12 +1,14 @@
 package net.obvj.jep.functions;
 
+import java.time.ZoneId;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.Stack;
-import java.util.function.ToIntFunction;
+import java.util.function.ToIntBiFunction;
 
 import org.nfunk.jep.ParseException;
 import org.nfunk.jep.function.PostfixMathCommand;
+import org.nfunk.jep.function.PostfixMathCommandI;
 
 import net.obvj.jep.util.DateUtils;
 
@@ -16,7 +18,7 @@ import net.obvj.jep.util.DateUtils;
  *
  * @author oswaldo.bapvic.jr
  */
-public class DateFieldGetter extends PostfixMathCommand implements MultiStrategyCommand
+public class DateFieldGetter extends PostfixMathCommand implements MultiStrategyCommand, ZoneAwareCommand
 {
     /**
      * Defines particular field-fetching strategies for a given date.
@@ -27,7 +29,7 @@ public class DateFieldGetter extends PostfixMathCommand implements MultiStrategy
          * The year
          */
         @Function("year")
-        YEAR(date -> DateUtils.getDateField(date, Calendar.YEAR)),
+        YEAR((date, zone) -> DateUtils.getDateField(date, Calendar.YEAR, zone)),
 
         /**
          * The quarter of the year, a number from 1 to 4
@@ -51,55 +53,56 @@ public class DateFieldGetter extends PostfixMathCommand implements MultiStrategy
          * The day of the week of a date, a number from 1 (Sunday) to 7 (Saturday)
          */
         @Function("weekday")
-        WEEK_DAY(date -> DateUtils.getDateField(date, Calendar.DAY_OF_WEEK)),
+        WEEK_DAY((date, zone) -> DateUtils.getDateField(date, Calendar.DAY_OF_WEEK, zone)),
 
         /**
          * The day of month (the first day of month is 1)
          */
         @Function("day")
-        DAY(date -> DateUtils.getDateField(date, Calendar.DAY_OF_MONTH)),
+        DAY((date, zone) -> DateUtils.getDateField(date, Calendar.DAY_OF_MONTH, zone)),
 
         /**
          * The hour as a number from 0 (12:00 AM) to 23 (11:00 PM)
          */
         @Function("hour")
-        HOUR(date -> DateUtils.getDateField(date, Calendar.HOUR_OF_DAY)),
+        HOUR((date, zone) -> DateUtils.getDateField(date, Calendar.HOUR_OF_DAY, zone)),
 
         /**
          * The minute, a number from 0 to 59
          */
         @Function("minute")
-        MINUTE(date -> DateUtils.getDateField(date, Calendar.MINUTE)),
+        MINUTE((date, zone) -> DateUtils.getDateField(date, Calendar.MINUTE, zone)),
 
         /**
          * The second within the minute, a number from 0 to 59
          */
         @Function("second")
-        SECOND(date -> DateUtils.getDateField(date, Calendar.SECOND)),
+        SECOND((date, zone) -> DateUtils.getDateField(date, Calendar.SECOND, zone)),
 
         /**
          * The millisecond within a second
          */
         @Function("millisecond")
-        MILLISECOND(date -> DateUtils.getDateField(date, Calendar.MILLISECOND));
+        MILLISECOND((date, zone) -> DateUtils.getDateField(date, Calendar.MILLISECOND, zone));
 
-        private ToIntFunction<Date> function;
+        private ToIntBiFunction<Date, ZoneId> function;
 
         /*
          * Builds each enum object with a mandatory function to be applied
          */
-        private DateField(ToIntFunction<Date> function)
+        private DateField(ToIntBiFunction<Date, ZoneId> function)
         {
             this.function = function;
         }
 
-        int getFromDate(Date date)
+        int getFromDate(Date date, ZoneId zone)
         {
-            return function.applyAsInt(date);
+            return function.applyAsInt(date, zone);
         }
     }
 
     private final DateField dateField;
+    private final ZoneId zone;
 
     /**
      * Builds this custom command with a fixed number of 1 parameter.
@@ -107,9 +110,23 @@ public class DateFieldGetter extends PostfixMathCommand implements MultiStrategy
      * @param dateField the {@link DateField} strategy to be set
      */
     public DateFieldGetter(DateField dateField)
+    {
+        this(dateField, null);
+    }
+
+    /**
+     * Builds this custom command with a fixed number of 1 parameter, evaluating dates in
+     * the given time zone.
+     *
+     * @param dateField the {@link DateField} strategy to be set
+     * @param zone      the time zone to be used, or {@code null} for the system default
+     * @since 1.0.8
+     */
+    public DateFieldGetter(DateField dateField, ZoneId zone)
     {
         numberOfParameters = 1;
         this.dateField = dateField;
+        this.zone = zone;
     }
 
     /**
@@ -121,7 +138,7 @@ public class DateFieldGetter extends PostfixMathCommand implements MultiStrategy
         checkStack(stack);
         Object parameter = stack.pop();
         Date date = DateUtils.parseDate(parameter);
-        stack.push(dateField.getFromDate(date));
+        stack.push(dateField.getFromDate(date, zone != null ? zone : ZoneId.systemDefault()));
     }
 
     /**
@@ -132,4 +149,16 @@ public class DateFieldGetter extends PostfixMathCommand implements MultiStrategy
     {
         return dateField;
     }
+
+    @Override
+    public ZoneId getZone()
+    {
+        return zone;
+    }
+
+    @Override
+    public PostfixMathCommandI withZone(ZoneId zone)
+    {
+        return new DateFieldGetter(dateField, zone);
+    }
 }
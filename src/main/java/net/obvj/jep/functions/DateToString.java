@@ -1,28 +1,60 @@
 package net.obvj.jep.functions;
 
+import java.time.ZoneId;
 import java.util.Date;
+import java.util.Locale;
 import java.util.Stack;
+import java.util.TimeZone;
 
 import org.apache.commons.lang3.StringUtils;
 import org.nfunk.jep.ParseException;
 import org.nfunk.jep.function.PostfixMathCommand;
+import org.nfunk.jep.function.PostfixMathCommandI;
 
 import net.obvj.jep.util.DateUtils;
 
 /**
  * A command that formats dates in a specified pattern
+ * <p>
+ * A literal pattern is validated only once, when the expression is compiled. The format
+ * is resolved at each evaluation, in the time zone of the function or, if not specified,
+ * in the system default time zone and locale at that moment.
  *
  * @author oswaldo.bapvic.jr
  */
 @Function("date2str")
-public class DateToString extends PostfixMathCommand
+public class DateToString extends PostfixMathCommand implements Precompilable, ZoneAwareCommand
 {
+    private final ZoneId zone;
+    private final TimeZone timeZone;
+    private final String pattern;
+
     /**
      * Builds this custom command with a fixed number of 2 parameters
      */
     public DateToString()
+    {
+        this((ZoneId) null);
+    }
+
+    /**
+     * Builds this custom command with a fixed number of 2 parameters, formatting dates in
+     * the given time zone
+     *
+     * @param zone the time zone to be used, or {@code null} for the system default
+     * @since 1.0.8
+     */
+    public DateToString(ZoneId zone)
+    {
+        this(zone, null);
+    }
+
+    private DateToString(ZoneId zone, String pattern)
     {
         numberOfParameters = 2;
+        this.zone = zone;
+        this.timeZone = zone != null ? TimeZone.getTimeZone(zone) : null;
+        this.pattern = pattern;
     }
 
     /**
@@ -40,7 +72,44 @@ public class DateToString extends PostfixMathCommand
             throw new IllegalArgumentException("A pattern is required");
         }
 
-        stack.push(DateUtils.formatDate(toDate(date), pattern.toString()));
+        String formatPattern = this.pattern != null ? this.pattern : pattern.toString();
+        TimeZone formatTimeZone = timeZone != null ? timeZone : TimeZone.getDefault();
+        stack.push(DateUtils.getDateFormat(formatPattern, formatTimeZone, Locale.getDefault()).format(toDate(date)));
+    }
+
+    /**
+     * @see net.obvj.jep.functions.Precompilable#precompile(java.lang.Object[])
+     */
+    @Override
+    public PostfixMathCommandI precompile(Object[] constantArguments)
+    {
+        if (constantArguments[1] == null || StringUtils.isEmpty(constantArguments[1].toString()))
+        {
+            return null;
+        }
+        String constantPattern = constantArguments[1].toString();
+        try
+        {
+            DateUtils.getDateFormat(constantPattern);
+        }
+        catch (IllegalArgumentException exception)
+        {
+            // The error will be reported at evaluation time
+            return null;
+        }
+        return new DateToString(zone, constantPattern);
+    }
+
+    @Override
+    public ZoneId getZone()
+    {
+        return zone;
+    }
+
+    @Override
+    public PostfixMathCommandI withZone(ZoneId zone)
+    {
+        return new DateToString(zone, pattern);
     }
 
     private Date toDate(Object object)
@@ -1,10 +1,12 @@
 package net.obvj.jep.functions;
 
+import java.time.ZoneId;
 import java.util.Date;
 import java.util.Stack;
 
 import org.nfunk.jep.ParseException;
 import org.nfunk.jep.function.PostfixMathCommand;
+import org.nfunk.jep.function.PostfixMathCommandI;
 
 import net.obvj.jep.util.DateUtils;
 
@@ -15,14 +17,29 @@ import net.obvj.jep.util.DateUtils;
  * @author oswaldo.bapvic.jr
  */
 @Function("endOfMonth")
-public class EndOfMonth extends PostfixMathCommand
+public class EndOfMonth extends PostfixMathCommand implements ZoneAwareCommand
 {
+    private final ZoneId zone;
+
     /**
      * Builds this custom command with a fixed number of 1 parameter
      */
     public EndOfMonth()
+    {
+        this(null);
+    }
+
+    /**
+     * Builds this custom command with a fixed number of 1 parameter, evaluating dates in
+     * the given time zone
+     *
+     * @param zone the time zone to be used, or {@code null} for the system default
+     * @since 1.0.8
+     */
+    public EndOfMonth(ZoneId zone)
     {
         numberOfParameters = 1;
+        this.zone = zone;
     }
 
     /**
@@ -33,7 +50,19 @@ public class EndOfMonth extends PostfixMathCommand
     {
         checkStack(stack);
         Date date = DateUtils.parseDate(stack.pop());
-        stack.push(DateUtils.endOfMonth(date));
+        stack.push(DateUtils.endOfMonth(date, zone != null ? zone : ZoneId.systemDefault()));
+    }
+
+    @Override
+    public ZoneId getZone()
+    {
+        return zone;
+    }
+
+    @Override
+    public PostfixMathCommandI withZone(ZoneId zone)
+    {
+        return new EndOfMonth(zone);
     }
 
 }
@@ -18,4 +18,16 @@ public @interface Function
      * @return an array of the the names/aliases associated with a function
      */
     String[] value();
+
+    /**
+     * Indicates whether the function always returns the same result for the same
+     * arguments, without side effects, so that calls with constant arguments may be
+     * evaluated once, when the expression is compiled.
+     *
+     * @return {@code false} if the result may vary between calls with the same arguments,
+     *         for example, if it depends on the current time, randomness or external
+     *         resources
+     * @since 1.0.8
+     */
+    boolean deterministic() default true;
 }
@@ -15,7 +15,7 @@ import net.obvj.jep.http.WebServiceUtils;
  *
  * @author oswaldo.bapvic.jr
  */
-@Function("http")
+@Function(value = "http", deterministic = false)
 public class Http extends PostfixMathCommand
 {
 
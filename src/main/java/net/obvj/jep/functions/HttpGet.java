@@ -14,7 +14,7 @@ import net.obvj.jep.http.WebServiceUtils;
  *
  * @author oswaldo.bapvic.jr
  */
-@Function("httpGet")
+@Function(value = "httpGet", deterministic = false)
 public class HttpGet extends PostfixMathCommand
 {
 
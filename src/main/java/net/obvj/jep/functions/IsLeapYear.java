@@ -1,10 +1,12 @@
 package net.obvj.jep.functions;
 
+import java.time.ZoneId;
 import java.util.Date;
 import java.util.Stack;
 
 import org.nfunk.jep.ParseException;
 import org.nfunk.jep.function.PostfixMathCommand;
+import org.nfunk.jep.function.PostfixMathCommandI;
 
 import net.obvj.jep.util.DateUtils;
 import net.obvj.jep.util.NumberUtils;
@@ -16,17 +18,32 @@ import net.obvj.jep.util.NumberUtils;
  * @author oswaldo.bapvic.jr
  */
 @Function("isLeapYear")
-public class IsLeapYear extends PostfixMathCommand
+public class IsLeapYear extends PostfixMathCommand implements ZoneAwareCommand
 {
     private static final double FALSE = 0d;
     private static final double TRUE = 1d;
 
+    private final ZoneId zone;
+
     /**
      * Builds this custom command with a fixed number of 1 parameter
      */
     public IsLeapYear()
+    {
+        this(null);
+    }
+
+    /**
+     * Builds this custom command with a fixed number of 1 parameter, evaluating dates in
+     * the given time zone
+     *
+     * @param zone the time zone to be used, or {@code null} for the system default
+     * @since 1.0.8
+     */
+    public IsLeapYear(ZoneId zone)
     {
         numberOfParameters = 1;
+        this.zone = zone;
     }
 
     /**
@@ -45,13 +62,25 @@ public class IsLeapYear extends PostfixMathCommand
             int year = NumberUtils.parseInt(parameter);
             leapYear = DateUtils.isLeapYear(year);
         }
-        else if (DateUtils.isParsable(parameter))
+        else
         {
-            Date date = DateUtils.parseDate(parameter);
-            leapYear = DateUtils.isLeapYear(date);
+            Date date = DateUtils.tryParseDate(parameter);
+            leapYear = date != null && DateUtils.isLeapYear(date, zone != null ? zone : ZoneId.systemDefault());
         }
 
         stack.push(leapYear ? TRUE : FALSE);
     }
 
+    @Override
+    public ZoneId getZone()
+    {
+        return zone;
+    }
+
+    @Override
+    public PostfixMathCommandI withZone(ZoneId zone)
+    {
+        return new IsLeapYear(zone);
+    }
+
 }
@@ -1,11 +1,16 @@
 package net.obvj.jep.functions;
 
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Stack;
 
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.nfunk.jep.ParseException;
 import org.nfunk.jep.function.PostfixMathCommand;
+import org.nfunk.jep.function.PostfixMathCommandI;
 
 import com.jayway.jsonpath.JsonPathException;
 import com.jayway.jsonpath.PathNotFoundException;
@@ -14,24 +19,41 @@ import net.obvj.jep.util.JsonUtils;
 
 /**
  * This class implements a function that evaluates JSONPaths.
+ * <p>
+ * Besides JSON strings and objects, the JSON argument may be a {@link Reader},
+ * {@link InputStream}, {@link File} or {@link Path}, in which case the content is scanned
+ * without being fully loaded into memory, provided that the JSONPath is supported by
+ * {@link net.obvj.jep.util.StreamingJsonPath}. JSON strings are always parsed, so their
+ * results do not depend on their size.
+ * <p>
+ * A literal JSONPath is compiled only once, when the expression is compiled.
  *
  * @author oswaldo.bapvic.jr
  */
 @Function("jsonpath")
-public class JsonPath extends PostfixMathCommand
+public class JsonPath extends PostfixMathCommand implements Precompilable
 {
     private static final String ERROR_JSON_PATH_ARGUMENT_MISSING = "JSONPath argument missing";
     private static final String ERROR_JSON_OBJECT_NOT_FOUND = "JSON object not found: %s";
     private static final String ERROR_NO_RESULTS_FOR_PATH = "No results for path: %s";
     private static final String ERROR_INVALID_JSONPATH = "Invalid JSONPath: %s";
     private static final String ERROR_INVALID_JSON = "Invalid JSON";
+    private static final String ERROR_UNABLE_TO_READ_JSON = "Unable to read JSON: %s";
+
+    private final com.jayway.jsonpath.JsonPath compiledJsonPath;
 
     /**
      * Builds this function with two parameters
      */
     public JsonPath()
+    {
+        this(null);
+    }
+
+    private JsonPath(com.jayway.jsonpath.JsonPath compiledJsonPath)
     {
         numberOfParameters = 2;
+        this.compiledJsonPath = compiledJsonPath;
     }
 
     /**
@@ -57,12 +79,7 @@ public class JsonPath extends PostfixMathCommand
     {
         try
         {
-            JSONObject jsonObject = JsonUtils.toJSONObject(jsonVariable);
-            if (JsonUtils.isEmpty(jsonObject))
-            {
-                throw new IllegalArgumentException(String.format(ERROR_JSON_OBJECT_NOT_FOUND, jsonVariable));
-            }
-            Object result = JsonUtils.readJsonPath(jsonObject, jsonPathString, true);
+            Object result = readJsonPath(jsonPathString, jsonVariable);
             if (JsonUtils.isEmpty(result))
             {
                 throw new IllegalArgumentException(String.format(ERROR_NO_RESULTS_FOR_PATH, jsonPathString));
@@ -73,6 +90,10 @@ public class JsonPath extends PostfixMathCommand
         {
             throw new IllegalArgumentException(ERROR_INVALID_JSON, jsonException);
         }
+        catch (IOException ioException)
+        {
+            throw new IllegalArgumentException(String.format(ERROR_UNABLE_TO_READ_JSON, jsonVariable), ioException);
+        }
         catch (PathNotFoundException pathNotFoundException)
         {
             throw new IllegalArgumentException(
@@ -86,4 +107,54 @@ public class JsonPath extends PostfixMathCommand
         }
     }
 
+    private Object readJsonPath(String jsonPathString, Object jsonVariable) throws IOException
+    {
+        if (jsonVariable instanceof Reader)
+        {
+            return JsonUtils.readJsonPath((Reader) jsonVariable, jsonPathString, true);
+        }
+        if (jsonVariable instanceof InputStream)
+        {
+            Reader reader = new InputStreamReader((InputStream) jsonVariable, StandardCharsets.UTF_8);
+            return JsonUtils.readJsonPath(reader, jsonPathString, true);
+        }
+        if (jsonVariable instanceof File || jsonVariable instanceof Path)
+        {
+            Path path = jsonVariable instanceof File ? ((File) jsonVariable).toPath() : (Path) jsonVariable;
+            try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8))
+            {
+                return JsonUtils.readJsonPath(reader, jsonPathString, true);
+            }
+        }
+        JSONObject jsonObject = JsonUtils.toJSONObject(jsonVariable);
+        if (JsonUtils.isEmpty(jsonObject))
+        {
+            throw new IllegalArgumentException(String.format(ERROR_JSON_OBJECT_NOT_FOUND, jsonVariable));
+        }
+        com.jayway.jsonpath.JsonPath jsonPath = compiledJsonPath == null ? JsonUtils.compileJsonPath(jsonPathString)
+                : compiledJsonPath;
+        return JsonUtils.readJsonPath(jsonObject, jsonPath, true);
+    }
+
+    /**
+     * @see net.obvj.jep.functions.Precompilable#precompile(java.lang.Object[])
+     */
+    @Override
+    public PostfixMathCommandI precompile(Object[] constantArguments)
+    {
+        if (constantArguments[1] == null || constantArguments[1].toString().isEmpty())
+        {
+            return null;
+        }
+        try
+        {
+            return new JsonPath(JsonUtils.compileJsonPath(constantArguments[1].toString()));
+        }
+        catch (JsonPathException exception)
+        {
+            // The error will be reported at evaluation time
+            return null;
+        }
+    }
+
 }
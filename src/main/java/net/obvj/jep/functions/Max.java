@@ -1,7 +1,6 @@
 package net.obvj.jep.functions;
 
 import java.util.Arrays;
-import java.util.List;
 import java.util.Stack;
 
 import org.apache.commons.lang3.StringUtils;
@@ -11,7 +10,7 @@ import org.nfunk.jep.ParseException;
 import org.nfunk.jep.function.PostfixMathCommand;
 
 import net.obvj.jep.util.CollectionsUtils;
-import net.obvj.jep.util.JsonUtils;
+import net.obvj.jep.util.NumberUtils;
 
 /**
  * This class implements a function that returns the highest element in a collection of
@@ -49,8 +48,7 @@ public class Max extends PostfixMathCommand
      */
     private Object max(JSONArray jsonArray)
     {
-        List<Object> convertedList = JsonUtils.toList(jsonArray);
-        return max(convertedList);
+        return max(CollectionsUtils.asList(jsonArray));
     }
 
     /**
@@ -100,6 +98,10 @@ public class Max extends PostfixMathCommand
             {
                 return max((Arrays.asList((Object[]) object)));
             }
+            else if (NumberUtils.isNumericArray(object))
+            {
+                return NumberUtils.max(object);
+            }
             else if (object instanceof String)
             {
                 return max((String) object);
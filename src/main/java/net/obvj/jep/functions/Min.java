@@ -1,7 +1,6 @@
 package net.obvj.jep.functions;
 
 import java.util.Arrays;
-import java.util.List;
 import java.util.Stack;
 
 import org.apache.commons.lang3.StringUtils;
@@ -11,7 +10,7 @@ import org.nfunk.jep.ParseException;
 import org.nfunk.jep.function.PostfixMathCommand;
 
 import net.obvj.jep.util.CollectionsUtils;
-import net.obvj.jep.util.JsonUtils;
+import net.obvj.jep.util.NumberUtils;
 
 /**
  * This class implements a function that returns the lowest element in a collection of
@@ -49,8 +48,7 @@ public class Min extends PostfixMathCommand
      */
     private Object min(JSONArray jsonArray)
     {
-        List<Object> convertedList = JsonUtils.toList(jsonArray);
-        return min(convertedList);
+        return min(CollectionsUtils.asList(jsonArray));
     }
 
     /**
@@ -100,6 +98,10 @@ public class Min extends PostfixMathCommand
             {
                 return min((Arrays.asList((Object[]) object)));
             }
+            else if (NumberUtils.isNumericArray(object))
+            {
+                return NumberUtils.min(object);
+            }
             else if (object instanceof String)
             {
                 return min((String) object);
@@ -11,7 +11,7 @@ import org.nfunk.jep.function.PostfixMathCommand;
  *
  * @author oswaldo.bapvic.jr
  */
-@Function({ "now", "sysdate" })
+@Function(value = { "now", "sysdate" }, deterministic = false)
 public class Now extends PostfixMathCommand
 {
     /**
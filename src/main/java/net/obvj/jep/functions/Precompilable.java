@@ -0,0 +1,33 @@
+package net.obvj.jep.functions;
+
+import org.nfunk.jep.function.PostfixMathCommandI;
+
+/**
+ * A function that can be specialized when an expression is compiled, for arguments
+ * whose values are already known at that time, such as literal regular expressions,
+ * JSONPaths, XPaths or date patterns. This allows the specialized function to skip
+ * the processing of these arguments at every evaluation.
+ * <p>
+ * {@link #precompile(Object[])} is called for every call of the function in a compiled
+ * expression, even if none of its arguments is constant, so it can also be used to give
+ * each call its own instance of a stateful function.
+ *
+ * @author oswaldo.bapvic.jr
+ * @since 1.0.8
+ */
+public interface Precompilable
+{
+    /**
+     * Returns a new instance of this function specialized for the given constant
+     * arguments, or {@code null} if no specialization applies.
+     * <p>
+     * The specialized function receives the same arguments in the stack as the original
+     * one, and must produce the same results, including for invalid arguments. Since it
+     * is bound to a single node of an expression, it is not shared by other expressions.
+     *
+     * @param constantArguments the values of the arguments of the function call, in order,
+     *                          with {@code null} for the arguments that are not constant
+     * @return a specialized function, or {@code null}
+     */
+    PostfixMathCommandI precompile(Object[] constantArguments);
+}
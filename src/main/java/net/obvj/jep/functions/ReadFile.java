@@ -13,7 +13,7 @@ import net.obvj.jep.util.FileUtils;
  *
  * @author oswaldo.bapvic.jr
  */
-@Function("readFile")
+@Function(value = "readFile", deterministic = false)
 public class ReadFile extends PostfixMathCommand
 {
 
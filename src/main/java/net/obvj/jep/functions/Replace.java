@@ -1,19 +1,25 @@
 package net.obvj.jep.functions;
 
 import java.util.Stack;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 import org.apache.commons.lang3.StringUtils;
 import org.nfunk.jep.ParseException;
 import org.nfunk.jep.function.PostfixMathCommand;
+import org.nfunk.jep.function.PostfixMathCommandI;
 
 import net.obvj.jep.util.RegexUtils;
 
 /**
  * An "abstract" function that replaces occurrences of a string with another string.
+ * <p>
+ * For the {@code replaceRegex} strategy, a literal regular expression is compiled only
+ * once, when the expression is compiled.
  *
  * @author oswaldo.bapvic.jr
  */
-public class Replace extends PostfixMathCommand implements MultiStrategyCommand
+public class Replace extends PostfixMathCommand implements MultiStrategyCommand, Precompilable
 {
     /**
      * Defines particular strategies for the {@link Replace} function.
@@ -50,6 +56,7 @@ public class Replace extends PostfixMathCommand implements MultiStrategyCommand
     }
 
     private final Strategy strategy;
+    private final Pattern pattern;
 
     /**
      * Builds this function with a fixed number of three parameters and the given search
@@ -58,9 +65,15 @@ public class Replace extends PostfixMathCommand implements MultiStrategyCommand
      * @param searchStrategy the {@link Strategy} to be set
      */
     public Replace(Strategy searchStrategy)
+    {
+        this(searchStrategy, null);
+    }
+
+    private Replace(Strategy searchStrategy, Pattern pattern)
     {
         numberOfParameters = 3;
         this.strategy = searchStrategy;
+        this.pattern = pattern;
     }
 
     /**
@@ -84,10 +97,37 @@ public class Replace extends PostfixMathCommand implements MultiStrategyCommand
         String searchString = arg2.toString();
         String replacement = arg3 == null ? StringUtils.EMPTY : arg3.toString();
 
-        String result = strategy.execute(sourceString, searchString, replacement);
+        String result = pattern == null ? strategy.execute(sourceString, searchString, replacement)
+                : replaceMatches(sourceString, replacement);
         stack.push(result);
     }
 
+    private String replaceMatches(String sourceString, String replacement)
+    {
+        return sourceString.isEmpty() ? sourceString : pattern.matcher(sourceString).replaceAll(replacement);
+    }
+
+    /**
+     * @see net.obvj.jep.functions.Precompilable#precompile(java.lang.Object[])
+     */
+    @Override
+    public PostfixMathCommandI precompile(Object[] constantArguments)
+    {
+        if (strategy != Strategy.REGEX || constantArguments[1] == null)
+        {
+            return null;
+        }
+        try
+        {
+            return new Replace(strategy, RegexUtils.compilePattern(constantArguments[1].toString()));
+        }
+        catch (PatternSyntaxException exception)
+        {
+            // The error will be reported at evaluation time
+            return null;
+        }
+    }
+
     /**
      * @see net.obvj.jep.functions.MultiStrategyCommand#getStrategy()
      */
@@ -1,11 +1,16 @@
 package net.obvj.jep.functions;
 
+import java.time.ZoneId;
 import java.util.Date;
+import java.util.Locale;
 import java.util.Stack;
+import java.util.TimeZone;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.time.FastDateFormat;
 import org.nfunk.jep.ParseException;
 import org.nfunk.jep.function.PostfixMathCommand;
+import org.nfunk.jep.function.PostfixMathCommandI;
 
 import net.obvj.jep.util.DateUtils;
 
@@ -36,18 +41,47 @@ import net.obvj.jep.util.DateUtils;
  * </ul>
  *
  * </ul>
+ * <p>
+ * Literal patterns are validated only once, when the expression is compiled. The formats
+ * are resolved at each evaluation, in the time zone of the function or, if not specified,
+ * in the system default time zone and locale at that moment. Strings parsed without a
+ * pattern are always resolved in the system default time zone.
  *
  * @author oswaldo.bapvic.jr
  */
 @Function("str2date")
-public class StringToDate extends PostfixMathCommand
+public class StringToDate extends PostfixMathCommand implements Precompilable, ZoneAwareCommand
 {
+    private final ZoneId zone;
+    private final TimeZone timeZone;
+    private final String[] patterns;
+
     /**
      * Builds this custom command with a variable number of parameters
      */
     public StringToDate()
+    {
+        this((ZoneId) null);
+    }
+
+    /**
+     * Builds this custom command with a variable number of parameters, parsing dates with
+     * explicit patterns in the given time zone
+     *
+     * @param zone the time zone to be used, or {@code null} for the system default
+     * @since 1.0.8
+     */
+    public StringToDate(ZoneId zone)
+    {
+        this(zone, null);
+    }
+
+    private StringToDate(ZoneId zone, String[] patterns)
     {
         numberOfParameters = -1;
+        this.zone = zone;
+        this.timeZone = zone != null ? TimeZone.getTimeZone(zone) : null;
+        this.patterns = patterns;
     }
 
     /**
@@ -71,7 +105,51 @@ public class StringToDate extends PostfixMathCommand
         Object date = stack.pop();
         validateInput(date);
 
-        stack.push(parseDate(String.valueOf(date), patterns));
+        boolean precompiled = this.patterns != null && this.patterns.length == numberOfPatterns;
+        stack.push(parseDate(String.valueOf(date), precompiled ? this.patterns : patterns));
+    }
+
+    /**
+     * @see net.obvj.jep.functions.Precompilable#precompile(java.lang.Object[])
+     */
+    @Override
+    public PostfixMathCommandI precompile(Object[] constantArguments)
+    {
+        if (constantArguments.length < 2)
+        {
+            return null;
+        }
+        String[] constantPatterns = new String[constantArguments.length - 1];
+        for (int i = 0; i < constantPatterns.length; i++)
+        {
+            if (constantArguments[i + 1] == null)
+            {
+                return null;
+            }
+            constantPatterns[i] = String.valueOf(constantArguments[i + 1]);
+            try
+            {
+                DateUtils.getDateFormat(constantPatterns[i]);
+            }
+            catch (IllegalArgumentException exception)
+            {
+                // The error will be reported at evaluation time
+                return null;
+            }
+        }
+        return new StringToDate(zone, constantPatterns);
+    }
+
+    @Override
+    public ZoneId getZone()
+    {
+        return zone;
+    }
+
+    @Override
+    public PostfixMathCommandI withZone(ZoneId zone)
+    {
+        return new StringToDate(zone, patterns);
     }
 
     /**
@@ -91,11 +169,24 @@ public class StringToDate extends PostfixMathCommand
     {
         try
         {
-            return patterns.length == 0 ? DateUtils.parseDate(date) : DateUtils.parseDate(date, patterns);
+            return patterns.length == 0 ? DateUtils.parseDate(date)
+                    : DateUtils.parseDate(date, toDateFormats(patterns));
         }
         catch (java.text.ParseException parseException)
         {
             throw new IllegalArgumentException(parseException);
         }
     }
+
+    private FastDateFormat[] toDateFormats(String[] patterns)
+    {
+        TimeZone formatTimeZone = timeZone != null ? timeZone : TimeZone.getDefault();
+        Locale locale = Locale.getDefault();
+        FastDateFormat[] formats = new FastDateFormat[patterns.length];
+        for (int i = 0; i < patterns.length; i++)
+        {
+            formats[i] = DateUtils.getDateFormat(patterns[i], formatTimeZone, locale);
+        }
+        return formats;
+    }
 }
@@ -9,7 +9,7 @@ import org.nfunk.jep.function.PostfixMathCommand;
  *
  * @author oswaldo.bapvic.jr
  */
-@Function("uuid")
+@Function(value = "uuid", deterministic = false)
 public class UUID extends PostfixMathCommand
 {
     /**
@@ -20,7 +20,7 @@ public class UnarySystemFunction extends PostfixMathCommand implements MultiStra
         /**
          * Retrieves environment variables
          */
-        @Function("getEnv")
+        @Function(value = "getEnv", deterministic = false)
         GET_ENV
         {
             @Override
@@ -33,7 +33,7 @@ public class UnarySystemFunction extends PostfixMathCommand implements MultiStra
         /**
          * Retrieves system properties
          */
-        @Function("getSystemProperty")
+        @Function(value = "getSystemProperty", deterministic = false)
         GET_SYSTEM_PROPERTY
         {
             @Override
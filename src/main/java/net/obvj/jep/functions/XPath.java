@@ -1,13 +1,17 @@
 package net.obvj.jep.functions;
 
-import java.io.IOException;
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Stack;
 
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.xpath.XPathExpression;
 import javax.xml.xpath.XPathExpressionException;
 
 import org.nfunk.jep.ParseException;
 import org.nfunk.jep.function.PostfixMathCommand;
+import org.nfunk.jep.function.PostfixMathCommandI;
 import org.w3c.dom.Document;
 import org.xml.sax.SAXException;
 
@@ -15,23 +19,43 @@ import net.obvj.jep.util.XmlUtils;
 
 /**
  * This class implements a function that evaluates XPaths.
+ * <p>
+ * Besides XML strings and documents, the XML argument may be a {@link Reader},
+ * {@link InputStream}, {@link File} or {@link Path}, in which case the content is
+ * evaluated in a single pass, without being fully loaded into memory, provided that the
+ * XPath is supported by {@link net.obvj.jep.util.StreamingXPath}. The same applies to XML
+ * strings larger than the streaming threshold configured in {@link XmlUtils}.
+ * <p>
+ * A literal XPath is compiled only once, when the expression is compiled.
  *
  * @author oswaldo.bapvic.jr
  */
 @Function({ "xpath", "filterxml" })
-public class XPath extends PostfixMathCommand
+public class XPath extends PostfixMathCommand implements Precompilable
 {
     private static final String ERROR_XPATH_ARGUMENT_MISSING = "XPath argument missing";
     private static final String ERROR_INVALID_XPATH = "Invalid XPath: %s";
     private static final String ERROR_VARIABLE_NOT_FOUND = "XML object not found: %s";
     private static final String ERROR_INVALID_XML = "Invalid XML: %s";
 
+    /*
+     * Not thread-safe, but owned by a single node of a compiled expression, which is not
+     * evaluated by multiple threads concurrently
+     */
+    private final XPathExpression compiledXPath;
+
     /**
      * Builds this function with two parameters
      */
     public XPath()
+    {
+        this(null);
+    }
+
+    private XPath(XPathExpression compiledXPath)
     {
         numberOfParameters = 2;
+        this.compiledXPath = compiledXPath;
     }
 
     /**
@@ -61,8 +85,7 @@ public class XPath extends PostfixMathCommand
     {
         try
         {
-            Document xmlDocument = XmlUtils.convertToXML(xmlVariable);
-            return XmlUtils.evaluateXPathAsObjectList(xmlDocument, xPathString);
+            return evaluateXPath(xPathString, xmlVariable);
         }
         catch (ParserConfigurationException | SAXException | IOException e)
         {
@@ -74,4 +97,54 @@ public class XPath extends PostfixMathCommand
         }
     }
 
+    private Object evaluateXPath(String xPathString, Object xmlVariable)
+            throws ParserConfigurationException, SAXException, IOException, XPathExpressionException
+    {
+        if (xmlVariable instanceof Reader)
+        {
+            return XmlUtils.evaluateXPathAsObjectList((Reader) xmlVariable, xPathString);
+        }
+        if (xmlVariable instanceof InputStream)
+        {
+            return XmlUtils.evaluateXPathAsObjectList((InputStream) xmlVariable, xPathString);
+        }
+        if (xmlVariable instanceof File || xmlVariable instanceof Path)
+        {
+            Path path = xmlVariable instanceof File ? ((File) xmlVariable).toPath() : (Path) xmlVariable;
+            try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(path)))
+            {
+                return XmlUtils.evaluateXPathAsObjectList(inputStream, xPathString);
+            }
+        }
+        if (XmlUtils.isStreamingCandidate(xmlVariable, xPathString))
+        {
+            return XmlUtils.evaluateXPathAsObjectList(new StringReader((String) xmlVariable), xPathString);
+        }
+
+        Document xmlDocument = XmlUtils.convertToXML(xmlVariable);
+        return compiledXPath == null ? XmlUtils.evaluateXPathAsObjectList(xmlDocument, xPathString)
+                : XmlUtils.evaluateXPathAsObjectList(xmlDocument, compiledXPath);
+    }
+
+    /**
+     * @see net.obvj.jep.functions.Precompilable#precompile(java.lang.Object[])
+     */
+    @Override
+    public PostfixMathCommandI precompile(Object[] constantArguments)
+    {
+        if (constantArguments[1] == null || constantArguments[1].toString().isEmpty())
+        {
+            return null;
+        }
+        try
+        {
+            return new XPath(XmlUtils.newXPathExpression(constantArguments[1].toString()));
+        }
+        catch (XPathExpressionException exception)
+        {
+            // The error will be reported at evaluation time
+            return null;
+        }
+    }
+
 }
@@ -0,0 +1,33 @@
+package net.obvj.jep.functions;
+
+import java.time.ZoneId;
+
+import org.nfunk.jep.function.PostfixMathCommandI;
+
+/**
+ * A function whose results depend on a time zone, such as the extraction of date fields.
+ * <p>
+ * The time zone is fixed for each instance, so that instances can be shared by multiple
+ * contexts. A context may use a different time zone by replacing its instances with the
+ * ones returned by {@link #withZone(ZoneId)}.
+ *
+ * @author oswaldo.bapvic.jr
+ * @since 1.0.8
+ */
+public interface ZoneAwareCommand
+{
+    /**
+     * @return the time zone used by this function, or {@code null} if the system default
+     *         time zone is used at each evaluation
+     */
+    ZoneId getZone();
+
+    /**
+     * Returns a new instance of this function that uses the given time zone.
+     *
+     * @param zone the time zone to be used, or {@code null} for the system default time
+     *             zone at each evaluation
+     * @return a new function instance
+     */
+    PostfixMathCommandI withZone(ZoneId zone);
+}
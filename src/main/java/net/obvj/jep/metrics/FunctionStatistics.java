@@ -0,0 +1,92 @@
+package net.obvj.jep.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe counters of the invocations, errors and latencies of a function, or of all
+ * functions of a package.
+ *
+ * @author oswaldo.bapvic.jr
+ * @since 1.0.8
+ */
+public class FunctionStatistics implements InvocationRecorder, FunctionStatisticsMXBean
+{
+    private final LongAdder errorCount = new LongAdder();
+    private final LatencyHistogram latencyHistogram = new LatencyHistogram();
+
+    @Override
+    public void record(long latencyNanos, boolean failed)
+    {
+        latencyHistogram.record(latencyNanos);
+        if (failed)
+        {
+            errorCount.increment();
+        }
+    }
+
+    @Override
+    public long getCallCount()
+    {
+        return latencyHistogram.getCount();
+    }
+
+    @Override
+    public long getErrorCount()
+    {
+        return errorCount.sum();
+    }
+
+    /**
+     * @return the histogram of the latencies of the invocations, in nanoseconds
+     */
+    public LatencyHistogram getLatencyHistogram()
+    {
+        return latencyHistogram;
+    }
+
+    @Override
+    public double getMeanLatencyNanos()
+    {
+        return latencyHistogram.getMean();
+    }
+
+    @Override
+    public long getLatencyP50Nanos()
+    {
+        return latencyHistogram.getValueAtPercentile(50);
+    }
+
+    @Override
+    public long getLatencyP95Nanos()
+    {
+        return latencyHistogram.getValueAtPercentile(95);
+    }
+
+    @Override
+    public long getLatencyP99Nanos()
+    {
+        return latencyHistogram.getValueAtPercentile(99);
+    }
+
+    @Override
+    public long getMaxLatencyNanos()
+    {
+        return latencyHistogram.getMax();
+    }
+
+    @Override
+    public void reset()
+    {
+        errorCount.reset();
+        latencyHistogram.reset();
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("FunctionStatistics [callCount=%d, errorCount=%d, meanLatencyNanos=%.1f, "
+                + "latencyP99Nanos=%d, maxLatencyNanos=%d]", getCallCount(), getErrorCount(), getMeanLatencyNanos(),
+                getLatencyP99Nanos(), getMaxLatencyNanos());
+    }
+
+}
@@ -0,0 +1,51 @@
+package net.obvj.jep.metrics;
+
+/**
+ * The management interface of {@link FunctionStatistics}, which is registered by
+ * {@link JmxMetricsRegistry}.
+ *
+ * @author oswaldo.bapvic.jr
+ * @since 1.0.8
+ */
+public interface FunctionStatisticsMXBean
+{
+    /**
+     * @return the number of invocations
+     */
+    long getCallCount();
+
+    /**
+     * @return the number of invocations that threw an exception
+     */
+    long getErrorCount();
+
+    /**
+     * @return the mean latency of the invocations, in nanoseconds
+     */
+    double getMeanLatencyNanos();
+
+    /**
+     * @return the median latency of the invocations, in nanoseconds
+     */
+    long getLatencyP50Nanos();
+
+    /**
+     * @return the 95th percentile of the latency of the invocations, in nanoseconds
+     */
+    long getLatencyP95Nanos();
+
+    /**
+     * @return the 99th percentile of the latency of the invocations, in nanoseconds
+     */
+    long getLatencyP99Nanos();
+
+    /**
+     * @return the highest latency of the invocations, in nanoseconds
+     */
+    long getMaxLatencyNanos();
+
+    /**
+     * Clears all the counters.
+     */
+    void reset();
+}
@@ -0,0 +1,102 @@
+package net.obvj.jep.metrics;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import net.obvj.jep.NamedPackage;
+
+/**
+ * A {@link MetricsRegistry} that keeps the metrics of each function alias, and of all
+ * functions of each {@link NamedPackage}, in memory.
+ *
+ * @author oswaldo.bapvic.jr
+ * @since 1.0.8
+ */
+public class InMemoryMetricsRegistry implements MetricsRegistry
+{
+    private final Map<String, FunctionStatistics> statisticsByFunction = new ConcurrentHashMap<>();
+    private final Map<NamedPackage, FunctionStatistics> statisticsByPackage = Collections
+            .synchronizedMap(new EnumMap<>(NamedPackage.class));
+
+    @Override
+    public InvocationRecorder getRecorder(String alias, NamedPackage namedPackage)
+    {
+        FunctionStatistics functionStatistics = statisticsByFunction.computeIfAbsent(alias,
+                key -> newStatistics(key, namedPackage));
+        if (namedPackage == null)
+        {
+            return functionStatistics;
+        }
+        FunctionStatistics packageStatistics = statisticsByPackage.computeIfAbsent(namedPackage,
+                key -> newStatistics(null, key));
+        return (latencyNanos, failed) ->
+        {
+            functionStatistics.record(latencyNanos, failed);
+            packageStatistics.record(latencyNanos, failed);
+        };
+    }
+
+    /**
+     * Creates the statistics of a function alias or package, at the first request of a
+     * recorder for it. Subclasses may override this method to publish the statistics.
+     *
+     * @param alias        the function alias, or {@code null} for the statistics of all
+     *                     functions of a package
+     * @param namedPackage the package that provides the function(s), or {@code null} if the
+     *                     function is not provided by a named package
+     * @return new statistics
+     */
+    protected FunctionStatistics newStatistics(String alias, NamedPackage namedPackage)
+    {
+        return new FunctionStatistics();
+    }
+
+    /**
+     * @param alias the name/alias by which a function is called
+     * @return the statistics of the function alias, or {@code null} if no context was
+     *         instrumented with that function
+     */
+    public FunctionStatistics getStatistics(String alias)
+    {
+        return statisticsByFunction.get(alias);
+    }
+
+    /**
+     * @param namedPackage the package whose statistics are to be returned
+     * @return the combined statistics of all functions of the package, or {@code null} if
+     *         no context was instrumented with functions of that package
+     */
+    public FunctionStatistics getStatistics(NamedPackage namedPackage)
+    {
+        return statisticsByPackage.get(namedPackage);
+    }
+
+    /**
+     * @return a sorted snapshot of the statistics of each function alias
+     */
+    public SortedMap<String, FunctionStatistics> getStatisticsByFunction()
+    {
+        return new TreeMap<>(statisticsByFunction);
+    }
+
+    /**
+     * @return a snapshot of the combined statistics of the functions of each package
+     */
+    public Map<NamedPackage, FunctionStatistics> getStatisticsByPackage()
+    {
+        synchronized (statisticsByPackage)
+        {
+            return new EnumMap<>(statisticsByPackage);
+        }
+    }
+
+    /**
+     * Clears the counters of all functions and packages.
+     */
+    public void reset()
+    {
+        statisticsByFunction.values().forEach(FunctionStatistics::reset);
+        getStatisticsByPackage().values().forEach(FunctionStatistics::reset);
+    }
+
+}
@@ -0,0 +1,137 @@
+package net.obvj.jep.metrics;
+
+import java.util.Stack;
+
+import org.nfunk.jep.ParseException;
+import org.nfunk.jep.function.CallbackEvaluationI;
+import org.nfunk.jep.function.PostfixMathCommandI;
+import org.nfunk.jep.function.SpecialEvaluationI;
+
+import net.obvj.jep.functions.Precompilable;
+
+/**
+ * A function that delegates to another one, recording the latency and outcome of each
+ * invocation in an {@link InvocationRecorder}.
+ * <p>
+ * Functions with special evaluation, such as {@code if} and the assignment operator,
+ * evaluate their arguments themselves, so they cannot be instrumented by this class.
+ *
+ * @author oswaldo.bapvic.jr
+ * @since 1.0.8
+ */
+public final class InstrumentedCommand implements PostfixMathCommandI, Precompilable
+{
+    private final PostfixMathCommandI delegate;
+    private final InvocationRecorder recorder;
+
+    /**
+     * Builds an instrumented function.
+     *
+     * @param delegate the function to be instrumented, not null
+     * @param recorder the recorder of the invocations, not null
+     * @throws IllegalArgumentException if any argument is null, or if the function cannot
+     *                                  be instrumented
+     */
+    public InstrumentedCommand(PostfixMathCommandI delegate, InvocationRecorder recorder)
+    {
+        if (!isInstrumentable(delegate))
+        {
+            throw new IllegalArgumentException("The function cannot be instrumented: " + delegate);
+        }
+        if (recorder == null)
+        {
+            throw new IllegalArgumentException("A null recorder was received");
+        }
+        this.delegate = delegate;
+        this.recorder = recorder;
+    }
+
+    /**
+     * Checks whether the given function can be instrumented by this class.
+     *
+     * @param function the function to be checked
+     * @return {@code true} if the function is neither null, nor already instrumented, nor a
+     *         function with special evaluation
+     */
+    public static boolean isInstrumentable(PostfixMathCommandI function)
+    {
+        return function != null && !(function instanceof InstrumentedCommand)
+                && !(function instanceof SpecialEvaluationI) && !(function instanceof CallbackEvaluationI);
+    }
+
+    /**
+     * @return the instrumented function
+     */
+    public PostfixMathCommandI getDelegate()
+    {
+        return delegate;
+    }
+
+    /**
+     * Returns a new instance of this class that instruments the given function with the
+     * same recorder.
+     *
+     * @param function the function to be instrumented, not null
+     * @return a new instrumented function
+     */
+    public InstrumentedCommand withDelegate(PostfixMathCommandI function)
+    {
+        return new InstrumentedCommand(function, recorder);
+    }
+
+    @Override
+    public void run(Stack stack) throws ParseException
+    {
+        boolean failed = true;
+        long start = System.nanoTime();
+        try
+        {
+            delegate.run(stack);
+            failed = false;
+        }
+        finally
+        {
+            recorder.record(System.nanoTime() - start, failed);
+        }
+    }
+
+    @Override
+    public int getNumberOfParameters()
+    {
+        return delegate.getNumberOfParameters();
+    }
+
+    @Override
+    public void setCurNumberOfParameters(int n)
+    {
+        delegate.setCurNumberOfParameters(n);
+    }
+
+    @Override
+    public boolean checkNumberOfParameters(int n)
+    {
+        return delegate.checkNumberOfParameters(n);
+    }
+
+    /**
+     * Specializes the instrumented function, if it is {@link Precompilable}, keeping the
+     * specialized function instrumented.
+     */
+    @Override
+    public PostfixMathCommandI precompile(Object[] constantArguments)
+    {
+        if (delegate instanceof Precompilable)
+        {
+            PostfixMathCommandI specialized = ((Precompilable) delegate).precompile(constantArguments);
+            return specialized == null ? null : withDelegate(specialized);
+        }
+        return null;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "InstrumentedCommand [" + delegate + "]";
+    }
+
+}
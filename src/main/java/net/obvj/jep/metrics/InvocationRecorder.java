@@ -0,0 +1,19 @@
+package net.obvj.jep.metrics;
+
+/**
+ * Receives the outcome of each invocation of an instrumented function.
+ *
+ * @author oswaldo.bapvic.jr
+ * @since 1.0.8
+ */
+@FunctionalInterface
+public interface InvocationRecorder
+{
+    /**
+     * Records an invocation of the function.
+     *
+     * @param latencyNanos the time elapsed in the invocation, in nanoseconds
+     * @param failed       {@code true} if the invocation threw an exception
+     */
+    void record(long latencyNanos, boolean failed);
+}
@@ -0,0 +1,183 @@
+package net.obvj.jep.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.*;
+
+import net.obvj.jep.NamedPackage;
+
+/**
+ * An {@link InMemoryMetricsRegistry} that also registers the statistics of each function
+ * alias and package as MBeans, with the attributes of {@link FunctionStatisticsMXBean}.
+ * <p>
+ * The MBeans are named after the given domain, for example:
+ *
+ * <pre>
+ * net.obvj.jep:type=FunctionStatistics,package=DATA_MANIPULATION,function=jsonpath
+ * net.obvj.jep:type=PackageStatistics,package=DATA_MANIPULATION
+ * </pre>
+ *
+ * Functions that are not provided by a named package are registered with
+ * {@code package=NONE}. The MBeans are unregistered by {@link #close()}.
+ * <p>
+ * If an MBean with the same name is already registered, for example by another registry
+ * with the same domain, it is replaced by the one of the most recent registry. Other
+ * failures to register an MBean are logged and do not affect the evaluation of
+ * expressions: the statistics are still kept in memory.
+ *
+ * @author oswaldo.bapvic.jr
+ * @since 1.0.8
+ */
+public class JmxMetricsRegistry extends InMemoryMetricsRegistry implements AutoCloseable
+{
+    /**
+     * The default domain of the MBeans.
+     */
+    public static final String DEFAULT_DOMAIN = "net.obvj.jep";
+
+    private static final Logger LOG = Logger.getLogger("jep-data-extension");
+
+    /**
+     * The registry that owns each MBean, by server and name, so that closing a registry
+     * does not unregister the MBeans that replaced its own
+     */
+    private static final ConcurrentMap<List<Object>, JmxMetricsRegistry> OWNERS = new ConcurrentHashMap<>();
+
+    private final MBeanServer server;
+    private final String domain;
+    private final List<ObjectName> registeredNames = new CopyOnWriteArrayList<>();
+
+    /**
+     * Builds a registry that registers MBeans in the platform MBean server, with the
+     * default domain.
+     */
+    public JmxMetricsRegistry()
+    {
+        this(ManagementFactory.getPlatformMBeanServer(), DEFAULT_DOMAIN);
+    }
+
+    /**
+     * Builds a registry that registers MBeans in the given server and domain.
+     *
+     * @param server the MBean server, not null
+     * @param domain the domain of the MBeans, not blank
+     * @throws IllegalArgumentException if the server is null or the domain is blank
+     */
+    public JmxMetricsRegistry(MBeanServer server, String domain)
+    {
+        if (server == null)
+        {
+            throw new IllegalArgumentException("A null MBean server was received");
+        }
+        if (domain == null || domain.trim().isEmpty())
+        {
+            throw new IllegalArgumentException("The domain cannot be empty");
+        }
+        this.server = server;
+        this.domain = domain;
+    }
+
+    /**
+     * @param alias        the function alias, or {@code null} for the statistics of all
+     *                     functions of a package
+     * @param namedPackage the package that provides the function(s), or {@code null}
+     * @return the name of the MBean for the statistics of the given function or package
+     * @throws IllegalArgumentException if the resulting name is not valid
+     */
+    public ObjectName getObjectName(String alias, NamedPackage namedPackage)
+    {
+        String packageName = namedPackage == null ? "NONE" : namedPackage.name();
+        String name = alias == null ? String.format("%s:type=PackageStatistics,package=%s", domain, packageName)
+                : String.format("%s:type=FunctionStatistics,package=%s,function=%s", domain, packageName,
+                        alias);
+        try
+        {
+            return new ObjectName(name);
+        }
+        catch (JMException exception)
+        {
+            throw new IllegalArgumentException("Invalid MBean name: " + name, exception);
+        }
+    }
+
+    /**
+     * Creates the statistics and registers them as an MBean. A failure to register the
+     * MBean is logged, and the statistics are returned anyway.
+     */
+    @Override
+    protected FunctionStatistics newStatistics(String alias, NamedPackage namedPackage)
+    {
+        FunctionStatistics statistics = super.newStatistics(alias, namedPackage);
+        try
+        {
+            register(statistics, getObjectName(alias, namedPackage));
+        }
+        catch (JMException | RuntimeException exception)
+        {
+            LOG.log(Level.WARNING, exception,
+                    () -> String.format("Unable to register MBean for function %s of package %s", alias,
+                            namedPackage));
+        }
+        return statistics;
+    }
+
+    private void register(FunctionStatistics statistics, ObjectName name) throws JMException
+    {
+        try
+        {
+            server.registerMBean(statistics, name);
+        }
+        catch (InstanceAlreadyExistsException exception)
+        {
+            // Registered by another registry, which may not have been closed
+            try
+            {
+                server.unregisterMBean(name);
+            }
+            catch (InstanceNotFoundException notFoundException)
+            {
+                // Unregistered meanwhile
+            }
+            server.registerMBean(statistics, name);
+        }
+        OWNERS.put(ownerKey(name), this);
+        registeredNames.add(name);
+    }
+
+    private List<Object> ownerKey(ObjectName name)
+    {
+        return Arrays.asList(server, name);
+    }
+
+    /**
+     * Unregisters all MBeans registered by this registry, except the ones that were
+     * replaced by other registries since then. The statistics are still kept in memory.
+     */
+    @Override
+    public void close()
+    {
+        for (ObjectName name : registeredNames)
+        {
+            if (OWNERS.remove(ownerKey(name), this))
+            {
+                try
+                {
+                    server.unregisterMBean(name);
+                }
+                catch (JMException exception)
+                {
+                    // Already unregistered by other means
+                }
+            }
+        }
+        registeredNames.clear();
+    }
+
+}
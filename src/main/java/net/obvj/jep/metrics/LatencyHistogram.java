@@ -0,0 +1,150 @@
+package net.obvj.jep.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of latencies, with buckets of exponentially increasing widths, as
+ * in HdrHistogram.
+ * <p>
+ * Values lower than 64 are counted exactly. Larger values are counted in 32 buckets per
+ * power of two, so the values reported for percentiles are within about 3% of the
+ * recorded ones. Any non-negative {@code long} can be recorded in a fixed footprint of
+ * about 15 KB.
+ * <p>
+ * Values can be recorded and read concurrently. Since the counters are not updated
+ * atomically as a whole, values read during recording may not reflect the most recent
+ * invocations.
+ *
+ * @author oswaldo.bapvic.jr
+ * @since 1.0.8
+ */
+public class LatencyHistogram
+{
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT / 2;
+    private static final int BUCKET_COUNT = bucketIndex(Long.MAX_VALUE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalValue = new LongAdder();
+    private final LongAccumulator maxValue = new LongAccumulator(Math::max, 0);
+
+    /**
+     * @return the index of the bucket that counts the given value, not negative
+     */
+    static int bucketIndex(long value)
+    {
+        if (value < SUB_BUCKET_COUNT)
+        {
+            return (int) value;
+        }
+        int shift = Long.SIZE - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift << (SUB_BUCKET_BITS - 1)) + (int) (value >>> shift);
+    }
+
+    /**
+     * @return the highest value counted by the bucket with the given index
+     */
+    static long highestValueInBucket(int index)
+    {
+        if (index < SUB_BUCKET_COUNT)
+        {
+            return index;
+        }
+        int shift = (index >>> (SUB_BUCKET_BITS - 1)) - 1;
+        long subBucket = (index & (SUB_BUCKET_HALF_COUNT - 1)) + SUB_BUCKET_HALF_COUNT;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * Records a value. Negative values, which may be produced by clock adjustments, are
+     * recorded as zero.
+     *
+     * @param value the value to be recorded
+     */
+    public void record(long value)
+    {
+        long nonNegativeValue = Math.max(0, value);
+        counts.incrementAndGet(bucketIndex(nonNegativeValue));
+        totalCount.increment();
+        totalValue.add(nonNegativeValue);
+        maxValue.accumulate(nonNegativeValue);
+    }
+
+    /**
+     * @return the number of recorded values
+     */
+    public long getCount()
+    {
+        return totalCount.sum();
+    }
+
+    /**
+     * @return the arithmetic mean of the recorded values, or zero if no value was recorded
+     */
+    public double getMean()
+    {
+        long count = totalCount.sum();
+        return count == 0 ? 0 : (double) totalValue.sum() / count;
+    }
+
+    /**
+     * @return the highest recorded value, or zero if no value was recorded
+     */
+    public long getMax()
+    {
+        return maxValue.get();
+    }
+
+    /**
+     * Returns a value that is greater than or equal to the given percentage of the recorded
+     * values, within the precision of the histogram.
+     *
+     * @param percentile the percentage of values, from 0 to 100
+     * @return the value at the given percentile, or zero if no value was recorded
+     * @throws IllegalArgumentException if the percentile is not between 0 and 100
+     */
+    public long getValueAtPercentile(double percentile)
+    {
+        if (!(percentile >= 0 && percentile <= 100))
+        {
+            throw new IllegalArgumentException("The percentile must be between 0 and 100: " + percentile);
+        }
+        long[] snapshot = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++)
+        {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long cumulativeCount = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++)
+        {
+            cumulativeCount += snapshot[i];
+            if (cumulativeCount >= rank)
+            {
+                return Math.min(highestValueInBucket(i), getMax());
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Clears all recorded values.
+     */
+    public void reset()
+    {
+        for (int i = 0; i < BUCKET_COUNT; i++)
+        {
+            counts.set(i, 0);
+        }
+        totalCount.reset();
+        totalValue.reset();
+        maxValue.reset();
+    }
+
+}
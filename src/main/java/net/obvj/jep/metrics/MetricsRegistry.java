@@ -0,0 +1,28 @@
+package net.obvj.jep.metrics;
+
+import net.obvj.jep.NamedPackage;
+
+/**
+ * A service provider that receives the metrics of the functions of instrumented JEP
+ * contexts.
+ * <p>
+ * A recorder is requested for each function alias when a context is instrumented, so
+ * implementations are expected to return the same recorder, or recorders sharing the same
+ * counters, for the same alias. Implementations must be thread-safe.
+ *
+ * @author oswaldo.bapvic.jr
+ * @since 1.0.8
+ * @see net.obvj.jep.JEPContextFactory#setMetricsRegistry(MetricsRegistry)
+ */
+public interface MetricsRegistry
+{
+    /**
+     * Returns the recorder of the invocations of a function.
+     *
+     * @param alias        the name/alias by which the function is called
+     * @param namedPackage the package that provides the function, or {@code null} if the
+     *                     function is not provided by a named package
+     * @return the recorder of the invocations of the function, not null
+     */
+    InvocationRecorder getRecorder(String alias, NamedPackage namedPackage);
+}
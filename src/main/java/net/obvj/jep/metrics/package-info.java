@@ -0,0 +1,18 @@
+/**
+ * <p>
+ * Provides the instrumentation of JEP functions with invocation metrics.
+ * </p>
+ * <p>
+ * The <b>MetricsRegistry</b> is the extension point that receives the call counts, errors
+ * and latencies of the functions of instrumented contexts. The <b>InMemoryMetricsRegistry</b>
+ * keeps them in <b>FunctionStatistics</b> objects, which the <b>JmxMetricsRegistry</b>
+ * also exposes as MBeans.
+ * </p>
+ * <p>
+ * Instrumentation is opt-in, either for all contexts created by the
+ * <b>JEPContextFactory</b> or for a single context.
+ * </p>
+ *
+ * @since 1.0.8
+ */
+package net.obvj.jep.metrics;
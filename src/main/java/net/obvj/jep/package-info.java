@@ -11,6 +11,11 @@
  * alternative way to use JEP, reducing the complexity of JEP operations.
  * </p>
  * <p>
+ * The <b>CompiledExpression</b> parses an expression only once and evaluates it multiple
+ * times with different variables, whereas the <b>ConcurrentExpressionEvaluator</b> keeps a
+ * pool of compiled expressions that can be evaluated by multiple threads in parallel.
+ * </p>
+ * <p>
  * The <b>Console</b> implements a simple command-line utility for parsing expressions.
  * </p>
  *
@@ -0,0 +1,327 @@
+package net.obvj.jep.util;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * A thread-safe cache that keeps up to a maximum number of entries, discarding entries
+ * that were not used recently when full. Optionally, entries may also expire after a
+ * fixed amount of time since they were loaded.
+ * <p>
+ * Reads do not lock: entries are kept in a {@link ConcurrentHashMap}, and a hit only
+ * marks its entry as referenced. The eviction follows the CLOCK (second chance)
+ * algorithm, an approximation of LRU: entries are visited in insertion order, and the
+ * first one not referenced since the last visit is discarded, while referenced ones have
+ * their mark cleared and are kept. Only insertions and evictions are serialized.
+ * <p>
+ * Values are loaded outside the lock of the cache, so a slow loader does not block other
+ * threads. As a consequence, the same value may be loaded by more than one thread when
+ * requested concurrently for the first time, in which case the first loaded value is
+ * kept.
+ * <p>
+ * A maximum size of zero disables the cache: all requests are treated as misses and no
+ * value is retained.
+ *
+ * @param <K> the type of keys maintained by the cache
+ * @param <V> the type of cached values
+ *
+ * @author oswaldo.bapvic.jr
+ * @since 1.0.8
+ */
+public class BoundedCache<K, V>
+{
+    /**
+     * The minimum length of the clock queue from which it is compacted, when most of its
+     * entries were replaced or expired
+     */
+    private static final int MIN_CLOCK_COMPACTION_LENGTH = 32;
+
+    private final ConcurrentMap<K, CacheEntry<K, V>> entries = new ConcurrentHashMap<>();
+
+    /**
+     * The entries in insertion order, for the CLOCK eviction, guarded by the lock of the
+     * cache. It may also hold entries that were already replaced or expired, which are
+     * skipped.
+     */
+    private final Queue<CacheEntry<K, V>> clock = new ArrayDeque<>();
+
+    private final CacheStatistics statistics;
+    private final LongSupplier ticker;
+
+    private volatile int maxSize;
+    private volatile long timeToLiveNanos;
+
+    /**
+     * Builds a cache with the given maximum size and no expiration.
+     *
+     * @param maxSize the maximum number of entries to be kept, or zero to disable the cache
+     * @throws IllegalArgumentException if the maximum size is negative
+     */
+    public BoundedCache(int maxSize)
+    {
+        this(maxSize, 0, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Builds a cache with the given maximum size and time-to-live.
+     *
+     * @param maxSize    the maximum number of entries to be kept, or zero to disable the
+     *                   cache
+     * @param timeToLive the time after which an entry is discarded since it was loaded, or
+     *                   zero for no expiration
+     * @param unit       the time unit of the {@code timeToLive} argument
+     * @throws IllegalArgumentException if either the maximum size or time-to-live is
+     *                                  negative
+     */
+    public BoundedCache(int maxSize, long timeToLive, TimeUnit unit)
+    {
+        this(maxSize, timeToLive, unit, new CacheStatistics(), System::nanoTime);
+    }
+
+    /**
+     * Builds a cache with the given maximum size and time-to-live, recording statistics
+     * into a given object, which may be shared by multiple caches.
+     *
+     * @param maxSize    the maximum number of entries to be kept, or zero to disable the
+     *                   cache
+     * @param timeToLive the time after which an entry is discarded since it was loaded, or
+     *                   zero for no expiration
+     * @param unit       the time unit of the {@code timeToLive} argument
+     * @param statistics the object to which cache statistics will be recorded
+     * @throws IllegalArgumentException if either the maximum size or time-to-live is
+     *                                  negative
+     */
+    public BoundedCache(int maxSize, long timeToLive, TimeUnit unit, CacheStatistics statistics)
+    {
+        this(maxSize, timeToLive, unit, statistics, System::nanoTime);
+    }
+
+    BoundedCache(int maxSize, long timeToLive, TimeUnit unit, CacheStatistics statistics, LongSupplier ticker)
+    {
+        this.statistics = statistics;
+        this.ticker = ticker;
+        setMaxSize(maxSize);
+        setTimeToLive(timeToLive, unit);
+    }
+
+    /**
+     * Returns the value associated with the given key, loading it with the specified
+     * function if not present in the cache.
+     *
+     * @param key    the key whose associated value is to be returned
+     * @param loader the function to compute the value if not present in the cache
+     * @return the current (existing or loaded) value associated with the given key
+     */
+    public V get(K key, Function<? super K, ? extends V> loader)
+    {
+        V value = getIfPresent(key);
+        if (value != null)
+        {
+            return value;
+        }
+        V loadedValue = loader.apply(key);
+        if (loadedValue == null)
+        {
+            return null;
+        }
+        synchronized (this)
+        {
+            if (maxSize == 0)
+            {
+                return loadedValue;
+            }
+            CacheEntry<K, V> entry = entries.get(key);
+            if (entry != null && !isExpired(entry))
+            {
+                return entry.value;
+            }
+            insert(key, loadedValue);
+            return loadedValue;
+        }
+    }
+
+    /**
+     * Returns the value associated with the given key, or {@code null} if not present in
+     * the cache.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the value associated with the given key, or {@code null}
+     */
+    public V getIfPresent(K key)
+    {
+        CacheEntry<K, V> entry = entries.get(key);
+        if (entry != null)
+        {
+            if (!isExpired(entry))
+            {
+                // Avoid writing to the entry if already marked, which is common for hot keys
+                if (!entry.referenced)
+                {
+                    entry.referenced = true;
+                }
+                statistics.recordHit();
+                return entry.value;
+            }
+            if (entries.remove(key, entry))
+            {
+                statistics.recordExpiration();
+            }
+        }
+        statistics.recordMiss();
+        return null;
+    }
+
+    /**
+     * Associates the given value with the given key in the cache.
+     *
+     * @param key   the key with which the specified value is to be associated
+     * @param value the value to be associated with the specified key, not null
+     */
+    public synchronized void put(K key, V value)
+    {
+        if (maxSize > 0)
+        {
+            insert(key, value);
+        }
+    }
+
+    /**
+     * Discards all entries in the cache.
+     */
+    public synchronized void clear()
+    {
+        entries.clear();
+        clock.clear();
+    }
+
+    /**
+     * @return the current number of entries in the cache
+     */
+    public int size()
+    {
+        return entries.size();
+    }
+
+    /**
+     * @return the maximum number of entries kept by the cache
+     */
+    public int getMaxSize()
+    {
+        return maxSize;
+    }
+
+    /**
+     * Changes the maximum number of entries kept by the cache, discarding the entries not
+     * used recently if needed.
+     *
+     * @param maxSize the maximum number of entries to be kept, or zero to disable the cache
+     * @throws IllegalArgumentException if the maximum size is negative
+     */
+    public synchronized void setMaxSize(int maxSize)
+    {
+        if (maxSize < 0)
+        {
+            throw new IllegalArgumentException("The maximum size cannot be negative");
+        }
+        this.maxSize = maxSize;
+        evictExcessEntries();
+    }
+
+    /**
+     * Changes the time after which an entry is discarded since it was loaded.
+     *
+     * @param timeToLive the time after which an entry is discarded since it was loaded, or
+     *                   zero for no expiration
+     * @param unit       the time unit of the {@code timeToLive} argument
+     * @throws IllegalArgumentException if the time-to-live is negative
+     */
+    public synchronized void setTimeToLive(long timeToLive, TimeUnit unit)
+    {
+        if (timeToLive < 0)
+        {
+            throw new IllegalArgumentException("The time-to-live cannot be negative");
+        }
+        this.timeToLiveNanos = unit.toNanos(timeToLive);
+    }
+
+    /**
+     * @return the statistics of this cache
+     */
+    public CacheStatistics getStatistics()
+    {
+        return statistics;
+    }
+
+    private boolean isExpired(CacheEntry<K, V> entry)
+    {
+        long ttl = timeToLiveNanos;
+        return ttl > 0 && ticker.getAsLong() - entry.loadTime >= ttl;
+    }
+
+    /**
+     * Inserts a new entry and evicts the excess ones. Must be called with the lock held.
+     */
+    private void insert(K key, V value)
+    {
+        CacheEntry<K, V> entry = new CacheEntry<>(key, value, ticker.getAsLong());
+        entries.put(key, entry);
+        clock.add(entry);
+        evictExcessEntries();
+        if (clock.size() > Math.max(MIN_CLOCK_COMPACTION_LENGTH, 2 * entries.size()))
+        {
+            // Discard the entries that were replaced or expired
+            clock.removeIf(queued -> entries.get(queued.key) != queued);
+        }
+    }
+
+    /**
+     * Evicts entries with the CLOCK algorithm until the maximum size is respected. Must be
+     * called with the lock held.
+     */
+    private void evictExcessEntries()
+    {
+        while (entries.size() > maxSize && !clock.isEmpty())
+        {
+            CacheEntry<K, V> entry = clock.poll();
+            if (entries.get(entry.key) != entry)
+            {
+                // Replaced or expired
+                continue;
+            }
+            if (entry.referenced)
+            {
+                entry.referenced = false;
+                clock.add(entry);
+            }
+            else if (entries.remove(entry.key, entry))
+            {
+                statistics.recordEviction();
+            }
+        }
+    }
+
+    private static final class CacheEntry<K, V>
+    {
+        private final K key;
+        private final V value;
+        private final long loadTime;
+
+        /**
+         * Whether the entry was read since it was last visited by the eviction
+         */
+        private volatile boolean referenced;
+
+        private CacheEntry(K key, V value, long loadTime)
+        {
+            this.key = key;
+            this.value = value;
+            this.loadTime = loadTime;
+        }
+    }
+
+}
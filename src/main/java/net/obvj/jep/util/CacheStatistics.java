@@ -0,0 +1,108 @@
+package net.obvj.jep.util;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe counters of hits, misses and evictions of a cache.
+ *
+ * @author oswaldo.bapvic.jr
+ * @since 1.0.8
+ */
+public class CacheStatistics
+{
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private final LongAdder expirationCount = new LongAdder();
+
+    void recordHit()
+    {
+        hitCount.increment();
+    }
+
+    void recordMiss()
+    {
+        missCount.increment();
+    }
+
+    void recordEviction()
+    {
+        evictionCount.increment();
+    }
+
+    void recordExpiration()
+    {
+        expirationCount.increment();
+    }
+
+    /**
+     * @return the number of times a requested value was found in the cache
+     */
+    public long getHitCount()
+    {
+        return hitCount.sum();
+    }
+
+    /**
+     * @return the number of times a requested value was not found in the cache
+     */
+    public long getMissCount()
+    {
+        return missCount.sum();
+    }
+
+    /**
+     * @return the number of entries removed from the cache to respect its maximum size
+     */
+    public long getEvictionCount()
+    {
+        return evictionCount.sum();
+    }
+
+    /**
+     * @return the number of entries removed from the cache because they were older than
+     *         the time-to-live of the cache
+     */
+    public long getExpirationCount()
+    {
+        return expirationCount.sum();
+    }
+
+    /**
+     * @return the total number of requests, that is, hits plus misses
+     */
+    public long getRequestCount()
+    {
+        return getHitCount() + getMissCount();
+    }
+
+    /**
+     * @return the ratio of requests that were hits, from 0.0 to 1.0, or 1.0 if no request
+     *         was made
+     */
+    public double getHitRate()
+    {
+        long hits = getHitCount();
+        long requests = hits + getMissCount();
+        return requests == 0 ? 1.0 : (double) hits / requests;
+    }
+
+    /**
+     * Resets all counters to zero.
+     */
+    public void reset()
+    {
+        hitCount.reset();
+        missCount.reset();
+        evictionCount.reset();
+        expirationCount.reset();
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("CacheStatistics [hits=%s, misses=%s, hitRate=%.4f, evictions=%s, expirations=%s]",
+                getHitCount(), getMissCount(), getHitRate(), getEvictionCount(), getExpirationCount());
+    }
+
+}
@@ -1,5 +1,6 @@
 package net.obvj.jep.util;
 
+import java.lang.reflect.Array;
 import java.util.*;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.Map.Entry;
@@ -16,9 +17,123 @@ import org.json.JSONException;
  */
 public class CollectionsUtils
 {
+    /**
+     * The default minimum size of a list whose distinct elements are determined by a
+     * parallel stream, which disables the parallel mode.
+     *
+     * @since 1.0.8
+     */
+    public static final int DEFAULT_DISTINCT_PARALLEL_THRESHOLD = Integer.MAX_VALUE;
+
     private static final String ENTRY_SEPARATORS_REGEX = "=|:";
     private static final String ERROR_UNABLE_TO_PARSE_ENTRY = "Unable to parse entry: %s";
 
+    private static volatile int distinctParallelThreshold = DEFAULT_DISTINCT_PARALLEL_THRESHOLD;
+
+    /**
+     * A read-only view of a {@link JSONArray}, with {@code null} in place of the elements
+     * considered empty by {@link JsonUtils#isEmpty(Object)}, as in
+     * {@link JsonUtils#toList(JSONArray)}.
+     */
+    private static final class JSONArrayList extends AbstractList<Object> implements RandomAccess
+    {
+        private final JSONArray jsonArray;
+
+        private JSONArrayList(JSONArray jsonArray)
+        {
+            this.jsonArray = jsonArray;
+        }
+
+        @Override
+        public Object get(int index)
+        {
+            if (index < 0 || index >= jsonArray.length())
+            {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + jsonArray.length());
+            }
+            Object element = jsonArray.opt(index);
+            return JsonUtils.isEmpty(element) ? null : element;
+        }
+
+        @Override
+        public int size()
+        {
+            return jsonArray.length();
+        }
+    }
+
+    /**
+     * A read-only view of an array of primitive values, which are boxed on access.
+     */
+    private static final class PrimitiveArrayList extends AbstractList<Object> implements RandomAccess
+    {
+        private final Object array;
+        private final int size;
+
+        private PrimitiveArrayList(Object array)
+        {
+            this.array = array;
+            this.size = Array.getLength(array);
+        }
+
+        @Override
+        public Object get(int index)
+        {
+            return Array.get(array, index);
+        }
+
+        @Override
+        public int size()
+        {
+            return size;
+        }
+
+        /**
+         * @return a new list of the distinct elements of an array of doubles, ints or
+         *         longs, compared without boxing, or {@code null} for other types
+         */
+        private List<Object> distinct()
+        {
+            LongHashSet values = new LongHashSet(size);
+            List<Object> distinct = new ArrayList<>();
+            if (array instanceof double[])
+            {
+                for (double value : (double[]) array)
+                {
+                    if (values.add(Double.doubleToLongBits(value)))
+                    {
+                        distinct.add(value);
+                    }
+                }
+            }
+            else if (array instanceof int[])
+            {
+                for (int value : (int[]) array)
+                {
+                    if (values.add(value))
+                    {
+                        distinct.add(value);
+                    }
+                }
+            }
+            else if (array instanceof long[])
+            {
+                for (long value : (long[]) array)
+                {
+                    if (values.add(value))
+                    {
+                        distinct.add(value);
+                    }
+                }
+            }
+            else
+            {
+                return null;
+            }
+            return distinct;
+        }
+    }
+
     private CollectionsUtils()
     {
         throw new IllegalStateException("Utility class");
@@ -36,11 +151,16 @@ public class CollectionsUtils
     /**
      * Converts the given object into a {@code List}.
      * <p>
-     * If the source {@code object} is either an array of Objects (primitive types not
-     * supported) or a {@code JSONArray}, it will return a List backed by the specified array.
-     * If a non-null Object is received (not a {@code List} or {@code JSONArray}), a singleton
-     * list will be returned (containing only the specified object). If a null or empty object
-     * is received, then an empty list will be returned. If the input is already a
+     * If the source {@code object} is either an array or a {@code JSONArray}, it will return
+     * a read-only List backed by the specified array, without copying its elements. If a
+     * string representation of a JSON array is received, a read-only List of its parsed
+     * elements will be returned; if an {@link EvaluationScope} is open, the array parsed
+     * from a given string is shared by subsequent calls with an equal string within the
+     * same scope, as in {@link JsonUtils#toJSONArray(Object)}, so its elements must not be
+     * modified. If a
+     * non-null Object is received (not a {@code List} or array), a singleton list will be
+     * returned (containing only the specified object). If a null or empty object is
+     * received, then an empty list will be returned. If the input is already a
      * {@code List}, the same object will be returned.
      *
      * @param object the source object to be parsed into a {@code List}
@@ -64,29 +184,60 @@ public class CollectionsUtils
 
         if (object instanceof JSONArray)
         {
-            JSONArray jsonArray = (JSONArray) object;
-            return JsonUtils.toList(jsonArray);
+            return new JSONArrayList((JSONArray) object);
         }
 
         if (object instanceof Object[])
         {
-            return Arrays.asList((Object[]) object);
+            return Collections.unmodifiableList(Arrays.asList((Object[]) object));
         }
 
-        if (object instanceof String)
+        if (object.getClass().isArray())
         {
-            try
-            {
-                JSONArray jsonArray = new JSONArray(object.toString());
-                return JsonUtils.toList(jsonArray);
-            }
-            catch (JSONException exception)
+            return new PrimitiveArrayList(object);
+        }
+
+        if (object instanceof String && startsWithBracket((String) object))
+        {
+            return parseList((String) object);
+        }
+
+        return Collections.singletonList(object);
+    }
+
+    /**
+     * @return {@code true} if the first non-whitespace character of the given string is an
+     *         opening bracket, which is required for a JSON array
+     */
+    private static boolean startsWithBracket(String string)
+    {
+        for (int i = 0, length = string.length(); i < length; i++)
+        {
+            char character = string.charAt(i);
+            if (character > ' ')
             {
-                // Not a valid JSON array, so handle it as a normal string...
+                return character == '[';
             }
         }
+        return false;
+    }
 
-        return Collections.singletonList(object);
+    /**
+     * @return a read-only list of the elements of the JSON array represented by the given
+     *         string, or a singleton list containing the string itself if it is not a valid
+     *         JSON array
+     */
+    private static List<Object> parseList(String string)
+    {
+        try
+        {
+            return new JSONArrayList(JsonUtils.toJSONArray(string));
+        }
+        catch (JSONException exception)
+        {
+            // Not a valid JSON array, so handle it as a normal string...
+            return Collections.singletonList(string);
+        }
     }
 
     /**
@@ -155,74 +306,136 @@ public class CollectionsUtils
 
     /**
      * Returns the maximum element inside the given Iterable
+     * <p>
+     * The elements are compared as dates, if all of them are parsable dates, or as numbers,
+     * if all of them are numbers. If more than one element holds the maximum value, the
+     * last one is returned.
      *
      * @param iterable the {@link Iterable} whose maximum element is to be evaluated
      * @return The maximum element inside the given Iterable.
      */
     public static Object max(Iterable<?> iterable)
     {
-        if (DateUtils.containsParsableDates(iterable))
-        {
-            Map<Object, Object> parsedDateMap = CollectionsUtils.createMapOfParsedObjects(iterable);
-
-            Optional<Date> maxDate = parsedDateMap.keySet().stream().map(DateUtils::parseDate).max(Date::compareTo);
-            if (maxDate.isPresent())
-            {
-                return parsedDateMap.get(maxDate.get());
-            }
-        }
-        if (NumberUtils.containsParsableNumbers(iterable))
+        Object max = extreme(iterable, 1);
+        if (max == null)
         {
-            Map<Object, Object> parsedNumberMap = CollectionsUtils.createMapOfParsedObjects(iterable);
-
-            Optional<Double> maxNumber = parsedNumberMap.keySet().stream().map(NumberUtils::parseDouble)
-                    .max(Double::compareTo);
-            if (maxNumber.isPresent())
-            {
-                return parsedNumberMap.get(maxNumber.get());
-            }
+            throw new IllegalArgumentException(
+                    "Unable to determine the maximum value for the arguments: " + iterable.toString());
         }
-
-        throw new IllegalArgumentException(
-                "Unable to determine the maximum value for the arguments: " + iterable.toString());
+        return max;
     }
 
     /**
      * Returns the minimum element inside the given Iterable
+     * <p>
+     * The elements are compared as dates, if all of them are parsable dates, or as numbers,
+     * if all of them are numbers. If more than one element holds the minimum value, the
+     * last one is returned.
      *
      * @param iterable the Iterable whose minimum element is to be evaluated
      * @return The minimum element inside the given Iterable.
      */
     public static Object min(Iterable<?> iterable)
     {
-        if (DateUtils.containsParsableDates(iterable))
+        Object min = extreme(iterable, -1);
+        if (min == null)
         {
-            Map<Object, Object> parsedDateMap = CollectionsUtils.createMapOfParsedObjects(iterable);
+            throw new IllegalArgumentException(
+                    "Unable to compare minimum value for the arguments: " + iterable.toString());
+        }
+        return min;
+    }
+
+    /**
+     * Finds the maximum or minimum element in a single pass, tracking the candidate both as
+     * a date and as a number until an element rules one of the comparisons out. Numbers
+     * are never parsed, and no intermediate collections are created.
+     *
+     * @param iterable the Iterable to be evaluated
+     * @param sign     {@code 1} for the maximum element, or {@code -1} for the minimum
+     * @return the maximum or minimum element, or {@code null} if the elements cannot be
+     *         compared
+     */
+    private static Object extreme(Iterable<?> iterable, int sign)
+    {
+        boolean allDates = true;
+        boolean allNumbers = true;
+        Object dateResult = null;
+        Object numberResult = null;
+        long dateResultTime = 0;
+        double numberResultValue = 0;
 
-            Optional<Date> value = parsedDateMap.keySet().stream().map(DateUtils::parseDate).min(Date::compareTo);
-            if (value.isPresent())
+        for (Object element : iterable)
+        {
+            if (allDates)
             {
-                return parsedDateMap.get(value.get());
+                Date date = DateUtils.tryParseDate(element);
+                if (date == null)
+                {
+                    allDates = false;
+                }
+                else if (dateResult == null || Long.compare(date.getTime(), dateResultTime) * sign >= 0)
+                {
+                    dateResult = element;
+                    dateResultTime = date.getTime();
+                }
             }
-        }
-        if (NumberUtils.containsParsableNumbers(iterable))
-        {
-            Map<Object, Object> parsedNumberMap = CollectionsUtils.createMapOfParsedObjects(iterable);
-
-            Optional<Double> value = parsedNumberMap.keySet().stream().map(NumberUtils::parseDouble)
-                    .min(Double::compareTo);
-            if (value.isPresent())
+            if (allNumbers)
             {
-                return parsedNumberMap.get(value.get());
+                if (element instanceof Number || NumberUtils.isNumber(element))
+                {
+                    double value = NumberUtils.parseDouble(element);
+                    if (numberResult == null || Double.compare(value, numberResultValue) * sign >= 0)
+                    {
+                        numberResult = element;
+                        numberResultValue = value;
+                    }
+                }
+                else
+                {
+                    allNumbers = false;
+                }
             }
+            if (!allDates && !allNumbers)
+            {
+                return null;
+            }
+        }
+        if (allDates && dateResult != null)
+        {
+            return dateResult;
         }
+        return allNumbers ? numberResult : null;
+    }
 
-        throw new IllegalArgumentException("Unable to compare minimum value for the arguments: " + iterable.toString());
+    /**
+     * Returns the arithmetic mean of the elements inside the given Iterable, which must be
+     * numbers or strings representing numbers.
+     *
+     * @param iterable the Iterable whose average is to be calculated
+     * @return the average of the elements, or {@link Double#NaN} if the Iterable is empty
+     * @throws NumberFormatException if an element is not a number
+     * @since 1.0.8
+     */
+    public static double average(Iterable<?> iterable)
+    {
+        DoubleSummaryStatistics statistics = new DoubleSummaryStatistics();
+        for (Object element : iterable)
+        {
+            statistics.accept(element instanceof Number ? ((Number) element).doubleValue()
+                    : NumberUtils.parseDouble(element));
+        }
+        return statistics.getCount() == 0 ? Double.NaN : statistics.getAverage();
     }
 
     /**
      * Returns a list consisting of the distinct elements (according to Object.equals(Object))
-     * of a given list.
+     * of a given list, in the order of their first occurrence.
+     * <p>
+     * Doubles, as well as the elements of lists returned by {@link #asList(Object)} for
+     * arrays of primitive doubles, ints and longs, are compared without boxing. Lists at
+     * least as large as the threshold defined by {@link #setDistinctParallelThreshold(int)}
+     * are processed by a parallel stream.
      *
      * @param list the list to be processed
      * @return a new list containing only distinct elements
@@ -233,7 +446,68 @@ public class CollectionsUtils
         {
             return list;
         }
-        return list.stream().distinct().collect(Collectors.toList());
+        if (list instanceof PrimitiveArrayList)
+        {
+            List<Object> distinct = ((PrimitiveArrayList) list).distinct();
+            if (distinct != null)
+            {
+                return distinct;
+            }
+        }
+        if (list.size() >= distinctParallelThreshold)
+        {
+            return list.parallelStream().distinct().collect(Collectors.toList());
+        }
+
+        List<Object> distinct = new ArrayList<>();
+        LongHashSet doubles = null;
+        Set<Object> others = null;
+        for (Object element : list)
+        {
+            boolean added;
+            if (element instanceof Double)
+            {
+                if (doubles == null)
+                {
+                    doubles = new LongHashSet(list.size());
+                }
+                added = doubles.add(Double.doubleToLongBits((Double) element));
+            }
+            else
+            {
+                if (others == null)
+                {
+                    others = new HashSet<>(Math.max(16, (int) (list.size() / .75f) + 1));
+                }
+                added = others.add(element);
+            }
+            if (added)
+            {
+                distinct.add(element);
+            }
+        }
+        return distinct;
+    }
+
+    /**
+     * Defines the minimum size of a list whose distinct elements are determined by a
+     * parallel stream in {@link #distinctList(List)}, which may pay off for very large
+     * lists of objects that are expensive to compare, at the cost of using the common
+     * fork-join pool.
+     *
+     * @param threshold the minimum size of a list to be processed in parallel, or
+     *                  {@link #DEFAULT_DISTINCT_PARALLEL_THRESHOLD} to disable the parallel
+     *                  mode
+     * @throws IllegalArgumentException if the threshold is not positive
+     * @since 1.0.8
+     */
+    public static void setDistinctParallelThreshold(int threshold)
+    {
+        if (threshold < 1)
+        {
+            throw new IllegalArgumentException("The threshold must be positive: " + threshold);
+        }
+        distinctParallelThreshold = threshold;
     }
 
     /**
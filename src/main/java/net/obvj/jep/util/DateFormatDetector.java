@@ -0,0 +1,97 @@
+package net.obvj.jep.util;
+
+import java.util.Date;
+import java.util.function.Function;
+
+/**
+ * Converts strings into dates in the same formats supported by
+ * {@link DateUtils#tryParseDate(Object)}, remembering the last format detected, so that
+ * subsequent strings in that format are parsed with a single attempt.
+ * <p>
+ * Since the values compared at a given point of an expression usually share the same
+ * format, an instance is meant to be held by each call site. Instances are thread-safe.
+ *
+ * @author oswaldo.bapvic.jr
+ * @since 1.0.8
+ */
+public final class DateFormatDetector
+{
+    /**
+     * The supported formats, in the order in which they are attempted when no format is
+     * known. Only the ones that produce the same dates regardless of the order in which
+     * they are attempted can be tried first.
+     */
+    private enum Format
+    {
+        RFC_3339(DateUtils::parseRfc3339, true),
+        ISO_8601_COMMON(DateUtils::parseIso8601CommonFormats, true),
+        ISO_8601_PATTERNS(DateUtils::parseIso8601Patterns, false);
+
+        private final Function<String, Date> parser;
+        private final boolean memoizable;
+
+        private Format(Function<String, Date> parser, boolean memoizable)
+        {
+            this.parser = parser;
+            this.memoizable = memoizable;
+        }
+    }
+
+    private static final Format[] FORMATS = Format.values();
+
+    private volatile Format lastFormat;
+
+    /**
+     * Converts the given object into {@link java.util.Date}, if possible, producing the
+     * same results as {@link DateUtils#tryParseDate(Object)}.
+     * <p>
+     * If the date cache of {@link DateUtils} is enabled, strings are parsed through it,
+     * which remembers the format detected for each string shape instead.
+     *
+     * @param object the object to be converted
+     * @return the parsed date, or {@code null} if the object cannot be converted
+     */
+    public Date tryParseDate(Object object)
+    {
+        if (!(object instanceof String) || DateUtils.isDateCacheEnabled())
+        {
+            return DateUtils.tryParseDate(object);
+        }
+        String string = DateUtils.stripLeadingWhitespace((String) object);
+        return DateUtils.hasDateShape(string) ? parseDateString(string) : null;
+    }
+
+    /**
+     * @return the date parsed from the given string, which must have a date shape, or
+     *         {@code null} if the string is not in any of the supported formats
+     */
+    Date parseDateString(String string)
+    {
+        Format expectedFormat = lastFormat;
+        if (expectedFormat != null)
+        {
+            Date date = expectedFormat.parser.apply(string);
+            if (date != null)
+            {
+                return date;
+            }
+        }
+        for (Format format : FORMATS)
+        {
+            if (format != expectedFormat)
+            {
+                Date date = format.parser.apply(string);
+                if (date != null)
+                {
+                    if (format.memoizable)
+                    {
+                        lastFormat = format;
+                    }
+                    return date;
+                }
+            }
+        }
+        return null;
+    }
+
+}
@@ -1,22 +1,50 @@
 package net.obvj.jep.util;
 
 import java.text.ParseException;
-import java.time.Instant;
+import java.text.ParsePosition;
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
 import java.time.format.DateTimeParseException;
-import java.util.Calendar;
-import java.util.Date;
-import java.util.Iterator;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.util.*;
 import java.util.concurrent.TimeUnit;
 
-import org.apache.commons.lang3.time.DateFormatUtils;
+import org.apache.commons.lang3.time.FastDateFormat;
 
 /**
  * A utility class for working with dates.
+ * <p>
+ * Optionally, the dates parsed by {@link #parseDate(Object)} and
+ * {@link #tryParseDate(Object)} may be kept in a bounded cache, shared by all threads,
+ * for applications that parse the same date strings repeatedly. The cache is disabled by
+ * default, and can be enabled with {@link #setDateCacheMaxSize(int)}.
  *
  * @author oswaldo.bapvic.jr
  */
 public class DateUtils
 {
+    /**
+     * The default maximum number of parsed dates kept in the cache, which disables it.
+     *
+     * @since 1.0.8
+     */
+    public static final int DEFAULT_DATE_CACHE_MAX_SIZE = 0;
+
+    /**
+     * The default maximum number of date formats kept in the cache.
+     *
+     * @since 1.0.8
+     */
+    public static final int DEFAULT_DATE_FORMAT_CACHE_MAX_SIZE = 256;
+
+    /**
+     * The maximum number of string shapes for which the detected date format is remembered
+     * when the date cache is enabled.
+     */
+    private static final int MAX_DATE_SHAPES = 64;
+
     /**
      * A set of common date parsing patterns according to ISO-8601 standard.
      */
@@ -40,11 +68,88 @@ public class DateUtils
             "yyyy-MM-dd K:mm:ss.SSS a, z",
             "yyyy-MM-dd"};
 
+    /**
+     * Pre-built, thread-safe formatters for the most common variations of the
+     * {@link #ISO_8601_COMMON_PATTERNS}: a date only, or a date and a time with seconds,
+     * optional milliseconds and a mandatory offset, separated by either 'T' or a space.
+     * They accept a subset of the strings accepted by the lenient patterns, for which the
+     * same dates are produced.
+     */
+    private static final DateTimeFormatter ISO_8601_DATE_FORMATTER = newIso8601Formatter(null);
+    private static final DateTimeFormatter ISO_8601_DATE_T_TIME_FORMATTER = newIso8601Formatter('T');
+    private static final DateTimeFormatter ISO_8601_DATE_SPACE_TIME_FORMATTER = newIso8601Formatter(' ');
+
+    /**
+     * The first year of the Gregorian calendar, before which the legacy patterns use the
+     * Julian calendar.
+     */
+    private static final int FIRST_GREGORIAN_YEAR = 1583;
+
+    /**
+     * The epoch day of the adoption of the Gregorian calendar (1582-10-15), before which the
+     * date fields are retrieved from a {@link Calendar}, which uses the Julian calendar.
+     */
+    private static final long GREGORIAN_CUTOVER_EPOCH_DAY = -141427;
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+    private static final int MILLIS_PER_HOUR = 3_600_000;
+    private static final int MILLIS_PER_MINUTE = 60_000;
+    private static final int MILLIS_PER_SECOND = 1_000;
+    private static final long DAYS_PER_CYCLE = 146_097L;
+    private static final long DAYS_0000_03_01_TO_1970 = 719_468L;
+
+    /**
+     * The parsed dates, with the default time zone they were parsed in, since strings
+     * without an offset are resolved in that zone.
+     */
+    private static final BoundedCache<String, CachedDate> DATE_CACHE = new BoundedCache<>(
+            DEFAULT_DATE_CACHE_MAX_SIZE);
+
+    /**
+     * The detectors that remember the format of the strings parsed for the date cache,
+     * per string shape, that is, the string with all digits replaced by zeros.
+     */
+    private static final BoundedCache<String, DateFormatDetector> DATE_FORMAT_DETECTORS = new BoundedCache<>(
+            MAX_DATE_SHAPES);
+
+    private static volatile boolean dateCacheEnabled = DEFAULT_DATE_CACHE_MAX_SIZE > 0;
+
+    /**
+     * The thread-safe formats for the explicit patterns used to format and parse dates,
+     * keyed by pattern, time zone ID and locale.
+     */
+    private static final BoundedCache<List<Object>, FastDateFormat> DATE_FORMAT_CACHE = new BoundedCache<>(
+            DEFAULT_DATE_FORMAT_CACHE_MAX_SIZE);
+
     private DateUtils()
     {
         throw new IllegalStateException("Utility class");
     }
 
+    private static DateTimeFormatter newIso8601Formatter(Character timeSeparator)
+    {
+        DateTimeFormatterBuilder builder = new DateTimeFormatterBuilder()
+                .appendValue(ChronoField.YEAR, 4)
+                .appendLiteral('-')
+                .appendValue(ChronoField.MONTH_OF_YEAR, 2)
+                .appendLiteral('-')
+                .appendValue(ChronoField.DAY_OF_MONTH, 2);
+        if (timeSeparator != null)
+        {
+            builder.appendLiteral(timeSeparator)
+                    .appendValue(ChronoField.HOUR_OF_DAY, 2)
+                    .appendLiteral(':')
+                    .appendValue(ChronoField.MINUTE_OF_HOUR, 2)
+                    .appendLiteral(':')
+                    .appendValue(ChronoField.SECOND_OF_MINUTE, 2)
+                    .optionalStart().appendFraction(ChronoField.NANO_OF_SECOND, 3, 3, true).optionalEnd()
+                    .optionalStart().appendOffset("+HH:MM", "Z").optionalEnd()
+                    .optionalStart().appendOffset("+HHMM", "Z").optionalEnd()
+                    .optionalStart().appendOffset("+HH", "Z").optionalEnd();
+        }
+        return builder.toFormatter();
+    }
+
     /**
      * Converts the given date into string with the the given {@code pattern}.
      *
@@ -54,7 +159,69 @@ public class DateUtils
      */
     public static String formatDate(Date date, String pattern)
     {
-        return DateFormatUtils.format(date, pattern);
+        return getDateFormat(pattern).format(date);
+    }
+
+    /**
+     * Returns a thread-safe format for the given pattern, in the default time zone and
+     * locale, which can be used both to format and to parse dates.
+     * <p>
+     * Formats are kept in a bounded cache, shared by all threads, so the same instance may
+     * be returned by subsequent calls with the same pattern, time zone and locale.
+     *
+     * @param pattern the date format pattern, compatible with {@link java.text.SimpleDateFormat}
+     * @return a format for the given pattern
+     * @throws IllegalArgumentException if the pattern is invalid
+     * @throws NullPointerException     if the pattern is null
+     * @since 1.0.8
+     */
+    public static FastDateFormat getDateFormat(String pattern)
+    {
+        return getDateFormat(pattern, TimeZone.getDefault(), Locale.getDefault());
+    }
+
+    /**
+     * Returns a thread-safe format for the given pattern, time zone and locale, which can
+     * be used both to format and to parse dates.
+     * <p>
+     * Formats are kept in a bounded cache, shared by all threads, so the same instance may
+     * be returned by subsequent calls with the same arguments.
+     *
+     * @param pattern  the date format pattern, compatible with {@link java.text.SimpleDateFormat}
+     * @param timeZone the time zone of the format
+     * @param locale   the locale of the format
+     * @return a format for the given pattern, time zone and locale
+     * @throws IllegalArgumentException if the pattern is invalid
+     * @throws NullPointerException     if any of the arguments is null
+     * @since 1.0.8
+     */
+    public static FastDateFormat getDateFormat(String pattern, TimeZone timeZone, Locale locale)
+    {
+        Objects.requireNonNull(pattern, "pattern");
+        return DATE_FORMAT_CACHE.get(Arrays.asList(pattern, timeZone.getID(), locale),
+                key -> FastDateFormat.getInstance(pattern, timeZone, locale));
+    }
+
+    /**
+     * Changes the maximum number of date formats kept in the cache.
+     *
+     * @param maxSize the maximum number of date formats to be kept in the cache, or zero to
+     *                disable the cache
+     * @throws IllegalArgumentException if the maximum size is negative
+     * @since 1.0.8
+     */
+    public static void setDateFormatCacheMaxSize(int maxSize)
+    {
+        DATE_FORMAT_CACHE.setMaxSize(maxSize);
+    }
+
+    /**
+     * @return the hit, miss and eviction statistics of the date format cache
+     * @since 1.0.8
+     */
+    public static CacheStatistics getDateFormatCacheStatistics()
+    {
+        return DATE_FORMAT_CACHE.getStatistics();
     }
 
     /**
@@ -69,7 +236,64 @@ public class DateUtils
      */
     public static Date parseDate(String string, String... patterns) throws ParseException
     {
-        return org.apache.commons.lang3.time.DateUtils.parseDate(string, patterns);
+        Objects.requireNonNull(string, "str");
+        Objects.requireNonNull(patterns, "parsePatterns");
+        TimeZone timeZone = TimeZone.getDefault();
+        Locale locale = Locale.getDefault();
+        FastDateFormat[] formats = new FastDateFormat[patterns.length];
+        for (int i = 0; i < patterns.length; i++)
+        {
+            formats[i] = getDateFormat(patterns[i], timeZone, locale);
+        }
+        return parseDate(string, formats);
+    }
+
+    /**
+     * Converts the given string into {@link java.util.Date} by applying the specified
+     * formats sequentially until the operation succeeds, in the time zone and locale of
+     * each format.
+     * <p>
+     * Dates are parsed leniently, as with {@link #parseDate(String, String...)}, which
+     * should be preferred unless the formats are reused by multiple calls.
+     *
+     * @param string  the string to be converted
+     * @param formats the date formats to be used
+     * @return the parsed date
+     * @throws NullPointerException if a null string or format is received
+     * @throws ParseException       if the date can not be parsed
+     * @since 1.0.8
+     */
+    public static Date parseDate(String string, FastDateFormat... formats) throws ParseException
+    {
+        Objects.requireNonNull(string, "str");
+        ParsePosition position = new ParsePosition(0);
+        Calendar calendar = null;
+        FastDateFormat calendarFormat = null;
+        for (FastDateFormat format : formats)
+        {
+            // A calendar is shared by the formats with the same time zone and locale
+            if (calendarFormat == null || !calendarFormat.getTimeZone().equals(format.getTimeZone())
+                    || !calendarFormat.getLocale().equals(format.getLocale()))
+            {
+                calendar = Calendar.getInstance(format.getTimeZone(), format.getLocale());
+                calendar.setLenient(true);
+                calendarFormat = format;
+            }
+            calendar.clear();
+            try
+            {
+                if (format.parse(string, position, calendar) && position.getIndex() == string.length())
+                {
+                    return calendar.getTime();
+                }
+            }
+            catch (IllegalArgumentException ignore)
+            {
+                // The leniency is preventing the calendar from being set
+            }
+            position.setIndex(0);
+        }
+        throw new ParseException("Unable to parse the date: " + string, -1);
     }
 
     /**
@@ -102,9 +326,14 @@ public class DateUtils
      */
     public static Date parseDateIso8601(String string)
     {
+        Date date = hasDateShape(string) ? parseIso8601CommonFormats(string) : null;
+        if (date != null)
+        {
+            return date;
+        }
         try
         {
-            return org.apache.commons.lang3.time.DateUtils.parseDate(string, ISO_8601_COMMON_PATTERNS);
+            return parseDate(string, ISO_8601_COMMON_PATTERNS);
         }
         catch (ParseException cause)
         {
@@ -122,23 +351,315 @@ public class DateUtils
      * @throws IllegalArgumentException if the date can not be p'varsed
      */
     public static Date parseDate(Object object)
+    {
+        Date date = tryParseDate(object);
+        if (date == null)
+        {
+            throw new IllegalArgumentException("Unparseable date: " + object);
+        }
+        return date;
+    }
+
+    /**
+     * Converts the given object into {@link java.util.Date}, if possible. It supports
+     * objects of type {@link java.time.Instant}, and valid strings in RFC-3339 format and
+     * other common ISO-8601 format variations.
+     * <p>
+     * Unlike {@link #parseDate(Object)}, this method returns {@code null} for objects that
+     * do not represent dates. Numbers and strings that do not start like a date are
+     * rejected with no parsing attempts, and the most common formats are recognized by
+     * pre-built formatters, so that no exceptions are thrown in most cases.
+     *
+     * @param object the object to be converted
+     * @return the parsed date, or {@code null} if the object cannot be converted
+     * @since 1.0.8
+     */
+    public static Date tryParseDate(Object object)
     {
         if (object instanceof Date)
         {
             return (Date) object;
         }
-        else if (object instanceof Instant)
+        if (object instanceof Instant)
         {
             return Date.from((Instant) object);
         }
-        String strDate = String.valueOf(object);
+        if (object == null || object instanceof Number)
+        {
+            return null;
+        }
+        String string = stripLeadingWhitespace(object.toString());
+        if (!hasDateShape(string))
+        {
+            return null;
+        }
+        if (dateCacheEnabled)
+        {
+            TimeZone timeZone = TimeZone.getDefault();
+            CachedDate cachedDate = DATE_CACHE.get(string, key -> parseDateTimeCacheable(key, timeZone));
+            if (cachedDate != null && !cachedDate.timeZone.equals(timeZone))
+            {
+                // The default time zone changed since the string was parsed
+                cachedDate = parseDateTimeCacheable(string, timeZone);
+                if (cachedDate != null)
+                {
+                    DATE_CACHE.put(string, cachedDate);
+                }
+            }
+            return cachedDate == null ? null : new Date(cachedDate.time);
+        }
+        return parseDateString(string);
+    }
+
+    /**
+     * @return the date parsed from the given string, which must have a date shape, or
+     *         {@code null} if the string is not in any of the supported formats
+     */
+    private static Date parseDateString(String string)
+    {
+        Date date = parseRfc3339(string);
+        if (date == null)
+        {
+            date = parseIso8601CommonFormats(string);
+        }
+        return date != null ? date : parseIso8601Patterns(string);
+    }
+
+    /**
+     * @return the date parsed from the given string in the given default time zone, using
+     *         a detector that remembers the format of strings with the same shape; or
+     *         {@code null} if the string is not in any of the supported formats
+     */
+    private static CachedDate parseDateTimeCacheable(String string, TimeZone timeZone)
+    {
+        char[] shape = string.toCharArray();
+        for (int i = 0; i < shape.length; i++)
+        {
+            if (shape[i] >= '0' && shape[i] <= '9')
+            {
+                shape[i] = '0';
+            }
+        }
+        DateFormatDetector detector = DATE_FORMAT_DETECTORS.get(new String(shape), key -> new DateFormatDetector());
+        Date date = detector.parseDateString(string);
+        return date == null ? null : new CachedDate(date.getTime(), timeZone);
+    }
+
+    /**
+     * A parsed date, as milliseconds since the epoch, since {@code Date} is mutable, and
+     * the default time zone in which it was parsed.
+     */
+    private static final class CachedDate
+    {
+        private final long time;
+        private final TimeZone timeZone;
+
+        private CachedDate(long time, TimeZone timeZone)
+        {
+            this.time = time;
+            this.timeZone = timeZone;
+        }
+    }
+
+    /**
+     * Changes the maximum number of parsed dates kept in the cache.
+     *
+     * @param maxSize the maximum number of parsed dates to be kept in the cache, or zero to
+     *                disable the cache
+     * @throws IllegalArgumentException if the maximum size is negative
+     * @since 1.0.8
+     */
+    public static void setDateCacheMaxSize(int maxSize)
+    {
+        DATE_CACHE.setMaxSize(maxSize);
+        dateCacheEnabled = maxSize > 0;
+        if (!dateCacheEnabled)
+        {
+            DATE_FORMAT_DETECTORS.clear();
+        }
+    }
+
+    /**
+     * @return {@code true} if parsed dates are kept in the cache
+     * @since 1.0.8
+     */
+    public static boolean isDateCacheEnabled()
+    {
+        return dateCacheEnabled;
+    }
+
+    /**
+     * @return the current number of parsed dates kept in the cache
+     * @since 1.0.8
+     */
+    public static int getDateCacheSize()
+    {
+        return DATE_CACHE.size();
+    }
+
+    /**
+     * @return the hit, miss and eviction statistics of the parsed date cache
+     * @since 1.0.8
+     */
+    public static CacheStatistics getDateCacheStatistics()
+    {
+        return DATE_CACHE.getStatistics();
+    }
+
+    /**
+     * Removes the whitespace at the beginning of the given string, which is accepted by the
+     * ISO-8601 patterns, so that the string can be checked and parsed by the faster
+     * methods.
+     *
+     * @param string the string to be stripped, or {@code null}
+     * @return the string without leading whitespace, or the same string if it does not
+     *         start with whitespace
+     */
+    static String stripLeadingWhitespace(String string)
+    {
+        if (string == null)
+        {
+            return null;
+        }
+        int index = 0;
+        while (index < string.length() && Character.isWhitespace(string.charAt(index)))
+        {
+            index++;
+        }
+        return index == 0 ? string : string.substring(index);
+    }
+
+    /**
+     * Checks whether the given string starts like a date in any of the supported formats:
+     * an optional sign, followed by three groups of digits separated by hyphens.
+     *
+     * @param string the string to be checked
+     * @return {@code false} if the string cannot be parsed as a date
+     */
+    static boolean hasDateShape(String string)
+    {
+        if (string == null)
+        {
+            return false;
+        }
+        int length = string.length();
+        int index = length > 0 && (string.charAt(0) == '+' || string.charAt(0) == '-') ? 1 : 0;
+        for (int group = 0; group < 3; group++)
+        {
+            int start = index;
+            while (index < length && Character.isDigit(string.charAt(index)))
+            {
+                index++;
+            }
+            if (index == start)
+            {
+                return false;
+            }
+            if (group < 2)
+            {
+                if (index == length || string.charAt(index) != '-')
+                {
+                    return false;
+                }
+                index++;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the date parsed in RFC-3339 format, as {@link #parseDateRfc3339(String)}
+     *         does, or {@code null} if the string is not in that format
+     */
+    static Date parseRfc3339(String string)
+    {
+        ParsePosition position = new ParsePosition(0);
+        if (DateTimeFormatter.ISO_INSTANT.parseUnresolved(string, position) == null
+                || position.getIndex() != string.length())
+        {
+            return null;
+        }
         try
         {
-            return parseDateRfc3339(strDate);
+            return Date.from(Instant.parse(string));
         }
-        catch (IllegalArgumentException exception)
+        catch (DateTimeException | IllegalArgumentException exception)
         {
-            return parseDateIso8601(strDate);
+            return null;
+        }
+    }
+
+    /**
+     * @return the date parsed by the pre-built formatters for the most common ISO-8601
+     *         variations, or {@code null} if the string is not in any of these formats or
+     *         its values require the lenient parsing of the legacy patterns
+     */
+    static Date parseIso8601CommonFormats(String string)
+    {
+        DateTimeFormatter formatter;
+        if (string.length() == 10)
+        {
+            formatter = ISO_8601_DATE_FORMATTER;
+        }
+        else if (string.length() > 10 && string.charAt(10) == 'T')
+        {
+            formatter = ISO_8601_DATE_T_TIME_FORMATTER;
+        }
+        else if (string.length() > 10 && string.charAt(10) == ' ')
+        {
+            formatter = ISO_8601_DATE_SPACE_TIME_FORMATTER;
+        }
+        else
+        {
+            return null;
+        }
+
+        ParsePosition position = new ParsePosition(0);
+        TemporalAccessor fields = formatter.parseUnresolved(string, position);
+        if (fields == null || position.getIndex() != string.length())
+        {
+            return null;
+        }
+
+        int year = (int) fields.getLong(ChronoField.YEAR);
+        int month = (int) fields.getLong(ChronoField.MONTH_OF_YEAR);
+        int day = (int) fields.getLong(ChronoField.DAY_OF_MONTH);
+        if (year < FIRST_GREGORIAN_YEAR || month < 1 || month > 12 || day < 1
+                || day > Month.of(month).length(Year.isLeap(year)))
+        {
+            return null;
+        }
+        if (formatter == ISO_8601_DATE_FORMATTER)
+        {
+            return Date.from(LocalDate.of(year, month, day).atStartOfDay(ZoneId.systemDefault()).toInstant());
+        }
+
+        int hour = (int) fields.getLong(ChronoField.HOUR_OF_DAY);
+        int minute = (int) fields.getLong(ChronoField.MINUTE_OF_HOUR);
+        int second = (int) fields.getLong(ChronoField.SECOND_OF_MINUTE);
+        if (hour > 23 || minute > 59 || second > 59 || !fields.isSupported(ChronoField.OFFSET_SECONDS))
+        {
+            return null;
+        }
+        long nanos = fields.isSupported(ChronoField.NANO_OF_SECOND) ? fields.getLong(ChronoField.NANO_OF_SECOND) : 0;
+        ZoneOffset offset = ZoneOffset.ofTotalSeconds((int) fields.getLong(ChronoField.OFFSET_SECONDS));
+        long epochSecond = LocalDateTime.of(year, month, day, hour, minute, second).toEpochSecond(offset);
+        return new Date(epochSecond * 1000 + nanos / 1_000_000);
+    }
+
+    /**
+     * @return the date parsed by the lenient legacy patterns, or {@code null} if the string
+     *         does not match any of them
+     */
+    static Date parseIso8601Patterns(String string)
+    {
+        try
+        {
+            return parseDate(string, ISO_8601_COMMON_PATTERNS);
+        }
+        catch (ParseException exception)
+        {
+            return null;
         }
     }
 
@@ -152,12 +673,7 @@ public class DateUtils
      */
     public static boolean isParsable(Object object)
     {
-        if (object instanceof Date || object instanceof Instant)
-        {
-            return true;
-        }
-        String string = String.valueOf(object);
-        return isParsableRfc3339(string) || isParsableIso8601(string);
+        return tryParseDate(object) != null;
     }
 
     /**
@@ -168,15 +684,7 @@ public class DateUtils
      */
     public static boolean isParsableRfc3339(String string)
     {
-        try
-        {
-            parseDateRfc3339(string);
-            return true;
-        }
-        catch (IllegalArgumentException exception)
-        {
-            return false;
-        }
+        return hasDateShape(string) && parseRfc3339(string) != null;
     }
 
     /**
@@ -188,15 +696,9 @@ public class DateUtils
      */
     public static boolean isParsableIso8601(String string)
     {
-        try
-        {
-            parseDateIso8601(string);
-            return true;
-        }
-        catch (IllegalArgumentException exception)
-        {
-            return false;
-        }
+        String stripped = stripLeadingWhitespace(string);
+        return hasDateShape(stripped)
+                && (parseIso8601CommonFormats(stripped) != null || parseIso8601Patterns(stripped) != null);
     }
 
     /**
@@ -268,6 +770,24 @@ public class DateUtils
         return calendar;
     }
 
+    /**
+     * Converts the given date into {@link Calendar}, in the specified time zone.
+     *
+     * @param date the date to be converted
+     * @param zone the time zone of the calendar
+     * @return a {@code Calendar} object representing the given date
+     * @throws IllegalArgumentException if a null date is received
+     * @since 1.0.8
+     */
+    public static Calendar toCalendar(Date date, ZoneId zone)
+    {
+        if (date == null) throw new IllegalArgumentException("Date cannot be null");
+
+        Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone(zone));
+        calendar.setTime(date);
+        return calendar;
+    }
+
     /**
      * Calculates the number of days between two dates
      *
@@ -295,8 +815,22 @@ public class DateUtils
      */
     public static boolean isLeapYear(Date date)
     {
-        Calendar calendar = toCalendar(date);
-        return isLeapYear(calendar.get(Calendar.YEAR));
+        return isLeapYear(date, ZoneId.systemDefault());
+    }
+
+    /**
+     * Returns true if the given date, in the specified time zone, is a leap year, that is,
+     * an year with 366 days, the extra day designated as February 29.
+     *
+     * @param date the date whose year is to be evaluated
+     * @param zone the time zone in which the year is to be evaluated
+     * @return {@code true} if the given year is leap year, {@code false} if not.
+     * @throws IllegalArgumentException if a null date is received
+     * @since 1.0.8
+     */
+    public static boolean isLeapYear(Date date, ZoneId zone)
+    {
+        return isLeapYear(getDateField(date, Calendar.YEAR, zone));
     }
 
     /**
@@ -322,10 +856,39 @@ public class DateUtils
      */
     public static int getIsoWeekNumber(Date date)
     {
-        Calendar calendar = toCalendar(date);
-        calendar.setMinimalDaysInFirstWeek(4);
-        calendar.setFirstDayOfWeek(Calendar.MONDAY);
-        return calendar.get(Calendar.WEEK_OF_YEAR);
+        return getIsoWeekNumber(date, ZoneId.systemDefault());
+    }
+
+    /**
+     * Returns the ISO week number in the year given a date, in the specified time zone.
+     * <p>
+     * According to the standard, the first week of the year will be the first one with a
+     * minimum of 4 days, starting with Monday.
+     *
+     * @param date the date to be accepted
+     * @param zone the time zone in which the week number is to be evaluated
+     * @return the week number in the year for the given date
+     * @throws IllegalArgumentException if a null date is received
+     * @since 1.0.8
+     */
+    public static int getIsoWeekNumber(Date date, ZoneId zone)
+    {
+        long epochDay = toEpochDay(date, zone);
+        if (epochDay < GREGORIAN_CUTOVER_EPOCH_DAY)
+        {
+            Calendar calendar = toCalendar(date, zone);
+            calendar.setMinimalDaysInFirstWeek(4);
+            calendar.setFirstDayOfWeek(Calendar.MONDAY);
+            return calendar.get(Calendar.WEEK_OF_YEAR);
+        }
+        int year = (int) civilField(epochDay, Calendar.YEAR);
+        int dayOfYear = (int) (epochDay - epochDayOf(year, 1, 1)) + 1;
+        int week = (dayOfYear - isoDayOfWeek(epochDay) + 10) / 7;
+        if (week < 1)
+        {
+            return isoWeeksInYear(year - 1);
+        }
+        return week > isoWeeksInYear(year) ? 1 : week;
     }
 
     /**
@@ -336,8 +899,22 @@ public class DateUtils
      */
     public static int getMonth(Date date)
     {
-        Calendar calendar = toCalendar(date);
-        return calendar.get(Calendar.MONTH) + 1;
+        return getMonth(date, ZoneId.systemDefault());
+    }
+
+    /**
+     * Returns the month number (January = 1) for the given date, in the specified time
+     * zone.
+     *
+     * @param date the date whose month number is to be retrieved
+     * @param zone the time zone in which the month is to be evaluated
+     * @return the month number for the given date
+     * @throws IllegalArgumentException if a null date is received
+     * @since 1.0.8
+     */
+    public static int getMonth(Date date, ZoneId zone)
+    {
+        return getDateField(date, Calendar.MONTH, zone) + 1;
     }
 
     /**
@@ -348,8 +925,21 @@ public class DateUtils
      */
     public static int getQuarter(Date date)
     {
-        Calendar calendar = toCalendar(date);
-        return calendar.get(Calendar.MONTH) / 3 + 1;
+        return getQuarter(date, ZoneId.systemDefault());
+    }
+
+    /**
+     * Returns the quarter of the year, in the specified time zone.
+     *
+     * @param date the date whose quarter is to be retrieved
+     * @param zone the time zone in which the quarter is to be evaluated
+     * @return the quarter of the year for the given date
+     * @throws IllegalArgumentException if a null date is received
+     * @since 1.0.8
+     */
+    public static int getQuarter(Date date, ZoneId zone)
+    {
+        return getDateField(date, Calendar.MONTH, zone) / 3 + 1;
     }
 
     /**
@@ -361,8 +951,61 @@ public class DateUtils
      */
     public static int getDateField(Date date, int calendarCode)
     {
-        Calendar calendar = toCalendar(date);
-        return calendar.get(calendarCode);
+        return getDateField(date, calendarCode, ZoneId.systemDefault());
+    }
+
+    /**
+     * Returns the field referenced by the given {@code calendarCode} in the specified date
+     * and time zone.
+     * <p>
+     * The most common fields, that is, {@code YEAR}, {@code MONTH}, {@code DAY_OF_MONTH},
+     * {@code DAY_OF_WEEK}, {@code DAY_OF_YEAR}, {@code AM_PM}, {@code HOUR},
+     * {@code HOUR_OF_DAY}, {@code MINUTE}, {@code SECOND} and {@code MILLISECOND}, are
+     * calculated from the number of milliseconds since the epoch, with no object
+     * allocation. Other fields, as well as dates before the adoption of the Gregorian
+     * calendar, are retrieved from a {@link Calendar}, so the results are the same.
+     *
+     * @param date         the date whose field is to be retrieved
+     * @param calendarCode one of the integer constants from {@link Calendar}
+     * @param zone         the time zone in which the field is to be evaluated
+     * @return the field referenced by the given {@code calendarCode} in the specified date
+     * @throws IllegalArgumentException if a null date is received
+     * @since 1.0.8
+     */
+    public static int getDateField(Date date, int calendarCode, ZoneId zone)
+    {
+        long localMillis = toLocalMillis(date, zone);
+        long epochDay = Math.floorDiv(localMillis, MILLIS_PER_DAY);
+        if (epochDay < GREGORIAN_CUTOVER_EPOCH_DAY)
+        {
+            return toCalendar(date, zone).get(calendarCode);
+        }
+        int millisOfDay = (int) Math.floorMod(localMillis, MILLIS_PER_DAY);
+        switch (calendarCode)
+        {
+        case Calendar.YEAR:
+        case Calendar.MONTH:
+        case Calendar.DAY_OF_MONTH:
+            return (int) civilField(epochDay, calendarCode);
+        case Calendar.DAY_OF_YEAR:
+            return (int) (epochDay - epochDayOf((int) civilField(epochDay, Calendar.YEAR), 1, 1)) + 1;
+        case Calendar.DAY_OF_WEEK:
+            return (int) Math.floorMod(epochDay + 4, 7) + 1;
+        case Calendar.AM_PM:
+            return millisOfDay / MILLIS_PER_HOUR < 12 ? Calendar.AM : Calendar.PM;
+        case Calendar.HOUR:
+            return millisOfDay / MILLIS_PER_HOUR % 12;
+        case Calendar.HOUR_OF_DAY:
+            return millisOfDay / MILLIS_PER_HOUR;
+        case Calendar.MINUTE:
+            return millisOfDay / MILLIS_PER_MINUTE % 60;
+        case Calendar.SECOND:
+            return millisOfDay / MILLIS_PER_SECOND % 60;
+        case Calendar.MILLISECOND:
+            return millisOfDay % MILLIS_PER_SECOND;
+        default:
+            return toCalendar(date, zone).get(calendarCode);
+        }
     }
 
     /**
@@ -373,12 +1016,121 @@ public class DateUtils
      */
     public static Date endOfMonth(Date date)
     {
-        Calendar calendar = toCalendar(date);
-        calendar.set(Calendar.DATE, calendar.getActualMaximum(Calendar.DATE));
-        calendar.set(Calendar.HOUR_OF_DAY, calendar.getActualMaximum(Calendar.HOUR_OF_DAY));
-        calendar.set(Calendar.MINUTE, calendar.getActualMaximum(Calendar.MINUTE));
-        calendar.set(Calendar.SECOND, calendar.getActualMaximum(Calendar.SECOND));
-        calendar.set(Calendar.MILLISECOND, calendar.getActualMaximum(Calendar.MILLISECOND));
-        return calendar.getTime();
+        return endOfMonth(date, ZoneId.systemDefault());
+    }
+
+    /**
+     * Returns the date corresponding to the last millisecond of the last day of the month
+     * given a source date, in the specified time zone
+     *
+     * @param date the date to be converted
+     * @param zone the time zone in which the month is to be evaluated
+     * @return the date corresponding to the last day of the month
+     * @throws IllegalArgumentException if a null date is received
+     * @since 1.0.8
+     */
+    public static Date endOfMonth(Date date, ZoneId zone)
+    {
+        long epochDay = toEpochDay(date, zone);
+        if (epochDay < GREGORIAN_CUTOVER_EPOCH_DAY)
+        {
+            Calendar calendar = toCalendar(date, zone);
+            calendar.set(Calendar.DATE, calendar.getActualMaximum(Calendar.DATE));
+            calendar.set(Calendar.HOUR_OF_DAY, calendar.getActualMaximum(Calendar.HOUR_OF_DAY));
+            calendar.set(Calendar.MINUTE, calendar.getActualMaximum(Calendar.MINUTE));
+            calendar.set(Calendar.SECOND, calendar.getActualMaximum(Calendar.SECOND));
+            calendar.set(Calendar.MILLISECOND, calendar.getActualMaximum(Calendar.MILLISECOND));
+            return calendar.getTime();
+        }
+        LocalDate localDate = LocalDate.ofEpochDay(epochDay);
+        LocalDateTime endOfMonth = localDate.withDayOfMonth(localDate.lengthOfMonth()).atTime(23, 59, 59,
+                999_000_000);
+        // As with Calendar, the later instant is taken if the time occurs twice, at the end of
+        // daylight saving time, so that no later instant belongs to the same month
+        return Date.from(endOfMonth.atZone(zone).withLaterOffsetAtOverlap().toInstant());
+    }
+
+    /**
+     * @return the number of milliseconds since the epoch of the local date and time of the
+     *         given date in the specified zone
+     */
+    private static long toLocalMillis(Date date, ZoneId zone)
+    {
+        if (date == null) throw new IllegalArgumentException("Date cannot be null");
+
+        long time = date.getTime();
+        int offsetSeconds = zone instanceof ZoneOffset ? ((ZoneOffset) zone).getTotalSeconds()
+                : zone.getRules().getOffset(Instant.ofEpochMilli(time)).getTotalSeconds();
+        return time + offsetSeconds * 1000L;
+    }
+
+    /**
+     * @return the local epoch day of the given date in the specified zone
+     */
+    private static long toEpochDay(Date date, ZoneId zone)
+    {
+        return Math.floorDiv(toLocalMillis(date, zone), MILLIS_PER_DAY);
+    }
+
+    /**
+     * Returns a field of the proleptic Gregorian date of the given epoch day, with the
+     * algorithm described by Howard Hinnant in <i>chrono-Compatible Low-Level Date
+     * Algorithms</i>.
+     *
+     * @param epochDay     the number of days since 1970-01-01
+     * @param calendarCode either {@code Calendar.YEAR}, {@code Calendar.MONTH} (zero-based)
+     *                     or {@code Calendar.DAY_OF_MONTH}
+     * @return the requested field
+     */
+    private static long civilField(long epochDay, int calendarCode)
+    {
+        long days = epochDay + DAYS_0000_03_01_TO_1970;
+        long era = Math.floorDiv(days, DAYS_PER_CYCLE);
+        long dayOfEra = days - era * DAYS_PER_CYCLE;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153; // March = 0
+        long month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        switch (calendarCode)
+        {
+        case Calendar.YEAR:
+            return yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        case Calendar.MONTH:
+            return month - 1;
+        default:
+            return dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        }
+    }
+
+    /**
+     * @return the epoch day of the given proleptic Gregorian date, the inverse of
+     *         {@link #civilField(long, int)}
+     */
+    private static long epochDayOf(int year, int month, int day)
+    {
+        long y = month <= 2 ? year - 1L : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * DAYS_PER_CYCLE + dayOfEra - DAYS_0000_03_01_TO_1970;
+    }
+
+    /**
+     * @return the ISO day of week (Monday = 1, Sunday = 7) of the given epoch day
+     */
+    private static int isoDayOfWeek(long epochDay)
+    {
+        return (int) Math.floorMod(epochDay + 3, 7) + 1;
+    }
+
+    /**
+     * @return the number of ISO weeks of the given year, that is, 53 if it starts on a
+     *         Thursday, or on a Wednesday in leap years; or 52, otherwise
+     */
+    private static int isoWeeksInYear(int year)
+    {
+        int firstDayOfWeek = isoDayOfWeek(epochDayOf(year, 1, 1));
+        return firstDayOfWeek == 4 || (firstDayOfWeek == 3 && isLeapYear(year)) ? 53 : 52;
     }
 }
@@ -0,0 +1,191 @@
+package net.obvj.jep.util;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A per-thread scope for values that are expensive to compute and can be safely reused
+ * while the scope is open, such as documents parsed from the same source string.
+ * <p>
+ * A scope is opened automatically for every expression evaluation, and it may also be
+ * opened explicitly to share values among multiple evaluations on the same thread, for
+ * example, when several expressions are evaluated against the same input record:
+ *
+ * <pre>
+ * try (EvaluationScope scope = EvaluationScope.open())
+ * {
+ *     for (CompiledExpression rule : rules)
+ *     {
+ *         results.add(rule.evaluate(record));
+ *     }
+ * }
+ * </pre>
+ *
+ * Scopes may be nested, in which case the inner scopes join the outermost one, and the
+ * values are discarded only when the outermost scope is closed. When no scope is open,
+ * values are always computed.
+ * <p>
+ * Values retained by a scope are shared by all callers within that scope, so they must
+ * not be modified.
+ *
+ * @author oswaldo.bapvic.jr
+ * @since 1.0.8
+ */
+public final class EvaluationScope implements AutoCloseable
+{
+    /**
+     * The maximum number of values of each type retained by a scope. When exceeded, the
+     * least recently used value is discarded, so that long-lived scopes do not hold an
+     * unbounded amount of memory.
+     */
+    static final int MAX_VALUES_PER_TYPE = 32;
+
+    private static final ThreadLocal<EvaluationScope> CURRENT = new ThreadLocal<>();
+
+    private final Map<Class<?>, Map<Object, Object>> values = new HashMap<>();
+    private int depth;
+
+    private EvaluationScope()
+    {
+        // Instances are created by the open() method
+    }
+
+    /**
+     * Opens a scope for the current thread, or joins the scope that is already open.
+     * <p>
+     * The returned scope must be closed by the same thread, preferably with a
+     * try-with-resources statement.
+     *
+     * @return the current scope
+     */
+    public static EvaluationScope open()
+    {
+        EvaluationScope scope = CURRENT.get();
+        if (scope == null)
+        {
+            scope = new EvaluationScope();
+            CURRENT.set(scope);
+        }
+        scope.depth++;
+        return scope;
+    }
+
+    /**
+     * @return {@code true} if there is an open scope for the current thread
+     */
+    public static boolean isActive()
+    {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * Returns the value of the given type associated with the given key in the current
+     * scope, computing it with the specified function if not present. If there is no open
+     * scope for the current thread, the value is always computed.
+     *
+     * @param <K>    the type of the key
+     * @param <V>    the type of the value
+     * @param type   the type of the value, which distinguishes values computed from the
+     *               same key
+     * @param key    the key whose associated value is to be returned
+     * @param loader the function to compute the value if not present in the scope
+     * @return the current (existing or computed) value associated with the given key
+     */
+    public static <K, V> V computeIfAbsent(Class<V> type, K key, Function<? super K, ? extends V> loader)
+    {
+        EvaluationScope scope = CURRENT.get();
+        if (scope == null || key == null)
+        {
+            return loader.apply(key);
+        }
+        Map<Object, Object> typeValues = scope.values.computeIfAbsent(type, t -> newBoundedMap());
+        Object value = typeValues.get(key);
+        if (value == null)
+        {
+            value = loader.apply(key);
+            typeValues.put(key, value);
+        }
+        return type.cast(value);
+    }
+
+    /**
+     * Returns the value of the given type associated with the given key in the current
+     * scope.
+     *
+     * @param <V>  the type of the value
+     * @param type the type of the value
+     * @param key  the key whose associated value is to be returned
+     * @return the value associated with the given key, or {@code null} if not present or if
+     *         there is no open scope for the current thread
+     */
+    public static <V> V get(Class<V> type, Object key)
+    {
+        EvaluationScope scope = CURRENT.get();
+        if (scope == null || key == null)
+        {
+            return null;
+        }
+        Map<Object, Object> typeValues = scope.values.get(type);
+        return typeValues == null ? null : type.cast(typeValues.get(key));
+    }
+
+    /**
+     * Associates a value of the given type with the given key in the current scope. If
+     * there is no open scope for the current thread, the value is not retained.
+     * <p>
+     * This method is useful for values computed by functions that throw checked
+     * exceptions, for which {@link #computeIfAbsent(Class, Object, Function)} cannot be
+     * used.
+     *
+     * @param <V>   the type of the value
+     * @param type  the type of the value
+     * @param key   the key with which the value is to be associated
+     * @param value the value to be retained, not null
+     */
+    public static <V> void put(Class<V> type, Object key, V value)
+    {
+        EvaluationScope scope = CURRENT.get();
+        if (scope != null && key != null && value != null)
+        {
+            scope.values.computeIfAbsent(type, t -> newBoundedMap()).put(key, value);
+        }
+    }
+
+    private static Map<Object, Object> newBoundedMap()
+    {
+        return new LinkedHashMap<Object, Object>(16, 0.75f, true)
+        {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Object> eldest)
+            {
+                return size() > MAX_VALUES_PER_TYPE;
+            }
+        };
+    }
+
+    /**
+     * Closes this scope. If this is the outermost scope of the current thread, all
+     * retained values are discarded.
+     *
+     * @throws IllegalStateException if this scope is not the current scope of the calling
+     *                               thread
+     */
+    @Override
+    public void close()
+    {
+        if (CURRENT.get() != this)
+        {
+            throw new IllegalStateException("The scope is not open in the current thread");
+        }
+        if (--depth == 0)
+        {
+            values.clear();
+            CURRENT.remove();
+        }
+    }
+
+}
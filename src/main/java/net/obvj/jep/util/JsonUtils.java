@@ -1,12 +1,16 @@
 package net.obvj.jep.util;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
+import org.json.JSONTokener;
 
 import com.jayway.jsonpath.Configuration;
 import com.jayway.jsonpath.JsonPath;
@@ -19,9 +23,26 @@ import com.jayway.jsonpath.spi.json.JsonOrgJsonProvider;
  */
 public class JsonUtils
 {
+    /**
+     * The default maximum number of compiled JSONPaths kept in the cache.
+     *
+     * @since 1.0.8
+     */
+    public static final int DEFAULT_JSON_PATH_CACHE_MAX_SIZE = 256;
+
     private static final Configuration JSON_PATH_CONFIGURATION = Configuration.builder()
             .jsonProvider(new JsonOrgJsonProvider()).build();
 
+    private static final BoundedCache<String, JsonPath> JSON_PATH_CACHE = new BoundedCache<>(
+            DEFAULT_JSON_PATH_CACHE_MAX_SIZE);
+
+    /**
+     * The JSONPaths compiled for streaming, or empty for the paths not supported by
+     * {@link StreamingJsonPath}, since the cache does not keep null values.
+     */
+    private static final BoundedCache<String, Optional<StreamingJsonPath>> STREAMING_JSON_PATH_CACHE = new BoundedCache<>(
+            DEFAULT_JSON_PATH_CACHE_MAX_SIZE);
+
     private JsonUtils()
     {
         throw new IllegalStateException("Utility class");
@@ -71,13 +92,58 @@ public class JsonUtils
 
     /**
      * Compiles the given JSONPath.
+     * <p>
+     * Compiled JSONPaths are immutable, so they are kept in a bounded cache and shared by
+     * subsequent calls with the same path.
      *
      * @param jsonPath the JSONPath to be validated
      * @return a {@code JsonPath} object
      */
     public static JsonPath compileJsonPath(String jsonPath)
     {
-        return JsonPath.compile(jsonPath);
+        return JSON_PATH_CACHE.get(jsonPath, JsonPath::compile);
+    }
+
+    /**
+     * Changes the maximum number of compiled JSONPaths kept in the cache.
+     *
+     * @param maxSize the maximum number of compiled JSONPaths to be kept in the cache, or
+     *                zero to disable the cache
+     * @throws IllegalArgumentException if the maximum size is negative
+     * @since 1.0.8
+     */
+    public static void setJsonPathCacheMaxSize(int maxSize)
+    {
+        JSON_PATH_CACHE.setMaxSize(maxSize);
+        STREAMING_JSON_PATH_CACHE.setMaxSize(maxSize);
+    }
+
+    /**
+     * @return the given JSONPath compiled for streaming, or {@code null} if not supported
+     *         by {@link StreamingJsonPath}
+     */
+    private static StreamingJsonPath compileStreamingJsonPath(String jsonPath)
+    {
+        return STREAMING_JSON_PATH_CACHE.get(jsonPath, key ->
+        {
+            try
+            {
+                return Optional.of(StreamingJsonPath.compile(key));
+            }
+            catch (IllegalArgumentException exception)
+            {
+                return Optional.empty();
+            }
+        }).orElse(null);
+    }
+
+    /**
+     * @return the hit, miss and eviction statistics of the compiled JSONPath cache
+     * @since 1.0.8
+     */
+    public static CacheStatistics getJsonPathCacheStatistics()
+    {
+        return JSON_PATH_CACHE.getStatistics();
     }
 
     /**
@@ -94,7 +160,25 @@ public class JsonUtils
         {
             return json;
         }
-        return JsonPath.parse(json, JSON_PATH_CONFIGURATION).read(jsonPath);
+        return readJsonPath(json, compileJsonPath(jsonPath));
+    }
+
+    /**
+     * Gets a value that matches the given compiled JSONPath.
+     *
+     * @param json     a JSON object input data
+     * @param jsonPath the compiled JSONPath to be evaluated
+     * @return The value that matches the given JSONPath or {@code null} if no match was
+     *         found. If the JSON is empty or null, the same object will be returned.
+     * @since 1.0.8
+     */
+    public static Object readJsonPath(JSONObject json, JsonPath jsonPath)
+    {
+        if (isEmpty(json))
+        {
+            return json;
+        }
+        return jsonPath.read(json, JSON_PATH_CONFIGURATION);
     }
 
     /**
@@ -118,6 +202,67 @@ public class JsonUtils
         return evaluationResult;
     }
 
+    /**
+     * Gets a value that matches the given compiled JSONPath.
+     *
+     * @param json                 a JSON object input data
+     * @param jsonPath             the compiled JSONPath to be evaluated
+     * @param extractSingleElement a flag indicating whether the method should return the
+     *                             single value of a JSONArray instead of the array itself,
+     *                             provided that the length of the returnable array is equal
+     *                             to one.
+     * @return The evaluation results the given {@code jsonPath} over the {@code json} object;
+     * @since 1.0.8
+     */
+    public static Object readJsonPath(JSONObject json, JsonPath jsonPath, boolean extractSingleElement)
+    {
+        Object evaluationResult = readJsonPath(json, jsonPath);
+        if (extractSingleElement)
+        {
+            return getSingleValueFromJSONArray(evaluationResult);
+        }
+        return evaluationResult;
+    }
+
+    /**
+     * Gets a value that matches the given JSONPath from the JSON content of a reader.
+     * <p>
+     * If the path is supported by {@link StreamingJsonPath}, the content is scanned without
+     * building the whole document in memory, with the limitations described in that
+     * class. Otherwise, the content is parsed into a {@link JSONObject} before evaluation.
+     * The reader is not closed by this method.
+     *
+     * @param json                 a reader of JSON object input data
+     * @param jsonPath             the JSONPath to be evaluated
+     * @param extractSingleElement a flag indicating whether the method should return the
+     *                             single value of a JSONArray instead of the array itself,
+     *                             provided that the length of the returnable array is equal
+     *                             to one.
+     * @return The evaluation results the given {@code jsonPath} over the {@code json}
+     *         content
+     * @throws IOException if an I/O error occurs reading the content
+     * @since 1.0.8
+     */
+    public static Object readJsonPath(Reader json, String jsonPath, boolean extractSingleElement)
+            throws IOException
+    {
+        Object evaluationResult;
+        StreamingJsonPath streamingJsonPath = compileStreamingJsonPath(jsonPath);
+        if (streamingJsonPath != null)
+        {
+            evaluationResult = streamingJsonPath.read(json);
+        }
+        else
+        {
+            evaluationResult = readJsonPath(new JSONObject(new JSONTokener(json)), jsonPath);
+        }
+        if (extractSingleElement)
+        {
+            return getSingleValueFromJSONArray(evaluationResult);
+        }
+        return evaluationResult;
+    }
+
     /**
      * Returns the single element of a JSONArray provided that a singleton array is received.
      * The whole JSONArray is returned if its length is greater than one.
@@ -149,6 +294,10 @@ public class JsonUtils
      * <p>
      * If the specified input is already a {@link JSONObject}, then the same object will be
      * returned.
+     * <p>
+     * If an {@link EvaluationScope} is open, the object parsed from a given string is kept
+     * and returned by subsequent calls with an equal string within the same scope, so the
+     * returned object must not be modified.
      *
      * @param object the object to be converted
      * @return the converted {@link JSONObject}
@@ -165,7 +314,7 @@ public class JsonUtils
         {
             return (JSONObject) object;
         }
-        return new JSONObject(object.toString());
+        return EvaluationScope.computeIfAbsent(JSONObject.class, object.toString(), JSONObject::new);
     }
 
     /**
@@ -178,6 +327,10 @@ public class JsonUtils
      * <p>
      * If the specified input is already a {@link JSONArray}, then the same object will be
      * returned.
+     * <p>
+     * If an {@link EvaluationScope} is open, the array parsed from a given string is kept
+     * and returned by subsequent calls with an equal string within the same scope, so the
+     * returned array must not be modified.
      *
      * @param object the object to be converted
      * @return the converted {@link JSONArray}
@@ -194,7 +347,7 @@ public class JsonUtils
         {
             return (JSONArray) object;
         }
-        return new JSONArray(object.toString());
+        return EvaluationScope.computeIfAbsent(JSONArray.class, object.toString(), JSONArray::new);
     }
 
     /**
@@ -214,14 +367,8 @@ public class JsonUtils
             List<Object> list = new ArrayList<>(jsonArray.length());
             for (int i = 0, length = jsonArray.length(); i < length; i++)
             {
-                if (isEmpty(jsonArray.get(i)))
-                {
-                    list.add(null);
-                }
-                else
-                {
-                    list.add(jsonArray.get(i));
-                }
+                Object element = jsonArray.get(i);
+                list.add(isEmpty(element) ? null : element);
             }
             return list;
         }
@@ -0,0 +1,160 @@
+package net.obvj.jep.util;
+
+/**
+ * A set of primitive {@code long} values, based on an open-addressing hash table with
+ * linear probing, which avoids boxing each value into a {@link Long} and creating an entry
+ * object for it, as a {@link java.util.HashSet} would.
+ * <p>
+ * Doubles may be stored by their bit patterns, as returned by
+ * {@link Double#doubleToLongBits(double)}, which is consistent with
+ * {@link Double#equals(Object)}.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @author oswaldo.bapvic.jr
+ * @since 1.0.8
+ */
+final class LongHashSet
+{
+    private static final int MIN_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    /**
+     * The value that marks empty slots in the table, which is tracked by a separate flag
+     * when added to the set.
+     */
+    private static final long EMPTY = 0L;
+
+    private long[] table;
+    private int mask;
+    private int size;
+    private int resizeThreshold;
+    private boolean containsEmpty;
+
+    /**
+     * Creates a set that holds the given number of values without being resized.
+     *
+     * @param expectedSize the expected number of values, not negative
+     * @throws IllegalArgumentException if the expected size is negative
+     */
+    LongHashSet(int expectedSize)
+    {
+        if (expectedSize < 0)
+        {
+            throw new IllegalArgumentException("Negative expected size: " + expectedSize);
+        }
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * @return the smallest power of two that keeps the table at most half full for the
+     *         given number of values
+     */
+    private static int capacityFor(int expectedSize)
+    {
+        long capacity = Long.highestOneBit(Math.max(MIN_CAPACITY / 2, expectedSize) * 2L - 1) << 1;
+        return (int) Math.min(capacity, MAX_CAPACITY);
+    }
+
+    private void allocate(int capacity)
+    {
+        table = new long[capacity];
+        mask = capacity - 1;
+        resizeThreshold = capacity / 2;
+    }
+
+    private int indexOf(long value)
+    {
+        long hash = value * HASH_MULTIPLIER;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    /**
+     * Adds the given value to this set, if not already present.
+     *
+     * @param value the value to be added
+     * @return {@code true} if this set did not already contain the value
+     */
+    boolean add(long value)
+    {
+        if (value == EMPTY)
+        {
+            if (containsEmpty)
+            {
+                return false;
+            }
+            containsEmpty = true;
+            size++;
+            return true;
+        }
+        int index = indexOf(value);
+        while (table[index] != EMPTY)
+        {
+            if (table[index] == value)
+            {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        table[index] = value;
+        if (++size > resizeThreshold)
+        {
+            resize();
+        }
+        return true;
+    }
+
+    /**
+     * @param value the value to be checked
+     * @return {@code true} if this set contains the value
+     */
+    boolean contains(long value)
+    {
+        if (value == EMPTY)
+        {
+            return containsEmpty;
+        }
+        int index = indexOf(value);
+        while (table[index] != EMPTY)
+        {
+            if (table[index] == value)
+            {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * @return the number of values in this set
+     */
+    int size()
+    {
+        return size;
+    }
+
+    private void resize()
+    {
+        if (table.length == MAX_CAPACITY)
+        {
+            throw new IllegalStateException("Maximum capacity exceeded");
+        }
+        long[] oldTable = table;
+        allocate(oldTable.length * 2);
+        for (long value : oldTable)
+        {
+            if (value != EMPTY)
+            {
+                int index = indexOf(value);
+                while (table[index] != EMPTY)
+                {
+                    index = (index + 1) & mask;
+                }
+                table[index] = value;
+            }
+        }
+    }
+
+}
@@ -1,5 +1,6 @@
 package net.obvj.jep.util;
 
+import java.util.Arrays;
 import java.util.Iterator;
 
 import org.apache.commons.lang3.StringUtils;
@@ -195,4 +196,115 @@ public class NumberUtils
         }
         return true;
     }
+
+    /**
+     * Checks whether the given object is an array of primitive numbers supported by the
+     * statistics methods of this class, that is, {@code double[]}, {@code int[]} or
+     * {@code long[]}.
+     *
+     * @param object the object to be evaluated
+     * @return true if the object is a supported array of primitive numbers
+     * @since 1.0.8
+     */
+    public static boolean isNumericArray(Object object)
+    {
+        return object instanceof double[] || object instanceof int[] || object instanceof long[];
+    }
+
+    /**
+     * Returns the maximum value of an array of primitive numbers, with no boxing of the
+     * other elements.
+     *
+     * @param numericArray a {@code double[]}, {@code int[]} or {@code long[]}
+     * @return the maximum value, with the wrapper type of the array elements
+     * @throws IllegalArgumentException if the array is empty or not supported
+     * @since 1.0.8
+     */
+    public static Number max(Object numericArray)
+    {
+        return extreme(numericArray, 1);
+    }
+
+    /**
+     * Returns the minimum value of an array of primitive numbers, with no boxing of the
+     * other elements.
+     *
+     * @param numericArray a {@code double[]}, {@code int[]} or {@code long[]}
+     * @return the minimum value, with the wrapper type of the array elements
+     * @throws IllegalArgumentException if the array is empty or not supported
+     * @since 1.0.8
+     */
+    public static Number min(Object numericArray)
+    {
+        return extreme(numericArray, -1);
+    }
+
+    private static Number extreme(Object numericArray, int sign)
+    {
+        if (numericArray instanceof double[] && ((double[]) numericArray).length > 0)
+        {
+            double[] values = (double[]) numericArray;
+            double result = values[0];
+            for (int i = 1; i < values.length; i++)
+            {
+                if (Double.compare(values[i], result) * sign > 0)
+                {
+                    result = values[i];
+                }
+            }
+            return result;
+        }
+        if (numericArray instanceof int[] && ((int[]) numericArray).length > 0)
+        {
+            int[] values = (int[]) numericArray;
+            int result = values[0];
+            for (int i = 1; i < values.length; i++)
+            {
+                if (Integer.compare(values[i], result) * sign > 0)
+                {
+                    result = values[i];
+                }
+            }
+            return result;
+        }
+        if (numericArray instanceof long[] && ((long[]) numericArray).length > 0)
+        {
+            long[] values = (long[]) numericArray;
+            long result = values[0];
+            for (int i = 1; i < values.length; i++)
+            {
+                if (Long.compare(values[i], result) * sign > 0)
+                {
+                    result = values[i];
+                }
+            }
+            return result;
+        }
+        throw new IllegalArgumentException("Unable to compare the values of the array: " + numericArray);
+    }
+
+    /**
+     * Returns the arithmetic mean of an array of primitive numbers.
+     *
+     * @param numericArray a {@code double[]}, {@code int[]} or {@code long[]}
+     * @return the average of the elements, or {@link Double#NaN} if the array is empty
+     * @throws IllegalArgumentException if the array is not supported
+     * @since 1.0.8
+     */
+    public static double average(Object numericArray)
+    {
+        if (numericArray instanceof double[])
+        {
+            return Arrays.stream((double[]) numericArray).average().orElse(Double.NaN);
+        }
+        if (numericArray instanceof int[])
+        {
+            return Arrays.stream((int[]) numericArray).average().orElse(Double.NaN);
+        }
+        if (numericArray instanceof long[])
+        {
+            return Arrays.stream((long[]) numericArray).average().orElse(Double.NaN);
+        }
+        throw new IllegalArgumentException("Unsupported array type: " + numericArray);
+    }
 }
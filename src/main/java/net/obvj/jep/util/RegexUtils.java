@@ -11,19 +11,71 @@ import org.apache.commons.lang3.StringUtils;
 
 /**
  * A utility class for working with regular expressions in strings.
+ * <p>
+ * The methods that receive a regular expression as a string keep the compiled patterns
+ * in a bounded cache, shared by all threads, so that frequently used expressions are
+ * compiled only once.
  *
  * @author oswaldo.bapvic.jr
  */
 public class RegexUtils
 {
+    /**
+     * The default maximum number of compiled patterns kept in the cache.
+     *
+     * @since 1.0.8
+     */
+    public static final int DEFAULT_PATTERN_CACHE_MAX_SIZE = 512;
+
     protected static final Pattern PATTERN_UNIX_LIKE_VARIABLE_PLACEHOLDER = Pattern.compile("(\\$\\{)[\\w]+(\\})");
     protected static final Pattern PATTERN_UNIX_LIKE_VARIABLE_NAME = Pattern.compile("(?<=\\$\\{)[\\w]+(?=\\})");
 
+    private static final BoundedCache<String, Pattern> PATTERN_CACHE = new BoundedCache<>(
+            DEFAULT_PATTERN_CACHE_MAX_SIZE);
+
     private RegexUtils()
     {
         throw new IllegalStateException("Utility class");
     }
 
+    /**
+     * Compiles the given regular expression into a pattern.
+     * <p>
+     * Compiled patterns are immutable and kept in a bounded cache, so the same instance may
+     * be returned by subsequent calls with the same regular expression.
+     *
+     * @param regex the regular expression to be compiled
+     * @return the compiled pattern
+     * @throws java.util.regex.PatternSyntaxException if the expression's syntax is invalid
+     * @since 1.0.8
+     */
+    public static Pattern compilePattern(String regex)
+    {
+        return PATTERN_CACHE.get(regex, Pattern::compile);
+    }
+
+    /**
+     * Changes the maximum number of compiled patterns kept in the cache.
+     *
+     * @param maxSize the maximum number of compiled patterns to be kept in the cache, or
+     *                zero to disable the cache
+     * @throws IllegalArgumentException if the maximum size is negative
+     * @since 1.0.8
+     */
+    public static void setPatternCacheMaxSize(int maxSize)
+    {
+        PATTERN_CACHE.setMaxSize(maxSize);
+    }
+
+    /**
+     * @return the hit, miss and eviction statistics of the compiled pattern cache
+     * @since 1.0.8
+     */
+    public static CacheStatistics getPatternCacheStatistics()
+    {
+        return PATTERN_CACHE.getStatistics();
+    }
+
     /**
      * Returns true if the given string contains at least one match of the given pattern.
      *
@@ -51,7 +103,7 @@ public class RegexUtils
      */
     public static boolean matches(String string, String regex)
     {
-        Pattern pattern = Pattern.compile(regex);
+        Pattern pattern = compilePattern(regex);
         return matches(string, pattern);
     }
 
@@ -85,7 +137,7 @@ public class RegexUtils
      */
     public static List<String> findMatches(String string, String regex)
     {
-        Pattern pattern = Pattern.compile(regex);
+        Pattern pattern = compilePattern(regex);
         return findMatches(string, pattern);
     }
 
@@ -118,7 +170,7 @@ public class RegexUtils
      */
     public static String firstMatch(String string, String regex)
     {
-        Pattern pattern = Pattern.compile(regex);
+        Pattern pattern = compilePattern(regex);
         return firstMatch(string, pattern);
     }
 
@@ -134,10 +186,24 @@ public class RegexUtils
     {
         if (StringUtils.isEmpty(string)) return string;
 
-        Pattern pattern = Pattern.compile(regex);
+        Pattern pattern = compilePattern(regex);
         return pattern.matcher(string).replaceAll(replacement);
     }
 
+    /**
+     * Splits the given string around matches of the given regular expression, with the
+     * same semantics of {@link String#split(String)}.
+     *
+     * @param string The string to be split
+     * @param regex  The delimiting regular expression
+     * @return The array of strings computed by splitting the string
+     * @since 1.0.8
+     */
+    public static String[] split(String string, String regex)
+    {
+        return compilePattern(regex).split(string);
+    }
+
     /**
      * Checks if the string has place-holders for variables in Unix-like pattern.
      *
@@ -0,0 +1,1062 @@
+package net.obvj.jep.util;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import com.jayway.jsonpath.PathNotFoundException;
+
+/**
+ * A JSONPath evaluator that scans the JSON input token by token, without building the
+ * whole document in memory. Only the values that match the path (and the array elements
+ * tested by filters) are materialized, so the memory usage is proportional to the results
+ * rather than to the size of the document.
+ * <p>
+ * This class supports the following subset of the JSONPath syntax:
+ * <ul>
+ * <li>the root element: {@code $}</li>
+ * <li>child elements: {@code .name} or {@code ['name']}</li>
+ * <li>wildcards: {@code .*} or {@code [*]}</li>
+ * <li>array indexes: {@code [2]}</li>
+ * <li>array slices: {@code [1:3]}, {@code [:3]} or {@code [1:]}</li>
+ * <li>simple filters with a single condition over the current element:
+ * {@code [?(@.name)]} or {@code [?(@.name operator literal)]}, where the operator is one
+ * of {@code ==, !=, <, <=, >, >=} and the literal is a number, a quoted string,
+ * {@code true}, {@code false} or {@code null}</li>
+ * </ul>
+ * Deep scans ({@code ..}), negative indexes, unions and functions are not supported.
+ * Use {@link #isSupported(String)} to check whether a path can be evaluated by this
+ * class.
+ * <p>
+ * The results follow the conventions of the Jayway JSONPath implementation with the
+ * {@code org.json} provider: a definite path (one that contains only child elements and
+ * array indexes) returns a single value or throws a {@link PathNotFoundException}; any
+ * other path returns a {@link JSONArray} with all matches in the same order. Array
+ * elements are matched in document order, and the members of an object matched by a
+ * wildcard in the iteration order of a {@link JSONObject} with the same keys, which is
+ * the order of its internal {@link HashMap}, instead of the document order. For this
+ * purpose, the keys of objects matched by wildcards are retained until the end of each
+ * object.
+ * <p>
+ * Unlike Jayway, filters compare values without converting between numbers and strings
+ * and do not fail on operands of different types, and the input is not fully validated:
+ * skipped values are only scanned, and a definite path stops at its first match. For
+ * this reason, {@link JsonUtils} uses this class only for content supplied by a reader.
+ * <p>
+ * Instances of this class are immutable and can be safely shared between threads.
+ *
+ * @author oswaldo.bapvic.jr
+ * @since 1.0.8
+ */
+public final class StreamingJsonPath
+{
+    private static final String ERROR_UNSUPPORTED_PATH = "Unsupported JSONPath for streaming: %s";
+    private static final String ERROR_NO_RESULTS_FOR_PATH = "No results for path: %s";
+
+    private final String path;
+    private final List<Step> steps;
+    private final boolean definite;
+
+    private StreamingJsonPath(String path, List<Step> steps)
+    {
+        this.path = path;
+        this.steps = steps;
+        this.definite = steps.stream().allMatch(step -> step.type == StepType.CHILD || step.type == StepType.INDEX);
+    }
+
+    /**
+     * Compiles the given JSONPath for streaming evaluation.
+     *
+     * @param path the JSONPath to be compiled
+     * @return a new {@code StreamingJsonPath}
+     * @throws IllegalArgumentException if the path is not supported by this class
+     */
+    public static StreamingJsonPath compile(String path)
+    {
+        if (path == null)
+        {
+            throw new IllegalArgumentException(String.format(ERROR_UNSUPPORTED_PATH, path));
+        }
+        return new StreamingJsonPath(path, new PathParser(path.trim()).parse());
+    }
+
+    /**
+     * Checks whether the given JSONPath can be evaluated by this class.
+     *
+     * @param path the JSONPath to be checked
+     * @return {@code true} if the path is supported by this class
+     */
+    public static boolean isSupported(String path)
+    {
+        try
+        {
+            compile(path);
+            return true;
+        }
+        catch (IllegalArgumentException exception)
+        {
+            return false;
+        }
+    }
+
+    /**
+     * @return the source JSONPath
+     */
+    public String getPath()
+    {
+        return path;
+    }
+
+    /**
+     * @return {@code true} if the path contains only child elements and array indexes, in
+     *         which case a single value is returned
+     */
+    public boolean isDefinite()
+    {
+        return definite;
+    }
+
+    /**
+     * Evaluates this JSONPath over the JSON content of the given string.
+     *
+     * @param json the JSON content to be evaluated
+     * @return the matching value, if the path is definite; or a {@link JSONArray} with all
+     *         matching values, otherwise
+     * @throws JSONException         if the content is not a valid JSON
+     * @throws PathNotFoundException if the path is definite and no value matches it
+     */
+    public Object read(String json)
+    {
+        try
+        {
+            return read(new StringReader(json));
+        }
+        catch (IOException exception)
+        {
+            // Not expected from a StringReader
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    /**
+     * Evaluates this JSONPath over the JSON content of the given file, in UTF-8.
+     *
+     * @param file the path of the file to be evaluated
+     * @return the matching value, if the path is definite; or a {@link JSONArray} with all
+     *         matching values, otherwise
+     * @throws IOException           if an I/O error occurs reading the file
+     * @throws JSONException         if the content is not a valid JSON
+     * @throws PathNotFoundException if the path is definite and no value matches it
+     */
+    public Object read(Path file) throws IOException
+    {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8))
+        {
+            return read(reader);
+        }
+    }
+
+    /**
+     * Evaluates this JSONPath over the JSON content of the given stream, in UTF-8.
+     * <p>
+     * The stream is not closed by this method. If the path is definite, the scanning stops
+     * at the first match, so the stream may not be consumed entirely.
+     *
+     * @param inputStream the stream to be evaluated
+     * @return the matching value, if the path is definite; or a {@link JSONArray} with all
+     *         matching values, otherwise
+     * @throws IOException           if an I/O error occurs reading the stream
+     * @throws JSONException         if the content is not a valid JSON
+     * @throws PathNotFoundException if the path is definite and no value matches it
+     */
+    public Object read(InputStream inputStream) throws IOException
+    {
+        return read(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Evaluates this JSONPath over the JSON content of the given reader.
+     * <p>
+     * The reader is not closed by this method. If the path is definite, the scanning stops
+     * at the first match, so the reader may not be consumed entirely.
+     *
+     * @param reader the reader to be evaluated
+     * @return the matching value, if the path is definite; or a {@link JSONArray} with all
+     *         matching values, otherwise
+     * @throws IOException           if an I/O error occurs reading the content
+     * @throws JSONException         if the content is not a valid JSON
+     * @throws PathNotFoundException if the path is definite and no value matches it
+     */
+    public Object read(Reader reader) throws IOException
+    {
+        Matcher matcher = new Matcher();
+        matcher.match(new JsonScanner(reader), 0);
+
+        if (definite)
+        {
+            if (matcher.results.isEmpty())
+            {
+                throw new PathNotFoundException(String.format(ERROR_NO_RESULTS_FOR_PATH, path));
+            }
+            Object result = matcher.results.get(0);
+            return JSONObject.NULL.equals(result) ? null : result;
+        }
+        // As the tree-based implementation, null values are held as Java nulls
+        JSONArray array = new JSONArray();
+        for (Object result : matcher.results)
+        {
+            array.put(JSONObject.NULL.equals(result) ? null : result);
+        }
+        return array;
+    }
+
+    @Override
+    public String toString()
+    {
+        return path;
+    }
+
+    /**
+     * Walks the token stream applying the steps of the path, and collects the matching
+     * values.
+     */
+    private final class Matcher
+    {
+        private final List<Object> results = new ArrayList<>();
+        private boolean complete;
+
+        private void match(JsonScanner scanner, int stepIndex) throws IOException
+        {
+            if (stepIndex == steps.size())
+            {
+                results.add(parse(scanner.readRaw()));
+                complete = definite;
+                return;
+            }
+            int next = scanner.peekNonWhitespace();
+            if (next == '{')
+            {
+                matchObject(scanner, stepIndex);
+            }
+            else if (next == '[')
+            {
+                matchArray(scanner, stepIndex);
+            }
+            else
+            {
+                scanner.skipValue();
+            }
+        }
+
+        private void matchObject(JsonScanner scanner, int stepIndex) throws IOException
+        {
+            Step step = steps.get(stepIndex);
+            if (step.type == StepType.FILTER)
+            {
+                // A filter over an object applies to the object itself
+                matchFiltered(scanner, stepIndex);
+                return;
+            }
+            scanner.next();
+            if (scanner.peekNonWhitespace() == '}')
+            {
+                scanner.next();
+                return;
+            }
+            if (step.type == StepType.WILDCARD)
+            {
+                matchMembers(scanner, stepIndex);
+                return;
+            }
+            do
+            {
+                String key = scanner.readKey();
+                if (step.type == StepType.CHILD && step.name.equals(key))
+                {
+                    match(scanner, stepIndex + 1);
+                    if (complete)
+                    {
+                        return;
+                    }
+                }
+                else
+                {
+                    scanner.skipValue();
+                }
+            }
+            while (scanner.nextSeparator('}'));
+        }
+
+        /**
+         * Matches all members of an object, collecting the results of each member in the
+         * iteration order of the map of a {@link JSONObject} parsed from the same content.
+         */
+        private void matchMembers(JsonScanner scanner, int stepIndex) throws IOException
+        {
+            // The same map implementation and insertion order as JSONObject, for the same
+            // iteration order
+            Map<String, List<Object>> resultsByKey = new HashMap<>();
+            do
+            {
+                String key = scanner.readKey();
+                int memberStart = results.size();
+                match(scanner, stepIndex + 1);
+                List<Object> memberResults = results.subList(memberStart, results.size());
+                resultsByKey.put(key,
+                        memberResults.isEmpty() ? Collections.emptyList() : new ArrayList<>(memberResults));
+                memberResults.clear();
+            }
+            while (scanner.nextSeparator('}'));
+            for (List<Object> memberResults : resultsByKey.values())
+            {
+                results.addAll(memberResults);
+            }
+        }
+
+        private void matchArray(JsonScanner scanner, int stepIndex) throws IOException
+        {
+            Step step = steps.get(stepIndex);
+            scanner.next();
+            if (scanner.peekNonWhitespace() == ']')
+            {
+                scanner.next();
+                return;
+            }
+            int index = 0;
+            do
+            {
+                if (step.type == StepType.FILTER)
+                {
+                    matchFiltered(scanner, stepIndex);
+                }
+                else if (step.selects(index))
+                {
+                    match(scanner, stepIndex + 1);
+                }
+                else
+                {
+                    scanner.skipValue();
+                }
+                if (complete)
+                {
+                    return;
+                }
+                index++;
+            }
+            while (scanner.nextSeparator(']'));
+        }
+
+        private void matchFiltered(JsonScanner scanner, int stepIndex) throws IOException
+        {
+            String raw = scanner.readRaw();
+            Object element = parse(raw);
+            if (!steps.get(stepIndex).filter.test(element))
+            {
+                return;
+            }
+            if (stepIndex + 1 == steps.size())
+            {
+                results.add(element);
+            }
+            else if (element instanceof JSONObject || element instanceof JSONArray)
+            {
+                match(new JsonScanner(new StringReader(raw)), stepIndex + 1);
+            }
+        }
+
+        private Object parse(String raw)
+        {
+            return new JSONTokener(raw).nextValue();
+        }
+    }
+
+    /**
+     * A minimal JSON tokenizer that reads the input sequentially, with the ability to
+     * capture the raw text of a single value.
+     */
+    private static final class JsonScanner
+    {
+        private final Reader reader;
+        private final char[] buffer = new char[8192];
+        private int position;
+        private int limit;
+        private long offset;
+        private StringBuilder capture;
+
+        private JsonScanner(Reader reader)
+        {
+            this.reader = reader;
+        }
+
+        private int peek() throws IOException
+        {
+            if (position == limit)
+            {
+                limit = reader.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit <= 0)
+                {
+                    limit = 0;
+                    return -1;
+                }
+            }
+            return buffer[position];
+        }
+
+        private int next() throws IOException
+        {
+            int character = peek();
+            if (character != -1)
+            {
+                position++;
+                offset++;
+                if (capture != null)
+                {
+                    capture.append((char) character);
+                }
+            }
+            return character;
+        }
+
+        private int peekNonWhitespace() throws IOException
+        {
+            int character = peek();
+            while (character == ' ' || character == '\t' || character == '\n' || character == '\r')
+            {
+                next();
+                character = peek();
+            }
+            return character;
+        }
+
+        /**
+         * Reads the separator after a member of an object or array.
+         *
+         * @return {@code true} if there are more members; {@code false} if the end of the
+         *         object or array was reached
+         */
+        private boolean nextSeparator(char end) throws IOException
+        {
+            int character = peekNonWhitespace();
+            next();
+            if (character == ',')
+            {
+                return true;
+            }
+            if (character == end)
+            {
+                return false;
+            }
+            throw syntaxError("Expected ',' or '" + end + "'");
+        }
+
+        private String readKey() throws IOException
+        {
+            if (peekNonWhitespace() != '"')
+            {
+                throw syntaxError("Expected a quoted key");
+            }
+            next();
+            String key = readStringBody();
+            if (peekNonWhitespace() != ':')
+            {
+                throw syntaxError("Expected ':' after a key");
+            }
+            next();
+            return key;
+        }
+
+        private String readStringBody() throws IOException
+        {
+            StringBuilder builder = new StringBuilder();
+            while (true)
+            {
+                int character = next();
+                if (character == -1)
+                {
+                    throw syntaxError("Unterminated string");
+                }
+                if (character == '"')
+                {
+                    return builder.toString();
+                }
+                if (character == '\\')
+                {
+                    builder.append(readEscapedCharacter());
+                }
+                else
+                {
+                    builder.append((char) character);
+                }
+            }
+        }
+
+        private char readEscapedCharacter() throws IOException
+        {
+            int character = next();
+            switch (character)
+            {
+            case 'b':
+                return '\b';
+            case 't':
+                return '\t';
+            case 'n':
+                return '\n';
+            case 'f':
+                return '\f';
+            case 'r':
+                return '\r';
+            case 'u':
+                char[] hex = new char[4];
+                for (int i = 0; i < hex.length; i++)
+                {
+                    int digit = next();
+                    if (Character.digit(digit, 16) == -1)
+                    {
+                        throw syntaxError("Illegal escape sequence");
+                    }
+                    hex[i] = (char) digit;
+                }
+                return (char) Integer.parseInt(new String(hex), 16);
+            case '"':
+            case '\'':
+            case '\\':
+            case '/':
+                return (char) character;
+            default:
+                throw syntaxError("Illegal escape sequence");
+            }
+        }
+
+        private void skipStringBody() throws IOException
+        {
+            while (true)
+            {
+                int character = next();
+                if (character == -1)
+                {
+                    throw syntaxError("Unterminated string");
+                }
+                if (character == '"')
+                {
+                    return;
+                }
+                if (character == '\\')
+                {
+                    next();
+                }
+            }
+        }
+
+        private void skipValue() throws IOException
+        {
+            int character = peekNonWhitespace();
+            if (character == '"')
+            {
+                next();
+                skipStringBody();
+            }
+            else if (character == '{' || character == '[')
+            {
+                skipStructure();
+            }
+            else
+            {
+                skipLiteral();
+            }
+        }
+
+        private void skipStructure() throws IOException
+        {
+            int depth = 0;
+            do
+            {
+                int character = next();
+                switch (character)
+                {
+                case -1:
+                    throw syntaxError("Unterminated object or array");
+                case '"':
+                    skipStringBody();
+                    break;
+                case '{':
+                case '[':
+                    depth++;
+                    break;
+                case '}':
+                case ']':
+                    depth--;
+                    break;
+                default:
+                    break;
+                }
+            }
+            while (depth > 0);
+        }
+
+        private void skipLiteral() throws IOException
+        {
+            long start = offset;
+            int character = peek();
+            while (character != -1 && character != ',' && character != '}' && character != ']'
+                    && character != ':' && !Character.isWhitespace(character))
+            {
+                next();
+                character = peek();
+            }
+            if (offset == start)
+            {
+                throw syntaxError("Expected a value");
+            }
+        }
+
+        /**
+         * Reads the next value and returns its raw JSON text.
+         */
+        private String readRaw() throws IOException
+        {
+            peekNonWhitespace();
+            capture = new StringBuilder();
+            try
+            {
+                skipValue();
+                return capture.toString();
+            }
+            finally
+            {
+                capture = null;
+            }
+        }
+
+        private JSONException syntaxError(String message)
+        {
+            return new JSONException(message + " at character " + offset);
+        }
+    }
+
+    private enum StepType
+    {
+        CHILD, WILDCARD, INDEX, SLICE, FILTER;
+    }
+
+    /**
+     * A single step of a JSONPath.
+     */
+    private static final class Step
+    {
+        private final StepType type;
+        private final String name;
+        private final int from;
+        private final int to;
+        private final Filter filter;
+
+        private Step(StepType type, String name, int from, int to, Filter filter)
+        {
+            this.type = type;
+            this.name = name;
+            this.from = from;
+            this.to = to;
+            this.filter = filter;
+        }
+
+        private static Step child(String name)
+        {
+            return new Step(StepType.CHILD, name, 0, 0, null);
+        }
+
+        private static Step wildcard()
+        {
+            return new Step(StepType.WILDCARD, null, 0, Integer.MAX_VALUE, null);
+        }
+
+        private static Step index(int index)
+        {
+            return new Step(StepType.INDEX, null, index, index + 1, null);
+        }
+
+        private static Step slice(int from, int to)
+        {
+            return new Step(StepType.SLICE, null, from, to, null);
+        }
+
+        private static Step filter(Filter filter)
+        {
+            return new Step(StepType.FILTER, null, 0, 0, filter);
+        }
+
+        /**
+         * @return {@code true} if this step selects the array element at the given index
+         */
+        private boolean selects(int index)
+        {
+            return type != StepType.CHILD && index >= from && index < to;
+        }
+    }
+
+    /**
+     * A single-condition filter over the properties of an element.
+     */
+    private static final class Filter
+    {
+        private final List<String> properties;
+        private final String operator;
+        private final Object literal;
+
+        private Filter(List<String> properties, String operator, Object literal)
+        {
+            this.properties = properties;
+            this.operator = operator;
+            this.literal = literal;
+        }
+
+        private boolean test(Object element)
+        {
+            Object value = element;
+            for (String property : properties)
+            {
+                if (!(value instanceof JSONObject) || !((JSONObject) value).has(property))
+                {
+                    return false;
+                }
+                value = ((JSONObject) value).get(property);
+            }
+            return operator == null || compare(value);
+        }
+
+        private boolean compare(Object value)
+        {
+            if (JSONObject.NULL.equals(literal) || literal instanceof Boolean)
+            {
+                return evaluateEquality(literal.equals(value));
+            }
+            if (literal instanceof BigDecimal)
+            {
+                if (!(value instanceof Number))
+                {
+                    return "!=".equals(operator);
+                }
+                return evaluate(new BigDecimal(value.toString()).compareTo((BigDecimal) literal));
+            }
+            if (!(value instanceof String))
+            {
+                return "!=".equals(operator);
+            }
+            return evaluate(((String) value).compareTo((String) literal));
+        }
+
+        private boolean evaluateEquality(boolean equal)
+        {
+            switch (operator)
+            {
+            case "==":
+                return equal;
+            case "!=":
+                return !equal;
+            default:
+                return false;
+            }
+        }
+
+        private boolean evaluate(int comparison)
+        {
+            switch (operator)
+            {
+            case "==":
+                return comparison == 0;
+            case "!=":
+                return comparison != 0;
+            case "<":
+                return comparison < 0;
+            case "<=":
+                return comparison <= 0;
+            case ">":
+                return comparison > 0;
+            default:
+                return comparison >= 0;
+            }
+        }
+    }
+
+    /**
+     * Parses the supported subset of the JSONPath syntax into steps.
+     */
+    private static final class PathParser
+    {
+        private static final String[] OPERATORS = { "==", "!=", "<=", ">=", "<", ">" };
+
+        private final String path;
+        private int position;
+
+        private PathParser(String path)
+        {
+            this.path = path;
+        }
+
+        private List<Step> parse()
+        {
+            if (!path.startsWith("$"))
+            {
+                throw unsupported();
+            }
+            position = 1;
+            List<Step> steps = new ArrayList<>();
+            while (position < path.length())
+            {
+                char character = path.charAt(position);
+                if (character == '.')
+                {
+                    steps.add(parseDotStep());
+                }
+                else if (character == '[')
+                {
+                    steps.add(parseBracketStep());
+                }
+                else
+                {
+                    throw unsupported();
+                }
+            }
+            return steps;
+        }
+
+        private Step parseDotStep()
+        {
+            position++;
+            if (position < path.length() && path.charAt(position) == '*')
+            {
+                position++;
+                return Step.wildcard();
+            }
+            String name = readName();
+            if (name.isEmpty() || !name.chars().allMatch(PathParser::isNameCharacter))
+            {
+                // Either a trailing dot, a deep scan or an unsupported expression
+                throw unsupported();
+            }
+            return Step.child(name);
+        }
+
+        private static boolean isNameCharacter(int character)
+        {
+            return Character.isLetterOrDigit(character) || character == '_' || character == '-' || character == '$';
+        }
+
+        private String readName()
+        {
+            int start = position;
+            while (position < path.length() && path.charAt(position) != '.' && path.charAt(position) != '[')
+            {
+                position++;
+            }
+            return path.substring(start, position).trim();
+        }
+
+        private Step parseBracketStep()
+        {
+            int end = path.indexOf(']', position);
+            if (end == -1)
+            {
+                throw unsupported();
+            }
+            String content = path.substring(position + 1, end).trim();
+            Step step;
+            if (content.equals("*"))
+            {
+                step = Step.wildcard();
+            }
+            else if (content.startsWith("?"))
+            {
+                end = findFilterEnd();
+                step = Step.filter(parseFilter(path.substring(position + 2, end).trim()));
+            }
+            else if (isQuoted(content))
+            {
+                step = Step.child(content.substring(1, content.length() - 1));
+            }
+            else
+            {
+                step = parseIndexOrSlice(content);
+            }
+            position = end + 1;
+            return step;
+        }
+
+        /**
+         * @return the position of the closing bracket of a filter, which may contain other
+         *         brackets within quoted strings
+         */
+        private int findFilterEnd()
+        {
+            char quote = 0;
+            int depth = 0;
+            for (int i = position + 1; i < path.length(); i++)
+            {
+                char character = path.charAt(i);
+                if (quote != 0)
+                {
+                    if (character == quote)
+                    {
+                        quote = 0;
+                    }
+                }
+                else if (character == '\'' || character == '"')
+                {
+                    quote = character;
+                }
+                else if (character == '(')
+                {
+                    depth++;
+                }
+                else if (character == ')')
+                {
+                    depth--;
+                }
+                else if (character == ']' && depth == 0)
+                {
+                    return i;
+                }
+            }
+            throw unsupported();
+        }
+
+        private Step parseIndexOrSlice(String content)
+        {
+            int colon = content.indexOf(':');
+            if (colon == -1)
+            {
+                return Step.index(parseIndex(content));
+            }
+            String start = content.substring(0, colon).trim();
+            String end = content.substring(colon + 1).trim();
+            return Step.slice(start.isEmpty() ? 0 : parseIndex(start),
+                    end.isEmpty() ? Integer.MAX_VALUE : parseIndex(end));
+        }
+
+        private int parseIndex(String content)
+        {
+            if (content.isEmpty() || !content.chars().allMatch(Character::isDigit))
+            {
+                // Negative indexes, unions and steps are not supported
+                throw unsupported();
+            }
+            try
+            {
+                return Integer.parseInt(content);
+            }
+            catch (NumberFormatException exception)
+            {
+                throw unsupported();
+            }
+        }
+
+        private Filter parseFilter(String content)
+        {
+            if (!content.startsWith("(") || !content.endsWith(")"))
+            {
+                throw unsupported();
+            }
+            String condition = content.substring(1, content.length() - 1).trim();
+            if (!condition.startsWith("@"))
+            {
+                throw unsupported();
+            }
+
+            int operatorIndex = -1;
+            String operator = null;
+            for (String candidate : OPERATORS)
+            {
+                int index = condition.indexOf(candidate);
+                if (index != -1 && (operatorIndex == -1 || index < operatorIndex))
+                {
+                    operatorIndex = index;
+                    operator = candidate;
+                }
+            }
+
+            String operand = operator == null ? condition : condition.substring(0, operatorIndex).trim();
+            List<String> properties = parseFilterProperties(operand);
+            if (operator == null)
+            {
+                return new Filter(properties, null, null);
+            }
+            Object literal = parseLiteral(condition.substring(operatorIndex + operator.length()).trim());
+            return new Filter(properties, operator, literal);
+        }
+
+        private List<String> parseFilterProperties(String operand)
+        {
+            List<Step> steps = new PathParser("$" + operand.substring(1)).parse();
+            List<String> properties = new ArrayList<>(steps.size());
+            for (Step step : steps)
+            {
+                if (step.type != StepType.CHILD)
+                {
+                    throw unsupported();
+                }
+                properties.add(step.name);
+            }
+            if (properties.isEmpty())
+            {
+                throw unsupported();
+            }
+            return properties;
+        }
+
+        private Object parseLiteral(String literal)
+        {
+            if (isQuoted(literal))
+            {
+                return literal.substring(1, literal.length() - 1);
+            }
+            switch (literal)
+            {
+            case "true":
+                return Boolean.TRUE;
+            case "false":
+                return Boolean.FALSE;
+            case "null":
+                return JSONObject.NULL;
+            default:
+                try
+                {
+                    return new BigDecimal(literal);
+                }
+                catch (NumberFormatException exception)
+                {
+                    // Includes logical operators, regular expressions and functions
+                    throw unsupported();
+                }
+            }
+        }
+
+        private static boolean isQuoted(String content)
+        {
+            if (content.length() < 2)
+            {
+                return false;
+            }
+            char first = content.charAt(0);
+            char last = content.charAt(content.length() - 1);
+            return (first == '\'' || first == '"') && first == last
+                    && content.indexOf(first, 1) == content.length() - 1;
+        }
+
+        private IllegalArgumentException unsupported()
+        {
+            return new IllegalArgumentException(String.format(ERROR_UNSUPPORTED_PATH, path));
+        }
+    }
+
+}
@@ -0,0 +1,690 @@
+package net.obvj.jep.util;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * An XPath evaluator that reads the XML input with a StAX parser, in a single forward
+ * pass, without building a DOM tree. Only the values of the matching nodes are retained,
+ * so the memory usage is proportional to the results rather than to the size of the
+ * document.
+ * <p>
+ * This class supports the following subset of the XPath syntax:
+ * <ul>
+ * <li>absolute location paths, with child ({@code /}) and descendant ({@code //})
+ * steps</li>
+ * <li>element name tests and wildcards: {@code /books/book} or {@code /books/*}</li>
+ * <li>attribute selection, as the last step: {@code /books/book/@id} or
+ * {@code //@*}</li>
+ * <li>text selection, as the last step: {@code /books/book/title/text()}</li>
+ * <li>predicates over element steps: {@code [@name='value']}, {@code [@name]} or
+ * {@code [n]}</li>
+ * </ul>
+ * Relative paths, other axes, functions and predicates that depend on the content of
+ * child nodes are not supported. Use {@link #isSupported(String)} to check whether an
+ * expression can be evaluated by this class.
+ * <p>
+ * The results follow the conventions of {@link XmlUtils#evaluateXPathAsObjectList}: a
+ * list with the node value of each match, in document order, which is the attribute
+ * value for attributes, the text for text nodes, and {@code null} for elements. Names
+ * are matched against the local part of element and attribute names, as the DOM-based
+ * evaluation does with the default {@code DocumentBuilder} configuration, so prefixed name
+ * tests are not supported. Adjacent text and CDATA sections are returned as a single text
+ * node, with their full content.
+ * <p>
+ * Instances of this class are immutable and can be safely shared between threads.
+ *
+ * @author oswaldo.bapvic.jr
+ * @since 1.0.8
+ */
+public final class StreamingXPath
+{
+    private static final String ERROR_UNSUPPORTED_XPATH = "Unsupported XPath for streaming: %s";
+
+    /**
+     * The maximum number of steps, limited by the bit mask that tracks the matched steps
+     * of each element.
+     */
+    private static final int MAX_STEPS = 62;
+
+    private static final XMLInputFactory INPUT_FACTORY = newInputFactory();
+
+    private final String expression;
+    private final Step[] steps;
+    private final Step lastStep;
+    private final int positionCounters;
+
+    private StreamingXPath(String expression, List<Step> steps)
+    {
+        this.expression = expression;
+        this.steps = steps.toArray(new Step[0]);
+        this.lastStep = this.steps[this.steps.length - 1];
+        this.positionCounters = steps.stream().mapToInt(step -> step.predicates.size()).sum();
+    }
+
+    private static XMLInputFactory newInputFactory()
+    {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+        return factory;
+    }
+
+    /**
+     * Compiles the given XPath expression for streaming evaluation.
+     *
+     * @param expression the XPath expression to be compiled
+     * @return a new {@code StreamingXPath}
+     * @throws IllegalArgumentException if the expression is not supported by this class
+     */
+    public static StreamingXPath compile(String expression)
+    {
+        if (expression == null)
+        {
+            throw new IllegalArgumentException(String.format(ERROR_UNSUPPORTED_XPATH, expression));
+        }
+        return new StreamingXPath(expression, new ExpressionParser(expression.trim()).parse());
+    }
+
+    /**
+     * Checks whether the given XPath expression can be evaluated by this class.
+     *
+     * @param expression the XPath expression to be checked
+     * @return {@code true} if the expression is supported by this class
+     */
+    public static boolean isSupported(String expression)
+    {
+        try
+        {
+            compile(expression);
+            return true;
+        }
+        catch (IllegalArgumentException exception)
+        {
+            return false;
+        }
+    }
+
+    /**
+     * @return the source XPath expression
+     */
+    public String getExpression()
+    {
+        return expression;
+    }
+
+    /**
+     * Evaluates this XPath expression over the given XML content.
+     *
+     * @param xmlContent the XML content to be evaluated
+     * @return a list with the values of the matching nodes, in document order
+     * @throws XMLStreamException if the content is not a well-formed XML
+     */
+    public List<Object> evaluate(String xmlContent) throws XMLStreamException
+    {
+        return evaluate(new StringReader(xmlContent));
+    }
+
+    /**
+     * Evaluates this XPath expression over the XML content of the given file.
+     *
+     * @param file the path of the file to be evaluated
+     * @return a list with the values of the matching nodes, in document order
+     * @throws IOException        if an I/O error occurs reading the file
+     * @throws XMLStreamException if the content is not a well-formed XML
+     */
+    public List<Object> evaluate(Path file) throws IOException, XMLStreamException
+    {
+        try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(file)))
+        {
+            return evaluate(inputStream);
+        }
+    }
+
+    /**
+     * Evaluates this XPath expression over the XML content of the given stream, using the
+     * encoding declared by the document. The stream is not closed by this method.
+     *
+     * @param inputStream the stream to be evaluated
+     * @return a list with the values of the matching nodes, in document order
+     * @throws XMLStreamException if the content is not a well-formed XML
+     */
+    public List<Object> evaluate(InputStream inputStream) throws XMLStreamException
+    {
+        return evaluate(INPUT_FACTORY.createXMLStreamReader(inputStream));
+    }
+
+    /**
+     * Evaluates this XPath expression over the XML content of the given reader. The reader
+     * is not closed by this method.
+     *
+     * @param reader the reader to be evaluated
+     * @return a list with the values of the matching nodes, in document order
+     * @throws XMLStreamException if the content is not a well-formed XML
+     */
+    public List<Object> evaluate(Reader reader) throws XMLStreamException
+    {
+        return evaluate(INPUT_FACTORY.createXMLStreamReader(reader));
+    }
+
+    private List<Object> evaluate(XMLStreamReader reader) throws XMLStreamException
+    {
+        try
+        {
+            return new Evaluation(reader).run();
+        }
+        finally
+        {
+            reader.close();
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return expression;
+    }
+
+    private static long bit(int stepIndex)
+    {
+        // Index -1 represents the document root
+        return 1L << (stepIndex + 1);
+    }
+
+    /**
+     * The state of a single evaluation.
+     */
+    private final class Evaluation
+    {
+        private final XMLStreamReader reader;
+        private final List<Object> results = new ArrayList<>();
+        private final Deque<Frame> stack = new ArrayDeque<>();
+        private StringBuilder text;
+
+        private Evaluation(XMLStreamReader reader)
+        {
+            this.reader = reader;
+        }
+
+        private List<Object> run() throws XMLStreamException
+        {
+            stack.push(new Frame(bit(-1)));
+            while (reader.hasNext())
+            {
+                switch (reader.next())
+                {
+                case XMLStreamConstants.START_ELEMENT:
+                    flushText();
+                    startElement();
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    flushText();
+                    stack.pop();
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    appendText();
+                    break;
+                case XMLStreamConstants.COMMENT:
+                case XMLStreamConstants.PROCESSING_INSTRUCTION:
+                    flushText();
+                    break;
+                default:
+                    break;
+                }
+            }
+            return results;
+        }
+
+        private void startElement()
+        {
+            Frame parent = stack.peek();
+            String name = localPart(reader.getLocalName());
+            long states = 0;
+            for (int k = -1; k < steps.length - 1; k++)
+            {
+                if ((parent.states & bit(k)) == 0)
+                {
+                    continue;
+                }
+                int j = k + 1;
+                Step step = steps[j];
+                if (step.descendant)
+                {
+                    // Descendants of this element may still match the next step
+                    states |= bit(k);
+                }
+                if (step.type == StepType.ELEMENT && step.matchesName(name) && matchesPredicates(parent, step))
+                {
+                    states |= bit(j);
+                }
+            }
+
+            Frame frame = new Frame(states);
+            stack.push(frame);
+
+            if (lastStep.type == StepType.ELEMENT && (states & bit(steps.length - 1)) != 0)
+            {
+                // Consistent with the node value of elements in DOM
+                results.add(null);
+            }
+            else if (lastStep.type == StepType.ATTRIBUTE && frame.isParentOfLastStep())
+            {
+                addAttributes();
+            }
+        }
+
+        private boolean matchesPredicates(Frame parent, Step step)
+        {
+            for (Predicate predicate : step.predicates)
+            {
+                if (predicate.position > 0)
+                {
+                    if (parent.incrementCounter(predicate.counterIndex) != predicate.position)
+                    {
+                        return false;
+                    }
+                }
+                else
+                {
+                    String value = getAttributeValue(predicate.attribute);
+                    if (value == null || predicate.value != null && !predicate.value.equals(value))
+                    {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        private String getAttributeValue(String name)
+        {
+            for (int i = 0; i < reader.getAttributeCount(); i++)
+            {
+                if (name.equals(localPart(reader.getAttributeLocalName(i))))
+                {
+                    return reader.getAttributeValue(i);
+                }
+            }
+            return null;
+        }
+
+        private void addAttributes()
+        {
+            if (lastStep.name != null)
+            {
+                String value = getAttributeValue(lastStep.name);
+                if (value != null)
+                {
+                    results.add(value);
+                }
+                return;
+            }
+            // Consistent with the order of attributes in DOM, which are sorted by name
+            SortedMap<String, String> attributes = new TreeMap<>();
+            for (int i = 0; i < reader.getAttributeCount(); i++)
+            {
+                String name = reader.getAttributeLocalName(i);
+                if (!isNamespaceDeclaration(reader.getAttributePrefix(i), name))
+                {
+                    attributes.put(localPart(name), reader.getAttributeValue(i));
+                }
+            }
+            results.addAll(attributes.values());
+        }
+
+        private void appendText()
+        {
+            if (lastStep.type == StepType.TEXT && stack.size() > 1 && stack.peek().isParentOfLastStep())
+            {
+                if (text == null)
+                {
+                    text = new StringBuilder();
+                }
+                text.append(reader.getText());
+            }
+        }
+
+        private void flushText()
+        {
+            if (text != null)
+            {
+                results.add(text.toString());
+                text = null;
+            }
+        }
+
+        private boolean isNamespaceDeclaration(String prefix, String name)
+        {
+            return "xmlns".equals(prefix) || name.equals("xmlns") || name.startsWith("xmlns:");
+        }
+
+        /**
+         * @return the local part of a name, since namespaces are not processed
+         */
+        private String localPart(String name)
+        {
+            return name.substring(name.indexOf(':') + 1);
+        }
+    }
+
+    /**
+     * The matching state of an open element.
+     */
+    private final class Frame
+    {
+        private final long states;
+        private int[] counters;
+
+        private Frame(long states)
+        {
+            this.states = states;
+        }
+
+        /**
+         * @return {@code true} if the attributes and text nodes of this element may match
+         *         the last step
+         */
+        private boolean isParentOfLastStep()
+        {
+            return (states & bit(steps.length - 2)) != 0;
+        }
+
+        private int incrementCounter(int index)
+        {
+            if (counters == null)
+            {
+                counters = new int[positionCounters];
+            }
+            return ++counters[index];
+        }
+    }
+
+    private enum StepType
+    {
+        ELEMENT, ATTRIBUTE, TEXT;
+    }
+
+    /**
+     * A single location step.
+     */
+    private static final class Step
+    {
+        private final StepType type;
+        private final boolean descendant;
+        private final String name;
+        private final List<Predicate> predicates;
+
+        private Step(StepType type, boolean descendant, String name, List<Predicate> predicates)
+        {
+            this.type = type;
+            this.descendant = descendant;
+            this.name = name;
+            this.predicates = predicates;
+        }
+
+        private boolean matchesName(String elementName)
+        {
+            return name == null || name.equals(elementName);
+        }
+    }
+
+    /**
+     * A predicate over an element: either a position, or an attribute existence or
+     * equality test.
+     */
+    private static final class Predicate
+    {
+        private final int position;
+        private final int counterIndex;
+        private final String attribute;
+        private final String value;
+
+        private Predicate(int position, int counterIndex, String attribute, String value)
+        {
+            this.position = position;
+            this.counterIndex = counterIndex;
+            this.attribute = attribute;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Parses the supported subset of the XPath syntax into steps.
+     */
+    private static final class ExpressionParser
+    {
+        private final String expression;
+        private int position;
+        private int counterCount;
+
+        private ExpressionParser(String expression)
+        {
+            this.expression = expression;
+        }
+
+        private List<Step> parse()
+        {
+            if (!expression.startsWith("/"))
+            {
+                throw unsupported();
+            }
+            List<Step> steps = new ArrayList<>();
+            while (position < expression.length())
+            {
+                if (!steps.isEmpty() && steps.get(steps.size() - 1).type != StepType.ELEMENT)
+                {
+                    // Attributes and text nodes have no children
+                    throw unsupported();
+                }
+                boolean descendant = expression.startsWith("//", position);
+                position += descendant ? 2 : 1;
+                steps.add(parseStep(descendant, readStep()));
+            }
+            if (steps.isEmpty() || steps.size() > MAX_STEPS)
+            {
+                throw unsupported();
+            }
+            return steps;
+        }
+
+        /**
+         * Reads the text of a step, up to the next slash outside of predicates.
+         */
+        private String readStep()
+        {
+            int start = position;
+            char quote = 0;
+            int depth = 0;
+            while (position < expression.length())
+            {
+                char character = expression.charAt(position);
+                if (quote != 0)
+                {
+                    if (character == quote)
+                    {
+                        quote = 0;
+                    }
+                }
+                else if (character == '\'' || character == '"')
+                {
+                    quote = character;
+                }
+                else if (character == '[')
+                {
+                    depth++;
+                }
+                else if (character == ']')
+                {
+                    depth--;
+                }
+                else if (character == '/' && depth == 0)
+                {
+                    break;
+                }
+                position++;
+            }
+            return expression.substring(start, position).trim();
+        }
+
+        private Step parseStep(boolean descendant, String step)
+        {
+            if (step.equals("text()"))
+            {
+                return new Step(StepType.TEXT, descendant, null, Collections.emptyList());
+            }
+            if (step.startsWith("@"))
+            {
+                return new Step(StepType.ATTRIBUTE, descendant, parseNameTest(step.substring(1)),
+                        Collections.emptyList());
+            }
+            int bracket = step.indexOf('[');
+            String name = parseNameTest(bracket == -1 ? step : step.substring(0, bracket));
+            List<Predicate> predicates = bracket == -1 ? Collections.emptyList()
+                    : parsePredicates(step.substring(bracket));
+            return new Step(StepType.ELEMENT, descendant, name, predicates);
+        }
+
+        /**
+         * @return the name to be tested, or {@code null} for a wildcard
+         */
+        private String parseNameTest(String nameTest)
+        {
+            if (nameTest.equals("*"))
+            {
+                return null;
+            }
+            if (!isName(nameTest))
+            {
+                // Includes axes, node types, functions and abbreviated steps
+                throw unsupported();
+            }
+            return nameTest;
+        }
+
+        private List<Predicate> parsePredicates(String text)
+        {
+            List<Predicate> predicates = new ArrayList<>();
+            int index = 0;
+            while (index < text.length())
+            {
+                if (text.charAt(index) != '[')
+                {
+                    throw unsupported();
+                }
+                int end = findPredicateEnd(text, index);
+                predicates.add(parsePredicate(text.substring(index + 1, end).trim()));
+                index = end + 1;
+            }
+            return predicates;
+        }
+
+        private int findPredicateEnd(String text, int start)
+        {
+            char quote = 0;
+            for (int i = start + 1; i < text.length(); i++)
+            {
+                char character = text.charAt(i);
+                if (quote != 0)
+                {
+                    if (character == quote)
+                    {
+                        quote = 0;
+                    }
+                }
+                else if (character == '\'' || character == '"')
+                {
+                    quote = character;
+                }
+                else if (character == '[')
+                {
+                    throw unsupported();
+                }
+                else if (character == ']')
+                {
+                    return i;
+                }
+            }
+            throw unsupported();
+        }
+
+        private Predicate parsePredicate(String predicate)
+        {
+            if (!predicate.isEmpty() && predicate.chars().allMatch(Character::isDigit))
+            {
+                int value = parsePosition(predicate);
+                return new Predicate(value, counterCount++, null, null);
+            }
+            if (!predicate.startsWith("@"))
+            {
+                throw unsupported();
+            }
+            int equals = predicate.indexOf('=');
+            if (equals == -1)
+            {
+                return new Predicate(0, -1, parseAttributeName(predicate.substring(1)), null);
+            }
+            String attribute = parseAttributeName(predicate.substring(1, equals));
+            String literal = predicate.substring(equals + 1).trim();
+            if (literal.length() < 2 || literal.charAt(0) != literal.charAt(literal.length() - 1)
+                    || literal.charAt(0) != '\'' && literal.charAt(0) != '"'
+                    || literal.indexOf(literal.charAt(0), 1) != literal.length() - 1)
+            {
+                throw unsupported();
+            }
+            return new Predicate(0, -1, attribute, literal.substring(1, literal.length() - 1));
+        }
+
+        private int parsePosition(String predicate)
+        {
+            try
+            {
+                int value = Integer.parseInt(predicate);
+                if (value > 0)
+                {
+                    return value;
+                }
+            }
+            catch (NumberFormatException exception)
+            {
+                // Handled below
+            }
+            throw unsupported();
+        }
+
+        private String parseAttributeName(String name)
+        {
+            String trimmed = name.trim();
+            if (!isName(trimmed))
+            {
+                throw unsupported();
+            }
+            return trimmed;
+        }
+
+        private boolean isName(String name)
+        {
+            if (name.isEmpty() || !(Character.isLetter(name.charAt(0)) || name.charAt(0) == '_'))
+            {
+                return false;
+            }
+            return name.chars().allMatch(
+                    character -> Character.isLetterOrDigit(character) || character == '_' || character == '-'
+                            || character == '.');
+        }
+
+        private IllegalArgumentException unsupported()
+        {
+            return new IllegalArgumentException(String.format(ERROR_UNSUPPORTED_XPATH, expression));
+        }
+    }
+
+}
@@ -1,15 +1,20 @@
 package net.obvj.jep.util;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
 import java.io.StringReader;
 import java.util.AbstractList;
 import java.util.Collections;
 import java.util.List;
 import java.util.RandomAccess;
+import java.util.concurrent.TimeUnit;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpression;
 import javax.xml.xpath.XPathExpressionException;
@@ -28,6 +33,54 @@ import org.xml.sax.SAXException;
  */
 public class XmlUtils
 {
+    /**
+     * The default maximum number of compiled XPath expressions kept in the cache of each
+     * thread.
+     *
+     * @since 1.0.8
+     */
+    public static final int DEFAULT_XPATH_CACHE_MAX_SIZE = 128;
+
+    /**
+     * The default minimum length of an XML string to be evaluated by the streaming XPath
+     * evaluator instead of being parsed into a document (1 MiB).
+     *
+     * @since 1.0.8
+     */
+    public static final int DEFAULT_STREAMING_THRESHOLD = 1 << 20;
+
+    /*
+     * Neither XPath nor XPathExpression objects are thread-safe, so each thread keeps its
+     * own XPath object and cache of compiled expressions. The statistics are shared by all
+     * threads.
+     */
+    private static final ThreadLocal<XPath> XPATH = ThreadLocal
+            .withInitial(() -> XPathFactory.newInstance().newXPath());
+
+    private static final CacheStatistics XPATH_CACHE_STATISTICS = new CacheStatistics();
+
+    private static volatile int xPathCacheMaxSize = DEFAULT_XPATH_CACHE_MAX_SIZE;
+
+    private static volatile int streamingThreshold = DEFAULT_STREAMING_THRESHOLD;
+
+    private static final ThreadLocal<BoundedCache<String, XPathExpression>> XPATH_CACHE = ThreadLocal
+            .withInitial(() -> new BoundedCache<>(xPathCacheMaxSize, 0, TimeUnit.SECONDS, XPATH_CACHE_STATISTICS));
+
+    /*
+     * DocumentBuilder objects are not thread-safe either, but can be reused by the same
+     * thread after a reset.
+     */
+    private static final ThreadLocal<DocumentBuilder> DOCUMENT_BUILDER = ThreadLocal.withInitial(() ->
+    {
+        try
+        {
+            return DocumentBuilderFactory.newInstance().newDocumentBuilder();
+        }
+        catch (ParserConfigurationException exception)
+        {
+            throw new IllegalStateException(exception);
+        }
+    });
 
     private XmlUtils()
     {
@@ -36,6 +89,10 @@ public class XmlUtils
 
     /**
      * Compiles the given XPath expression.
+     * <p>
+     * Compiled expressions are kept in a bounded cache of the calling thread and reused by
+     * subsequent calls with the same expression. Since {@code XPathExpression} objects are
+     * not thread-safe, the returned object must not be shared with other threads.
      *
      * @param expression the XPath expression to be compiled
      * @return an {@code XPathExpression} object that can be used for further evaluation
@@ -43,7 +100,63 @@ public class XmlUtils
      */
     public static XPathExpression compileXPath(String expression) throws XPathExpressionException
     {
-        return XPathFactory.newInstance().newXPath().compile(expression);
+        BoundedCache<String, XPathExpression> cache = XPATH_CACHE.get();
+        if (cache.getMaxSize() != xPathCacheMaxSize)
+        {
+            cache.setMaxSize(xPathCacheMaxSize);
+        }
+        XPathExpression compiledExpression = cache.getIfPresent(expression);
+        if (compiledExpression == null)
+        {
+            compiledExpression = XPATH.get().compile(expression);
+            cache.put(expression, compiledExpression);
+        }
+        return compiledExpression;
+    }
+
+    /**
+     * Compiles the given XPath expression into a new object, which is not kept in the cache
+     * and is therefore owned by the caller.
+     * <p>
+     * Since {@code XPathExpression} objects are not thread-safe, the returned object must
+     * not be used by multiple threads concurrently.
+     *
+     * @param expression the XPath expression to be compiled
+     * @return a new {@code XPathExpression} object that can be used for further evaluation
+     * @throws XPathExpressionException if the expression cannot be compiled
+     * @since 1.0.8
+     */
+    public static XPathExpression newXPathExpression(String expression) throws XPathExpressionException
+    {
+        return XPATH.get().compile(expression);
+    }
+
+    /**
+     * Changes the maximum number of compiled XPath expressions kept in the cache of each
+     * thread. The new size is applied to each thread on its next compilation.
+     *
+     * @param maxSize the maximum number of compiled expressions to be kept by each thread,
+     *                or zero to disable the cache
+     * @throws IllegalArgumentException if the maximum size is negative
+     * @since 1.0.8
+     */
+    public static void setXPathCacheMaxSize(int maxSize)
+    {
+        if (maxSize < 0)
+        {
+            throw new IllegalArgumentException("The maximum size cannot be negative");
+        }
+        xPathCacheMaxSize = maxSize;
+    }
+
+    /**
+     * @return the hit, miss and eviction statistics of the compiled XPath expression
+     *         caches of all threads
+     * @since 1.0.8
+     */
+    public static CacheStatistics getXPathCacheStatistics()
+    {
+        return XPATH_CACHE_STATISTICS;
     }
 
     /**
@@ -94,6 +207,21 @@ public class XmlUtils
         return asList(evaluateXPath(xmlDocument, expression));
     }
 
+    /**
+     * Returns a list of Objects that match the given compiled XPath expression.
+     *
+     * @param xmlDocument the XML object to be evaluated
+     * @param expression  the compiled XPath expression to be used for evaluation
+     * @return A list of Objects that match the given XPath expression
+     * @throws XPathExpressionException If the expression cannot be evaluated.
+     * @since 1.0.8
+     */
+    public static List<Object> evaluateXPathAsObjectList(Document xmlDocument, XPathExpression expression)
+            throws XPathExpressionException
+    {
+        return asList((NodeList) expression.evaluate(xmlDocument, XPathConstants.NODESET));
+    }
+
     /**
      * Returns a list of Objects that match the given XPath expression.
      *
@@ -112,6 +240,109 @@ public class XmlUtils
         return asList(evaluateXPath(xmlContent, expression));
     }
 
+    /**
+     * Returns a list of Objects that match the given XPath expression, reading the XML
+     * content from the given reader.
+     * <p>
+     * If the expression is supported by {@link StreamingXPath}, the content is evaluated in
+     * a single pass, without being fully loaded into memory. Otherwise, the content is
+     * parsed into a document. The reader is not closed by this method.
+     *
+     * @param xmlContent a reader of the XML content to be evaluated
+     * @param expression the XPath expression to be used for evaluation
+     * @return a list of Objects that match the given XPath expression
+     * @throws XPathExpressionException     if the expression cannot be compiled
+     * @throws SAXException                 if any parse error occurs
+     * @throws IOException                  if an I/O error occurs reading the content
+     * @throws ParserConfigurationException if a DocumentBuilder cannot be created
+     * @since 1.0.8
+     */
+    public static List<Object> evaluateXPathAsObjectList(Reader xmlContent, String expression)
+            throws XPathExpressionException, ParserConfigurationException, SAXException, IOException
+    {
+        if (StreamingXPath.isSupported(expression))
+        {
+            try
+            {
+                return StreamingXPath.compile(expression).evaluate(xmlContent);
+            }
+            catch (XMLStreamException exception)
+            {
+                throw new SAXException(exception.getMessage(), exception);
+            }
+        }
+        Document xmlDocument = getDocumentBuilder().parse(new InputSource(xmlContent));
+        return evaluateXPathAsObjectList(xmlDocument, expression);
+    }
+
+    /**
+     * Returns a list of Objects that match the given XPath expression, reading the XML
+     * content from the given stream, with the encoding declared by the document.
+     * <p>
+     * If the expression is supported by {@link StreamingXPath}, the content is evaluated in
+     * a single pass, without being fully loaded into memory. Otherwise, the content is
+     * parsed into a document. The stream is not closed by this method.
+     *
+     * @param xmlContent a stream of the XML content to be evaluated
+     * @param expression the XPath expression to be used for evaluation
+     * @return a list of Objects that match the given XPath expression
+     * @throws XPathExpressionException     if the expression cannot be compiled
+     * @throws SAXException                 if any parse error occurs
+     * @throws IOException                  if an I/O error occurs reading the content
+     * @throws ParserConfigurationException if a DocumentBuilder cannot be created
+     * @since 1.0.8
+     */
+    public static List<Object> evaluateXPathAsObjectList(InputStream xmlContent, String expression)
+            throws XPathExpressionException, ParserConfigurationException, SAXException, IOException
+    {
+        if (StreamingXPath.isSupported(expression))
+        {
+            try
+            {
+                return StreamingXPath.compile(expression).evaluate(xmlContent);
+            }
+            catch (XMLStreamException exception)
+            {
+                throw new SAXException(exception.getMessage(), exception);
+            }
+        }
+        Document xmlDocument = getDocumentBuilder().parse(new InputSource(xmlContent));
+        return evaluateXPathAsObjectList(xmlDocument, expression);
+    }
+
+    /**
+     * Checks whether the given XML content should be evaluated by the streaming XPath
+     * evaluator, that is, if it is a string at least as long as the streaming threshold
+     * and the expression is supported by {@link StreamingXPath}.
+     *
+     * @param xmlContent the XML content to be evaluated
+     * @param expression the XPath expression to be used for evaluation
+     * @return {@code true} if the content should be evaluated by the streaming evaluator
+     * @since 1.0.8
+     */
+    public static boolean isStreamingCandidate(Object xmlContent, String expression)
+    {
+        return xmlContent instanceof String && ((String) xmlContent).length() >= streamingThreshold
+                && StreamingXPath.isSupported(expression);
+    }
+
+    /**
+     * Changes the minimum length of an XML string to be evaluated by the streaming XPath
+     * evaluator instead of being parsed into a document.
+     *
+     * @param threshold the minimum length, in characters
+     * @throws IllegalArgumentException if the threshold is negative
+     * @since 1.0.8
+     */
+    public static void setStreamingThreshold(int threshold)
+    {
+        if (threshold < 0)
+        {
+            throw new IllegalArgumentException("The streaming threshold cannot be negative");
+        }
+        streamingThreshold = threshold;
+    }
+
     public static List<Object> asList(NodeList n)
     {
         return n.getLength() == 0 ? Collections.emptyList() : new NodeListWrapper(n);
@@ -142,6 +373,10 @@ public class XmlUtils
 
     /**
      * Converts a String to an XML Document.
+     * <p>
+     * If an {@link EvaluationScope} is open, the document parsed from a given string is
+     * kept and returned by subsequent calls with an equal string within the same scope, so
+     * the returned document must not be modified.
      *
      * @param xmlContent the object to be converted in to an XML Document
      * @return the object as an XML Document
@@ -152,9 +387,35 @@ public class XmlUtils
     public static Document convertToXML(String xmlContent)
             throws ParserConfigurationException, SAXException, IOException
     {
-        DocumentBuilderFactory builderFactory = DocumentBuilderFactory.newInstance();
-        DocumentBuilder builder = builderFactory.newDocumentBuilder();
-        return builder.parse(new InputSource(new StringReader(xmlContent)));
+        Document document = EvaluationScope.get(Document.class, xmlContent);
+        if (document == null)
+        {
+            document = getDocumentBuilder().parse(new InputSource(new StringReader(xmlContent)));
+            EvaluationScope.put(Document.class, xmlContent, document);
+        }
+        return document;
+    }
+
+    /**
+     * @return the DocumentBuilder of the current thread, reset to its original configuration
+     */
+    private static DocumentBuilder getDocumentBuilder() throws ParserConfigurationException
+    {
+        DocumentBuilder builder;
+        try
+        {
+            builder = DOCUMENT_BUILDER.get();
+        }
+        catch (IllegalStateException exception)
+        {
+            if (exception.getCause() instanceof ParserConfigurationException)
+            {
+                throw (ParserConfigurationException) exception.getCause();
+            }
+            throw exception;
+        }
+        builder.reset();
+        return builder;
     }
 
     private static final class NodeListWrapper extends AbstractList<Object> implements RandomAccess
@@ -0,0 +1,204 @@
+package net.obvj.jep;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+import org.nfunk.jep.ParseException;
+
+/**
+ * Unit tests for the {@link CompiledExpression} class.
+ *
+ * @author oswaldo.bapvic.jr
+ */
+public class CompiledExpressionTest
+{
+    private static final String VARIABLE_PERIOD = "period";
+    private static final String VARIABLE_MESSAGE = "message";
+
+    private static final String MORNING = "morning";
+    private static final String AFTERNOON = "afternoon";
+    private static final String GOOD_MORNING = "Good morning";
+    private static final String GOOD_AFTERNOON = "Good afternoon";
+
+    private static final String EXPRESSION_CONCAT_GOOD_PERIOD = "concat(\"Good \", period)";
+    private static final String EXPRESSION_ASSIGN_MESSAGE = "message = concat(\"Good \", period)";
+    private static final String EXPRESSION_INVALID = "concat('Good ', period";
+
+    private static Map<String, Object> newVariables(String key, Object value)
+    {
+        Map<String, Object> map = new HashMap<>();
+        map.put(key, value);
+        return map;
+    }
+
+    /**
+     * Tests that no compiled expression is created with a blank expression
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testCompiledExpressionNotCreatedIfExpressionIsBlank()
+    {
+        new CompiledExpression(" ");
+    }
+
+    /**
+     * Tests that no compiled expression is created with an invalid expression
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testCompiledExpressionNotCreatedIfExpressionIsInvalid()
+    {
+        new CompiledExpression(EXPRESSION_INVALID);
+    }
+
+    /**
+     * Tests that the same compiled expression can be evaluated with different variables
+     */
+    @Test
+    public void testEvaluateMultipleTimesWithDifferentVariables() throws ParseException
+    {
+        CompiledExpression expression = new CompiledExpression(EXPRESSION_CONCAT_GOOD_PERIOD);
+        assertEquals(EXPRESSION_CONCAT_GOOD_PERIOD, expression.getExpression());
+        assertEquals(GOOD_MORNING, expression.evaluate(newVariables(VARIABLE_PERIOD, MORNING)));
+        assertEquals(GOOD_AFTERNOON, expression.evaluate(newVariables(VARIABLE_PERIOD, AFTERNOON)));
+        assertEquals(GOOD_MORNING, expression.evaluate(newVariables(VARIABLE_PERIOD, MORNING)));
+    }
+
+    /**
+     * Tests that values from a previous evaluation are not visible to the next one
+     */
+    @Test(expected = ParseException.class)
+    public void testEvaluateDoesNotReuseVariablesFromPreviousEvaluation() throws ParseException
+    {
+        CompiledExpression expression = new CompiledExpression(EXPRESSION_CONCAT_GOOD_PERIOD);
+        assertEquals(GOOD_MORNING, expression.evaluate(newVariables(VARIABLE_PERIOD, MORNING)));
+        expression.evaluate(Collections.emptyMap());
+    }
+
+    /**
+     * Tests that the source map is updated with assigned variables when requested
+     */
+    @Test
+    public void testEvaluateWithAssignmentAndUpdateSourceMap() throws ParseException
+    {
+        CompiledExpression expression = new CompiledExpression(EXPRESSION_ASSIGN_MESSAGE);
+
+        Map<String, Object> map = newVariables(VARIABLE_PERIOD, MORNING);
+        expression.evaluate(map, true);
+        assertEquals(GOOD_MORNING, map.get(VARIABLE_MESSAGE));
+
+        map = newVariables(VARIABLE_PERIOD, AFTERNOON);
+        expression.evaluate(map, true);
+        assertEquals(GOOD_AFTERNOON, map.get(VARIABLE_MESSAGE));
+    }
+
+    /**
+     * Tests that the source map is not updated when not requested
+     */
+    @Test
+    public void testEvaluateWithAssignmentAndNoUpdateSourceMap() throws ParseException
+    {
+        CompiledExpression expression = new CompiledExpression(EXPRESSION_ASSIGN_MESSAGE);
+        Map<String, Object> map = newVariables(VARIABLE_PERIOD, MORNING);
+        assertEquals(GOOD_MORNING, expression.evaluate(map));
+        assertFalse(map.containsKey(VARIABLE_MESSAGE));
+    }
+
+    /**
+     * Tests that an expression with no variables can be evaluated with a null map
+     */
+    @Test
+    public void testEvaluateWithNullMap() throws ParseException
+    {
+        CompiledExpression expression = new CompiledExpression("max(\"[1,3,2]\")");
+        assertEquals(3, expression.evaluate(null));
+    }
+
+    /**
+     * Tests that the compiled expression is created by the {@link ExpressionEvaluator}
+     */
+    @Test
+    public void testCompileFromExpressionEvaluator() throws ParseException
+    {
+        CompiledExpression expression = new ExpressionEvaluator(EXPRESSION_CONCAT_GOOD_PERIOD).compile();
+        assertEquals(GOOD_AFTERNOON, expression.evaluate(newVariables(VARIABLE_PERIOD, AFTERNOON)));
+    }
+
+    /**
+     * Tests that only functions from the specified packages are available
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testCompileWithPackageNotContainingFunction()
+    {
+        new CompiledExpression(EXPRESSION_CONCAT_GOOD_PERIOD, NamedPackage.MATH);
+    }
+
+    /**
+     * Tests that a batch of records is evaluated in the input order
+     */
+    @Test
+    public void testEvaluateAllPreservesOrder() throws ParseException
+    {
+        CompiledExpression expression = new CompiledExpression(EXPRESSION_CONCAT_GOOD_PERIOD);
+        List<Map<String, Object>> records = Arrays.asList(newVariables(VARIABLE_PERIOD, MORNING),
+                newVariables(VARIABLE_PERIOD, AFTERNOON), newVariables(VARIABLE_PERIOD, MORNING));
+
+        assertEquals(Arrays.asList(GOOD_MORNING, GOOD_AFTERNOON, GOOD_MORNING), expression.evaluateAll(records));
+    }
+
+    /**
+     * Tests that an evaluation failure in a batch is reported
+     */
+    @Test(expected = ParseException.class)
+    public void testEvaluateAllWithMissingVariable() throws ParseException
+    {
+        CompiledExpression expression = new CompiledExpression(EXPRESSION_CONCAT_GOOD_PERIOD);
+        expression.evaluateAll(Arrays.asList(newVariables(VARIABLE_PERIOD, MORNING), Collections.emptyMap()));
+    }
+
+    /**
+     * Tests that a stream of records is lazily evaluated in the input order
+     */
+    @Test
+    public void testEvaluateAllStreamPreservesOrder()
+    {
+        CompiledExpression expression = new CompiledExpression(EXPRESSION_CONCAT_GOOD_PERIOD);
+        Stream<Map<String, Object>> records = Stream.of(MORNING, AFTERNOON, MORNING)
+                .map(period -> newVariables(VARIABLE_PERIOD, period));
+
+        assertEquals(Arrays.asList(GOOD_MORNING, GOOD_AFTERNOON, GOOD_MORNING),
+                expression.evaluateAll(records).collect(Collectors.toList()));
+    }
+
+    /**
+     * Tests that results are correct even if the resulting stream is made parallel
+     */
+    @Test
+    public void testEvaluateAllStreamMadeParallel()
+    {
+        CompiledExpression expression = new CompiledExpression("x * 2");
+        List<Object> results = expression
+                .evaluateAll(Stream.iterate(0, i -> i + 1).limit(10_000)
+                        .map(i -> Collections.<String, Object>singletonMap("x", i)))
+                .parallel().collect(Collectors.toList());
+
+        assertEquals(10_000, results.size());
+        for (int i = 0; i < results.size(); i++)
+        {
+            assertEquals(i * 2d, results.get(i));
+        }
+    }
+
+    /**
+     * Tests that an evaluation failure in a stream is wrapped in an unchecked exception
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testEvaluateAllStreamWithMissingVariable()
+    {
+        CompiledExpression expression = new CompiledExpression(EXPRESSION_CONCAT_GOOD_PERIOD);
+        expression.evaluateAll(Stream.of(Collections.<String, Object>emptyMap())).count();
+    }
+
+}
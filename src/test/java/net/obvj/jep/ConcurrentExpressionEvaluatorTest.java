@@ -0,0 +1,244 @@
+package net.obvj.jep;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+import org.junit.Test;
+import org.nfunk.jep.ParseException;
+
+/**
+ * Unit tests for the {@link ConcurrentExpressionEvaluator} class.
+ *
+ * @author oswaldo.bapvic.jr
+ */
+public class ConcurrentExpressionEvaluatorTest
+{
+    private static final String EXPRESSION_SUM = "concat(\"n\", x * 2)";
+
+    private static Map<String, Object> newVariables(int value)
+    {
+        return Collections.singletonMap("x", value);
+    }
+
+    /**
+     * Tests that the evaluator is not created with an invalid expression
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testEvaluatorNotCreatedIfExpressionIsInvalid()
+    {
+        new ConcurrentExpressionEvaluator("concat('Good ', period");
+    }
+
+    /**
+     * Tests that the evaluator is not created with an invalid pool size
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testEvaluatorNotCreatedIfMaxPoolSizeIsZero()
+    {
+        new ConcurrentExpressionEvaluator(EXPRESSION_SUM, 0);
+    }
+
+    /**
+     * Tests that sequential evaluations reuse the same compiled expression
+     */
+    @Test
+    public void testSequentialEvaluationsReuseCompiledExpression() throws ParseException
+    {
+        ConcurrentExpressionEvaluator evaluator = new ConcurrentExpressionEvaluator(EXPRESSION_SUM, 4);
+        assertEquals("n2.0", evaluator.evaluate(newVariables(1)));
+        assertEquals("n4.0", evaluator.evaluate(newVariables(2)));
+
+        ConcurrentExpressionEvaluator.Statistics statistics = evaluator.getStatistics();
+        assertEquals(1, statistics.getCreatedCount());
+        assertEquals(1, statistics.getIdleCount());
+        assertEquals(0, statistics.getActiveCount());
+        assertEquals(2, statistics.getLeaseCount());
+        assertEquals(0, statistics.getWaitCount());
+    }
+
+    /**
+     * Tests that a new compiled expression is created when all others are leased
+     */
+    @Test
+    public void testLeaseCreatesNewCompiledExpressionWhenPoolIsEmpty()
+    {
+        ConcurrentExpressionEvaluator evaluator = new ConcurrentExpressionEvaluator(EXPRESSION_SUM, 2);
+        CompiledExpression expression1 = evaluator.lease();
+        CompiledExpression expression2 = evaluator.lease();
+        assertNotSame(expression1, expression2);
+        assertEquals(2, evaluator.getStatistics().getActiveCount());
+
+        evaluator.release(expression1);
+        evaluator.release(expression2);
+        assertEquals(2, evaluator.getStatistics().getIdleCount());
+        assertSame(expression1, evaluator.lease());
+    }
+
+    /**
+     * Tests that a compiled expression for a different expression cannot be released
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testReleaseCompiledExpressionFromOtherEvaluator()
+    {
+        ConcurrentExpressionEvaluator evaluator = new ConcurrentExpressionEvaluator(EXPRESSION_SUM, 2);
+        evaluator.release(new CompiledExpression("x + 1"));
+    }
+
+    /**
+     * Tests that a compiled expression for the same expression, but not leased from the
+     * evaluator, cannot be released
+     */
+    @Test
+    public void testReleaseCompiledExpressionNotLeased()
+    {
+        ConcurrentExpressionEvaluator evaluator = new ConcurrentExpressionEvaluator(EXPRESSION_SUM, 2);
+        CompiledExpression foreign = new CompiledExpression(EXPRESSION_SUM, NamedPackage.STRING);
+        try
+        {
+            evaluator.release(foreign);
+            fail("Expected IllegalArgumentException");
+        }
+        catch (IllegalArgumentException expected)
+        {
+            // expected
+        }
+        assertEquals(1, evaluator.getStatistics().getIdleCount());
+    }
+
+    /**
+     * Tests that a compiled expression cannot be released twice
+     */
+    @Test
+    public void testReleaseCompiledExpressionTwice()
+    {
+        ConcurrentExpressionEvaluator evaluator = new ConcurrentExpressionEvaluator(EXPRESSION_SUM, 2);
+        CompiledExpression compiledExpression = evaluator.lease();
+        evaluator.release(compiledExpression);
+        try
+        {
+            evaluator.release(compiledExpression);
+            fail("Expected IllegalArgumentException");
+        }
+        catch (IllegalArgumentException expected)
+        {
+            // expected
+        }
+        assertEquals(1, evaluator.getStatistics().getIdleCount());
+        assertSame(compiledExpression, evaluator.lease());
+        assertNotSame(compiledExpression, evaluator.lease());
+    }
+
+    /**
+     * Tests that a failure creating a compiled expression does not reduce the capacity of
+     * the pool
+     */
+    @Test(timeout = 10000)
+    public void testFailedCreationReleasesSlot()
+    {
+        ConcurrentExpressionEvaluator evaluator = new ConcurrentExpressionEvaluator(EXPRESSION_SUM, 2);
+        CompiledExpression expression1 = evaluator.lease();
+        JEPContextFactory.setMetricsRegistry((alias, namedPackage) ->
+        {
+            throw new IllegalStateException("Registry unavailable");
+        });
+        try
+        {
+            evaluator.lease();
+            fail("Expected IllegalStateException");
+        }
+        catch (IllegalStateException expected)
+        {
+            assertEquals(1, evaluator.getStatistics().getCreatedCount());
+        }
+        finally
+        {
+            JEPContextFactory.setMetricsRegistry(null);
+        }
+
+        CompiledExpression expression2 = evaluator.lease();
+        assertNotSame(expression1, expression2);
+        assertEquals(2, evaluator.getStatistics().getCreatedCount());
+        evaluator.release(expression1);
+        evaluator.release(expression2);
+    }
+
+    /**
+     * Tests that multiple threads evaluate the expression correctly and that the pool size
+     * is never exceeded
+     */
+    @Test
+    public void testConcurrentEvaluationsRespectMaxPoolSize() throws Exception
+    {
+        ConcurrentExpressionEvaluator evaluator = new ConcurrentExpressionEvaluator(EXPRESSION_SUM, 2);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try
+        {
+            List<Future<Object>> futures = new ArrayList<>();
+            for (int i = 0; i < 500; i++)
+            {
+                Map<String, Object> variables = newVariables(i);
+                futures.add(executor.submit(() -> evaluator.evaluate(variables)));
+            }
+            for (int i = 0; i < futures.size(); i++)
+            {
+                assertEquals("n" + (i * 2d), futures.get(i).get(10, TimeUnit.SECONDS));
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        ConcurrentExpressionEvaluator.Statistics statistics = evaluator.getStatistics();
+        assertTrue(statistics.getCreatedCount() <= 2);
+        assertEquals(statistics.getCreatedCount(), statistics.getIdleCount());
+        assertEquals(500, statistics.getLeaseCount());
+    }
+
+    /**
+     * Tests that a fork-join worker waiting for a compiled expression does not prevent
+     * the pool from running the task that releases it
+     */
+    @Test
+    public void testWaitingForkJoinWorkerDoesNotStallPool() throws Exception
+    {
+        ConcurrentExpressionEvaluator evaluator = new ConcurrentExpressionEvaluator(EXPRESSION_SUM, 1);
+        ForkJoinPool forkJoinPool = new ForkJoinPool(1);
+        try
+        {
+            CompiledExpression compiledExpression = evaluator.lease();
+            CompletableFuture<Object> waiter = new CompletableFuture<>();
+            forkJoinPool.execute(() ->
+            {
+                try
+                {
+                    waiter.complete(evaluator.evaluate(newVariables(1)));
+                }
+                catch (ParseException | RuntimeException exception)
+                {
+                    waiter.completeExceptionally(exception);
+                }
+            });
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (evaluator.getStatistics().getWaitCount() == 0 && System.nanoTime() < deadline)
+            {
+                Thread.sleep(1);
+            }
+            assertEquals(1, evaluator.getStatistics().getWaitCount());
+
+            // With a single worker blocked on the pool, this task only runs on a spare thread
+            forkJoinPool.execute(() -> evaluator.release(compiledExpression));
+            assertEquals("n2.0", waiter.get(10, TimeUnit.SECONDS));
+        }
+        finally
+        {
+            forkJoinPool.shutdownNow();
+        }
+    }
+
+}
@@ -0,0 +1,146 @@
+package net.obvj.jep;
+
+import static org.junit.Assert.*;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Stack;
+
+import org.junit.Test;
+import org.nfunk.jep.JEP;
+import org.nfunk.jep.OperatorSet;
+import org.nfunk.jep.ParseException;
+import org.nfunk.jep.function.PostfixMathCommand;
+import org.nfunk.jep.function.PostfixMathCommandI;
+
+import net.obvj.jep.functions.EndOfMonth;
+
+/**
+ * Unit tests for the {@link ContextPrototype} class.
+ *
+ * @author oswaldo.bapvic.jr
+ */
+public class ContextPrototypeTest
+{
+    private static final String[] ALIASES = { "f" };
+
+    /**
+     * A function that keeps state between calls
+     */
+    public static class StatefulFunction extends PostfixMathCommand
+    {
+        private int calls;
+
+        public StatefulFunction()
+        {
+            numberOfParameters = 1;
+        }
+
+        @Override
+        public void run(Stack stack) throws ParseException
+        {
+            checkStack(stack);
+            stack.pop();
+            stack.push(++calls);
+        }
+    }
+
+    /**
+     * A subclass of a stateless function that adds a mutable field
+     */
+    public static class StatefulEndOfMonth extends EndOfMonth
+    {
+        private Object lastResult;
+    }
+
+    private static PostfixMathCommandI getFunction(ContextPrototype prototype, String alias)
+    {
+        JEP jep = new JEP();
+        prototype.applyTo(jep);
+        return (PostfixMathCommandI) jep.getFunctionTable().get(alias);
+    }
+
+    /**
+     * Tests that a function with a fixed number of parameters and only final fields is
+     * shared by all contexts
+     */
+    @Test
+    public void testStatelessFunctionIsShared()
+    {
+        ContextPrototype prototype = new ContextPrototype();
+        EndOfMonth function = new EndOfMonth();
+        prototype.addFunction(ALIASES, function, EndOfMonth::new);
+
+        assertTrue(ContextPrototype.isShareable(function));
+        assertSame(function, getFunction(prototype, "f"));
+        assertSame(function, getFunction(prototype, "f"));
+    }
+
+    /**
+     * Tests that a function with a non-final field is instantiated for every context
+     */
+    @Test
+    public void testStatefulFunctionIsNotShared()
+    {
+        ContextPrototype prototype = new ContextPrototype();
+        StatefulFunction function = new StatefulFunction();
+        prototype.addFunction(ALIASES, function, StatefulFunction::new);
+
+        assertFalse(ContextPrototype.isShareable(function));
+        PostfixMathCommandI function1 = getFunction(prototype, "f");
+        PostfixMathCommandI function2 = getFunction(prototype, "f");
+        assertNotSame(function, function1);
+        assertNotSame(function1, function2);
+    }
+
+    /**
+     * Tests that a subclass adding a non-final field to a shareable function is not shared
+     */
+    @Test
+    public void testSubclassWithNonFinalFieldIsNotShareable()
+    {
+        assertTrue(ContextPrototype.isShareable(new EndOfMonth()));
+        assertFalse(ContextPrototype.isShareable(new StatefulEndOfMonth()));
+    }
+
+    /**
+     * Tests that a command that cannot be shared is not accepted for an operator
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetOperatorWithStatefulCommand()
+    {
+        new ContextPrototype().setOperator(OperatorSet::getLT, new StatefulFunction());
+    }
+
+    /**
+     * Tests that every function shared by the contexts of the factory declares only final
+     * instance fields, except for the classes of the JEP library
+     */
+    @Test
+    public void testSharedFunctionsHaveOnlyFinalFields()
+    {
+        JEP jep1 = JEPContextFactory.newContext();
+        JEP jep2 = JEPContextFactory.newContext();
+        int sharedCount = 0;
+        for (Object alias : jep1.getFunctionTable().keySet())
+        {
+            Object function = jep1.getFunctionTable().get(alias);
+            if (function != jep2.getFunctionTable().get(alias))
+            {
+                continue;
+            }
+            sharedCount++;
+            for (Class<?> type = function.getClass(); !type.getName().startsWith("org.nfunk.jep.")
+                    && type != Object.class; type = type.getSuperclass())
+            {
+                for (Field field : type.getDeclaredFields())
+                {
+                    int modifiers = field.getModifiers();
+                    assertTrue(alias + ": " + field, Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers));
+                }
+            }
+        }
+        assertTrue(sharedCount > 0);
+    }
+
+}
@@ -0,0 +1,195 @@
+package net.obvj.jep;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.Test;
+import org.nfunk.jep.*;
+import org.nfunk.jep.function.PostfixMathCommandI;
+
+import net.obvj.jep.functions.*;
+
+/**
+ * Unit tests for the {@link ExpressionCompiler} class.
+ *
+ * @author oswaldo.bapvic.jr
+ */
+public class ExpressionCompilerTest
+{
+    private static Node compile(String expression) throws ParseException
+    {
+        JEP context = JEPContextFactory.newContext();
+        return ExpressionCompiler.compile(context, context.parse(expression));
+    }
+
+    private static Map<String, Object> newVariables(String key, Object value)
+    {
+        Map<String, Object> map = new HashMap<>();
+        map.put(key, value);
+        return map;
+    }
+
+    /**
+     * Tests that constant subexpressions of deterministic functions are folded
+     */
+    @Test
+    public void testCompileFoldsConstantExpressions() throws ParseException
+    {
+        Node node = compile("concat(\"a\", \"b\") + upper(\"c\")");
+        assertTrue(node instanceof ASTConstant);
+        assertEquals("abC", ((ASTConstant) node).getValue());
+
+        node = compile("1 + 2 * 3 == 7");
+        assertEquals(1.0, ((ASTConstant) node).getValue());
+    }
+
+    /**
+     * Tests that only the constant branches of an expression with variables are folded
+     */
+    @Test
+    public void testCompileFoldsConstantBranches() throws ParseException
+    {
+        Node node = compile("x + (2 * 3)");
+        assertTrue(node instanceof ASTFunNode);
+        assertTrue(node.jjtGetChild(0) instanceof ASTVarNode);
+        assertEquals(6.0, ((ASTConstant) node.jjtGetChild(1)).getValue());
+        assertSame(node, node.jjtGetChild(1).jjtGetParent());
+    }
+
+    /**
+     * Tests that non-deterministic functions and assignments are not folded
+     */
+    @Test
+    public void testCompileDoesNotFoldNonDeterministicFunctions() throws ParseException
+    {
+        for (String expression : Arrays.asList("now()", "uuid()", "rand()", "getSystemProperty(\"user.dir\")",
+                "x = 1"))
+        {
+            assertTrue(expression, compile(expression) instanceof ASTFunNode);
+        }
+    }
+
+    /**
+     * Tests that calls producing mutable results or failing at compile time are not folded
+     */
+    @Test
+    public void testCompileDoesNotFoldMutableResultsOrErrors() throws ParseException
+    {
+        for (String expression : Arrays.asList("split(\"a,b\", \",\")", "str2date(\"2020-01-01\")",
+                "matches(\"a\", \"[\")", "[1, 2]"))
+        {
+            assertTrue(expression, compile(expression) instanceof ASTFunNode);
+        }
+    }
+
+    /**
+     * Tests that functions with literal arguments are replaced by precompiled instances
+     */
+    @Test
+    public void testCompilePrecompilesLiteralArguments() throws ParseException
+    {
+        JEP context = JEPContextFactory.newContext();
+        for (String expression : Arrays.asList("matches(x, \"^[A-Z]{3}$\")", "findMatches(x, \"\\\\d+\")",
+                "replaceRegex(x, \"\\\\s+\", \" \")", "jsonpath(x, \"$.items[*].price\")",
+                "xpath(x, \"/a/b/text()\")", "date2str(x, \"yyyy-MM-dd\")", "str2date(x, \"yyyy-MM-dd\")",
+                "str2date(x, \"yyyyMMdd\", \"yyyy-MM-dd\")"))
+        {
+            ASTFunNode node = (ASTFunNode) context.parse(expression);
+            PostfixMathCommandI original = node.getPFMC();
+            ExpressionCompiler.compile(context, node);
+            assertNotSame(expression, original, node.getPFMC());
+            assertSame(expression, original.getClass(), node.getPFMC().getClass());
+        }
+    }
+
+    /**
+     * Tests that functions are kept unchanged if their arguments are not literal or cannot
+     * be precompiled
+     */
+    @Test
+    public void testCompileKeepsFunctionsWithoutValidLiteralArguments() throws ParseException
+    {
+        JEP context = JEPContextFactory.newContext();
+        for (String expression : Arrays.asList("matches(x, y)", "matches(x, \"[\")", "startsWith(x, \"a\")",
+                "replace(x, \"a\", \"b\")", "jsonpath(x, \"$[\")", "xpath(x, \"/a/text(\")", "str2date(x)",
+                "str2date(x, \"yyyy\", y)", "str2date(x, \"yyyy-MM-dd'T\")"))
+        {
+            ASTFunNode node = (ASTFunNode) context.parse(expression);
+            PostfixMathCommandI original = node.getPFMC();
+            ExpressionCompiler.compile(context, node);
+            assertSame(expression, original, node.getPFMC());
+        }
+    }
+
+    /**
+     * Tests that each comparison of a compiled expression is bound to its own instance,
+     * instead of the one shared by all contexts
+     */
+    @Test
+    public void testCompileBindsComparisonsToNodes() throws ParseException
+    {
+        JEP context = JEPContextFactory.newContext();
+        PostfixMathCommandI shared = context.getOperatorSet().getLT().getPFMC();
+        Node node = ExpressionCompiler.compile(context, context.parse("a < b && c < d"));
+        PostfixMathCommandI first = ((ASTFunNode) node.jjtGetChild(0)).getPFMC();
+        PostfixMathCommandI second = ((ASTFunNode) node.jjtGetChild(1)).getPFMC();
+        assertTrue(first instanceof DateAwareComparative);
+        assertNotSame(shared, first);
+        assertNotSame(first, second);
+        assertSame(shared, JEPContextFactory.newContext().getOperatorSet().getLT().getPFMC());
+    }
+
+    /**
+     * Tests that precompiled functions produce the same results as the original ones
+     */
+    @Test
+    public void testCompiledExpressionsProduceSameResults() throws ParseException
+    {
+        Calendar calendar = new GregorianCalendar(2021, Calendar.MARCH, 4);
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("code", "ABC");
+        variables.put("text", "a  b   c");
+        variables.put("json", "{\"items\": [{\"price\": 1.5}, {\"price\": 2}]}");
+        variables.put("xml", "<a><b>x</b><b>y</b></a>");
+        variables.put("date", calendar.getTime());
+        variables.put("dateString", "04/03/2021 10:15");
+
+        for (String expression : Arrays.asList("matches(code, \"^[A-Z]{3}$\")", "findMatches(text, \"\\\\w\")",
+                "findMatch(text, \"b\\\\s+\")", "split(text, \"\\\\s+\")", "replaceRegex(text, \"\\\\s+\", \"-\")",
+                "jsonpath(json, \"$.items[*].price\")", "xpath(xml, \"/a/b/text()\")",
+                "date2str(date, \"yyyy-MM-dd\")", "concat(upper(\"x\"), code)",
+                "str2date(dateString, \"yyyy-MM-dd\", \"dd/MM/yyyy HH:mm\")"))
+        {
+            Object expected = new ExpressionEvaluator(expression).evaluate(variables);
+            assertEquals(expression, String.valueOf(expected),
+                    String.valueOf(new CompiledExpression(expression).evaluate(variables)));
+        }
+    }
+
+    /**
+     * Tests that an invalid literal argument is still reported at evaluation time
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidLiteralArgumentReportedAtEvaluation() throws ParseException
+    {
+        new CompiledExpression("matches(x, \"[\")").evaluate(newVariables("x", "a"));
+    }
+
+    /**
+     * Tests the determinism check for standard, custom and non-deterministic functions
+     */
+    @Test
+    public void testIsDeterministic()
+    {
+        assertTrue(JEPContextFactory.isDeterministic(new org.nfunk.jep.function.Add()));
+        assertTrue(JEPContextFactory.isDeterministic(new Concat()));
+        assertTrue(JEPContextFactory.isDeterministic(new DateAwareComparative(0)));
+        assertFalse(JEPContextFactory.isDeterministic(new Now()));
+        assertFalse(JEPContextFactory.isDeterministic(new org.nfunk.jep.function.Random()));
+        assertFalse(JEPContextFactory.isDeterministic(new org.nfunk.jep.function.Assign()));
+        assertFalse(JEPContextFactory
+                .isDeterministic(new UnarySystemFunction(UnarySystemFunction.Strategy.GET_ENV)));
+    }
+
+}
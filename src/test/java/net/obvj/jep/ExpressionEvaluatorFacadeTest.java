@@ -3,13 +3,19 @@ package net.obvj.jep;
 import static net.obvj.junit.utils.matchers.InstantiationNotAllowedMatcher.instantiationNotAllowed;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
 
+import org.junit.After;
 import org.junit.Test;
 import org.nfunk.jep.ParseException;
 
+import net.obvj.jep.util.CacheStatistics;
+
 /**
  * Unit tests for the {@link ExpressionEvaluatorFacade} class.
  *
@@ -48,6 +54,13 @@ public class ExpressionEvaluatorFacadeTest
     private static final double FALSE = 0d;
     private static final double TRUE = 1d;
 
+    @After
+    public void resetCache()
+    {
+        ExpressionEvaluatorFacade.configureCache(ExpressionEvaluatorFacade.DEFAULT_CACHE_MAX_SIZE, 0,
+                TimeUnit.SECONDS);
+    }
+
     /**
      * Tests that no instances of this facade are created
      */
@@ -129,4 +142,87 @@ public class ExpressionEvaluatorFacadeTest
         Object result = ExpressionEvaluatorFacade.evaluate(EXPRESSION_HELLO_MESSAGE, map);
         assertEquals("Hello, guest!", result);
     }
+
+    /**
+     * Tests that an expression is parsed only once when evaluated repeatedly
+     */
+    @Test
+    public void testRepeatedEvaluationHitsCache() throws ParseException
+    {
+        ExpressionEvaluatorFacade.clearCache();
+        CacheStatistics statistics = ExpressionEvaluatorFacade.getCacheStatistics();
+        long hits = statistics.getHitCount();
+        long misses = statistics.getMissCount();
+
+        assertEquals(TRUE, ExpressionEvaluatorFacade.evaluate(EXPRESSION_DATE1_LOWER_THAN_DATE2, VARIABLES_MAP));
+        assertEquals(TRUE, ExpressionEvaluatorFacade.evaluate(EXPRESSION_DATE1_LOWER_THAN_DATE2, VARIABLES_MAP));
+        assertEquals(FALSE, ExpressionEvaluatorFacade.evaluate(EXPRESSION_DATE1_EQUALS_DATE2, VARIABLES_MAP));
+
+        assertTrue(statistics.getHitCount() - hits >= 1);
+        assertTrue(statistics.getMissCount() - misses >= 2);
+    }
+
+    /**
+     * Tests that expressions are still evaluated correctly with the cache disabled
+     */
+    @Test
+    public void testEvaluateWithCacheDisabled() throws ParseException
+    {
+        ExpressionEvaluatorFacade.configureCache(0, 0, TimeUnit.SECONDS);
+        CacheStatistics statistics = ExpressionEvaluatorFacade.getCacheStatistics();
+        long hits = statistics.getHitCount();
+
+        assertEquals(TRUE, ExpressionEvaluatorFacade.evaluate(EXPRESSION_DATE1_LOWER_THAN_DATE2, VARIABLES_MAP));
+        assertEquals(TRUE, ExpressionEvaluatorFacade.evaluate(EXPRESSION_DATE1_LOWER_THAN_DATE2, VARIABLES_MAP));
+        assertEquals(hits, statistics.getHitCount());
+    }
+
+    /**
+     * Tests that an invalid expression is still rejected when the cache is enabled
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidExpressionRejected() throws ParseException
+    {
+        ExpressionEvaluatorFacade.evaluate("concat('Good ', period", VARIABLES_MAP);
+    }
+
+    /**
+     * Tests that a null expression is rejected before the cache lookup
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullExpressionRejected() throws ParseException
+    {
+        ExpressionEvaluatorFacade.evaluate(null, VARIABLES_MAP);
+    }
+
+    /**
+     * Tests that an empty expression is rejected
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyExpressionRejected() throws ParseException
+    {
+        ExpressionEvaluatorFacade.evaluate(" ", VARIABLES_MAP, false);
+    }
+
+    /**
+     * Tests that a cached expression with date functions over constants uses the default
+     * time zone at each evaluation
+     */
+    @Test
+    public void testCachedExpressionFollowsDefaultTimeZone() throws ParseException
+    {
+        String expression = "hour(\"2020-01-01T02:00:00Z\")";
+        TimeZone defaultTimeZone = TimeZone.getDefault();
+        try
+        {
+            TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+            assertEquals(2, ExpressionEvaluatorFacade.evaluate(expression, new HashMap<>()));
+            TimeZone.setDefault(TimeZone.getTimeZone("America/Sao_Paulo"));
+            assertEquals(23, ExpressionEvaluatorFacade.evaluate(expression, new HashMap<>()));
+        }
+        finally
+        {
+            TimeZone.setDefault(defaultTimeZone);
+        }
+    }
 }
@@ -2,9 +2,13 @@ package net.obvj.jep;
 
 import static org.junit.Assert.*;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.json.JSONException;
 import org.junit.Test;
@@ -299,4 +303,31 @@ public class ExpressionEvaluatorTest
         }
     }
 
+    /**
+     * Tests batch evaluation of the same expression over multiple maps of variables
+     *
+     * @throws ParseException
+     */
+    @Test
+    public void testEvaluateAll() throws ParseException
+    {
+        ExpressionEvaluator evaluator = new ExpressionEvaluator(EXPRESSION_CONCAT_GOOD_PERIOD);
+        List<Map<String, Object>> records = Arrays.asList(Collections.singletonMap(VARIABLE_PERIOD, MORNING),
+                Collections.singletonMap(VARIABLE_PERIOD, AFTERNOON));
+
+        assertEquals(Arrays.asList(GOOD_MORNING, GOOD_AFTERNOON), evaluator.evaluateAll(records));
+        assertEquals(Arrays.asList(GOOD_MORNING, GOOD_AFTERNOON),
+                evaluator.evaluateAll(records.stream()).collect(Collectors.toList()));
+    }
+
+    /**
+     * Tests batch evaluation of an empty stream
+     */
+    @Test
+    public void testEvaluateAllEmptyStream()
+    {
+        ExpressionEvaluator evaluator = new ExpressionEvaluator(EXPRESSION_CONCAT_GOOD_PERIOD);
+        assertEquals(0, evaluator.evaluateAll(Stream.empty()).count());
+    }
+
 }
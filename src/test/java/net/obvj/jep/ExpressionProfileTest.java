@@ -0,0 +1,196 @@
+package net.obvj.jep;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.Test;
+import org.nfunk.jep.ParseException;
+
+import net.obvj.jep.ExpressionProfile.NodeProfile;
+import net.obvj.jep.ExpressionProfile.NodeType;
+
+/**
+ * Unit tests for the {@link ExpressionProfile} class and the profiling mode of
+ * {@link ExpressionEvaluator} and {@link CompiledExpression}.
+ *
+ * @author oswaldo.bapvic.jr
+ */
+public class ExpressionProfileTest
+{
+    private static final String EXPRESSION = "concat(upper(trim(name)), x)";
+
+    private static Map<String, Object> newVariables(Object x, String name)
+    {
+        Map<String, Object> map = new HashMap<>();
+        map.put("x", x);
+        map.put("name", name);
+        return map;
+    }
+
+    private static void assertTimesConsistent(NodeProfile profile)
+    {
+        long childrenTimeNanos = 0;
+        for (NodeProfile child : profile.getChildren())
+        {
+            assertTimesConsistent(child);
+            childrenTimeNanos += child.getTotalTimeNanos();
+        }
+        assertTrue(profile.toString(), profile.getTotalTimeNanos() >= childrenTimeNanos);
+        assertTrue(profile.toString(), profile.getSelfTimeNanos() <= profile.getTotalTimeNanos());
+        assertTrue(profile.toString(), profile.getSelfTimeNanos() >= 0);
+    }
+
+    /**
+     * Tests that the profile mirrors the expression tree, with the labels and types of the
+     * nodes
+     */
+    @Test
+    public void testProfileTreeStructure() throws ParseException
+    {
+        ExpressionProfile profile = new ExpressionEvaluator(EXPRESSION).profile(newVariables("!", " abc "));
+        assertEquals(EXPRESSION, profile.getExpression());
+        assertEquals("ABC!", profile.getLastResult());
+        assertEquals(1, profile.getEvaluationCount());
+
+        NodeProfile root = profile.getRoot();
+        assertEquals("concat()", root.getLabel());
+        assertEquals(NodeType.FUNCTION, root.getType());
+        assertEquals(2, root.getChildren().size());
+
+        NodeProfile upper = root.getChildren().get(0);
+        assertEquals("upper()", upper.getLabel());
+        assertEquals(NodeType.FUNCTION, upper.getType());
+        assertEquals("trim()", upper.getChildren().get(0).getLabel());
+        assertEquals("name", upper.getChildren().get(0).getChildren().get(0).getLabel());
+
+        NodeProfile x = root.getChildren().get(1);
+        assertEquals("x", x.getLabel());
+        assertEquals(NodeType.VARIABLE, x.getType());
+    }
+
+    /**
+     * Tests that every node is counted and the times of parents include their children
+     */
+    @Test
+    public void testProfileCallCountsAndTimes() throws ParseException
+    {
+        ExpressionProfile profile = new ExpressionEvaluator(EXPRESSION).profile(newVariables("!", "abc"));
+        NodeProfile root = profile.getRoot();
+        assertEquals(1, root.getCallCount());
+        assertEquals(1, root.getChildren().get(0).getChildren().get(0).getCallCount());
+        assertTrue(root.getTotalTimeNanos() > 0);
+        assertTimesConsistent(root);
+    }
+
+    /**
+     * Tests that the statistics are accumulated over all records of a batch
+     */
+    @Test
+    public void testProfileAllAccumulatesEvaluations() throws ParseException
+    {
+        List<Map<String, Object>> records = Arrays.asList(newVariables("1", "a"), newVariables("2", "bc"),
+                newVariables("3", "def"));
+        ExpressionProfile profile = new ExpressionEvaluator(EXPRESSION).profileAll(records);
+        assertEquals(3, profile.getEvaluationCount());
+        assertEquals("DEF3", profile.getLastResult());
+        assertEquals(3, profile.getRoot().getCallCount());
+        assertEquals(3, profile.getRoot().getChildren().get(0).getCallCount());
+        assertTimesConsistent(profile.getRoot());
+    }
+
+    /**
+     * Tests that constant subexpressions appear folded in the profile of a compiled
+     * expression
+     */
+    @Test
+    public void testProfileAllWithFoldedConstants() throws ParseException
+    {
+        ExpressionProfile profile = new CompiledExpression("x * (2 + 3)")
+                .profileAll(Collections.singletonList(newVariables(2.0, null)));
+        assertEquals(10.0, profile.getLastResult());
+        assertEquals("*", profile.getRoot().getLabel());
+        assertEquals(NodeType.OPERATOR, profile.getRoot().getType());
+        NodeProfile constant = profile.getRoot().getChildren().get(1);
+        assertEquals("5.0", constant.getLabel());
+        assertEquals(NodeType.CONSTANT, constant.getType());
+        assertEquals(1, constant.getCallCount());
+    }
+
+    /**
+     * Tests that only the branches evaluated by a function with special evaluation, such
+     * as if, are counted
+     */
+    @Test
+    public void testProfileSpecialEvaluationBranches() throws ParseException
+    {
+        ExpressionProfile profile = new ExpressionEvaluator("if(x > 1, upper(name), \"none\")")
+                .profile(newVariables(2.0, "abc"));
+        assertEquals("ABC", profile.getLastResult());
+        List<NodeProfile> branches = profile.getRoot().getChildren();
+        assertEquals("if()", profile.getRoot().getLabel());
+        assertEquals(1, branches.get(0).getCallCount());
+        assertEquals(1, branches.get(1).getCallCount());
+        assertEquals(0, branches.get(2).getCallCount());
+        assertEquals("\"none\"", branches.get(2).getLabel());
+    }
+
+    /**
+     * Tests that a failed evaluation is reported by the profiling mode
+     */
+    @Test(expected = ParseException.class)
+    public void testProfileAllWithMissingVariable() throws ParseException
+    {
+        new CompiledExpression("x + y").profileAll(Collections.singletonList(newVariables(1.0, null)));
+    }
+
+    /**
+     * Tests the annotated tree rendering
+     */
+    @Test
+    public void testToAnnotatedTree() throws ParseException
+    {
+        ExpressionProfile profile = new ExpressionEvaluator(EXPRESSION).profile(newVariables("!", "abc"));
+        String[] lines = profile.toAnnotatedTree().split(System.lineSeparator());
+        assertEquals(5, lines.length);
+        assertTrue(lines[0], lines[0].startsWith("concat() (function) [calls=1, total="));
+        assertTrue(lines[1], lines[1].startsWith("  upper() (function) [calls=1,"));
+        assertTrue(lines[2], lines[2].startsWith("    trim() (function) [calls=1,"));
+        assertTrue(lines[3], lines[3].startsWith("      name (variable) [calls=1,"));
+        assertTrue(lines[4], lines[4].startsWith("  x (variable) [calls=1,"));
+        assertTrue(lines[0], lines[0].matches(".*allocated=(n/a|\\d+ B)]"));
+        assertEquals(profile.toAnnotatedTree(), profile.toString());
+    }
+
+    /**
+     * Tests the folded stack rendering
+     */
+    @Test
+    public void testToFoldedStacks() throws ParseException
+    {
+        ExpressionProfile profile = new ExpressionEvaluator("concat(name, \"a; b\")")
+                .profile(newVariables(1.0, "abc"));
+        String folded = profile.toFoldedStacks();
+        assertFalse(folded.isEmpty());
+        for (String line : folded.split("\n"))
+        {
+            assertTrue(line, line.matches("concat\\(\\)(;(name|\"a,_b\"))? [1-9]\\d*"));
+        }
+    }
+
+    /**
+     * Tests that long constants are truncated in labels
+     */
+    @Test
+    public void testLongConstantLabelTruncated() throws ParseException
+    {
+        String constant = String.join("", Collections.nCopies(50, "a"));
+        ExpressionProfile profile = new ExpressionEvaluator("upper(\"" + constant + "\")")
+                .profile(Collections.emptyMap());
+        assertEquals(constant.toUpperCase(), profile.getLastResult());
+        String label = profile.getRoot().getChildren().get(0).getLabel();
+        assertEquals(40, label.length());
+        assertTrue(label, label.endsWith("..."));
+    }
+
+}
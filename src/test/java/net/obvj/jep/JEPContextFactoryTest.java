@@ -4,8 +4,12 @@ import static net.obvj.junit.utils.matchers.InstantiationNotAllowedMatcher.insta
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.time.ZoneId;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -16,10 +20,14 @@ import org.nfunk.jep.JEP;
 import org.nfunk.jep.Node;
 import org.nfunk.jep.ParseException;
 import org.nfunk.jep.function.PostfixMathCommand;
+import org.nfunk.jep.function.PostfixMathCommandI;
 
 import net.obvj.jep.functions.*;
 import net.obvj.jep.functions.DateFieldGetter.DateField;
 import net.obvj.jep.functions.UnaryEncryptionFunction.EncryptionAlgorithm;
+import net.obvj.jep.metrics.FunctionStatistics;
+import net.obvj.jep.metrics.InMemoryMetricsRegistry;
+import net.obvj.jep.metrics.InstrumentedCommand;
 import net.obvj.jep.util.DateUtils;
 
 public class JEPContextFactoryTest
@@ -200,6 +208,39 @@ public class JEPContextFactoryTest
         checkFunction(table, "roman", Roman.class);
     }
 
+    /**
+     * Tests that functions with a fixed number of parameters are shared by different
+     * contexts, while functions with a variable number of parameters are not
+     */
+    @Test
+    public void testFunctionsSharedBetweenContextsOnlyIfFixedNumberOfParameters()
+    {
+        FunctionTable table1 = JEPContextFactory.newContext().getFunctionTable();
+        FunctionTable table2 = JEPContextFactory.newContext().getFunctionTable();
+
+        assertSame(table1.get("sin"), table2.get("sin"));
+        assertSame(table1.get("jsonpath"), table2.get("jsonpath"));
+        assertNotSame(table1.get("sum"), table2.get("sum"));
+        assertNotSame(table1.get("concat"), table2.get("concat"));
+        assertSame(table1.get("concat"), table1.get("join"));
+    }
+
+    /**
+     * Tests that contexts created for different package combinations do not interfere with
+     * each other
+     */
+    @Test
+    public void testRegisteredFunctionsAfterContextsWithDifferentPackages()
+    {
+        JEPContextFactory.newContext(NamedPackage.MATH);
+        FunctionTable table = JEPContextFactory.newContext(NamedPackage.STRING).getFunctionTable();
+        checkStringFunctions(table);
+        checkFunctionNotAvailable(table, "arabic"); // NamedPackage.MATH
+        checkFunction(table, "get", Element.class);
+        assertEquals(Element.class, JEPContextFactory.newContext(NamedPackage.STRING).getOperatorSet().getElement()
+                .getPFMC().getClass());
+    }
+
     @Test
     public void testRegisteredFunctionsStringPackageOnly()
     {
@@ -449,6 +490,154 @@ public class JEPContextFactoryTest
         assertEquals(2.5, jep.evaluate(node));
     }
 
+    /**
+     * Tests that the time zone of date functions is set for a context only, with a single
+     * instance for functions with multiple aliases
+     */
+    @Test
+    public void testSetZone() throws ParseException
+    {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("date", "2019-12-31T20:45:00Z");
+        JEP jep = JEPContextFactory.newContext(variables);
+        JEPContextFactory.setZone(jep, ZoneId.of("Asia/Tokyo"));
+
+        assertEquals(5.0, evaluate(jep, "hour(date)"), 0);
+        assertEquals(2020.0, evaluate(jep, "year(date)"), 0);
+        assertEquals(1.0, evaluate(jep, "month(date)"), 0);
+        assertEquals(DateUtils.parseDate((Object) "2020-01-31T23:59:59.999+09:00"),
+                jep.evaluate(jep.parse("endOfMonth(date)")));
+
+        JEP other = JEPContextFactory.newContext(variables);
+        JEPContextFactory.setZone(other, ZoneId.of("UTC"));
+        assertEquals(20.0, evaluate(other, "hour(date)"), 0);
+        assertEquals(5.0, evaluate(jep, "hour(date)"), 0);
+    }
+
+    private static double evaluate(JEP jep, String expression) throws ParseException
+    {
+        return ((Number) jep.evaluate(jep.parse(expression))).doubleValue();
+    }
+
+    /**
+     * Tests that the functions of an instrumented context record metrics per function and
+     * per package, and keep their time zone and precompilation capabilities
+     */
+    @Test
+    public void testInstrument() throws ParseException
+    {
+        InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry();
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("date", "2019-12-31T20:45:00Z");
+        JEP jep = JEPContextFactory.newContext(variables);
+        JEPContextFactory.instrument(jep, registry);
+        JEPContextFactory.instrument(jep, registry);
+        JEPContextFactory.setZone(jep, ZoneId.of("Asia/Tokyo"));
+
+        assertEquals(2020.0, evaluate(jep, "if(year(date) > 2000, year(date), sqrt(4))"), 0);
+        assertEquals(3.0, evaluate(jep, "count(split(concat(\"a,\", \"b,\", \"c\"), \",\"))"), 0);
+        jep.evaluate(jep.parse("get(1, 1)"));
+
+        assertEquals(2, registry.getStatistics("year").getCallCount());
+        assertEquals(0, registry.getStatistics("sqrt").getCallCount());
+        assertEquals(1, registry.getStatistics("concat").getCallCount());
+        assertEquals(2, registry.getStatistics(NamedPackage.DATE).getCallCount());
+        assertEquals(1, registry.getStatistics(NamedPackage.STATISTICS).getCallCount());
+        assertEquals(1, registry.getStatistics("get").getCallCount());
+        assertTrue(registry.getStatistics(NamedPackage.CORE) != null);
+        assertTrue(jep.getFunctionTable().get("year") instanceof InstrumentedCommand);
+        assertFalse(jep.getFunctionTable().get("if") instanceof InstrumentedCommand);
+        assertTrue(isDeterministic(jep, "year"));
+        assertFalse(isDeterministic(jep, "now"));
+    }
+
+    private static boolean isDeterministic(JEP jep, String alias)
+    {
+        return JEPContextFactory.isDeterministic((InstrumentedCommand) jep.getFunctionTable().get(alias));
+    }
+
+    /**
+     * Tests that date functions are only deterministic in a context with a fixed time zone
+     */
+    @Test
+    public void testIsDeterministicForZoneAwareFunctions()
+    {
+        JEP jep = JEPContextFactory.newContext();
+        assertFalse(JEPContextFactory.isDeterministic((PostfixMathCommandI) jep.getFunctionTable().get("hour")));
+        assertFalse(JEPContextFactory.isDeterministic((PostfixMathCommandI) jep.getFunctionTable().get("endOfMonth")));
+
+        JEPContextFactory.instrument(jep, new InMemoryMetricsRegistry());
+        assertFalse(isDeterministic(jep, "hour"));
+
+        JEPContextFactory.setZone(jep, ZoneId.of("UTC"));
+        assertTrue(isDeterministic(jep, "hour"));
+        assertTrue(isDeterministic(jep, "endOfMonth"));
+    }
+
+    /**
+     * Tests that errors of instrumented functions are recorded
+     */
+    @Test
+    public void testInstrumentRecordsErrors() throws ParseException
+    {
+        InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry();
+        JEP jep = JEPContextFactory.newContext();
+        JEPContextFactory.instrument(jep, registry);
+        Node node = jep.parse("str2date(\"x\", \"yyyy\")");
+        try
+        {
+            jep.evaluate(node);
+        }
+        catch (ParseException | RuntimeException exception)
+        {
+            // expected
+        }
+        FunctionStatistics statistics = registry.getStatistics("str2date");
+        assertEquals(1, statistics.getCallCount());
+        assertEquals(1, statistics.getErrorCount());
+    }
+
+    /**
+     * Tests that new contexts are instrumented while a global registry is defined
+     */
+    @Test
+    public void testSetMetricsRegistry() throws ParseException
+    {
+        InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry();
+        try
+        {
+            JEPContextFactory.setMetricsRegistry(registry);
+            assertSame(registry, JEPContextFactory.getMetricsRegistry());
+            new CompiledExpression("upper(x)").evaluate(Collections.singletonMap("x", "a"));
+            assertEquals(1, registry.getStatistics("upper").getCallCount());
+            assertEquals(1, registry.getStatistics(NamedPackage.STRING).getCallCount());
+        }
+        finally
+        {
+            JEPContextFactory.setMetricsRegistry(null);
+        }
+        new CompiledExpression("upper(x)").evaluate(Collections.singletonMap("x", "a"));
+        assertEquals(1, registry.getStatistics("upper").getCallCount());
+    }
+
+    /**
+     * Tests that a null registry is not accepted to instrument a context
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInstrumentWithNullRegistry()
+    {
+        JEPContextFactory.instrument(JEPContextFactory.newContext(), null);
+    }
+
+    /**
+     * Tests that the time zone cannot be set for a null context
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetZoneWithNullContext()
+    {
+        JEPContextFactory.setZone(null, ZoneId.of("UTC"));
+    }
+
     /**
      * Tests that a proper exception is thrown when a non-annotated function is passed to the
      * addAnnotatedFunction() method
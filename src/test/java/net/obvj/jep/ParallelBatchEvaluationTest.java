@@ -0,0 +1,112 @@
+package net.obvj.jep;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+import org.nfunk.jep.ParseException;
+
+/**
+ * Unit tests for the parallel batch evaluation of the {@link ExpressionEvaluator} class.
+ *
+ * @author oswaldo.bapvic.jr
+ */
+public class ParallelBatchEvaluationTest
+{
+    private static final String EXPRESSION_DOUBLE_X = "x * 2";
+    private static final int RECORD_COUNT = 10_000;
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    @AfterClass
+    public static void shutdownPool()
+    {
+        POOL.shutdownNow();
+    }
+
+    /**
+     * Builds a list of records with a sequential "x" variable, except for the positions to
+     * be left without variables
+     */
+    private static List<Map<String, Object>> newRecords(Integer... failedPositions)
+    {
+        Set<Integer> failed = new HashSet<>(Arrays.asList(failedPositions));
+        List<Map<String, Object>> records = new ArrayList<>(RECORD_COUNT);
+        for (int i = 0; i < RECORD_COUNT; i++)
+        {
+            records.add(failed.contains(i) ? Collections.emptyMap() : Collections.singletonMap("x", i));
+        }
+        return records;
+    }
+
+    /**
+     * Tests that all results are merged back in the input order
+     */
+    @Test
+    public void testEvaluateAllParallelPreservesOrder() throws ParseException
+    {
+        BatchResult result = new ExpressionEvaluator(EXPRESSION_DOUBLE_X).evaluateAllParallel(newRecords(), POOL,
+                BatchErrorPolicy.FAIL_FAST);
+
+        assertFalse(result.hasErrors());
+        assertEquals(RECORD_COUNT, result.getResults().size());
+        for (int i = 0; i < RECORD_COUNT; i++)
+        {
+            assertEquals(i * 2d, result.getResults().get(i));
+        }
+    }
+
+    /**
+     * Tests parallel evaluation with the common pool
+     */
+    @Test
+    public void testEvaluateAllParallelWithCommonPool() throws ParseException
+    {
+        List<Object> results = new ExpressionEvaluator(EXPRESSION_DOUBLE_X).evaluateAllParallel(newRecords());
+        assertEquals(RECORD_COUNT, results.size());
+        assertEquals((RECORD_COUNT - 1) * 2d, results.get(RECORD_COUNT - 1));
+    }
+
+    /**
+     * Tests that errors are collected per record with the continue policy
+     */
+    @Test
+    public void testEvaluateAllParallelContinueOnError() throws ParseException
+    {
+        BatchResult result = new ExpressionEvaluator(EXPRESSION_DOUBLE_X).evaluateAllParallel(newRecords(7, 5000),
+                POOL, BatchErrorPolicy.CONTINUE);
+
+        assertTrue(result.hasErrors());
+        assertEquals(new HashSet<>(Arrays.asList(7, 5000)), result.getErrors().keySet());
+        assertTrue(result.getErrors().get(7) instanceof ParseException);
+        assertNull(result.getResults().get(7));
+        assertEquals(16d, result.getResults().get(8));
+        assertEquals((RECORD_COUNT - 1) * 2d, result.getResults().get(RECORD_COUNT - 1));
+    }
+
+    /**
+     * Tests that the exception of a failed record is thrown with the fail-fast policy
+     */
+    @Test(expected = ParseException.class)
+    public void testEvaluateAllParallelFailFast() throws ParseException
+    {
+        new ExpressionEvaluator(EXPRESSION_DOUBLE_X).evaluateAllParallel(newRecords(1234), POOL,
+                BatchErrorPolicy.FAIL_FAST);
+    }
+
+    /**
+     * Tests parallel evaluation of an empty list
+     */
+    @Test
+    public void testEvaluateAllParallelEmptyList() throws ParseException
+    {
+        BatchResult result = new ExpressionEvaluator(EXPRESSION_DOUBLE_X)
+                .evaluateAllParallel(Collections.emptyList(), POOL, BatchErrorPolicy.CONTINUE);
+        assertTrue(result.getResults().isEmpty());
+        assertFalse(result.hasErrors());
+    }
+
+}
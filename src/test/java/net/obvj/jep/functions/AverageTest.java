@@ -174,4 +174,15 @@ public class AverageTest
         Stack<Object> parameters = CollectionsUtils.newParametersStack(LIST_DATE_AND_NUMBER);
         function.run(parameters);
     }
+
+    /**
+     * Tests the average for an array of primitive integers
+     */
+    @Test
+    public void testAverageFromPrimitiveArray() throws ParseException
+    {
+        Stack<Object> parameters = CollectionsUtils.newParametersStack(new int[] { 1, 2, 3, 6 });
+        function.run(parameters);
+        assertEquals(3.0, parameters.pop());
+    }
 }
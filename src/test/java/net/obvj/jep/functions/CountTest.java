@@ -145,4 +145,10 @@ public class CountTest
         assertEquals(0, function.count((Collection<String>) null));
     }
 
+    @Test
+    public void testCountOfPrimitiveArray() throws ParseException
+    {
+        assertEquals(3, function.count(new double[] { 1, 2, 3 }));
+    }
+
 }
@@ -2,6 +2,7 @@ package net.obvj.jep.functions;
 
 import static org.junit.Assert.*;
 
+import java.time.Instant;
 import java.util.Date;
 import java.util.Stack;
 
@@ -187,6 +188,79 @@ public class DateAwareComparativeTest
         assertFunction(STR_DATE_1, lt, STR_DATE_2, TRUE);
     }
 
+    /**
+     * Tests the comparison of numbers of different types, with no date detection
+     *
+     * @throws ParseException
+     */
+    @Test
+    public void testNumbers() throws ParseException
+    {
+        assertFunction(1.5d, lt, INT_2, TRUE);
+        assertFunction(2L, eq, 2.0d, TRUE);
+        assertFunction(INT_2, ge, 2.5f, FALSE);
+        assertFunction(INT_1, ne, 1.0d, FALSE);
+    }
+
+    /**
+     * Tests the comparison of instants with dates and date strings
+     *
+     * @throws ParseException
+     */
+    @Test
+    public void testInstants() throws ParseException
+    {
+        assertFunction(Instant.parse(STR_DATE_1), eq, DATE_1, TRUE);
+        assertFunction(Instant.parse(STR_DATE_2), gt, STR_DATE_1, TRUE);
+    }
+
+    /**
+     * Tests that the same instance compares date strings in alternating formats, including
+     * strings that are valid in more than one format
+     *
+     * @throws ParseException
+     */
+    @Test
+    public void testDateStringsInAlternatingFormats() throws ParseException
+    {
+        assertFunction("2017-03-11T10:15:27Z", lt, "2017-03-11T10:15:27.5Z", TRUE);
+        assertFunction("2017-03-11 10:15:27.000Z", eq, DATE_1, TRUE);
+        assertFunction("2017-03-11T10:15:27.5Z", eq, "2017-03-11T10:15:27.500Z", TRUE);
+        assertFunction("2017-03-11T07:15:27.001-03:00", eq, STR_DATE_2, TRUE);
+        assertFunction("2017-03-11T10:15:27.5Z", gt, "2017-03-11T10:15:27.499+00:00", TRUE);
+        assertFunction("2017-03-11", lt, STR_DATE_1, TRUE);
+    }
+
+    /**
+     * Tests that non-date strings are compared as numbers
+     *
+     * @throws ParseException
+     */
+    @Test
+    public void testNonDateStrings() throws ParseException
+    {
+        assertFunction("2017", lt, "2018", TRUE);
+        assertFunction("10", gt, 9.5d, TRUE);
+    }
+
+    /**
+     * Tests that each precompiled instance is a new comparison of the same type, with the
+     * same results
+     *
+     * @throws ParseException
+     */
+    @Test
+    public void testPrecompileReturnsNewInstance() throws ParseException
+    {
+        DateAwareComparative first = (DateAwareComparative) lt.precompile(new Object[2]);
+        DateAwareComparative second = (DateAwareComparative) lt.precompile(new Object[] { null, STR_DATE_2 });
+        assertNotSame(lt, first);
+        assertNotSame(first, second);
+        assertFunction(STR_DATE_1, first, STR_DATE_2, TRUE);
+        assertFunction("2017-03-11", first, STR_DATE_1, TRUE);
+        assertFunction(INT_2, second, INT_1, FALSE);
+    }
+
     private void assertFunction(Object o1, DateAwareComparative function, Object o2, double expected) throws ParseException
     {
         Stack<Object> parameters = CollectionsUtils.newParametersStack(o1, o2);
@@ -1,7 +1,9 @@
 package net.obvj.jep.functions;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
+import java.time.ZoneId;
 import java.util.Date;
 import java.util.Stack;
 import java.util.TimeZone;
@@ -169,4 +171,23 @@ public class DateFieldGetterTest
         millisecondGetter.run(parameters);
         assertEquals(123, parameters.pop());
     }
+
+    /**
+     * Tests the retrieval of date fields in a specific time zone
+     */
+    @Test
+    public void testDateFieldsWithZone() throws ParseException
+    {
+        ZoneId zone = ZoneId.of("Asia/Tokyo");
+        assertNull(hourGetter.getZone());
+        assertEquals(zone, ((ZoneAwareCommand) hourGetter.withZone(zone)).getZone());
+
+        Stack<Object> parameters = CollectionsUtils.newParametersStack("2019-04-08T20:45:00.123Z");
+        hourGetter.withZone(zone).run(parameters);
+        assertEquals(5, parameters.pop());
+
+        parameters = CollectionsUtils.newParametersStack("2019-04-08T20:45:00.123Z");
+        dayGetter.withZone(zone).run(parameters);
+        assertEquals(9, parameters.pop());
+    }
 }
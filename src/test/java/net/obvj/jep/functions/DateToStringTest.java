@@ -2,6 +2,7 @@ package net.obvj.jep.functions;
 
 import static org.junit.Assert.assertEquals;
 
+import java.time.ZoneId;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.Stack;
@@ -9,6 +10,7 @@ import java.util.TimeZone;
 
 import org.junit.Test;
 import org.nfunk.jep.ParseException;
+import org.nfunk.jep.function.PostfixMathCommandI;
 
 import net.obvj.jep.util.CollectionsUtils;
 
@@ -82,4 +84,47 @@ public class DateToStringTest
         assertEquals(EXPECTED_STR_FULL_DATE_TIME_FORMAT_WITH_TIME_ZONE, parameters.pop());
     }
 
+    /**
+     * Tests that a function precompiled for a literal pattern formats dates in the default
+     * time zone at each evaluation
+     */
+    @Test
+    public void testPrecompiledFormatFollowsDefaultTimeZone() throws ParseException
+    {
+        String pattern = "yyyy-MM-dd HH:mm";
+        PostfixMathCommandI precompiled = function.precompile(new Object[] { null, pattern });
+        try
+        {
+            TimeZone.setDefault(TimeZone.getTimeZone("America/Sao_Paulo"));
+            Stack<Object> parameters = CollectionsUtils.newParametersStack(new Date(0), pattern);
+            precompiled.run(parameters);
+            assertEquals("1969-12-31 21:00", parameters.pop());
+        }
+        finally
+        {
+            TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+        }
+        Stack<Object> parameters = CollectionsUtils.newParametersStack(new Date(0), pattern);
+        precompiled.run(parameters);
+        assertEquals("1970-01-01 00:00", parameters.pop());
+    }
+
+    /**
+     * Tests date formatting in the time zone of the function, including after precompiling
+     */
+    @Test
+    public void testFormatDateWithZone() throws ParseException
+    {
+        String pattern = "yyyy-MM-dd HH:mm";
+        PostfixMathCommandI zoned = function.withZone(ZoneId.of("Asia/Tokyo"));
+        PostfixMathCommandI precompiled = ((Precompilable) zoned).precompile(new Object[] { null, pattern });
+        assertEquals(ZoneId.of("Asia/Tokyo"), ((ZoneAwareCommand) precompiled).getZone());
+        for (PostfixMathCommandI command : new PostfixMathCommandI[] { zoned, precompiled })
+        {
+            Stack<Object> parameters = CollectionsUtils.newParametersStack(new Date(0), pattern);
+            command.run(parameters);
+            assertEquals("1970-01-01 09:00", parameters.pop());
+        }
+    }
+
 }
@@ -3,6 +3,13 @@ package net.obvj.jep.functions;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Stack;
@@ -180,4 +187,106 @@ public class JsonPathTest
         function.run(parameters);
     }
 
+    /**
+     * Tests the JSONPath command with the JSON content provided by a reader
+     *
+     * @throws ParseException
+     */
+    @Test
+    public void testJSONPathCommandWithReader() throws ParseException
+    {
+        Stack<Object> parameters = CollectionsUtils.newParametersStack(new StringReader(JSON_VALID),
+                JSON_PATH_SEARCH_MOBILE_PHONE_NUMBER);
+        function.run(parameters);
+        assertEquals(STRING_MOBILE_NUMBER, parameters.pop());
+    }
+
+    /**
+     * Tests the JSONPath command with the JSON content provided by an input stream and a
+     * JSONPath not supported for streaming
+     *
+     * @throws ParseException
+     */
+    @Test
+    public void testJSONPathCommandWithInputStreamAndDeepScan() throws ParseException
+    {
+        Stack<Object> parameters = CollectionsUtils.newParametersStack(
+                new ByteArrayInputStream(JSON_VALID.getBytes(StandardCharsets.UTF_8)), JSON_PATH_SEARCH_PHONE_NUMBERS);
+        function.run(parameters);
+        assertTrue(CollectionsUtils.asList(parameters.pop()).containsAll(ALL_NUMBERS));
+    }
+
+    /**
+     * Tests the JSONPath command with the JSON content of a file
+     *
+     * @throws ParseException
+     * @throws IOException
+     */
+    @Test
+    public void testJSONPathCommandWithFile() throws ParseException, IOException
+    {
+        Path file = Files.createTempFile("jsonpath", ".json");
+        try
+        {
+            Files.write(file, JSON_VALID.getBytes(StandardCharsets.UTF_8));
+            Stack<Object> parameters = CollectionsUtils.newParametersStack(file.toFile(), "$.address.city");
+            function.run(parameters);
+            assertEquals("Sao Paulo", parameters.pop());
+        }
+        finally
+        {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Tests that a wildcard over an object returns the same members in the same order,
+     * regardless of whether the JSON is read from a string or streamed from a reader
+     *
+     * @throws ParseException
+     */
+    @Test
+    public void testJSONPathCommandWildcardOrderIndependentOfInputType() throws ParseException
+    {
+        String json = "{\"z\": 1, \"y\": 2, \"x\": 3, \"name\": 4, \"a\": 5, \"price\": 6, \"b10\": 7}";
+        Stack<Object> parameters = CollectionsUtils.newParametersStack(json, "$.*");
+        function.run(parameters);
+        String expected = parameters.pop().toString();
+
+        parameters = CollectionsUtils.newParametersStack(new StringReader(json), "$.*");
+        function.run(parameters);
+        assertEquals(expected, parameters.pop().toString());
+    }
+
+    /**
+     * Tests that a large JSON string is evaluated with the same semantics as a small one,
+     * including the conversion between numbers and strings in filters
+     *
+     * @throws ParseException
+     */
+    @Test
+    public void testJSONPathCommandWithLargeJsonString() throws ParseException
+    {
+        String padding = StringUtils.repeat("\"0123456789abcdef\", ", 1 << 16);
+        String json = "{\"padding\": [" + padding + "\"\"], \"items\": [{\"id\": 1, \"name\": \"a\"}]}";
+        assertTrue(json.length() > 1 << 20);
+
+        Stack<Object> parameters = CollectionsUtils.newParametersStack(json, "$.items[?(@.id == '1')].name");
+        function.run(parameters);
+        assertEquals("a", parameters.pop());
+    }
+
+    /**
+     * Tests the JSONPath command with a missing file
+     *
+     * @throws ParseException
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testJSONPathCommandWithMissingFile() throws ParseException
+    {
+        Stack<Object> parameters = CollectionsUtils.newParametersStack(new File("missing-file.json"),
+                JSON_PATH_SEARCH_MOBILE_PHONE_NUMBER);
+        function.run(parameters);
+    }
+
 }
@@ -282,4 +282,16 @@ public class MaxTest
         Stack<Object> parameters = CollectionsUtils.newParametersStack(LIST_DATE_AND_NUMBER);
         function.run(parameters);
     }
+
+    /**
+     * Tests the maximum element for an array of primitive doubles
+     */
+    @Test
+    public void testMaxFromPrimitiveArray() throws ParseException
+    {
+        Stack<Object> parameters = new Stack<>();
+        parameters.push(new double[] { 1.5, 3.5, -2 });
+        function.run(parameters);
+        assertEquals(3.5, parameters.pop());
+    }
 }
@@ -320,4 +320,16 @@ public class MinTest
         Stack<Object> parameters = CollectionsUtils.newParametersStack(LIST_DATE_AND_NUMBER);
         function.run(parameters);
     }
+
+    /**
+     * Tests the minimum element for an array of primitive doubles
+     */
+    @Test
+    public void testMinFromPrimitiveArray() throws ParseException
+    {
+        Stack<Object> parameters = new Stack<>();
+        parameters.push(new double[] { 1.5, 3.5, -2 });
+        function.run(parameters);
+        assertEquals(-2.0, parameters.pop());
+    }
 }
@@ -2,6 +2,7 @@ package net.obvj.jep.functions;
 
 import static org.junit.Assert.assertEquals;
 
+import java.time.ZoneId;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.Stack;
@@ -10,6 +11,7 @@ import java.util.TimeZone;
 import org.apache.commons.lang3.StringUtils;
 import org.junit.Test;
 import org.nfunk.jep.ParseException;
+import org.nfunk.jep.function.PostfixMathCommandI;
 
 import net.obvj.jep.util.CollectionsUtils;
 
@@ -170,4 +172,50 @@ public class StringToDateTest
         assertEquals(EXPECTED_DATE_MILLISECONDS, parameters.pop());
     }
 
+    /**
+     * Tests that a function precompiled for a literal pattern parses dates in the default
+     * time zone at each evaluation
+     */
+    @Test
+    public void testPrecompiledPatternFollowsDefaultTimeZone() throws ParseException
+    {
+        String pattern = "yyyy-MM-dd";
+        PostfixMathCommandI precompiled = function.precompile(new Object[] { "2020-01-01", pattern });
+        TimeZone defaultTimeZone = TimeZone.getDefault();
+        try
+        {
+            TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+            assertEquals(new Date(1577836800000L), parse(precompiled, "2020-01-01", pattern));
+            TimeZone.setDefault(TimeZone.getTimeZone("Asia/Tokyo"));
+            assertEquals(new Date(1577804400000L), parse(precompiled, "2020-01-01", pattern));
+        }
+        finally
+        {
+            TimeZone.setDefault(defaultTimeZone);
+        }
+    }
+
+    /**
+     * Tests date parsing with a pattern in the time zone of the function, including after
+     * precompiling
+     */
+    @Test
+    public void testParseDateWithZone() throws ParseException
+    {
+        String pattern = "yyyy-MM-dd";
+        PostfixMathCommandI zoned = function.withZone(ZoneId.of("Asia/Tokyo"));
+        PostfixMathCommandI precompiled = ((Precompilable) zoned).precompile(new Object[] { "2020-01-01", pattern });
+        assertEquals(ZoneId.of("Asia/Tokyo"), ((ZoneAwareCommand) precompiled).getZone());
+        assertEquals(new Date(1577804400000L), parse(zoned, "2020-01-01", pattern));
+        assertEquals(new Date(1577804400000L), parse(precompiled, "2020-01-01", pattern));
+    }
+
+    private static Object parse(PostfixMathCommandI command, Object... arguments) throws ParseException
+    {
+        Stack<Object> parameters = CollectionsUtils.newParametersStack(arguments);
+        command.setCurNumberOfParameters(parameters.size());
+        command.run(parameters);
+        return parameters.pop();
+    }
+
 }
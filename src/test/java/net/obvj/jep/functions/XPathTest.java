@@ -2,6 +2,10 @@ package net.obvj.jep.functions;
 
 import static org.junit.Assert.*;
 
+import java.io.File;
+import java.io.StringReader;
+import java.net.URISyntaxException;
+import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Stack;
@@ -76,4 +80,28 @@ public class XPathTest
         assertEquals(ALL_BOOKS.size(), result.size());
         assertTrue("Expected output for XPath was not returned", result.containsAll(ALL_BOOKS));
     }
+
+    @Test
+    public void testWithReaderReturningAllBookTitles() throws ParseException
+    {
+        Stack<Object> parameters = CollectionsUtils.newParametersStack(new StringReader(STR_XML_BOOKS), XPATH_ALL_BOOK_TITLES);
+        function.run(parameters);
+        assertEquals(ALL_BOOKS, parameters.pop());
+    }
+
+    @Test
+    public void testWithFileAndUnsupportedStreamingXPath() throws ParseException, URISyntaxException
+    {
+        File file = Paths.get(getClass().getClassLoader().getResource("books.xml").toURI()).toFile();
+        Stack<Object> parameters = CollectionsUtils.newParametersStack(file, "//book[last()]/title/text()");
+        function.run(parameters);
+        assertEquals(Arrays.asList("Learning XML"), parameters.pop());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWithInvalidXMLReader() throws ParseException
+    {
+        Stack<Object> parameters = CollectionsUtils.newParametersStack(new StringReader(STR_TEST), XPATH_ALL_BOOK_TITLES);
+        function.run(parameters);
+    }
 }
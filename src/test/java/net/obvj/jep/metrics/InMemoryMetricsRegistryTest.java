@@ -0,0 +1,64 @@
+package net.obvj.jep.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import net.obvj.jep.NamedPackage;
+
+/**
+ * Unit tests for the {@link InMemoryMetricsRegistry} class.
+ *
+ * @author oswaldo.bapvic.jr
+ */
+public class InMemoryMetricsRegistryTest
+{
+    /**
+     * Tests that invocations are recorded per function alias and per package
+     */
+    @Test
+    public void testRecordPerFunctionAndPackage()
+    {
+        InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry();
+        registry.getRecorder("year", NamedPackage.DATE).record(100, false);
+        registry.getRecorder("month", NamedPackage.DATE).record(300, true);
+        registry.getRecorder("year", NamedPackage.DATE).record(200, false);
+        registry.getRecorder("custom", null).record(50, false);
+
+        FunctionStatistics year = registry.getStatistics("year");
+        assertEquals(2, year.getCallCount());
+        assertEquals(0, year.getErrorCount());
+        assertEquals(150, year.getMeanLatencyNanos(), 0);
+        assertEquals(1, registry.getStatistics("month").getErrorCount());
+
+        FunctionStatistics date = registry.getStatistics(NamedPackage.DATE);
+        assertEquals(3, date.getCallCount());
+        assertEquals(1, date.getErrorCount());
+        assertEquals(300, date.getMaxLatencyNanos());
+
+        assertEquals(1, registry.getStatistics("custom").getCallCount());
+        assertNull(registry.getStatistics(NamedPackage.WEB));
+        assertEquals(Arrays.asList("custom", "month", "year"),
+                Arrays.asList(registry.getStatisticsByFunction().keySet().toArray()));
+        assertSame(date, registry.getStatisticsByPackage().get(NamedPackage.DATE));
+    }
+
+    /**
+     * Tests that all counters are cleared by reset
+     */
+    @Test
+    public void testReset()
+    {
+        InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry();
+        registry.getRecorder("year", NamedPackage.DATE).record(100, true);
+        registry.reset();
+        assertEquals(0, registry.getStatistics("year").getCallCount());
+        assertEquals(0, registry.getStatistics("year").getErrorCount());
+        assertEquals(0, registry.getStatistics(NamedPackage.DATE).getCallCount());
+    }
+
+}
@@ -0,0 +1,112 @@
+package net.obvj.jep.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Stack;
+
+import org.junit.Test;
+import org.nfunk.jep.ParseException;
+import org.nfunk.jep.function.If;
+import org.nfunk.jep.function.Subtract;
+import org.nfunk.jep.function.Sum;
+
+import net.obvj.jep.functions.BinaryBooleanFunction;
+import net.obvj.jep.functions.Concat;
+import net.obvj.jep.util.CollectionsUtils;
+
+/**
+ * Unit tests for the {@link InstrumentedCommand} class.
+ *
+ * @author oswaldo.bapvic.jr
+ */
+public class InstrumentedCommandTest
+{
+    private final FunctionStatistics statistics = new FunctionStatistics();
+
+    /**
+     * Tests that successful invocations are delegated and recorded
+     */
+    @Test
+    public void testRun() throws ParseException
+    {
+        InstrumentedCommand command = new InstrumentedCommand(new Subtract(), statistics);
+        Stack<Object> stack = CollectionsUtils.newParametersStack(5.0, 2.0);
+        command.run(stack);
+        assertEquals(3.0, stack.pop());
+        assertEquals(1, statistics.getCallCount());
+        assertEquals(0, statistics.getErrorCount());
+    }
+
+    /**
+     * Tests that failed invocations are recorded as errors
+     */
+    @Test
+    public void testRunWithError()
+    {
+        InstrumentedCommand command = new InstrumentedCommand(new Subtract(), statistics);
+        try
+        {
+            command.run(new Stack<>());
+        }
+        catch (ParseException | RuntimeException exception)
+        {
+            // expected
+        }
+        assertEquals(1, statistics.getCallCount());
+        assertEquals(1, statistics.getErrorCount());
+    }
+
+    /**
+     * Tests that the number of parameters is delegated
+     */
+    @Test
+    public void testNumberOfParameters()
+    {
+        Concat concat = new Concat();
+        InstrumentedCommand command = new InstrumentedCommand(concat, statistics);
+        assertEquals(-1, command.getNumberOfParameters());
+        command.setCurNumberOfParameters(3);
+        assertTrue(command.checkNumberOfParameters(3));
+        assertEquals(2, new InstrumentedCommand(new Subtract(), statistics).getNumberOfParameters());
+        assertTrue(new InstrumentedCommand(new Sum(), statistics).checkNumberOfParameters(4));
+    }
+
+    /**
+     * Tests that precompiled functions are kept instrumented
+     */
+    @Test
+    public void testPrecompile()
+    {
+        InstrumentedCommand command = new InstrumentedCommand(
+                new BinaryBooleanFunction(BinaryBooleanFunction.Strategy.STRING_MATCHES), statistics);
+        InstrumentedCommand precompiled = (InstrumentedCommand) command.precompile(new Object[] { null, "^a+$" });
+        assertSame(BinaryBooleanFunction.class, precompiled.getDelegate().getClass());
+        assertNull(new InstrumentedCommand(new Subtract(), statistics).precompile(new Object[] { 1.0, 2.0 }));
+    }
+
+    /**
+     * Tests the functions that can be instrumented
+     */
+    @Test
+    public void testIsInstrumentable()
+    {
+        assertTrue(InstrumentedCommand.isInstrumentable(new Subtract()));
+        assertFalse(InstrumentedCommand.isInstrumentable(null));
+        assertFalse(InstrumentedCommand.isInstrumentable(new If()));
+        assertFalse(InstrumentedCommand.isInstrumentable(new InstrumentedCommand(new Subtract(), statistics)));
+    }
+
+    /**
+     * Tests that functions with special evaluation are not accepted
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testSpecialEvaluationFunction()
+    {
+        new InstrumentedCommand(new If(), statistics);
+    }
+
+}
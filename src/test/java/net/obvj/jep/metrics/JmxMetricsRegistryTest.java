@@ -0,0 +1,150 @@
+package net.obvj.jep.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+
+import javax.management.JMException;
+import javax.management.MBeanRegistrationException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Test;
+import org.nfunk.jep.ParseException;
+
+import net.obvj.jep.ExpressionEvaluator;
+import net.obvj.jep.JEPContextFactory;
+import net.obvj.jep.NamedPackage;
+
+/**
+ * Unit tests for the {@link JmxMetricsRegistry} class.
+ *
+ * @author oswaldo.bapvic.jr
+ */
+public class JmxMetricsRegistryTest
+{
+    private static final MBeanServer SERVER = ManagementFactory.getPlatformMBeanServer();
+
+    /**
+     * Tests that the statistics of functions and packages are registered as MBeans
+     */
+    @Test
+    public void testRegisterAndUnregisterMBeans() throws JMException
+    {
+        ObjectName functionName = new ObjectName(
+                "net.obvj.jep.test:type=FunctionStatistics,package=DATA_MANIPULATION,function=jsonpath");
+        ObjectName packageName = new ObjectName("net.obvj.jep.test:type=PackageStatistics,package=DATA_MANIPULATION");
+        ObjectName customName = new ObjectName("net.obvj.jep.test:type=FunctionStatistics,package=NONE,function=custom");
+
+        try (JmxMetricsRegistry registry = new JmxMetricsRegistry(SERVER, "net.obvj.jep.test"))
+        {
+            registry.getRecorder("jsonpath", NamedPackage.DATA_MANIPULATION).record(1000, false);
+            registry.getRecorder("jsonpath", NamedPackage.DATA_MANIPULATION).record(3000, true);
+            registry.getRecorder("custom", null).record(10, false);
+
+            assertEquals(2L, SERVER.getAttribute(functionName, "CallCount"));
+            assertEquals(1L, SERVER.getAttribute(functionName, "ErrorCount"));
+            assertEquals(2000.0, SERVER.getAttribute(functionName, "MeanLatencyNanos"));
+            assertEquals(3000L, SERVER.getAttribute(packageName, "MaxLatencyNanos"));
+            assertTrue(SERVER.isRegistered(customName));
+
+            SERVER.invoke(functionName, "reset", null, null);
+            assertEquals(0L, registry.getStatistics("jsonpath").getCallCount());
+        }
+        assertFalse(SERVER.isRegistered(functionName));
+        assertFalse(SERVER.isRegistered(packageName));
+        assertFalse(SERVER.isRegistered(customName));
+    }
+
+    /**
+     * Tests that an MBean already registered by another registry is replaced, and that
+     * closing the previous registry does not unregister the replacement
+     */
+    @Test
+    public void testMBeanRegisteredByAnotherRegistryIsReplaced() throws JMException
+    {
+        ObjectName functionName = new ObjectName(
+                "net.obvj.jep.test2:type=FunctionStatistics,package=STRING,function=upper");
+
+        try (JmxMetricsRegistry second = new JmxMetricsRegistry(SERVER, "net.obvj.jep.test2"))
+        {
+            try (JmxMetricsRegistry first = new JmxMetricsRegistry(SERVER, "net.obvj.jep.test2"))
+            {
+                first.getRecorder("upper", NamedPackage.STRING).record(1000, false);
+                assertEquals(1L, SERVER.getAttribute(functionName, "CallCount"));
+
+                second.getRecorder("upper", NamedPackage.STRING).record(1000, false);
+                second.getRecorder("upper", NamedPackage.STRING).record(1000, false);
+                assertEquals(2L, SERVER.getAttribute(functionName, "CallCount"));
+            }
+            assertTrue(SERVER.isRegistered(functionName));
+            assertEquals(2L, SERVER.getAttribute(functionName, "CallCount"));
+        }
+        assertFalse(SERVER.isRegistered(functionName));
+    }
+
+    /**
+     * Tests that the statistics are still recorded if the MBean cannot be registered
+     */
+    @Test
+    public void testRegistrationFailureDoesNotPreventRecording() throws JMException
+    {
+        MBeanServer server = mock(MBeanServer.class);
+        when(server.registerMBean(any(), any())).thenThrow(new MBeanRegistrationException(null, "failure"));
+
+        try (JmxMetricsRegistry registry = new JmxMetricsRegistry(server, "net.obvj.jep.test3"))
+        {
+            registry.getRecorder("upper", NamedPackage.STRING).record(1000, false);
+            registry.getRecorder("upper", NamedPackage.STRING).record(1000, true);
+            assertEquals(2, registry.getStatistics("upper").getCallCount());
+            assertEquals(1, registry.getStatistics(NamedPackage.STRING).getErrorCount());
+        }
+    }
+
+    /**
+     * Tests that expressions are still evaluated after a registry with the default domain
+     * is replaced by another one
+     */
+    @Test
+    public void testEvaluationWithSuccessiveDefaultRegistries() throws ParseException
+    {
+        try (JmxMetricsRegistry first = new JmxMetricsRegistry();
+                JmxMetricsRegistry second = new JmxMetricsRegistry())
+        {
+            JEPContextFactory.setMetricsRegistry(first);
+            assertEquals(2.0, new ExpressionEvaluator("1+1").evaluate(Collections.emptyMap()));
+            JEPContextFactory.setMetricsRegistry(second);
+            assertEquals(2.0, new ExpressionEvaluator("1+1").evaluate(Collections.emptyMap()));
+            assertEquals(2.0, new ExpressionEvaluator("1+1").evaluate(Collections.emptyMap()));
+        }
+        finally
+        {
+            JEPContextFactory.setMetricsRegistry(null);
+        }
+    }
+
+    /**
+     * Tests that a blank domain is not accepted
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testBlankDomain()
+    {
+        new JmxMetricsRegistry(SERVER, " ");
+    }
+
+    /**
+     * Tests that a null server is not accepted
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullServer()
+    {
+        new JmxMetricsRegistry(null, JmxMetricsRegistry.DEFAULT_DOMAIN);
+    }
+
+}
@@ -0,0 +1,121 @@
+package net.obvj.jep.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link LatencyHistogram} class.
+ *
+ * @author oswaldo.bapvic.jr
+ */
+public class LatencyHistogramTest
+{
+    /**
+     * Tests that buckets are contiguous and that each value falls within its bucket
+     */
+    @Test
+    public void testBucketBoundaries()
+    {
+        long previousHighestValue = -1;
+        for (int index = 0; index <= LatencyHistogram.bucketIndex(Long.MAX_VALUE); index++)
+        {
+            long highestValue = LatencyHistogram.highestValueInBucket(index);
+            assertEquals(index, LatencyHistogram.bucketIndex(previousHighestValue + 1));
+            assertEquals(index, LatencyHistogram.bucketIndex(highestValue));
+            assertTrue(highestValue > previousHighestValue);
+            previousHighestValue = highestValue;
+        }
+        assertEquals(Long.MAX_VALUE, previousHighestValue);
+    }
+
+    /**
+     * Tests the count, mean and maximum of the recorded values
+     */
+    @Test
+    public void testCountMeanAndMax()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getValueAtPercentile(50));
+        assertEquals(0, histogram.getMean(), 0);
+
+        histogram.record(10);
+        histogram.record(20);
+        histogram.record(-5);
+        histogram.record(1_000_000);
+        assertEquals(4, histogram.getCount());
+        assertEquals(1_000_030 / 4.0, histogram.getMean(), 0);
+        assertEquals(1_000_000, histogram.getMax());
+        assertEquals(0, histogram.getValueAtPercentile(0));
+        assertEquals(10, histogram.getValueAtPercentile(50));
+        assertEquals(1_000_000, histogram.getValueAtPercentile(100));
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+    }
+
+    /**
+     * Tests that percentiles are within the precision of the histogram
+     */
+    @Test
+    public void testPercentilesWithinPrecision()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Random random = new Random(11);
+        long[] values = new long[10_000];
+        for (int i = 0; i < values.length; i++)
+        {
+            values[i] = (long) Math.exp(random.nextDouble() * 25);
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+        for (double percentile : new double[] { 1, 25, 50, 90, 99, 99.9 })
+        {
+            long expected = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+            long actual = histogram.getValueAtPercentile(percentile);
+            assertTrue(percentile + "%: " + actual, actual >= expected && actual <= expected * 1.04);
+        }
+    }
+
+    /**
+     * Tests that values recorded concurrently are all counted
+     */
+    @Test
+    public void testConcurrentRecording() throws InterruptedException
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int thread = 0; thread < 4; thread++)
+        {
+            executor.execute(() ->
+            {
+                for (int i = 0; i < 10_000; i++)
+                {
+                    histogram.record(i);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(40_000, histogram.getCount());
+        assertEquals(9_999, histogram.getMax());
+    }
+
+    /**
+     * Tests that an invalid percentile is not accepted
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPercentile()
+    {
+        new LatencyHistogram().getValueAtPercentile(100.1);
+    }
+
+}
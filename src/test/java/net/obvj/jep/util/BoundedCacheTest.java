@@ -0,0 +1,237 @@
+package net.obvj.jep.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link BoundedCache} class.
+ *
+ * @author oswaldo.bapvic.jr
+ */
+public class BoundedCacheTest
+{
+    private final AtomicInteger loadCount = new AtomicInteger();
+
+    private String load(String key)
+    {
+        loadCount.incrementAndGet();
+        return key.toUpperCase();
+    }
+
+    /**
+     * Tests that a value is loaded only once and then retrieved from the cache
+     */
+    @Test
+    public void testGetLoadsValueOnlyOnce()
+    {
+        BoundedCache<String, String> cache = new BoundedCache<>(10);
+        String value1 = cache.get("a", this::load);
+        String value2 = cache.get("a", this::load);
+
+        assertEquals("A", value1);
+        assertSame(value1, value2);
+        assertEquals(1, loadCount.get());
+        assertEquals(1, cache.getStatistics().getHitCount());
+        assertEquals(1, cache.getStatistics().getMissCount());
+        assertEquals(0.5, cache.getStatistics().getHitRate(), 0.0);
+    }
+
+    /**
+     * Tests that the least recently used entry is evicted when the cache is full
+     */
+    @Test
+    public void testLeastRecentlyUsedEntryEvicted()
+    {
+        BoundedCache<String, String> cache = new BoundedCache<>(2);
+        cache.get("a", this::load);
+        cache.get("b", this::load);
+        cache.get("a", this::load);
+        cache.get("c", this::load);
+
+        assertEquals(2, cache.size());
+        assertEquals("A", cache.getIfPresent("a"));
+        assertNull(cache.getIfPresent("b"));
+        assertEquals(1, cache.getStatistics().getEvictionCount());
+    }
+
+    /**
+     * Tests that entries read since the last eviction get a second chance, and that the
+     * oldest entry not read is evicted instead
+     */
+    @Test
+    public void testReferencedEntriesGetSecondChance()
+    {
+        BoundedCache<String, String> cache = new BoundedCache<>(3);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.put("c", "3");
+        cache.getIfPresent("a");
+        cache.getIfPresent("b");
+        cache.put("d", "4");
+
+        assertEquals(3, cache.size());
+        assertNull(cache.getIfPresent("c"));
+        assertEquals("1", cache.getIfPresent("a"));
+        assertEquals("2", cache.getIfPresent("b"));
+        assertEquals("4", cache.getIfPresent("d"));
+    }
+
+    /**
+     * Tests that replacing the value of a key neither grows the cache nor counts as an
+     * eviction
+     */
+    @Test
+    public void testPutReplacesValue()
+    {
+        BoundedCache<String, String> cache = new BoundedCache<>(2);
+        for (int i = 0; i < 1000; i++)
+        {
+            cache.put("a", String.valueOf(i));
+        }
+        cache.put("b", "B");
+
+        assertEquals(2, cache.size());
+        assertEquals("999", cache.getIfPresent("a"));
+        assertEquals(0, cache.getStatistics().getEvictionCount());
+    }
+
+    /**
+     * Tests that the maximum size is respected with concurrent reads and loads
+     */
+    @Test
+    public void testConcurrentAccess() throws InterruptedException, ExecutionException
+    {
+        BoundedCache<String, String> cache = new BoundedCache<>(50);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try
+        {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++)
+            {
+                int seed = t;
+                futures.add(executor.submit(() ->
+                {
+                    for (int i = 0; i < 20_000; i++)
+                    {
+                        String key = String.valueOf((i * 31 + seed) % 100);
+                        assertEquals(key.toUpperCase(), cache.get(key, String::toUpperCase));
+                    }
+                }));
+            }
+            for (Future<?> future : futures)
+            {
+                future.get();
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+        assertTrue(String.valueOf(cache.size()), cache.size() <= 50);
+        assertEquals(80_000, cache.getStatistics().getRequestCount());
+    }
+
+    /**
+     * Tests that reducing the maximum size evicts the excess entries
+     */
+    @Test
+    public void testSetMaxSizeEvictsExcessEntries()
+    {
+        BoundedCache<String, String> cache = new BoundedCache<>(3);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.put("c", "3");
+        cache.setMaxSize(1);
+
+        assertEquals(1, cache.size());
+        assertEquals("3", cache.getIfPresent("c"));
+        assertEquals(2, cache.getStatistics().getEvictionCount());
+    }
+
+    /**
+     * Tests that a maximum size of zero disables the cache
+     */
+    @Test
+    public void testZeroMaxSizeDisablesCache()
+    {
+        BoundedCache<String, String> cache = new BoundedCache<>(0);
+        cache.get("a", this::load);
+        cache.get("a", this::load);
+        cache.put("b", "B");
+
+        assertEquals(2, loadCount.get());
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getStatistics().getHitCount());
+    }
+
+    /**
+     * Tests that entries are discarded after the time-to-live
+     */
+    @Test
+    public void testEntryExpiresAfterTimeToLive()
+    {
+        AtomicLong ticker = new AtomicLong();
+        BoundedCache<String, String> cache = new BoundedCache<>(10, 5, TimeUnit.SECONDS, new CacheStatistics(),
+                ticker::get);
+        cache.get("a", this::load);
+
+        ticker.set(TimeUnit.SECONDS.toNanos(4));
+        cache.get("a", this::load);
+        assertEquals(1, loadCount.get());
+
+        ticker.set(TimeUnit.SECONDS.toNanos(5));
+        cache.get("a", this::load);
+        assertEquals(2, loadCount.get());
+        assertEquals(1, cache.getStatistics().getExpirationCount());
+    }
+
+    /**
+     * Tests that statistics can be shared by multiple caches
+     */
+    @Test
+    public void testSharedStatistics()
+    {
+        CacheStatistics statistics = new CacheStatistics();
+        BoundedCache<String, String> cache1 = new BoundedCache<>(10, 0, TimeUnit.SECONDS, statistics);
+        BoundedCache<String, String> cache2 = new BoundedCache<>(10, 0, TimeUnit.SECONDS, statistics);
+        cache1.get("a", this::load);
+        cache2.get("a", this::load);
+        cache2.get("a", this::load);
+
+        assertEquals(3, statistics.getRequestCount());
+        assertEquals(1, statistics.getHitCount());
+
+        statistics.reset();
+        assertEquals(0, statistics.getRequestCount());
+        assertEquals(1.0, statistics.getHitRate(), 0.0);
+    }
+
+    /**
+     * Tests that a negative maximum size is not accepted
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeMaxSize()
+    {
+        new BoundedCache<>(-1);
+    }
+
+    /**
+     * Tests that a negative time-to-live is not accepted
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeTimeToLive()
+    {
+        new BoundedCache<>(1, -1, TimeUnit.SECONDS);
+    }
+
+}
@@ -3,12 +3,14 @@ package net.obvj.jep.util;
 import static net.obvj.junit.utils.matchers.InstantiationNotAllowedMatcher.instantiationNotAllowed;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
+import org.json.JSONArray;
+import org.json.JSONObject;
 import org.junit.Test;
 
 public class CollectionsUtilsTest
@@ -125,4 +127,193 @@ public class CollectionsUtilsTest
         assertThat(CollectionsUtils.isEmpty(Collections.emptyList()), is(true));
         assertThat(CollectionsUtils.isEmpty(Collections.singletonList(new Object())), is(false));
     }
+
+    @Test
+    public void maxAndMinOfNumbersReturnLastElementOnTies()
+    {
+        String three = new String("3");
+        List<Object> list = Arrays.asList("3", 1, 3.0, 2L, three, "1.0", new java.math.BigDecimal("-0.5"));
+        assertSame(three, CollectionsUtils.max(list));
+        assertEquals("1.0", CollectionsUtils.min(Arrays.asList(1, "1.0", 2)));
+        assertEquals(new java.math.BigDecimal("-0.5"), CollectionsUtils.min(list));
+    }
+
+    @Test
+    public void maxAndMinOfDatesReturnLastElementOnTies()
+    {
+        Date date = DateUtils.parseDate((Object) "2018-09-28T13:43:28Z");
+        List<Object> list = Arrays.asList("2018-09-27T12:42:27Z", "2018-09-28T13:43:28.000Z", date,
+                "2018-09-27T12:42:27.000Z");
+        assertSame(date, CollectionsUtils.max(list));
+        assertEquals("2018-09-27T12:42:27.000Z", CollectionsUtils.min(list));
+    }
+
+    @Test
+    public void maxOfNumbersMatchesParsedObjectsMap()
+    {
+        Random random = new Random(7);
+        List<Object> list = new ArrayList<>();
+        for (int i = 0; i < 1000; i++)
+        {
+            int value = random.nextInt(100) - 50;
+            list.add(i % 3 == 0 ? String.valueOf(value) : i % 3 == 1 ? (Object) value : Double.valueOf(value / 4.0));
+        }
+        Map<Object, Object> map = CollectionsUtils.createMapOfParsedObjects(list);
+        Object max = map.get(map.keySet().stream().map(Double.class::cast).max(Double::compareTo).get());
+        Object min = map.get(map.keySet().stream().map(Double.class::cast).min(Double::compareTo).get());
+        assertSame(max, CollectionsUtils.max(list));
+        assertSame(min, CollectionsUtils.min(list));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void maxOfMixedDatesAndNumbers()
+    {
+        CollectionsUtils.max(Arrays.asList("2018-09-27T12:42:27Z", 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void minOfEmptyList()
+    {
+        CollectionsUtils.min(Collections.emptyList());
+    }
+
+    @Test
+    public void averageOfNumbersAndStrings()
+    {
+        assertEquals(2.5, CollectionsUtils.average(Arrays.asList(1, "2", 3.0, 4L)), 0);
+        assertTrue(Double.isNaN(CollectionsUtils.average(Collections.emptyList())));
+    }
+
+    @Test
+    public void asListOfJSONArrayIsAViewMatchingJsonUtilsToList()
+    {
+        JSONArray jsonArray = new JSONArray("[1, \"a\", null, {}, [], {\"b\": 2}, [3]]");
+        List<Object> list = CollectionsUtils.asList(jsonArray);
+        assertEquals(JsonUtils.toList(jsonArray), list);
+        assertTrue(list instanceof RandomAccess);
+        jsonArray.put(4);
+        assertEquals(8, list.size());
+        assertEquals(4, list.get(7));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void asListOfJSONArrayIsReadOnly()
+    {
+        CollectionsUtils.asList(new JSONArray("[1]")).set(0, 2);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void asListOfJSONArrayWithInvalidIndex()
+    {
+        CollectionsUtils.asList(new JSONArray("[1]")).get(1);
+    }
+
+    @Test
+    public void asListOfArrays()
+    {
+        assertEquals(Arrays.asList("a", "b"), CollectionsUtils.asList(new String[] { "a", "b" }));
+        assertEquals(Arrays.asList(1, 2, 3), CollectionsUtils.asList(new int[] { 1, 2, 3 }));
+        assertEquals(Arrays.asList(1.5, -2.0), CollectionsUtils.asList(new double[] { 1.5, -2 }));
+        assertEquals(Arrays.asList('x', 'y'), CollectionsUtils.asList("xy".toCharArray()));
+        assertTrue(CollectionsUtils.asList(new long[0]).isEmpty());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void asListOfObjectArrayIsReadOnly()
+    {
+        CollectionsUtils.asList(new Object[] { 1 }).set(0, 2);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void asListOfPrimitiveArrayWithInvalidIndex()
+    {
+        CollectionsUtils.asList(new int[] { 1 }).get(-1);
+    }
+
+    @Test
+    public void asListOfStrings()
+    {
+        List<Object> list = CollectionsUtils.asList(" [1, \"a\", null, 2.5]");
+        assertEquals(Arrays.asList(1, "a", null), list.subList(0, 3));
+        assertEquals(2.5, ((Number) list.get(3)).doubleValue(), 0);
+        assertEquals(Collections.singletonList("[1, 2"), CollectionsUtils.asList("[1, 2"));
+        assertEquals(Collections.singletonList("abc"), CollectionsUtils.asList("abc"));
+        assertEquals(Collections.singletonList(""), CollectionsUtils.asList(""));
+    }
+
+    @Test
+    public void asListOfStringsSharesElementsWithinEvaluationScope()
+    {
+        String string = "[\"scoped\", {\"a\": 1}]";
+        try (EvaluationScope scope = EvaluationScope.open())
+        {
+            List<Object> list = CollectionsUtils.asList(string);
+            assertTrue(list.get(1) instanceof JSONObject);
+            assertSame(list.get(1), CollectionsUtils.asList(new String(string)).get(1));
+        }
+    }
+
+    @Test
+    public void asListOfStringsDoesNotShareElementsWithoutEvaluationScope()
+    {
+        String string = "[\"not scoped\", {\"a\": 1}]";
+        List<Object> list = CollectionsUtils.asList(string);
+        ((JSONObject) list.get(1)).put("a", 2);
+        assertEquals(1, ((JSONObject) CollectionsUtils.asList(string).get(1)).getInt("a"));
+    }
+
+    @Test
+    public void distinctListKeepsFirstOccurrencesOfDoublesAndObjects()
+    {
+        List<Object> list = Arrays.asList(1.0, "1.0", 1, 1.0, -0.0, 0.0, Double.NaN, null, "a", Double.NaN, null, 1,
+                "a", 0.0);
+        assertEquals(Arrays.asList(1.0, "1.0", 1, -0.0, 0.0, Double.NaN, null, "a"),
+                CollectionsUtils.distinctList(list));
+    }
+
+    @Test
+    public void distinctListOfPrimitiveArrays()
+    {
+        assertEquals(Arrays.asList(3.0, 1.5, -0.0, 0.0),
+                CollectionsUtils.distinctList(CollectionsUtils.asList(new double[] { 3, 1.5, 3, -0.0, 0.0, 1.5 })));
+        assertEquals(Arrays.asList(0, 2, -1),
+                CollectionsUtils.distinctList(CollectionsUtils.asList(new int[] { 0, 2, 0, -1, 2 })));
+        assertEquals(Arrays.asList(5L, 0L),
+                CollectionsUtils.distinctList(CollectionsUtils.asList(new long[] { 5, 0, 5 })));
+        assertEquals(Arrays.asList('a', 'b'),
+                CollectionsUtils.distinctList(CollectionsUtils.asList("aba".toCharArray())));
+    }
+
+    @Test
+    public void distinctListInParallelMode()
+    {
+        Random random = new Random(3);
+        List<Object> list = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++)
+        {
+            list.add(random.nextBoolean() ? (Object) random.nextInt(500) : String.valueOf(random.nextInt(500)));
+        }
+        List<Object> expected = CollectionsUtils.distinctList(list);
+        try
+        {
+            CollectionsUtils.setDistinctParallelThreshold(1000);
+            assertEquals(expected, CollectionsUtils.distinctList(list));
+        }
+        finally
+        {
+            CollectionsUtils.setDistinctParallelThreshold(CollectionsUtils.DEFAULT_DISTINCT_PARALLEL_THRESHOLD);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setDistinctParallelThresholdWithZero()
+    {
+        CollectionsUtils.setDistinctParallelThreshold(0);
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void averageOfNonNumbers()
+    {
+        CollectionsUtils.average(Arrays.asList(1, "a"));
+    }
 }
@@ -0,0 +1,55 @@
+package net.obvj.jep.util;
+
+import static org.junit.Assert.*;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link DateFormatDetector} class.
+ *
+ * @author oswaldo.bapvic.jr
+ */
+public class DateFormatDetectorTest
+{
+    private static final List<Object> TEST_OBJECTS = Arrays.asList("2017-03-11T10:15:27Z",
+            "2017-03-11T10:15:27.5Z", "2017-03-11 10:15:27.000Z", "2017-03-11T10:15:27.500Z", "2017-03-11",
+            "2017-03-11T10:15:27.5+01:00", "2017-03-11T10:15:27.123-0300", "2017-03-11T7:15:27 PM, UTC",
+            "2017-03-11T10:15:27.5Z", "2017-02-30", "2017-03-11 10:15:27+01", " 2017-03-11", "\t2017-03-11T10:15:27.5Z",
+            "not a date", "", null, 10,
+            new Date(0), Instant.EPOCH);
+
+    /**
+     * Tests that the results match the ones of {@link DateUtils#tryParseDate(Object)} for
+     * objects in alternating formats
+     */
+    @Test
+    public void testTryParseDateMatchesDateUtils()
+    {
+        DateFormatDetector detector = new DateFormatDetector();
+        for (int i = 0; i < 3; i++)
+        {
+            for (Object object : TEST_OBJECTS)
+            {
+                assertEquals(String.valueOf(object), DateUtils.tryParseDate(object), detector.tryParseDate(object));
+            }
+        }
+    }
+
+    /**
+     * Tests that non-date strings are rejected after a format is detected
+     */
+    @Test
+    public void testTryParseDateNonDateStrings()
+    {
+        DateFormatDetector detector = new DateFormatDetector();
+        assertNotNull(detector.tryParseDate("2017-03-11T10:15:27Z"));
+        assertNull(detector.tryParseDate("2017-03-11T"));
+        assertNull(detector.tryParseDate("1.5"));
+    }
+
+}
@@ -4,10 +4,15 @@ import static net.obvj.junit.utils.matchers.InstantiationNotAllowedMatcher.insta
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.text.ParseException;
 import java.time.Instant;
+import java.time.ZoneId;
 import java.util.*;
 
 import org.junit.Test;
@@ -437,4 +442,367 @@ public class DateUtilsTest
         assertEquals(date4eom, DateUtils.endOfMonth(date4));
     }
 
+    private static final String[] LEGACY_ISO_8601_PATTERNS = { "yyyy-MM-dd'T'HH:mm:ss.SSSXXX",
+            "yyyy-MM-dd'T'HH:mm:ss.SSSXX", "yyyy-MM-dd'T'HH:mm:ss.SSSX", "yyyy-MM-dd'T'HH:mm:ssXXX",
+            "yyyy-MM-dd'T'HH:mm:ssXX", "yyyy-MM-dd'T'HH:mm:ssX", "yyyy-MM-dd'T'K:mm:ss a, z",
+            "yyyy-MM-dd HH:mm:ss.SSSXXX", "yyyy-MM-dd HH:mm:ss.SSSXX", "yyyy-MM-dd HH:mm:ss.SSSX",
+            "yyyy-MM-dd HH:mm:ssXXX", "yyyy-MM-dd HH:mm:ssXX", "yyyy-MM-dd HH:mm:ssX", "yyyy-MM-dd'T'K:mm:ss.SSS a, z",
+            "yyyy-MM-dd'T'K:mm:ss a, z", "yyyy-MM-dd K:mm:ss a, z", "yyyy-MM-dd K:mm:ss.SSS a, z", "yyyy-MM-dd" };
+
+    /**
+     * Parses a string the way {@link DateUtils#parseDate(Object)} did before the fast
+     * path, that is, in RFC-3339 format, or with the legacy ISO-8601 patterns
+     */
+    private static Date parseDateWithoutFastPath(String string) throws ParseException
+    {
+        try
+        {
+            return Date.from(Instant.parse(string));
+        }
+        catch (java.time.format.DateTimeParseException exception)
+        {
+            return org.apache.commons.lang3.time.DateUtils.parseDate(string, LEGACY_ISO_8601_PATTERNS);
+        }
+    }
+
+    /**
+     * Tests that strings in the most common ISO-8601 variations are parsed to the same
+     * dates as without the fast path, including lenient values
+     *
+     * @throws ParseException if the test date cannot be parsed
+     */
+    @Test
+    public void testTryParseDateMatchesLegacyPatterns() throws ParseException
+    {
+        for (String string : Arrays.asList("2017-03-11", "2017-03-11T10:15:00.999-03:00",
+                "2017-03-11T10:15:00.999-0300", "2017-03-11T10:15:00.999-03", "2017-03-11T10:15:00+05:30",
+                "2017-03-11T10:15:00Z", "2017-03-11 10:15:00.123+0100", "2017-03-11 10:15:00-02", "2016-02-29",
+                "2017-02-30", "2017-3-1", "2017-03-11T10:15:00.5Z", "2017-03-11T25:15:00Z",
+                "2017-03-11T10:15:00 PM, UTC", "1500-03-11", " 2017-03-11", "  2017-03-11T10:15:00.999-03:00",
+                "\t2017-03-11 10:15:00.123+0100"))
+        {
+            assertEquals(string, parseDateWithoutFastPath(string), DateUtils.tryParseDate(string));
+            assertEquals(string, org.apache.commons.lang3.time.DateUtils.parseDate(string, LEGACY_ISO_8601_PATTERNS),
+                    DateUtils.parseDateIso8601(string));
+            assertTrue(string, DateUtils.isParsableIso8601(string));
+        }
+    }
+
+    /**
+     * Tests that strings in RFC-3339 format are parsed with nanosecond precision
+     */
+    @Test
+    public void testTryParseDateRfc3339WithNanos()
+    {
+        assertDate(DateUtils.tryParseDate(STR_DATE_RFC_3339_NANOS_2017_03_11_13_15_00_999_Z));
+        assertTrue(DateUtils.isParsableRfc3339(STR_DATE_RFC_3339_NANOS_2017_03_11_13_15_00_999_Z));
+    }
+
+    /**
+     * Tests that objects that do not represent dates are rejected
+     */
+    @Test
+    public void testTryParseDateReturnsNullForNonDates()
+    {
+        for (Object object : Arrays.asList(null, 10.5, -1, "10.5", "-1", "text", "", "1E-10",
+                "123e4567-e89b-12d3-a456-426614174000", "2017-03-11T10:15", "2017-03-11Z"))
+        {
+            assertNull(String.valueOf(object), DateUtils.tryParseDate(object));
+            assertFalse(String.valueOf(object), DateUtils.isParsable(object));
+        }
+        assertFalse(DateUtils.isParsableRfc3339(null));
+        assertFalse(DateUtils.isParsableIso8601(null));
+    }
+
+    /**
+     * Tests that dates and instants are returned without parsing
+     */
+    @Test
+    public void testTryParseDateWithDateAndInstant()
+    {
+        assertEquals(DATE_2017_03_11_13_15_00_999, DateUtils.tryParseDate(DATE_2017_03_11_13_15_00_999));
+        assertDate(DateUtils.tryParseDate(INSTANT_2017_03_11_13_15_00_999));
+    }
+
+    /**
+     * Tests that an exception is thrown when an invalid object is parsed
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseDateWithNonDate()
+    {
+        DateUtils.parseDate((Object) "10.5");
+    }
+
+    /**
+     * Tests that the date fields calculated from the epoch match the ones of a
+     * {@link Calendar} in the same time zone, for dates in a wide range of years,
+     * including dates before the adoption of the Gregorian calendar.
+     * <p>
+     * Region-based zones are only compared since 1900, since their local mean time offsets
+     * before the adoption of standard time zones are only kept by {@code java.time}.
+     */
+    @Test
+    public void testDateFieldsMatchCalendar()
+    {
+        int[] fields = { Calendar.YEAR, Calendar.MONTH, Calendar.DAY_OF_MONTH, Calendar.DAY_OF_WEEK,
+                Calendar.DAY_OF_YEAR, Calendar.AM_PM, Calendar.HOUR, Calendar.HOUR_OF_DAY, Calendar.MINUTE,
+                Calendar.SECOND, Calendar.MILLISECOND, Calendar.ERA, Calendar.WEEK_OF_MONTH };
+        Random random = new Random(42);
+        for (String zoneId : Arrays.asList("UTC", "+05:45", "America/Sao_Paulo", "Asia/Kolkata", "Pacific/Apia"))
+        {
+            ZoneId zone = ZoneId.of(zoneId);
+            // From year 1000 (or 1900) to 2100, approximately
+            int firstYear = zone instanceof java.time.ZoneOffset || "UTC".equals(zoneId) ? 1000 : 1900;
+            for (int i = 0; i < 2000; i++)
+            {
+                double years = firstYear - 1970 + random.nextDouble() * (2100 - firstYear);
+                Date date = new Date((long) (years * 365.25 * 86_400_000L));
+                Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone(zone));
+                calendar.setTime(date);
+                for (int field : fields)
+                {
+                    assertEquals(date + " " + zoneId + " " + field, calendar.get(field),
+                            DateUtils.getDateField(date, field, zone));
+                }
+                assertEquals(calendar.get(Calendar.MONTH) + 1, DateUtils.getMonth(date, zone));
+                assertEquals(calendar.get(Calendar.MONTH) / 3 + 1, DateUtils.getQuarter(date, zone));
+                assertEquals(isLeapYear(calendar.get(Calendar.YEAR)), DateUtils.isLeapYear(date, zone));
+
+                calendar.setMinimalDaysInFirstWeek(4);
+                calendar.setFirstDayOfWeek(Calendar.MONDAY);
+                assertEquals(date + " " + zoneId, calendar.get(Calendar.WEEK_OF_YEAR),
+                        DateUtils.getIsoWeekNumber(date, zone));
+            }
+        }
+    }
+
+    private static boolean isLeapYear(int year)
+    {
+        return new GregorianCalendar().isLeapYear(year) && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    /**
+     * Tests that strings with leading whitespace are parsed, with or without the date
+     * cache, as by the ISO-8601 patterns
+     */
+    @Test
+    public void testTryParseDateWithLeadingWhitespace()
+    {
+        Date expected = DateUtils.parseDate((Object) "2020-01-01T10:15:00Z");
+        assertEquals(expected, DateUtils.tryParseDate(" 2020-01-01T10:15:00Z"));
+        assertEquals(expected, DateUtils.parseDate((Object) "\n 2020-01-01T10:15:00Z"));
+        assertEquals(DateUtils.parseDate((Object) "2020-01-01"), DateUtils.parseDate((Object) " 2020-01-01"));
+        assertTrue(DateUtils.isParsable(" 2020-01-01"));
+        assertTrue(DateUtils.isParsableIso8601(" 2020-01-01"));
+        assertNull(DateUtils.tryParseDate("  "));
+        assertNull(DateUtils.tryParseDate(" 1.5"));
+        try
+        {
+            DateUtils.setDateCacheMaxSize(10);
+            assertEquals(expected, DateUtils.tryParseDate(" 2020-01-01T10:15:00Z"));
+            assertEquals(expected, DateUtils.tryParseDate(" 2020-01-01T10:15:00Z"));
+        }
+        finally
+        {
+            DateUtils.setDateCacheMaxSize(DateUtils.DEFAULT_DATE_CACHE_MAX_SIZE);
+        }
+    }
+
+    /**
+     * Tests the end of month in different time zones
+     */
+    @Test
+    public void testEndOfMonthWithZone()
+    {
+        Date date = DateUtils.parseDate((Object) "2024-02-29T23:30:00Z");
+        assertEquals(DateUtils.parseDate((Object) "2024-02-29T23:59:59.999Z"),
+                DateUtils.endOfMonth(date, ZoneId.of("UTC")));
+        assertEquals(DateUtils.parseDate((Object) "2024-02-29T23:59:59.999-03:00"),
+                DateUtils.endOfMonth(date, ZoneId.of("America/Sao_Paulo")));
+        assertEquals(DateUtils.parseDate((Object) "2024-03-31T23:59:59.999+02:00"),
+                DateUtils.endOfMonth(date, ZoneId.of("Europe/Paris")));
+        assertEquals(DateUtils.parseDate((Object) "1500-02-29T23:59:59.999Z"),
+                DateUtils.endOfMonth(DateUtils.parseDate((Object) "1500-02-10T00:00:00Z"), ZoneId.of("UTC")));
+    }
+
+    /**
+     * Tests that the end of month is the later instant when the last millisecond of the
+     * month occurs twice, at the end of daylight saving time, as with Calendar
+     */
+    @Test
+    public void testEndOfMonthAtDaylightSavingTimeOverlap()
+    {
+        ZoneId zone = ZoneId.of("America/Sao_Paulo");
+        Date date = DateUtils.parseDate((Object) "1998-02-10T12:00:00Z");
+        Date expected = DateUtils.parseDate((Object) "1998-02-28T23:59:59.999-03:00");
+        assertEquals(expected, DateUtils.endOfMonth(date, zone));
+
+        Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone(zone));
+        calendar.setTime(date);
+        calendar.set(Calendar.DATE, calendar.getActualMaximum(Calendar.DATE));
+        calendar.set(Calendar.HOUR_OF_DAY, 23);
+        calendar.set(Calendar.MINUTE, 59);
+        calendar.set(Calendar.SECOND, 59);
+        calendar.set(Calendar.MILLISECOND, 999);
+        assertEquals(calendar.getTime(), DateUtils.endOfMonth(date, zone));
+    }
+
+    /**
+     * Tests that the fields of a null date are not retrieved
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetDateFieldWithNullDate()
+    {
+        DateUtils.getDateField(null, Calendar.YEAR, ZoneId.of("UTC"));
+    }
+
+    /**
+     * Tests that date formats are cached per pattern, time zone and locale
+     */
+    @Test
+    public void testGetDateFormat()
+    {
+        assertSame(DateUtils.getDateFormat("yyyy-MM-dd"), DateUtils.getDateFormat("yyyy-MM-dd"));
+        assertNotSame(DateUtils.getDateFormat("yyyy-MM-dd"), DateUtils.getDateFormat("yyyyMMdd"));
+        assertNotSame(DateUtils.getDateFormat("yyyy-MM-dd", TimeZone.getTimeZone("UTC"), Locale.US),
+                DateUtils.getDateFormat("yyyy-MM-dd", TimeZone.getTimeZone("Asia/Tokyo"), Locale.US));
+        assertEquals("2021/03/04", DateUtils.formatDate(new GregorianCalendar(2021, 2, 4).getTime(), "yyyy/MM/dd"));
+    }
+
+    /**
+     * Tests an invalid date format pattern
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetDateFormatWithInvalidPattern()
+    {
+        DateUtils.getDateFormat("yyyy-MM-dd'T");
+    }
+
+    /**
+     * Tests that strings are parsed with explicit patterns as with the legacy
+     * implementation, including lenient values and partial matches
+     *
+     * @throws ParseException if the test date cannot be parsed
+     */
+    @Test
+    public void testParseDateWithPatternsMatchesLegacyImplementation() throws ParseException
+    {
+        String[] patterns = { "yyyy-MM-dd", "dd/MM/yyyy HH:mm", "yyyyMMdd", "EEE, d MMM yyyy" };
+        for (String string : Arrays.asList("2021-03-04", "2021-02-30", "04/03/2021 10:15", "04/03/2021 25:61",
+                "20210304", "Thu, 4 Mar 2021", "2021-03-04 10:15", "04/03/2021"))
+        {
+            Date expected;
+            try
+            {
+                expected = org.apache.commons.lang3.time.DateUtils.parseDate(string, patterns);
+            }
+            catch (ParseException exception)
+            {
+                expected = null;
+            }
+            try
+            {
+                assertEquals(string, expected, DateUtils.parseDate(string, patterns));
+            }
+            catch (ParseException exception)
+            {
+                assertNull(string, expected);
+            }
+        }
+    }
+
+    /**
+     * Tests that strings are parsed with pre-built formats in their own time zones
+     *
+     * @throws ParseException if the test date cannot be parsed
+     */
+    @Test
+    public void testParseDateWithFormats() throws ParseException
+    {
+        Date date = DateUtils.parseDate("2021-03-04 10:15",
+                DateUtils.getDateFormat("yyyy-MM-dd", TimeZone.getTimeZone("UTC"), Locale.US),
+                DateUtils.getDateFormat("yyyy-MM-dd HH:mm", TimeZone.getTimeZone("Asia/Tokyo"), Locale.US));
+        assertEquals(DateUtils.parseDate((Object) "2021-03-04T10:15:00+09:00"), date);
+    }
+
+    /**
+     * Tests that the date cache produces the same dates as the parser, as new instances,
+     * and records hits for repeated strings
+     */
+    @Test
+    public void testDateCache()
+    {
+        List<String> strings = Arrays.asList("2017-03-11T10:15:27Z", "2017-03-11T10:15:27.5Z",
+                "2017-03-11 10:15:27.000Z", "2017-03-11T10:15:27.500Z", "2017-03-11", "2017-13-01",
+                "2017-03-11T10:15:27.5+01:00", "2017-03-11T7:15:27 PM, UTC", "2017-03-11T25:15:27.5Z",
+                "2017-03-11T10:15:27.5Z", "2017-02-30T", "not a date");
+        Map<String, Date> expected = new HashMap<>();
+        strings.forEach(string -> expected.put(string, DateUtils.tryParseDate(string)));
+
+        DateUtils.setDateCacheMaxSize(100);
+        try
+        {
+            assertTrue(DateUtils.isDateCacheEnabled());
+            DateUtils.getDateCacheStatistics().reset();
+            for (int i = 0; i < 2; i++)
+            {
+                for (String string : strings)
+                {
+                    assertEquals(string, expected.get(string), DateUtils.tryParseDate(string));
+                }
+            }
+            assertEquals(9, DateUtils.getDateCacheSize());
+            assertEquals(11, DateUtils.getDateCacheStatistics().getHitCount());
+
+            Date date = DateUtils.parseDate((Object) "2017-03-11");
+            date.setTime(0);
+            assertNotSame(date, DateUtils.parseDate((Object) "2017-03-11"));
+            assertEquals(expected.get("2017-03-11"), DateUtils.parseDate((Object) "2017-03-11"));
+        }
+        finally
+        {
+            DateUtils.setDateCacheMaxSize(DateUtils.DEFAULT_DATE_CACHE_MAX_SIZE);
+        }
+        assertFalse(DateUtils.isDateCacheEnabled());
+        assertEquals(0, DateUtils.getDateCacheSize());
+    }
+
+    /**
+     * Tests that the date cache does not return dates parsed in a previous default time
+     * zone for strings without an offset
+     */
+    @Test
+    public void testDateCacheAfterDefaultTimeZoneChange()
+    {
+        List<String> strings = Arrays.asList("2017-03-11", "2017-03-11 10:15:27", "2017-03-11T10:15:27Z");
+        List<String> timeZones = Arrays.asList("UTC", "America/Sao_Paulo", "Asia/Tokyo", "UTC");
+        TimeZone defaultTimeZone = TimeZone.getDefault();
+        try
+        {
+            Map<String, Date> expected = new HashMap<>();
+            for (String timeZone : timeZones)
+            {
+                TimeZone.setDefault(TimeZone.getTimeZone(timeZone));
+                strings.forEach(string -> expected.put(timeZone + " " + string, DateUtils.tryParseDate(string)));
+            }
+            assertNotEquals(expected.get("UTC 2017-03-11"), expected.get("Asia/Tokyo 2017-03-11"));
+
+            DateUtils.setDateCacheMaxSize(10);
+            for (String timeZone : timeZones)
+            {
+                TimeZone.setDefault(TimeZone.getTimeZone(timeZone));
+                for (String string : strings)
+                {
+                    String key = timeZone + " " + string;
+                    assertEquals(key, expected.get(key), DateUtils.tryParseDate(string));
+                }
+            }
+        }
+        finally
+        {
+            TimeZone.setDefault(defaultTimeZone);
+            DateUtils.setDateCacheMaxSize(DateUtils.DEFAULT_DATE_CACHE_MAX_SIZE);
+        }
+    }
+
 }
@@ -0,0 +1,156 @@
+package net.obvj.jep.util;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.json.JSONObject;
+import org.junit.Test;
+import org.nfunk.jep.ParseException;
+
+import net.obvj.jep.CompiledExpression;
+
+/**
+ * Unit tests for the {@link EvaluationScope} class.
+ *
+ * @author oswaldo.bapvic.jr
+ */
+public class EvaluationScopeTest
+{
+    private static final String JSON = "{\"a\":1,\"b\":\"two\"}";
+
+    private final AtomicInteger loadCount = new AtomicInteger();
+
+    private String load(String key)
+    {
+        loadCount.incrementAndGet();
+        return key + "!";
+    }
+
+    /**
+     * Tests that values are always computed when no scope is open
+     */
+    @Test
+    public void testComputeIfAbsentWithoutScope()
+    {
+        assertFalse(EvaluationScope.isActive());
+        EvaluationScope.computeIfAbsent(String.class, "a", this::load);
+        EvaluationScope.computeIfAbsent(String.class, "a", this::load);
+        assertEquals(2, loadCount.get());
+    }
+
+    /**
+     * Tests that values are computed once within a scope and discarded when it is closed
+     */
+    @Test
+    public void testComputeIfAbsentWithinScope()
+    {
+        try (EvaluationScope scope = EvaluationScope.open())
+        {
+            assertTrue(EvaluationScope.isActive());
+            assertEquals("a!", EvaluationScope.computeIfAbsent(String.class, "a", this::load));
+            assertEquals("a!", EvaluationScope.computeIfAbsent(String.class, "a", this::load));
+            assertEquals(1, loadCount.get());
+        }
+        assertFalse(EvaluationScope.isActive());
+        EvaluationScope.computeIfAbsent(String.class, "a", this::load);
+        assertEquals(2, loadCount.get());
+    }
+
+    /**
+     * Tests that nested scopes join the outermost one
+     */
+    @Test
+    public void testNestedScopes()
+    {
+        try (EvaluationScope outer = EvaluationScope.open())
+        {
+            try (EvaluationScope inner = EvaluationScope.open())
+            {
+                assertSame(outer, inner);
+                EvaluationScope.computeIfAbsent(String.class, "a", this::load);
+            }
+            assertTrue(EvaluationScope.isActive());
+            EvaluationScope.computeIfAbsent(String.class, "a", this::load);
+            assertEquals(1, loadCount.get());
+        }
+        assertFalse(EvaluationScope.isActive());
+    }
+
+    /**
+     * Tests that a scope retains a bounded number of values
+     */
+    @Test
+    public void testScopeIsBounded()
+    {
+        try (EvaluationScope scope = EvaluationScope.open())
+        {
+            for (int i = 0; i <= EvaluationScope.MAX_VALUES_PER_TYPE; i++)
+            {
+                EvaluationScope.computeIfAbsent(String.class, "k" + i, this::load);
+            }
+            EvaluationScope.computeIfAbsent(String.class, "k0", this::load);
+            assertEquals(EvaluationScope.MAX_VALUES_PER_TYPE + 2, loadCount.get());
+        }
+    }
+
+    /**
+     * Tests that values can be retained explicitly within a scope
+     */
+    @Test
+    public void testGetAndPut()
+    {
+        EvaluationScope.put(String.class, "a", "b");
+        assertNull(EvaluationScope.get(String.class, "a"));
+        try (EvaluationScope scope = EvaluationScope.open())
+        {
+            EvaluationScope.put(String.class, "a", "b");
+            assertEquals("b", EvaluationScope.get(String.class, "a"));
+            assertNull(EvaluationScope.get(Integer.class, "a"));
+        }
+        assertNull(EvaluationScope.get(String.class, "a"));
+    }
+
+    /**
+     * Tests that a scope cannot be closed more times than it was opened
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testCloseScopeTwice()
+    {
+        EvaluationScope scope = EvaluationScope.open();
+        scope.close();
+        scope.close();
+    }
+
+    /**
+     * Tests that a JSON string is parsed only once within a scope
+     */
+    @Test
+    public void testToJSONObjectReusesParsedDocumentWithinScope()
+    {
+        try (EvaluationScope scope = EvaluationScope.open())
+        {
+            JSONObject json = JsonUtils.toJSONObject(JSON);
+            assertSame(json, JsonUtils.toJSONObject(new String(JSON)));
+        }
+        assertNotSame(JsonUtils.toJSONObject(JSON), JsonUtils.toJSONObject(JSON));
+    }
+
+    /**
+     * Tests that multiple JSONPath queries over the same variable are evaluated correctly
+     * within the automatic scope of an evaluation
+     */
+    @Test
+    public void testEvaluationWithMultipleQueriesOverSameDocument() throws ParseException
+    {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("payload", JSON);
+        CompiledExpression expression = new CompiledExpression(
+                "concat(jsonpath(payload, \"$.a\"), jsonpath(payload, \"$.b\"))");
+        assertEquals("1two", expression.evaluate(variables));
+        assertFalse(EvaluationScope.isActive());
+    }
+
+}
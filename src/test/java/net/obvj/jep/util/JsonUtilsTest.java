@@ -432,4 +432,47 @@ public class JsonUtilsTest
         assertEquals(STR_BOOK_MOBY, result);
     }
 
+    /**
+     * Tests that the same compiled JSONPath is returned for the same path string
+     */
+    @Test
+    public void testCompileJsonPathReturnsCachedInstance()
+    {
+        CacheStatistics statistics = JsonUtils.getJsonPathCacheStatistics();
+        long hits = statistics.getHitCount();
+
+        assertSame(JsonUtils.compileJsonPath(JSONPATH_SEARCH_ALL_FICTION_BOOKS),
+                JsonUtils.compileJsonPath(JSONPATH_SEARCH_ALL_FICTION_BOOKS));
+        assertTrue(statistics.getHitCount() > hits);
+    }
+
+    /**
+     * Tests retrieval with a compiled JSONPath and the "extractSingleElement" option
+     * enabled
+     */
+    @Test
+    public void testReadCompiledJsonPathWithArrayExtractionEnabled()
+    {
+        assertEquals(STR_BOOK_MOBY, JsonUtils.readJsonPath(JSON_STORE,
+                JsonUtils.compileJsonPath(JSONPATH_SEARCH_CHEAP_FICTION_BOOKS), true));
+    }
+
+    /**
+     * Tests that JSONPaths are still compiled with the cache disabled
+     */
+    @Test
+    public void testCompileJsonPathWithCacheDisabled()
+    {
+        JsonUtils.setJsonPathCacheMaxSize(0);
+        try
+        {
+            assertNotSame(JsonUtils.compileJsonPath(JSONPATH_SEARCH_ALL_FICTION_BOOKS),
+                    JsonUtils.compileJsonPath(JSONPATH_SEARCH_ALL_FICTION_BOOKS));
+        }
+        finally
+        {
+            JsonUtils.setJsonPathCacheMaxSize(JsonUtils.DEFAULT_JSON_PATH_CACHE_MAX_SIZE);
+        }
+    }
+
 }
@@ -0,0 +1,83 @@
+package net.obvj.jep.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link LongHashSet} class.
+ *
+ * @author oswaldo.bapvic.jr
+ */
+public class LongHashSetTest
+{
+    /**
+     * Tests that values are added only once, including zero, which marks empty slots
+     */
+    @Test
+    public void testAddAndContains()
+    {
+        LongHashSet set = new LongHashSet(0);
+        assertFalse(set.contains(0));
+        assertTrue(set.add(0));
+        assertFalse(set.add(0));
+        assertTrue(set.add(-1));
+        assertTrue(set.add(Long.MIN_VALUE));
+        assertFalse(set.add(Long.MIN_VALUE));
+        assertTrue(set.contains(0));
+        assertTrue(set.contains(-1));
+        assertFalse(set.contains(1));
+        assertEquals(3, set.size());
+    }
+
+    /**
+     * Tests that the set grows beyond its expected size and behaves as a HashSet
+     */
+    @Test
+    public void testResizeMatchesHashSet()
+    {
+        Random random = new Random(42);
+        LongHashSet set = new LongHashSet(4);
+        Set<Long> expected = new HashSet<>();
+        for (int i = 0; i < 100_000; i++)
+        {
+            // Collisions are likely in a range of values smaller than the number of additions
+            long value = random.nextInt(50_000) * 1024L;
+            assertEquals(expected.add(value), set.add(value));
+        }
+        assertEquals(expected.size(), set.size());
+        for (long value : expected)
+        {
+            assertTrue(set.contains(value));
+        }
+    }
+
+    /**
+     * Tests that doubles stored by their bits are distinguished as in Double.equals
+     */
+    @Test
+    public void testDoubleBits()
+    {
+        LongHashSet set = new LongHashSet(8);
+        assertTrue(set.add(Double.doubleToLongBits(0.0)));
+        assertTrue(set.add(Double.doubleToLongBits(-0.0)));
+        assertTrue(set.add(Double.doubleToLongBits(Double.NaN)));
+        assertFalse(set.add(Double.doubleToLongBits(0.0 / 0.0)));
+    }
+
+    /**
+     * Tests that a negative expected size is not accepted
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeExpectedSize()
+    {
+        new LongHashSet(-1);
+    }
+
+}
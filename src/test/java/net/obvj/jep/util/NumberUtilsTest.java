@@ -356,4 +356,32 @@ public class NumberUtilsTest
         NumberUtils.parseDouble(null);
     }
 
+    /**
+     * Tests the maximum, minimum and average of arrays of primitive numbers
+     */
+    @Test
+    public void testStatisticsOfNumericArrays()
+    {
+        assertEquals(3.5, NumberUtils.max(new double[] { 1.5, 3.5, -2 }));
+        assertEquals(-2.0, NumberUtils.min(new double[] { 1.5, 3.5, -2 }));
+        assertEquals(1.0, NumberUtils.average(new double[] { 1.5, 3.5, -2 }), 0);
+        assertEquals(7, NumberUtils.max(new int[] { 7, -1, 3 }));
+        assertEquals(-1, NumberUtils.min(new int[] { 7, -1, 3 }));
+        assertEquals(3.0, NumberUtils.average(new int[] { 7, -1, 3 }), 0);
+        assertEquals(Long.MAX_VALUE, NumberUtils.max(new long[] { Long.MAX_VALUE, 0 }));
+        assertEquals(0L, NumberUtils.min(new long[] { Long.MAX_VALUE, 0 }));
+        assertTrue(Double.isNaN(NumberUtils.average(new long[0])));
+        assertTrue(NumberUtils.isNumericArray(new int[0]));
+        assertFalse(NumberUtils.isNumericArray(new Integer[0]));
+    }
+
+    /**
+     * Tests that the maximum of an empty array is not determined
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testMaxOfEmptyNumericArray()
+    {
+        NumberUtils.max(new double[0]);
+    }
+
 }
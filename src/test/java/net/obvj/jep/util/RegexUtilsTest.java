@@ -2,8 +2,11 @@ package net.obvj.jep.util;
 
 import static net.obvj.junit.utils.matchers.InstantiationNotAllowedMatcher.instantiationNotAllowed;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.util.HashMap;
@@ -189,4 +192,35 @@ public class RegexUtilsTest
         assertEquals(null, RegexUtils.replaceMatches(null, null, null));
     }
 
+    @Test
+    public void testCompilePatternReturnsCachedInstance()
+    {
+        long hits = RegexUtils.getPatternCacheStatistics().getHitCount();
+        assertSame(RegexUtils.compilePattern("[a-z]+\\d"), RegexUtils.compilePattern("[a-z]+\\d"));
+        assertTrue(RegexUtils.getPatternCacheStatistics().getHitCount() > hits);
+    }
+
+    @Test
+    public void testCompilePatternWithCacheDisabled()
+    {
+        RegexUtils.setPatternCacheMaxSize(0);
+        try
+        {
+            assertNotSame(RegexUtils.compilePattern("[a-z]+\\d"), RegexUtils.compilePattern("[a-z]+\\d"));
+        }
+        finally
+        {
+            RegexUtils.setPatternCacheMaxSize(RegexUtils.DEFAULT_PATTERN_CACHE_MAX_SIZE);
+        }
+    }
+
+    @Test
+    public void testSplitMatchesStringSplit()
+    {
+        for (String regex : new String[] { ",", "\\s*;\\s*", "|", "" })
+        {
+            assertArrayEquals(regex, "a, b ;c;;d ; ".split(regex), RegexUtils.split("a, b ;c;;d ; ", regex));
+        }
+    }
+
 }
@@ -0,0 +1,196 @@
+package net.obvj.jep.util;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import com.jayway.jsonpath.PathNotFoundException;
+
+/**
+ * Unit tests for the {@link StreamingJsonPath} class.
+ *
+ * @author oswaldo.bapvic.jr
+ */
+public class StreamingJsonPathTest
+{
+    private static final String JSON_STORE = "{\"store\": {\"book\": ["
+            + "{\"category\": \"reference\", \"author\": \"Nigel Rees\", \"title\": \"Sayings of the Century\", \"price\": 8.95},"
+            + "{\"category\": \"fiction\", \"author\": \"Evelyn Waugh\", \"title\": \"Sword of Honour\", \"price\": 12.99},"
+            + "{\"category\": \"fiction\", \"author\": \"Herman Melville\", \"title\": \"Moby Dick\", \"isbn\": \"0-553-21311-3\", \"price\": 8.99},"
+            + "{\"category\": \"fiction\", \"author\": \"J. R. R. Tolkien\", \"title\": \"The Lord of the Rings\", \"isbn\": \"0-395-19395-8\", \"price\": 22.99}],"
+            + "\"bicycle\": {\"color\": \"red\", \"price\": 19.95, \"available\": true, \"owner\": null}},"
+            + "\"tags\": [\"a\", \"b\\\"]\", \"c\\u00e9\"], \"expensive\": 10, \"nested\": [[1, 2], [3, 4]]}";
+
+    private static final List<String> SUPPORTED_PATHS = Arrays.asList("$", "$.expensive", "$.store.bicycle.color",
+            "$['store']['bicycle']['price']", "$.store.book[1].author", "$.store.book[*].author",
+            "$.store.book[1:3].title", "$.store.book[:2].price", "$.store.book[2:].title", "$.tags[1]", "$.tags[*]",
+            "$.nested[1][0]", "$.nested[*][1]", "$.store.book[?(@.price < 10)].title",
+            "$.store.book[?(@.price >= 12.99)].title", "$.store.book[?(@.category == 'fiction')].author",
+            "$.store.book[?(@.category != \"fiction\")]", "$.store.book[?(@.isbn)].isbn",
+            "$.store.bicycle.available", "$.store.book[?(@.author > 'I')].price", "$.*", "$.store.*",
+            "$.store.bicycle.*", "$.store.book[*].*", "$.*[*]");
+
+    private static void assertSameResult(String path)
+    {
+        Object expected = JsonUtils.readJsonPath(new JSONObject(JSON_STORE), path);
+        Object actual = StreamingJsonPath.compile(path).read(JSON_STORE);
+
+        if (expected instanceof JSONArray)
+        {
+            assertTrue(path + ": " + actual, ((JSONArray) expected).similar(actual));
+        }
+        else if (expected instanceof JSONObject)
+        {
+            assertTrue(path + ": " + actual, ((JSONObject) expected).similar(actual));
+        }
+        else
+        {
+            assertEquals(path, expected, actual);
+        }
+    }
+
+    /**
+     * Tests that the results match the ones of the tree-based JSONPath implementation
+     */
+    @Test
+    public void testReadMatchesTreeBasedImplementation()
+    {
+        for (String path : SUPPORTED_PATHS)
+        {
+            assertTrue(path, StreamingJsonPath.isSupported(path));
+            assertSameResult(path);
+        }
+    }
+
+    /**
+     * Tests that a wildcard over an object returns its members in the same order as the
+     * tree-based implementation, which follows the iteration order of {@link JSONObject}
+     */
+    @Test
+    public void testReadWildcardOverObject()
+    {
+        JSONArray result = (JSONArray) StreamingJsonPath.compile("$.store.*").read(JSON_STORE);
+        assertEquals(2, result.length());
+        assertEquals(new JSONObject(JSON_STORE).getJSONObject("store").keySet().iterator().next().equals("book"),
+                result.get(0) instanceof JSONArray);
+    }
+
+    /**
+     * Tests that wildcards over objects with many keys, nested or not, return the members
+     * in the same order as the tree-based implementation, rather than in document order
+     */
+    @Test
+    public void testReadWildcardOverLargeObjectsMatchesTreeBasedOrder()
+    {
+        StringBuilder json = new StringBuilder("{\"root\": {");
+        for (int i = 0; i < 200; i++)
+        {
+            json.append(i == 0 ? "" : ", ").append("\"key").append(199 - i).append("\": {\"b\": ").append(i)
+                    .append(", \"a\": \"").append(i).append("\", \"z\": [").append(i).append("]}");
+        }
+        String string = json.append("}}").toString();
+        for (String path : Arrays.asList("$.root.*", "$.root.*.*", "$.root.*.b", "$.root[*][*]"))
+        {
+            Object expected = JsonUtils.readJsonPath(new JSONObject(string), path);
+            Object actual = StreamingJsonPath.compile(path).read(string);
+            assertEquals(path, expected.toString(), actual.toString());
+        }
+    }
+
+    /**
+     * Tests that unsupported paths are identified
+     */
+    @Test
+    public void testUnsupportedPaths()
+    {
+        for (String path : Arrays.asList(null, "", "store.book", "$..author", "$.store.book[-1]",
+                "$.store.book[0,1]", "$.store.book[0:4:2]", "$.store.book[?(@.price < 10 && @.isbn)]",
+                "$.store.book[?(@.author =~ /.*Rees/)]", "$.store.book.length()", "$.store.", "$['a','b']"))
+        {
+            assertFalse(String.valueOf(path), StreamingJsonPath.isSupported(path));
+        }
+    }
+
+    /**
+     * Tests that a definite path returns null for a null value
+     */
+    @Test
+    public void testReadDefinitePathWithNullValue()
+    {
+        assertNull(StreamingJsonPath.compile("$.store.bicycle.owner").read(JSON_STORE));
+    }
+
+    /**
+     * Tests that a definite path with no matches throws an exception
+     */
+    @Test(expected = PathNotFoundException.class)
+    public void testReadDefinitePathWithoutMatch()
+    {
+        StreamingJsonPath.compile("$.store.bicycle.brand").read(JSON_STORE);
+    }
+
+    /**
+     * Tests that an indefinite path with no matches returns an empty array
+     */
+    @Test
+    public void testReadIndefinitePathWithoutMatch()
+    {
+        assertEquals(0, ((JSONArray) StreamingJsonPath.compile("$.store.book[?(@.price > 100)]").read(JSON_STORE))
+                .length());
+    }
+
+    /**
+     * Tests that a definite path stops reading at the first match, ignoring the rest of the
+     * input
+     */
+    @Test
+    public void testReadDefinitePathStopsAtFirstMatch() throws IOException
+    {
+        assertEquals("x", StreamingJsonPath.compile("$.a").read(new StringReader("{\"a\": \"x\", \"b\": @@@")));
+    }
+
+    /**
+     * Tests evaluation over an input stream
+     */
+    @Test
+    public void testReadInputStream() throws IOException
+    {
+        byte[] bytes = JSON_STORE.getBytes(StandardCharsets.UTF_8);
+        assertEquals("cé", StreamingJsonPath.compile("$.tags[2]").read(new ByteArrayInputStream(bytes)));
+    }
+
+    /**
+     * Tests that an invalid JSON is reported
+     */
+    @Test(expected = JSONException.class)
+    public void testReadInvalidJson()
+    {
+        StreamingJsonPath.compile("$.store[*]").read("{\"store\": [1, 2");
+    }
+
+    /**
+     * Tests that the JSON content of a reader is evaluated with and without streaming
+     */
+    @Test
+    public void testReadJsonPathFromReader() throws IOException
+    {
+        JSONArray streamed = (JSONArray) JsonUtils.readJsonPath(new StringReader(JSON_STORE),
+                "$.store.book[?(@.isbn)].title", false);
+        assertEquals(Arrays.asList("Moby Dick", "The Lord of the Rings"), streamed.toList());
+
+        JSONArray parsed = (JSONArray) JsonUtils.readJsonPath(new StringReader(JSON_STORE), "$..author", false);
+        assertEquals(4, parsed.length());
+        assertEquals("Nigel Rees", JsonUtils.readJsonPath(new StringReader(JSON_STORE), "$.store.book[0].author", true));
+    }
+
+}
@@ -0,0 +1,154 @@
+package net.obvj.jep.util;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link StreamingXPath} class.
+ *
+ * @author oswaldo.bapvic.jr
+ */
+public class StreamingXPathTest
+{
+    private static final String XML_BOOKS = FileUtils.readQuietlyFromClasspath("books.xml");
+
+    private static final String XML_MIXED = "<root xmlns:x=\"urn:x\" a=\"1\">"
+            + "<item id=\"1\" z=\"last\" b=\"first\">one<!-- comment -->two</item>"
+            + "<group><item id=\"2\">three &amp; four</item><x:item id=\"3\">five</x:item></group>"
+            + "<item id=\"4\"><item id=\"5\">six</item></item></root>";
+
+    private static final List<String> SUPPORTED_XPATHS = Arrays.asList("/bookstore/book/title/text()",
+            "/bookstore/book/title", "/bookstore/*/author/text()", "//author/text()", "//title/@lang",
+            "/bookstore//price/text()", "//book[@category='web']/title/text()",
+            "//book[@category=\"children\"]/@category", "//book[2]/title/text()", "/bookstore/book[3]/author[2]/text()",
+            "//book[@category='web'][2]/price/text()", "//book[4][@category='web']/year/text()",
+            "//title[@lang]/text()", "//@*", "/bookstore/text()", "//text()", "//*", "/bookstore/book/@missing",
+            "/store/book");
+
+    private static final List<String> SUPPORTED_XPATHS_MIXED = Arrays.asList("/root/item/text()", "//item/text()",
+            "//item/@id", "//item[1]/@id", "//item[@id='5']/text()", "/root/item/@*",
+            "/root/*/item/@id", "//item//item/@id", "//@*");
+
+    private static void assertSameResult(String xml, String expression) throws Exception
+    {
+        List<Object> expected = XmlUtils.evaluateXPathAsObjectList(xml, expression);
+        List<Object> actual = StreamingXPath.compile(expression).evaluate(xml);
+        assertEquals(expression, expected, actual);
+    }
+
+    /**
+     * Tests that the results match the ones of the DOM-based XPath implementation
+     */
+    @Test
+    public void testEvaluateMatchesDomBasedImplementation() throws Exception
+    {
+        for (String expression : SUPPORTED_XPATHS)
+        {
+            assertTrue(expression, StreamingXPath.isSupported(expression));
+            assertSameResult(XML_BOOKS, expression);
+        }
+        for (String expression : SUPPORTED_XPATHS_MIXED)
+        {
+            assertTrue(expression, StreamingXPath.isSupported(expression));
+            assertSameResult(XML_MIXED, expression);
+        }
+    }
+
+    /**
+     * Tests that unsupported expressions are identified
+     */
+    @Test
+    public void testUnsupportedExpressions()
+    {
+        for (String expression : Arrays.asList(null, "", "/", "bookstore/book", "./book", "/bookstore/..",
+                "/bookstore/book/", "/bookstore/child::book", "//book[last()]", "//book[price>35]",
+                "//book[title='Learning XML']", "//book[0]", "//book[@category='web' and @id]",
+                "/bookstore/book/@category/text()", "//title/text()/x", "count(//book)", "/bookstore/node()",
+                "//book[@category='web']]", "//book[[1]]", "/bookstore | /other", "//x:item"))
+        {
+            assertFalse(String.valueOf(expression), StreamingXPath.isSupported(expression));
+        }
+    }
+
+    /**
+     * Tests that an unsupported expression is rejected on compilation
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testCompileUnsupportedExpression()
+    {
+        StreamingXPath.compile("//book[last()]");
+    }
+
+    /**
+     * Tests that adjacent text and CDATA sections are returned as a single text node
+     */
+    @Test
+    public void testEvaluateTextWithCData() throws XMLStreamException
+    {
+        assertEquals(Arrays.asList("one & <two>"),
+                StreamingXPath.compile("/a/text()").evaluate("<a>one &amp; <![CDATA[<two>]]></a>"));
+    }
+
+    /**
+     * Tests evaluation over an input stream, with the encoding declared by the document
+     */
+    @Test
+    public void testEvaluateInputStream() throws XMLStreamException
+    {
+        byte[] bytes = "<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?><a><b>café</b></a>"
+                .getBytes(StandardCharsets.ISO_8859_1);
+        assertEquals(Arrays.asList("café"),
+                StreamingXPath.compile("/a/b/text()").evaluate(new ByteArrayInputStream(bytes)));
+    }
+
+    /**
+     * Tests that an invalid XML is reported
+     */
+    @Test(expected = XMLStreamException.class)
+    public void testEvaluateInvalidXml() throws XMLStreamException
+    {
+        StreamingXPath.compile("/a/b/text()").evaluate("<a><b>x</a>");
+    }
+
+    /**
+     * Tests that a large XML string is evaluated by the streaming implementation when the
+     * threshold is reached
+     */
+    @Test
+    public void testStreamingCandidate()
+    {
+        XmlUtils.setStreamingThreshold(10);
+        try
+        {
+            assertTrue(XmlUtils.isStreamingCandidate(XML_BOOKS, "/bookstore/book/title/text()"));
+            assertFalse(XmlUtils.isStreamingCandidate(XML_BOOKS, "count(//book)"));
+            assertFalse(XmlUtils.isStreamingCandidate("<a>1</a>", "/a/text()"));
+        }
+        finally
+        {
+            XmlUtils.setStreamingThreshold(XmlUtils.DEFAULT_STREAMING_THRESHOLD);
+        }
+    }
+
+    /**
+     * Tests that the XML content of a reader is evaluated with and without streaming
+     */
+    @Test
+    public void testEvaluateXPathFromReader() throws Exception
+    {
+        assertEquals(Arrays.asList("2005", "2005"), XmlUtils.evaluateXPathAsObjectList(new StringReader(XML_BOOKS),
+                "//book[@category!='web']/year/text()"));
+        assertEquals(Arrays.asList("XQuery Kick Start", "Learning XML"), XmlUtils
+                .evaluateXPathAsObjectList(new StringReader(XML_BOOKS), "//book[@category='web']/title/text()"));
+    }
+
+}
@@ -4,13 +4,17 @@ import static net.obvj.junit.utils.matchers.InstantiationNotAllowedMatcher.insta
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.xpath.XPathExpression;
 import javax.xml.xpath.XPathExpressionException;
 
 import org.junit.Test;
@@ -115,4 +119,70 @@ public class XmlUtilsTest
         List<Object> result = XmlUtils.evaluateXPathAsObjectList(STRING_XML_BOOKS, XPATH_FREE_BOOK_TITLES);
         assertEquals(0, result.size());
     }
+
+    @Test
+    public void testConvertStringToXmlDocumentReusesDocumentWithinScope()
+            throws ParserConfigurationException, SAXException, IOException
+    {
+        try (EvaluationScope scope = EvaluationScope.open())
+        {
+            Document document = XmlUtils.convertToXML(STRING_XML_BOOKS);
+            assertSame(document, XmlUtils.convertToXML(new String(STRING_XML_BOOKS)));
+        }
+        assertNotSame(XmlUtils.convertToXML(STRING_XML_BOOKS), XmlUtils.convertToXML(STRING_XML_BOOKS));
+    }
+
+    @Test
+    public void testConvertStringToXmlDocumentAfterParseError() throws Exception
+    {
+        try
+        {
+            XmlUtils.convertToXML("<books>");
+        }
+        catch (SAXException expected)
+        {
+            // The builder of this thread shall be reusable after an error
+        }
+        assertEquals(ALL_BOOKS.size(), XmlUtils.evaluateXPathAsObjectList(STRING_XML_BOOKS, XPATH_ALL_BOOK_TITLES).size());
+    }
+
+    @Test
+    public void testCompileXPathReturnsCachedInstanceForSameThread() throws XPathExpressionException
+    {
+        long hits = XmlUtils.getXPathCacheStatistics().getHitCount();
+        assertSame(XmlUtils.compileXPath(XPATH_ALL_BOOK_TITLES), XmlUtils.compileXPath(XPATH_ALL_BOOK_TITLES));
+        assertTrue(XmlUtils.getXPathCacheStatistics().getHitCount() > hits);
+    }
+
+    @Test
+    public void testCompileXPathReturnsDifferentInstancesForDifferentThreads() throws Exception
+    {
+        XPathExpression expression = XmlUtils.compileXPath(XPATH_ALL_BOOK_TITLES);
+        XPathExpression otherThreadExpression = CompletableFuture.supplyAsync(() ->
+        {
+            try
+            {
+                return XmlUtils.compileXPath(XPATH_ALL_BOOK_TITLES);
+            }
+            catch (XPathExpressionException exception)
+            {
+                throw new IllegalStateException(exception);
+            }
+        }).get();
+        assertNotSame(expression, otherThreadExpression);
+    }
+
+    @Test
+    public void testCompileXPathWithCacheDisabled() throws XPathExpressionException
+    {
+        XmlUtils.setXPathCacheMaxSize(0);
+        try
+        {
+            assertNotSame(XmlUtils.compileXPath(XPATH_ALL_BOOK_TITLES), XmlUtils.compileXPath(XPATH_ALL_BOOK_TITLES));
+        }
+        finally
+        {
+            XmlUtils.setXPathCacheMaxSize(XmlUtils.DEFAULT_XPATH_CACHE_MAX_SIZE);
+        }
+    }
 }